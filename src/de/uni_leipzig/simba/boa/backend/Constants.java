@@ -60,6 +60,11 @@ public class Constants {
      */
     public static final String BACKGROUND_KNOWLEDGE_PATH = "backgroundknowledge/";
     
+    /**
+     * the dbpedia ontology in the background knowledge directory of the base directory
+     */
+    public static final String DBPEDIA_ONTOLOGY_FILE = "dbpedia_3.7.owl";
+    
     /**
      * 
      */
@@ -149,6 +154,11 @@ public class Constants {
      * 
      */
     public static final String DBPEDIA_DUMP_PATH = "dbpedia/";
+    
+    /**
+     * 
+     */
+    public static final String CHECKPOINT_PATH = "checkpoint/";
 
     // ##############################################################################
     
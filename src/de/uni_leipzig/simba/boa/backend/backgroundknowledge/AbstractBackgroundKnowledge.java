@@ -1,5 +1,6 @@
 package de.uni_leipzig.simba.boa.backend.backgroundknowledge;
 
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -11,7 +12,9 @@ import de.uni_leipzig.simba.boa.backend.rdf.entity.Property;
  * 
  * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
  */
-public abstract class AbstractBackgroundKnowledge implements BackgroundKnowledge {
+public abstract class AbstractBackgroundKnowledge implements BackgroundKnowledge, Serializable {
+
+    private static final long serialVersionUID = -2187350296466377081L;
 
     protected String subjectLabel;
     protected String subjectPrefix;
@@ -85,7 +88,8 @@ public abstract class AbstractBackgroundKnowledge implements BackgroundKnowledge
         int lastIndexOfSlash = subjectUri.lastIndexOf("/");
         int lastIndexOfSharp = subjectUri.lastIndexOf("#");
 
-        this.subjectPrefix = subjectUri.substring(0, Math.max(lastIndexOfSlash, lastIndexOfSharp) + 1);
+        // there are only a few prefixes, so share them between all background knowledge
+        this.subjectPrefix = subjectUri.substring(0, Math.max(lastIndexOfSlash, lastIndexOfSharp) + 1).intern();
         this.subjectLocalname = subjectUri.substring(Math.max(lastIndexOfSlash, lastIndexOfSharp) + 1);
     }
 
@@ -123,7 +127,7 @@ public abstract class AbstractBackgroundKnowledge implements BackgroundKnowledge
         int lastIndexOfSlash = objectUri.lastIndexOf("/");
         int lastIndexOfSharp = objectUri.lastIndexOf("#");
 
-        this.objectPrefix      = objectUri.substring(0, Math.max(lastIndexOfSlash, lastIndexOfSharp) + 1);
+        this.objectPrefix      = objectUri.substring(0, Math.max(lastIndexOfSlash, lastIndexOfSharp) + 1).intern();
         this.objectLocalname   = objectUri.substring(Math.max(lastIndexOfSlash, lastIndexOfSharp) + 1);
     }
 
@@ -20,6 +20,8 @@ import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.knowledgecreation.cuncurrent.KnowledgeCreationCallable;
 import de.uni_leipzig.simba.boa.backend.knowledgecreation.cuncurrent.KnowledgeCreationPrintProgressTask;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentenceCache;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.ResourceManager;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
 import de.uni_leipzig.simba.boa.backend.util.ListUtil;
 
@@ -55,11 +57,16 @@ public class KnowledgeCreationThreadManager {
             
             List<Callable<Collection<Map<String,List<Triple>>>>> todo = new ArrayList<Callable<Collection<Map<String,List<Triple>>>>>();
             
+            // many patterns are found in the same sentences, so all threads share the tagged sentences of this index
+            TaggedSentenceCache taggedSentenceCache = new TaggedSentenceCache(NLPediaSettings.getIntegerSetting("taggedSentenceCacheSize"));
+            // the triples of this run share their subjects and objects
+            ResourceManager resourceManager = new ResourceManager();
+            
             int i = 1;
             // distribute the pattern/pattern mapping pairs equally
             for (List<PatternMappingPatternPair> patternMappingPatternPairSubList : patternMappingPatternSubLists ) {
                 
-                KnowledgeCreationCallable psc = new KnowledgeCreationCallable(index, patternMappingPatternPairSubList);
+                KnowledgeCreationCallable psc = new KnowledgeCreationCallable(index, patternMappingPatternPairSubList, taggedSentenceCache, resourceManager);
                 psc.setName("KnowledgeCreationCallable-" + i++);
                 todo.add(psc);
                 logger.info("Create thread for " + patternMappingPatternPairSubList.size() + " patterns.");
@@ -4,32 +4,48 @@
 package de.uni_leipzig.simba.boa.backend.dbpediaspotlight;
 
 import java.io.File;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.logging.Level;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.semanticweb.yars.nx.Node;
 import org.semanticweb.yars.nx.parser.NxParser;
 
 import com.github.gerbsen.file.BufferedFileWriter;
 import com.github.gerbsen.file.BufferedFileWriter.WRITER_WRITE_MODE;
 import com.github.gerbsen.file.FileUtil;
-import com.github.gerbsen.rdf.NtripleUtil;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
+import de.uni_leipzig.simba.boa.backend.util.DumpFileUtil;
 
 /**
+ * Generates the surface forms of all DBpedia concept uris from the labels,
+ * redirects and disambiguations dumps. The dumps are parsed in chunks which
+ * are cleaned and filtered by a thread pool ("spotlight.surfaceFormThreadPoolSize",
+ * defaults to the number of processors). The concept uris are kept in a
+ * sorted array and the surface forms are merged by the index of a uri in
+ * this array instead of hash sets and maps of uris.
+ * 
  * @author gerb
  * 
  */
@@ -40,7 +56,7 @@ public class DBpediaSpotlightSurfaceFormGenerator {
     private static final int MAXIMUM_SURFACE_FORM_LENGHT    = NLPediaSettings.getIntegerSetting("spotlight.maxSurfaceFormLength");
     public static String SURFACE_FORMS_FILE           		= NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms.tsv";
 
-    private static List<String> LOWERCASE_STOPWORDS         = null;
+    private static Set<String> LOWERCASE_STOPWORDS          = null;
     private static final List<String> STOPWORDS             = FileUtil.readFileInList(NLPediaSettings.BOA_BASE_DIRECTORY + Constants.DBPEDIA_DUMP_PATH + NLPediaSettings.BOA_LANGUAGE + "/stopwords.txt", "UTF-8", "#");
 
     public static final String DBPEDIA_REDIRECTS_FILE       = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.DBPEDIA_DUMP_PATH + "redirects_" + NLPediaSettings.BOA_LANGUAGE + ".nt";
@@ -48,32 +64,54 @@ public class DBpediaSpotlightSurfaceFormGenerator {
     public static final String DBPEDIA_DISAMBIGUATIONS_FILE = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.DBPEDIA_DUMP_PATH + "disambiguations_" + NLPediaSettings.BOA_LANGUAGE + ".nt";
     public static final String DBPEDIA_INTERLANGUAGE_LINKS  = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.DBPEDIA_DUMP_PATH + "interlanguage_links_" + NLPediaSettings.BOA_LANGUAGE + ".ttl";
     
+    // number of uris or triples which are cleaned and filtered by one task
+    private static final int CHUNK_SIZE                     = 10000;
+    
+    private static final Pattern NO_WORD_CHARACTER_PATTERN  = Pattern.compile("^[\\W\\d]+$");
+    private static final Pattern WHITESPACE_PATTERN         = Pattern.compile(" +");
+    private static final Pattern BRACKET_SUFFIX_PATTERN     = Pattern.compile(" \\(.+?\\)$");
+    private static final Pattern DIACRITICAL_MARKS_PATTERN  = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    
     /**
+     * Every uri which looks like a good uri and is not in the disambiguations
+     * or redirect files is a concept uri. The labels file is parsed in the
+     * current thread, the uris are filtered in chunks by the thread pool.
      * 
-     * @return
+     * @param executorService - the threads to filter the uris with
+     * @param badUris - the sorted subjects of the redirects and disambiguations
+     * @return the sorted and unique concept uris, the index of a uri is its id
      */
-    private Set<String> createConceptUris() {
-        
-        Set<String> conceptUris = new HashSet<String>();
-        Set<String> badUris = new HashSet<String>();
-        badUris.addAll(NtripleUtil.getSubjectsFromNTriple(DBPEDIA_REDIRECTS_FILE, ""));
-        logger.info("Finished reading redirect file for bad uri detection!");
-        badUris.addAll(NtripleUtil.getSubjectsFromNTriple(DBPEDIA_DISAMBIGUATIONS_FILE, ""));
-        logger.info("Finished reading disambiguations file for bad uri detection!");
-        
-        // every uri which looks like a good uri and is not in the disambiguations or redirect files is a concept uri
-        NxParser n3Parser = NtripleUtil.openNxParser(DBPEDIA_LABELS_FILE);
-        while (n3Parser.hasNext()) {
-            
-            Node[] node = n3Parser.next();
-            String subjectUri = node[0].toString();
+    private String[] createConceptUris(ExecutorService executorService, final String[] badUris) {
+        
+        List<Future<List<String>>> chunks = new ArrayList<Future<List<String>>>();
+        List<String> chunk = new ArrayList<String>(CHUNK_SIZE);
+        
+        InputStream in = DumpFileUtil.openDumpFile(DBPEDIA_LABELS_FILE);
+        try {
             
-            String subjectUriWihtoutPrefix = subjectUri.substring(subjectUri.lastIndexOf("/") + 1);
+            NxParser n3Parser = DumpFileUtil.openNxParser(in, DBPEDIA_LABELS_FILE);
+            while (n3Parser.hasNext()) {
+                
+                chunk.add(n3Parser.next()[0].toString());
+                if ( chunk.size() == CHUNK_SIZE ) {
+                    
+                    chunks.add(executorService.submit(new ConceptUriFilter(chunk, badUris)));
+                    chunk = new ArrayList<String>(CHUNK_SIZE);
+                }
+            }
+        }
+        finally {
             
-            if ( isGoodUri(subjectUriWihtoutPrefix) && !badUris.contains(subjectUri) ) conceptUris.add(subjectUri);
+            IOUtils.closeQuietly(in);
         }
-        logger.info("Concept Uris construction complete! Total of: " + conceptUris.size() + " concept URIs found!");
-        return conceptUris;
+        if ( !chunk.isEmpty() ) chunks.add(executorService.submit(new ConceptUriFilter(chunk, badUris)));
+        
+        List<String> conceptUris = new ArrayList<String>();
+        for ( Future<List<String>> filteredChunk : chunks ) conceptUris.addAll(getResult(filteredChunk));
+        
+        String[] sortedConceptUris = toSortedUniqueArray(conceptUris);
+        logger.info("Concept Uris construction complete! Total of: " + sortedConceptUris.length + " concept URIs found!");
+        return sortedConceptUris;
     }
 
     /**
@@ -81,7 +119,7 @@ public class DBpediaSpotlightSurfaceFormGenerator {
      */
     private void initStopwords() {
         
-        List<String> lowerCaseStopWords = new ArrayList<String>();
+        Set<String> lowerCaseStopWords = new HashSet<String>();
         for ( String stopword : STOPWORDS ) {
             
             lowerCaseStopWords.add(stopword.toLowerCase());
@@ -92,14 +130,96 @@ public class DBpediaSpotlightSurfaceFormGenerator {
 
     /**
      * 
-     * @return
+     * @return the dictionary of the surface forms file, which is created if it does not exist
      */
-    public Map<String,Set<String>> createSurfaceForms() {
+    public SurfaceFormDictionary createSurfaceForms() {
         
-        if ( new File(SURFACE_FORMS_FILE).exists() ) return this.initializeSurfaceFormsFromFile(NLPediaSettings.BOA_LANGUAGE);
+        if ( new File(SURFACE_FORMS_FILE).exists() ) return this.openSurfaceFormDictionary(NLPediaSettings.BOA_LANGUAGE);
         
         initStopwords();
-        Set<String> conceptUris = createConceptUris();
+        
+        long start = System.currentTimeMillis();
+        ExecutorService executorService = Executors.newFixedThreadPool(getThreadPoolSize());
+        try {
+            
+            Map<String,Set<String>> surfaceForms = this.createSurfaceForms(executorService);
+            logger.info("Created surface forms for " + surfaceForms.size() + " uris in " + (System.currentTimeMillis() - start) + "ms.");
+        }
+        finally {
+            
+            executorService.shutdownNow();
+        }
+        return this.openSurfaceFormDictionary(NLPediaSettings.BOA_LANGUAGE);
+    }
+    
+    /**
+     * Reads the dumps, cleans the surface forms in parallel and merges them
+     * by the id of the concept uri.
+     * 
+     * @param executorService - the threads to read, clean and filter with
+     * @return the surface forms of every uri
+     */
+    private Map<String,Set<String>> createSurfaceForms(ExecutorService executorService) {
+        
+        // both files are needed for the bad uris and the surface forms, so read them at the same time and only once
+        Future<List<String[]>> disambiguations  = executorService.submit(new SubjectAndObjectReader(DBPEDIA_DISAMBIGUATIONS_FILE));
+        Future<List<String[]>> redirects        = executorService.submit(new SubjectAndObjectReader(DBPEDIA_REDIRECTS_FILE));
+        List<String[]> subjectToObject = new ArrayList<String[]>(getResult(disambiguations));
+        subjectToObject.addAll(getResult(redirects));
+        logger.info("Finished reading redirect and disambiguations file for bad uri detection!");
+        
+        List<String> badUris = new ArrayList<String>(subjectToObject.size());
+        for ( String[] subjectAndObject : subjectToObject ) badUris.add(subjectAndObject[0]);
+        final String[] conceptUris = createConceptUris(executorService, toSortedUniqueArray(badUris));
+        badUris = null;
+        
+        // first add all uris of the concept uris, then the redirects and disambiguations
+        List<Future<SurfaceFormChunk>> chunks = new ArrayList<Future<SurfaceFormChunk>>();
+        for ( int from = 0; from < conceptUris.length; from += CHUNK_SIZE ) {
+            
+            final int chunkStart = from;
+            final int chunkEnd = Math.min(from + CHUNK_SIZE, conceptUris.length);
+            chunks.add(executorService.submit(new Callable<SurfaceFormChunk>() {
+
+                public SurfaceFormChunk call() {
+                    
+                    SurfaceFormChunk chunk = new SurfaceFormChunk(chunkEnd - chunkStart);
+                    for ( int id = chunkStart; id < chunkEnd; id++ ) 
+                        chunk.add(id, createCleanSurfaceForm(getLocalName(conceptUris[id])));
+                    
+                    return chunk;
+                }
+            }));
+        }
+        for ( int from = 0; from < subjectToObject.size(); from += CHUNK_SIZE ) {
+            
+            final List<String[]> subjectsAndObjects = subjectToObject.subList(from, Math.min(from + CHUNK_SIZE, subjectToObject.size()));
+            chunks.add(executorService.submit(new Callable<SurfaceFormChunk>() {
+
+                public SurfaceFormChunk call() {
+                    
+                    SurfaceFormChunk chunk = new SurfaceFormChunk(subjectsAndObjects.size());
+                    for ( String[] subjectAndObject : subjectsAndObjects ) {
+                        
+                        String object = subjectAndObject[1];
+                        int id = Arrays.binarySearch(conceptUris, object);
+                        
+                        if ( id >= 0 && !object.contains("%") ) 
+                            chunk.add(id, createCleanSurfaceForm(getLocalName(subjectAndObject[0])));
+                    }
+                    return chunk;
+                }
+            }));
+        }
+        
+        // merge the chunks by uri id
+        @SuppressWarnings("unchecked")
+        Set<String>[] surfaceFormsById = new Set[conceptUris.length];
+        for ( Future<SurfaceFormChunk> chunk : chunks ) getResult(chunk).addTo(surfaceFormsById);
+        chunks = null;
+        subjectToObject = null;
+        logger.info("Finished generation of surface forms.");
+        
         Map<String,Set<String>> surfaceForms = new HashMap<String,Set<String>>();
         
         // we only need to do this if the language is not english
@@ -108,43 +228,36 @@ public class DBpediaSpotlightSurfaceFormGenerator {
         	
         	if ( new File(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + "en_surface_forms.tsv").exists()) {
 
-	        	// load the english ones in RAM
-	        	Map<String,Set<String>> enSurfaceForms = this.initializeSurfaceFormsFromFile("en");
+	        	// map the english ones into memory
+	        	SurfaceFormDictionary enSurfaceForms = this.openSurfaceFormDictionary("en");
 				
 	        	// go through each link and add the english labels if we have a mapping
-	        	for ( String[] subjectAndObject : NtripleUtil.getSubjectAndObjectsFromNTriple(DBPEDIA_INTERLANGUAGE_LINKS, "") )
-	        		if ( subjectAndObject[1].startsWith("http://dbpedia.org/") )
-	        			if ( enSurfaceForms.get(subjectAndObject[1]) != null )
-	        				surfaceForms.put(subjectAndObject[0], enSurfaceForms.get(subjectAndObject[1]));
+	        	for ( String[] subjectAndObject : DumpFileUtil.getSubjectsAndObjects(DBPEDIA_INTERLANGUAGE_LINKS) )
+	        		if ( subjectAndObject[1].startsWith("http://dbpedia.org/") ) {
+	        			
+	        			Set<String> enSurfaceFormsOfUri = enSurfaceForms.getSurfaceForms(subjectAndObject[1]);
+	        			if ( enSurfaceFormsOfUri != null ) surfaceForms.put(subjectAndObject[0], filterLongSurfaceForms(enSurfaceFormsOfUri));
+	        		}
         	}
         	else System.out.println("WARNING: non-english language an no backup surface form file found!");
         }
-        	
-        // first add all uris of the concept uris
-        for ( String uri : conceptUris ) 
-            addSurfaceForm(surfaceForms, uri, uri.substring(uri.lastIndexOf("/") + 1));
-                
-
-        logger.info("Finished adding all conceptUris: " + surfaceForms.size());
         
-        List<String[]> subjectToObject = NtripleUtil.getSubjectAndObjectsFromNTriple(DBPEDIA_DISAMBIGUATIONS_FILE, "");
-        subjectToObject.addAll(NtripleUtil.getSubjectAndObjectsFromNTriple(DBPEDIA_REDIRECTS_FILE, ""));
-        
-        for ( String[] subjectAndObject : subjectToObject ) {
+        for ( int id = 0; id < conceptUris.length; id++ ) {
             
-            String object = subjectAndObject[1];
-            String subject = subjectAndObject[0];
+            if ( surfaceFormsById[id] == null ) continue;
             
-            if ( conceptUris.contains(object) && !object.contains("%") ) 
-                addSurfaceForm(surfaceForms, object, subject.substring(subject.lastIndexOf("/") + 1));
+            if ( surfaceForms.containsKey(conceptUris[id]) ) surfaceForms.get(conceptUris[id]).addAll(surfaceFormsById[id]);
+            else surfaceForms.put(conceptUris[id], surfaceFormsById[id]);
         }
-        logger.info("Finished generation of surface forms.");
+        logger.info("Finished adding all conceptUris: " + surfaceForms.size());
+        
+        addNonAccentVersions(executorService, surfaceForms.values());
         
         // write the file
         SURFACE_FORMS_FILE = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms.tsv";
         BufferedFileWriter writer = FileUtil.openWriter(SURFACE_FORMS_FILE, "UTF-8", WRITER_WRITE_MODE.OVERRIDE);
         for (Map.Entry<String, Set<String>> entry : surfaceForms.entrySet()) 
-            writer.write(entry.getKey() + "\t" + StringUtils.join(addNonAccentVersion(entry.getValue()), "\t"));
+            writer.write(entry.getKey() + "\t" + StringUtils.join(entry.getValue(), "\t"));
         
         writer.close();
         logger.info("Finished writing of surface forms to disk.");
@@ -152,6 +265,30 @@ public class DBpediaSpotlightSurfaceFormGenerator {
         return surfaceForms;
     }
 
+    /**
+     * Adds the non accent versions to every set in parallel.
+     * 
+     * @param executorService - the threads to normalize with
+     * @param surfaceForms - the surface forms of all uris
+     */
+    private static void addNonAccentVersions(ExecutorService executorService, Collection<Set<String>> surfaceForms) {
+        
+        List<Set<String>> sets = new ArrayList<Set<String>>(surfaceForms);
+        List<Future<?>> chunks = new ArrayList<Future<?>>();
+        for ( int from = 0; from < sets.size(); from += CHUNK_SIZE ) {
+            
+            final List<Set<String>> chunk = sets.subList(from, Math.min(from + CHUNK_SIZE, sets.size()));
+            chunks.add(executorService.submit(new Runnable() {
+
+                public void run() {
+                    
+                    for ( Set<String> surfaceFormsOfUri : chunk ) addNonAccentVersion(surfaceFormsOfUri);
+                }
+            }));
+        }
+        for ( Future<?> chunk : chunks ) getResult(chunk);
+    }
+
 	private static Set<String> addNonAccentVersion(Set<String> surfaceForms) {
 		
 		// remove all the accents in the surface forms and add that new label
@@ -159,7 +296,7 @@ public class DBpediaSpotlightSurfaceFormGenerator {
 	    for ( String surfaceForm : surfaceForms) {
 	    	
 		    String normalized = Normalizer.normalize(surfaceForm, Normalizer.Form.NFD);
-		    normalized = normalized.replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+		    normalized = DIACRITICAL_MARKS_PATTERN.matcher(normalized).replaceAll("");
 		    if ( !normalized.equals(surfaceForm) ) normalizedLabels.add(normalized);
 	    }
 	    surfaceForms.addAll(normalizedLabels);
@@ -167,28 +304,6 @@ public class DBpediaSpotlightSurfaceFormGenerator {
 		return surfaceForms;
 	}
 
-    /**
-     * 
-     * @param surfaceForms
-     * @param key
-     * @param value
-     */
-	private static void addSurfaceForm(Map<String, Set<String>> surfaceForms, String key, String value) {
-
-        // clean and URL decode, whitespace removal
-        String newSurfaceForm =  createCleanSurfaceForm(value);
-        if ( newSurfaceForm != null ) {
-            
-            if ( surfaceForms.containsKey(key) ) surfaceForms.get(key).add(newSurfaceForm);
-            else {
-                
-                Set<String> sfList = new HashSet<String>();
-                sfList.add(newSurfaceForm);
-                surfaceForms.put(key, sfList);
-            }
-        }
-    }
-
     /**
      * 
      * @param label
@@ -199,8 +314,8 @@ public class DBpediaSpotlightSurfaceFormGenerator {
         try {
             
             String newLabel = URLDecoder.decode(label, "UTF-8");
-            newLabel = newLabel.replaceAll("_", " ").replaceAll(" +", " ").trim();
-            newLabel = newLabel.replaceAll(" \\(.+?\\)$", "");
+            newLabel = WHITESPACE_PATTERN.matcher(newLabel.replace('_', ' ')).replaceAll(" ").trim();
+            newLabel = BRACKET_SUFFIX_PATTERN.matcher(newLabel).replaceAll("");
             
             return isGoodSurfaceForm(newLabel) ? newLabel : null;
         }
@@ -226,9 +341,9 @@ public class DBpediaSpotlightSurfaceFormGenerator {
      */
 	private static boolean isGoodUri(String uri) {
 
-        if ( uri.contains("List_of_") || uri.contains("(Disambiguation)") || uri.contains("/") || uri.contains("%23") || uri.matches("^[\\W\\d]+$") ) {
+        if ( uri.contains("List_of_") || uri.contains("(Disambiguation)") || uri.contains("/") || uri.contains("%23") || NO_WORD_CHARACTER_PATTERN.matcher(uri).matches() ) {
             
-            logger.info("Uri: <" + uri + "> is not a good uri! / or %23 or regex");
+            logger.debug("Uri: <{}> is not a good uri! / or %23 or regex", uri);
             return false;
         }
         return true;
@@ -242,9 +357,9 @@ public class DBpediaSpotlightSurfaceFormGenerator {
 	private static boolean isGoodSurfaceForm(String surfaceForm) {
         
         if ( surfaceForm.length() > MAXIMUM_SURFACE_FORM_LENGHT 
-                || surfaceForm.matches("^[\\W\\d]+$")) {
+                || NO_WORD_CHARACTER_PATTERN.matcher(surfaceForm).matches()) {
             
-            logger.info("Surfaceform: " + surfaceForm +  " is not a good surface form because its too long or regex match.");
+            logger.debug("Surfaceform: {} is not a good surface form because its too long or regex match.", surfaceForm);
             return false;
         }
         
@@ -258,36 +373,185 @@ public class DBpediaSpotlightSurfaceFormGenerator {
         if ( i > 0 ) return true;
         else {
             
-            logger.info("Surfaceform: " + surfaceForm +  " is not a good surface form because it contains only stop words.");
+            logger.debug("Surfaceform: {} is not a good surface form because it contains only stop words.", surfaceForm);
             return false;
         }
     }
 
-	private Map<String,Set<String>> initializeSurfaceFormsFromFile(String language) {
+    /**
+     * 
+     * @param uri
+     * @return the part of the uri after the last slash
+     */
+    private static String getLocalName(String uri) {
         
-        logger.info("Intializing surface forms from file...");
+        return uri.substring(uri.lastIndexOf("/") + 1);
+    }
+    
+    /**
+     * 
+     * @param strings
+     * @return the sorted strings without duplicates
+     */
+    private static String[] toSortedUniqueArray(List<String> strings) {
         
-        SURFACE_FORMS_FILE = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + language + "_surface_forms.tsv";
+        Collections.sort(strings);
+        List<String> uniqueStrings = new ArrayList<String>(strings.size());
+        for ( String string : strings ) 
+            if ( uniqueStrings.isEmpty() || !uniqueStrings.get(uniqueStrings.size() - 1).equals(string) ) uniqueStrings.add(string);
+        
+        return uniqueStrings.toArray(new String[uniqueStrings.size()]);
+    }
+    
+    /**
+     * Waits for the result of a task and rethrows its exception.
+     * 
+     * @param future
+     * @return the result of the task
+     */
+    private static <T> T getResult(Future<T> future) {
+        
+        try {
+            
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            
+            Thread.currentThread().interrupt();
+            String error = "Interrupted while creating surface forms!";
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        catch (ExecutionException e) {
+            
+            e.printStackTrace();
+            String error = "Could not create surface forms!";
+            logger.error(error, e.getCause());
+            throw new RuntimeException(error, e.getCause());
+        }
+    }
+    
+    /**
+     * 
+     * @return the number of threads to create the surface forms with
+     */
+    private static int getThreadPoolSize() {
+        
+        String threadPoolSize = NLPediaSettings.getSetting("spotlight.surfaceFormThreadPoolSize");
+        return threadPoolSize == null || threadPoolSize.isEmpty() ? Runtime.getRuntime().availableProcessors() : Math.max(1, Integer.valueOf(threadPoolSize));
+    }
+    
+    /**
+     * Reads the subject and object of every triple of a dump file.
+     */
+    private static class SubjectAndObjectReader implements Callable<List<String[]>> {
         
-        List<String> surfaceForms    = FileUtil.readFileInList(SURFACE_FORMS_FILE, "UTF-8", "#");
-        Map<String,Set<String>> urisToLabels = new HashMap<String,Set<String>>(); 
+        private final String filename;
         
-        // initialize the surface forms from dbpedia spotlight 
-        for ( String line : surfaceForms ) {
+        private SubjectAndObjectReader(String filename) {
             
-            String[] lineParts = line.split("\t");
-            String[] surfaceFormsPart = Arrays.copyOfRange(lineParts, 1, lineParts.length);
-            Set<String> filteredSurfaceForms = new HashSet<String>();
+            this.filename = filename;
+        }
+
+        public List<String[]> call() {
             
-            for ( String surfaceForm : surfaceFormsPart) {
+            return DumpFileUtil.getSubjectsAndObjects(this.filename);
+        }
+    }
+    
+    /**
+     * Returns the concept uris of a chunk of label subjects.
+     */
+    private static class ConceptUriFilter implements Callable<List<String>> {
+        
+        private final List<String> subjectUris;
+        private final String[] badUris;
+        
+        private ConceptUriFilter(List<String> subjectUris, String[] badUris) {
+            
+            this.subjectUris = subjectUris;
+            this.badUris = badUris;
+        }
+
+        public List<String> call() {
+            
+            List<String> conceptUris = new ArrayList<String>();
+            for ( String subjectUri : this.subjectUris ) 
+                if ( isGoodUri(getLocalName(subjectUri)) && Arrays.binarySearch(this.badUris, subjectUri) < 0 ) conceptUris.add(subjectUri);
+            
+            return conceptUris;
+        }
+    }
+    
+    /**
+     * The cleaned surface forms of a chunk as pairs of concept uri id and surface form.
+     */
+    private static class SurfaceFormChunk {
+        
+        private final int[] ids;
+        private final String[] surfaceForms;
+        private int size = 0;
+        
+        private SurfaceFormChunk(int capacity) {
+            
+            this.ids = new int[capacity];
+            this.surfaceForms = new String[capacity];
+        }
+        
+        /**
+         * @param id - the id of the concept uri
+         * @param surfaceForm - the cleaned surface form, null if it was filtered
+         */
+        private void add(int id, String surfaceForm) {
+            
+            if ( surfaceForm == null ) return;
+            
+            this.ids[this.size] = id;
+            this.surfaceForms[this.size++] = surfaceForm;
+        }
+        
+        /**
+         * @param surfaceFormsById - the surface forms indexed by concept uri id
+         */
+        private void addTo(Set<String>[] surfaceFormsById) {
+            
+            for ( int i = 0; i < this.size; i++ ) {
                 
-                if ( surfaceForm.length() <= MAXIMUM_SURFACE_FORM_LENGHT ) filteredSurfaceForms.add(surfaceForm);
+                if ( surfaceFormsById[this.ids[i]] == null ) surfaceFormsById[this.ids[i]] = new HashSet<String>();
+                surfaceFormsById[this.ids[i]].add(this.surfaceForms[i]);
             }
-            urisToLabels.put(lineParts[0], filteredSurfaceForms);
-            urisToLabels.put(lineParts[0].replace("http://en.", "http://"), filteredSurfaceForms);
         }
+    }
+
+    /**
+     * 
+     * @param language
+     * @return the dictionary of the surface forms file of the language
+     */
+	private SurfaceFormDictionary openSurfaceFormDictionary(String language) {
+        
+        logger.info("Intializing surface forms from file...");
+        
+        SURFACE_FORMS_FILE = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + language + "_surface_forms.tsv";
+        SurfaceFormDictionary urisToLabels = SurfaceFormDictionary.openOrCreate(SURFACE_FORMS_FILE);
+        
         logger.info("Finished intializing surface forms! Found " + urisToLabels.size() + " dbpedia spotlight surfaceforms in file");
         
         return urisToLabels;
     }
-}
\ No newline at end of file
+    
+    /**
+     * 
+     * @param surfaceForms
+     * @return the surface forms which are not longer than the maximum surface form length
+     */
+	private static Set<String> filterLongSurfaceForms(Set<String> surfaceForms) {
+        
+        Set<String> filteredSurfaceForms = new HashSet<String>();
+        for ( String surfaceForm : surfaceForms) {
+            
+            if ( surfaceForm.length() <= MAXIMUM_SURFACE_FORM_LENGHT ) filteredSurfaceForms.add(surfaceForm);
+        }
+        return filteredSurfaceForms;
+    }
+}
@@ -1,19 +1,56 @@
 package de.uni_leipzig.simba.boa.backend.entity.context;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.hp.hpl.jena.ontology.OntModel;
+import com.hp.hpl.jena.ontology.OntModelSpec;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
+import de.uni_leipzig.simba.boa.backend.rdf.ontology.ClassIndexer;
 
 
+/**
+ * A context keeps the words left or right of a pattern in a tagged sentence 
+ * as parallel arrays of clean words, tags and tag ids. The words and tags are 
+ * the ones of the {@link TaggedSentence}, so a sentence which is parsed once 
+ * can be used for both contexts without splitting it again. The tags are 
+ * resolved to ids once when the context is created and the entity types 
+ * (uris) are mapped to tag ids by a precompiled table, so all lookups are 
+ * single scans over a byte array. Subclasses in the dbpedia ontology 
+ * without a mapping of their own are added to this table with the tag of 
+ * their nearest mapped superclass. 
+ */
 public abstract class Context {
 
-    protected List<String> cleanWords;
-    protected List<String> taggedWords;
+    /**
+     * the id of all tags which are not used in the mappings 
+     */
+    protected static final byte UNKNOWN_TAG_ID = -1;
+    
+    /**
+     * used for entity types without mapping, every named entity tag matches 
+     */
+    protected static final byte ANY_NAMED_ENTITY_TAG_ID = -2;
+    
+    protected String[] cleanWords;
+    protected String[] tags;
+    protected byte[] tagIds;
     protected String pattern;
+    protected int patternLength;
     protected String sentence;
     
     protected NamedEntityRecognition ner;
@@ -28,24 +65,11 @@ public abstract class Context {
      */
     public boolean containsSuitableEntity(String entityType) {
 
-		String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
-		
-		for (String word: this.taggedWords) {
-			if (entityMapping == null) {
-				for (String tag : Context.namedEntityRecognitionTags)
-					if (word.contains(Constants.NAMED_ENTITY_TAG_DELIMITER + tag))
-						return true;
-			}
-			else if (word.contains(Constants.NAMED_ENTITY_TAG_DELIMITER + entityMapping))
-				return true;
-		}
-
-//        for ( String word : this.taggedWords ) {
-//            
-//            if ( word.contains(Constants.NAMED_ENTITY_TAG_DELIMITER + Context.namedEntityRecognitionMappings.get(entityType)) 
-//                || word.contains(Constants.NAMED_ENTITY_TAG_DELIMITER + Context.namedEntityRecognitionMappings.get(entityType)) ) 
-//                return true;
-//        }
+        byte entityTagId = getEntityTagId(entityType);
+        
+        for ( byte tagId : this.tagIds )
+            if ( isSuitableTag(tagId, entityTagId) ) return true;
+        
         return false;
     }
     
@@ -62,13 +86,105 @@ public abstract class Context {
      * @return
      */
     public abstract String getSuitableEntity(String entityType);
+    
+    /**
+     * Keeps the words of the tagged sentence from (inclusive) to (exclusive) 
+     * as context. The context is empty if it starts at or after its end, 
+     * even if it starts after the sentence.
+     * 
+     * @param taggedSentence - the words of the sentence with their tags
+     * @param from - the index of the first word of the context
+     * @param to - the index after the last word of the context
+     * @throws StringIndexOutOfBoundsException if a word of the sentence has no tag
+     * @throws ArrayIndexOutOfBoundsException if the context ends after the sentence 
+     */
+    protected void createContext(TaggedSentence taggedSentence, int from, int to) throws StringIndexOutOfBoundsException {
+        
+        // every word needs to be tagged, not only the ones of the context
+        for ( int i = 0; i < taggedSentence.size(); i++ )
+            if ( taggedSentence.getTag(i).isEmpty() ) throw new StringIndexOutOfBoundsException("Could not find tag of word: " + taggedSentence.getToken(i));
+        if ( to > taggedSentence.size() ) throw new ArrayIndexOutOfBoundsException(taggedSentence.size());
+        
+        int size = Math.max(0, to - from);
+        this.cleanWords = new String[size];
+        this.tags = new String[size];
+        this.tagIds = new byte[size];
+        // arraycopy checks the start even if nothing is copied
+        if ( size > 0 ) {
+            
+            System.arraycopy(taggedSentence.getTokens(), from, this.cleanWords, 0, size);
+            System.arraycopy(taggedSentence.getTags(), from, this.tags, 0, size);
+        }
+        for ( int i = 0; i < size; i++ ) this.tagIds[i] = getTagId(this.tags[i]);
+    }
+    
+    /**
+     * Parses a tagged string like "Barack_PERSON Obama_PERSON" for the contexts, use 
+     * the same tagged sentence for the left and the right context of a sentence.
+     * 
+     * @param taggedString - the words of the sentence with their tags
+     * @return the tagged sentence
+     */
+    public static TaggedSentence parseTaggedString(String taggedString) {
+        
+        return TaggedSentence.fromAnnotatedString(taggedString, Constants.NAMED_ENTITY_TAG_DELIMITER);
+    }
+    
+    /**
+     * @return the number of words separated by single spaces of a trimmed string, like split(" ").length
+     */
+    protected static int countWords(String trimmedString) {
+        
+        int words = 1;
+        for ( int i = 0; i < trimmedString.length(); i++ )
+            if ( trimmedString.charAt(i) == ' ' ) words++;
+        
+        return words;
+    }
+    
+    /**
+     * @param entityType - the uri of a class or datatype
+     * @return the id of the tag mapped to the type or ANY_NAMED_ENTITY_TAG_ID if there is no mapping
+     */
+    protected static byte getEntityTagId(String entityType) {
+        
+        Byte entityTagId = ENTITY_TYPE_TAG_IDS.get(entityType);
+        return entityTagId == null ? ANY_NAMED_ENTITY_TAG_ID : entityTagId;
+    }
+    
+    /**
+     * @return true if the tag is the one of the entity or if there was no mapping for the entity, if it is a named entity tag 
+     */
+    protected static boolean isSuitableTag(byte tagId, byte entityTagId) {
+        
+        return tagId == entityTagId || (entityTagId == ANY_NAMED_ENTITY_TAG_ID && isNamedEntityTag(tagId));
+    }
+    
+    /**
+     * @return true if the tag is one of namedEntityRecognitionTags
+     */
+    protected static boolean isNamedEntityTag(byte tagId) {
+        
+        return tagId >= 0 && NAMED_ENTITY_TAG_IDS[tagId];
+    }
+    
+    /**
+     * @return the index of the tag in the known tags or UNKNOWN_TAG_ID
+     */
+    private static byte getTagId(String tag) {
+        
+        for ( int id = 0; id < TAGS.length; id++ )
+            if ( TAGS[id].equals(tag) ) return (byte) id;
+        
+        return UNKNOWN_TAG_ID;
+    }
 
     /**
      * @param cleanWords the cleanWords to set
      */
     public void setCleanWords(List<String> words) {
 
-        this.cleanWords = words;
+        this.cleanWords = words.toArray(new String[words.size()]);
     }
 
     /**
@@ -76,16 +192,19 @@ public abstract class Context {
      */
     public List<String> getCleanWords() {
 
-        return this.cleanWords;
+        return Arrays.asList(this.cleanWords);
     }
 
     
     
     /**
-     * @return the taggedWords
+     * @return the taggedWords, e.g. "Obama_PERSON"
      */
     public List<String> getTaggedWords() {
     
+        List<String> taggedWords = new ArrayList<String>(this.cleanWords.length);
+        for ( int i = 0; i < this.cleanWords.length; i++ ) taggedWords.add(this.cleanWords[i] + "_" + this.tags[i]);
+        
         return taggedWords;
     }
 
@@ -95,7 +214,12 @@ public abstract class Context {
      */
     public void setTaggedWords(List<String> taggedWords) {
     
-        this.taggedWords = taggedWords;
+        TaggedSentence taggedSentence = parseTaggedString(StringUtils.join(taggedWords, ' '));
+        this.cleanWords = taggedSentence.getTokens();
+        this.tags = taggedSentence.getTags();
+        this.tagIds = new byte[this.tags.length];
+        for ( int i = 0; i < this.tags.length; i++ )
+            this.tagIds[i] = getTagId(this.tags[i]);
     }
 
     /**
@@ -113,6 +237,7 @@ public abstract class Context {
     public void setPattern(String pattern) {
     
         this.pattern = pattern;
+        this.patternLength = pattern.split(" ").length;
     }
     
     public static void main(String[] args) {
@@ -483,4 +608,44 @@ public abstract class Context {
         
         namedEntityRecognitionMappings.put("NA", "UNKNOWN");
     }
+    
+    /**
+     * all tags which are used in the mappings, the index is the id of the tag
+     */
+    private static final String[] TAGS;
+    private static final boolean[] NAMED_ENTITY_TAG_IDS;
+    private static final Map<String,Byte> ENTITY_TYPE_TAG_IDS = new HashMap<String,Byte>();
+    static {
+        
+        Set<String> tags = new LinkedHashSet<String>(namedEntityRecognitionTags);
+        tags.add(Constants.NAMED_ENTITY_TAG_OTHER);
+        tags.addAll(namedEntityRecognitionMappings.values());
+        TAGS = tags.toArray(new String[tags.size()]);
+        
+        NAMED_ENTITY_TAG_IDS = new boolean[TAGS.length];
+        List<String> tagList = new ArrayList<String>(tags);
+        for ( String tag : namedEntityRecognitionTags ) NAMED_ENTITY_TAG_IDS[tagList.indexOf(tag)] = true;
+        for ( Map.Entry<String,String> mapping : namedEntityRecognitionMappings.entrySet() )
+            ENTITY_TYPE_TAG_IDS.put(mapping.getKey(), (byte) tagList.indexOf(mapping.getValue()));
+        
+        // classes of the ontology without a mapping get the tag of their nearest mapped superclass
+        ClassIndexer classIndexer = createClassIndexer();
+        if ( classIndexer != null ) ENTITY_TYPE_TAG_IDS.putAll(classIndexer.getInheritedMappings(ENTITY_TYPE_TAG_IDS));
+    }
+    
+    /**
+     * @return the class hierarchy of the dbpedia ontology or null if there is no ontology file
+     */
+    private static ClassIndexer createClassIndexer() {
+        
+        File ontologyFile = new File(NLPediaSettings.BOA_BASE_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + Constants.DBPEDIA_ONTOLOGY_FILE);
+        if ( !ontologyFile.exists() ) return null;
+        
+        OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+        model.read(ontologyFile.toURI().toString());
+        ClassIndexer classIndexer = new ClassIndexer();
+        classIndexer.index(model);
+        
+        return classIndexer;
+    }
 }
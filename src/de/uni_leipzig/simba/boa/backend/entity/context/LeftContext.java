@@ -1,38 +1,35 @@
 package de.uni_leipzig.simba.boa.backend.entity.context;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
-import edu.stanford.nlp.util.StringUtils;
+import org.apache.commons.lang3.StringUtils;
 
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 
 public class LeftContext extends Context {
 
 	public LeftContext(String nerTaggedString, String sentence, String patternWithOutVariables) throws IllegalArgumentException, StringIndexOutOfBoundsException {
 
-		this.cleanWords   = new ArrayList<String>();
-		this.taggedWords  = new ArrayList<String>();
+		this(Context.parseTaggedString(nerTaggedString), sentence, patternWithOutVariables);
+	}
+	
+	public LeftContext(TaggedSentence taggedSentence, String sentence, String patternWithOutVariables) throws IllegalArgumentException, StringIndexOutOfBoundsException {
+
 		this.sentence     = sentence;
 		this.setPattern(patternWithOutVariables);
-		this.createLeftContext(nerTaggedString, sentence);
+		this.createLeftContext(taggedSentence, sentence);
 	}
 	
     @Override
 	public int getSuitableEntityDistance(String entityType) {
 
-		String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
+		byte entityTagId = Context.getEntityTagId(entityType);
 		
 		// from 0 to the size of the left context without the pattern
-		for (int i = this.taggedWords.size() - this.pattern.split(" ").length, j = 0; i >=  0 ; i--, j++) {
-			// if entityMapping is null, take proper name of any category
-			if (entityMapping == null) {
-				for (String tag : Context.namedEntityRecognitionTags)
-					if (this.taggedWords.get(i).contains(tag))
-						return j;
-			}
-			else if ( this.taggedWords.get(i).contains(entityMapping) ) return j;
+		for (int i = this.tagIds.length - this.patternLength, j = 0; i >=  0 ; i--, j++) {
+			
+			// if there is no mapping, take proper name of any category
+			if ( Context.isSuitableTag(this.tagIds[i], entityTagId) ) return j;
 		}
 		return -1;
 	}
@@ -40,85 +37,42 @@ public class LeftContext extends Context {
 	@Override
 	public String getSuitableEntity(String entityType) {
 
-		String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
-		
-		List<String> entity = new ArrayList<String>();
+		byte entityTagId = Context.getEntityTagId(entityType);
 		
-		boolean found = false;
+		// the entity are the words from start to end (exclusive)
+		int start = -1, end = -1;
 		
 		// the words are in reversed order
-		for ( int i = taggedWords.size() - 1 ; i >= 0 ; i-- ) {
+		for ( int i = this.tagIds.length - 1 ; i >= 0 ; i-- ) {
 
-			// if entityMapping is null, take proper name of any category
-			if (entityMapping == null)
-				for (String tag : Context.namedEntityRecognitionTags)
-					if (this.taggedWords.get(i).contains(tag)) {
-						entityMapping = tag;
-						break;
-					}
+			// if there is no mapping, take proper name of the category of the first one found
+			if ( entityTagId == Context.ANY_NAMED_ENTITY_TAG_ID && Context.isNamedEntityTag(this.tagIds[i]) ) entityTagId = this.tagIds[i];
 			
 			// we found a word which contains a suitable tag
-			if ( (entityMapping != null) && (taggedWords.get(i).contains(entityMapping)) ) {
+			if ( this.tagIds[i] == entityTagId ) {
 				
-				// we found one before
-				if ( found ) {
-
-					entity.add(this.cleanWords.get(this.taggedWords.indexOf(taggedWords.get(i))));
-				}
-				// we found it for the first time so change the flag
-				else {
-
-					found = true;
-					entity.add(this.cleanWords.get(this.taggedWords.indexOf(taggedWords.get(i))));
-				}
-			}
-			// current word does not contain a suitable tag
-			else {
-				
-				// we did find a suitable one before
-				if ( found ) {
-					
-					break; // complete entity 
-				}
-				else {
-					
-					continue; // go to next word
-				}
+				// we found it for the first time
+				if ( end == -1 ) end = i + 1;
+				start = i;
 			}
+			// current word does not contain a suitable tag, but we did find a suitable one before
+			else if ( end != -1 ) break; // complete entity 
 		}
 		
-		Collections.reverse(entity);
-		
-		return StringUtils.join(entity, " ");
+		return end == -1 ? "" : StringUtils.join(this.cleanWords, ' ', start, end);
 	}
 	
 	/**
 	 * find the pattern again and split it into two parts
 	 * 
-	 * @param nerTaggedString
+	 * @param taggedSentence
 	 */
-	private void createLeftContext(String nerTaggedString, String sentenceWithoutNerTags) throws IllegalArgumentException, StringIndexOutOfBoundsException {
+	private void createLeftContext(TaggedSentence taggedSentence, String sentenceWithoutNerTags) throws IllegalArgumentException, StringIndexOutOfBoundsException {
 
 		String leftContextString = sentenceWithoutNerTags.substring(0, sentenceWithoutNerTags.toLowerCase().lastIndexOf(this.pattern.toLowerCase()) - 1).trim();
-        String[] taggedWords = nerTaggedString.split(" ");
-        //String[] cleanWords = sentenceWithoutNerTags.split(" ");
-		String[] cleanWords = new String[taggedWords.length];
-		for (int i = 0; i < taggedWords.length; i++)
-			cleanWords[i] = taggedWords[i].substring(0, taggedWords[i].lastIndexOf('_'));
-
-		//System.out.println(Arrays.toString(taggedWords));
-		//System.out.println(Arrays.toString(cleanWords));
-        
-        if ( taggedWords.length != cleanWords.length ) 
-            throw new IllegalArgumentException("Could not create a context because the tagged string and the clean string have not the same size.\n" +
-            		"cleanWords:  " + Arrays.toString(cleanWords) + "\n" +
-                    "taggedWords: " + Arrays.toString(taggedWords));
-        
-        for ( int i = 0 ; i < leftContextString.split(" ").length + 1 /* this.pattern.split(" ").length - 1 */ ; i++){
-           
-        	this.taggedWords.add(taggedWords[i]);
-        	this.cleanWords.add(cleanWords[i]);
-        }
+		
+		// the left context and the first word of the pattern
+		this.createContext(taggedSentence, 0, Context.countWords(leftContextString) + 1 /* this.pattern.split(" ").length - 1 */);
 	}
 	
 	/* (non-Javadoc)
@@ -128,7 +82,7 @@ public class LeftContext extends Context {
     public String toString() {
 
         StringBuilder builder = new StringBuilder();
-        builder.append(cleanWords);
+        builder.append(Arrays.toString(cleanWords));
         return builder.toString();
     }
 }
@@ -7,6 +7,8 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
+
 
 /**
  * @author gerb
@@ -24,6 +26,12 @@ public class ProperNounPhraseLeftContext extends LeftContext {
         this.nounPhrases = nounPhrases;
     }
     
+    public ProperNounPhraseLeftContext(TaggedSentence taggedSentence, String sentence, String patternWithOutVariables, List<String> nounPhrases) throws IllegalArgumentException, StringIndexOutOfBoundsException {
+        super(taggedSentence, sentence, patternWithOutVariables);
+        
+        this.nounPhrases = nounPhrases;
+    }
+    
     public boolean containsSuitableEntity(String entityType) {
 
         // there can't be a suitable entity if there are no entites
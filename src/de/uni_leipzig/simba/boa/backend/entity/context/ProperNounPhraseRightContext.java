@@ -7,6 +7,8 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
+
 
 /**
  * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
@@ -24,6 +26,12 @@ public class ProperNounPhraseRightContext extends RightContext {
         this.nounPhrases = nounPhrases;
     }
     
+    public ProperNounPhraseRightContext(TaggedSentence taggedSentence, String sentence, String patternWithOutVariables, List<String> nounPhrases) throws IllegalArgumentException {
+        super(taggedSentence, sentence, patternWithOutVariables);
+        
+        this.nounPhrases = nounPhrases;
+    }
+    
     @Override
     public boolean containsSuitableEntity(String entityType) {
 
@@ -1,37 +1,35 @@
 package de.uni_leipzig.simba.boa.backend.entity.context;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
-import edu.stanford.nlp.util.StringUtils;
+import org.apache.commons.lang3.StringUtils;
 
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 
 public class RightContext extends Context {
 
 	public RightContext(String nerTaggedString, String sentence,String patternWithOutVariables) throws IllegalArgumentException {
 
-		this.cleanWords = new ArrayList<String>();
-		this.taggedWords = new ArrayList<String>();
+		this(Context.parseTaggedString(nerTaggedString), sentence, patternWithOutVariables);
+	}
+	
+	public RightContext(TaggedSentence taggedSentence, String sentence, String patternWithOutVariables) throws IllegalArgumentException {
+
 		this.sentence     = sentence;
 		this.setPattern(patternWithOutVariables);
-		this.createRightContext(nerTaggedString, sentence);
+		this.createRightContext(taggedSentence, sentence);
 	}
 	
 	@Override
 	public int getSuitableEntityDistance(String entityType) {
 
-		String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
+		byte entityTagId = Context.getEntityTagId(entityType);
 		
-		// from 0 to the size of the left context without the pattern
-		for (int i = this.taggedWords.size() - (this.taggedWords.size() - (this.pattern.split(" ").length - 1)), j = 0; i < this.taggedWords.size() ; i++, j++) {
-			// if entityMapping is null, take proper name of any category
-			if (entityMapping == null) {
-				for (String tag : Context.namedEntityRecognitionTags)
-					if (this.taggedWords.get(i).contains(tag))
-						return j;
-			}
-			else if ( this.taggedWords.get(i).contains(entityMapping) ) return j;
+		// from 0 to the size of the right context without the pattern
+		for (int i = this.patternLength - 1, j = 0; i < this.tagIds.length ; i++, j++) {
+			
+			// if there is no mapping, take proper name of any category
+			if ( Context.isSuitableTag(this.tagIds[i], entityTagId) ) return j;
 		}
 		return -1;
 	}
@@ -39,78 +37,36 @@ public class RightContext extends Context {
 	@Override
 	public String getSuitableEntity(String entityType) {
 
-		String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
-		
-		List<String> entity = new ArrayList<String>();
+		byte entityTagId = Context.getEntityTagId(entityType);
 		
-		boolean found = false;
+		// the entity are the words from start to end (exclusive)
+		int start = -1, end = -1;
 		
-		// the words are in reversed order
-		for ( String word : this.taggedWords ) {
+		for ( int i = 0 ; i < this.tagIds.length ; i++ ) {
 			
-			// if entityMapping is null, take proper name of any category
-			if (entityMapping == null)
-				for (String tag : Context.namedEntityRecognitionTags)
-					if (word.contains(tag)) {
-						entityMapping = tag;
-						break;
-					}
+			// if there is no mapping, take proper name of the category of the first one found
+			if ( entityTagId == Context.ANY_NAMED_ENTITY_TAG_ID && Context.isNamedEntityTag(this.tagIds[i]) ) entityTagId = this.tagIds[i];
 
 			// we found a word which contains a suitable tag
-			if ( (entityMapping != null) && (word.contains(entityMapping)) ) {
+			if ( this.tagIds[i] == entityTagId ) {
 				
-				// we found one before
-				if ( found ) {
-
-					entity.add(this.cleanWords.get(this.taggedWords.indexOf(word)));
-				}
-				// we found it for the first time so change the flag
-				else {
-
-					found = true;
-					entity.add(this.cleanWords.get(this.taggedWords.indexOf(word)));
-				}
-			}
-			// current word does not contain a suitable tag
-			else {
-				
-				// we did find a suitable one before
-				if ( found ) {
-					
-					break; // complete entity 
-				}
-				else {
-					
-					continue; // go to next word
-				}
+				// we found it for the first time
+				if ( start == -1 ) start = i;
+				end = i + 1;
 			}
+			// current word does not contain a suitable tag, but we did find a suitable one before
+			else if ( start != -1 ) break; // complete entity 
 		}
 		
-		return StringUtils.join(entity, " ");
+		return start == -1 ? "" : StringUtils.join(this.cleanWords, ' ', start, end);
 	}
 
-	private void createRightContext(String nerTaggedString, String sentenceWithoutNerTags) throws IllegalArgumentException {
+	private void createRightContext(TaggedSentence taggedSentence, String sentenceWithoutNerTags) throws IllegalArgumentException {
 
 		String leftContextString = sentenceWithoutNerTags.substring(0, sentenceWithoutNerTags.toLowerCase().indexOf(this.pattern.toLowerCase()) - 1).trim();
-		String[] taggedWords = nerTaggedString.split(" ");
-        //String[] cleanWords = sentenceWithoutNerTags.split(" ");
-		String[] cleanWords = new String[taggedWords.length];
-		for (int i = 0; i < taggedWords.length; i++)
-			cleanWords[i] = taggedWords[i].substring(0, taggedWords[i].lastIndexOf('_'));
-
-		//System.out.println(Arrays.toString(taggedWords));
-		//System.out.println(Arrays.toString(cleanWords));
 		
-        if ( taggedWords.length != cleanWords.length ) 
-            throw new IllegalArgumentException("Could not create a context because the tagged string and the clean string have not the same size.\n" +
-                    "cleanWords:  " + Arrays.toString(cleanWords) + "\n" +
-                    "taggedWords: " + Arrays.toString(taggedWords));
-        
-        for ( int i = leftContextString.split(" ").length + this.pattern.split(" ").length - 1 ; i < cleanWords.length ; i++){
-        	
-        	this.cleanWords.add(cleanWords[i]);
-        	this.taggedWords.add(taggedWords[i]);
-        }
+		// the pattern without its first word and the right context
+		this.createContext(taggedSentence, Context.countWords(leftContextString) + this.patternLength - 1, taggedSentence.size());
 	}
 	
 	/* (non-Javadoc)
@@ -120,7 +76,7 @@ public class RightContext extends Context {
     public String toString() {
 
         StringBuilder builder = new StringBuilder();
-        builder.append(cleanWords);
+        builder.append(Arrays.toString(cleanWords));
         return builder.toString();
     }
 }
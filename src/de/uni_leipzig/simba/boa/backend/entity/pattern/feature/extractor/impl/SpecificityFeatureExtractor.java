@@ -34,7 +34,8 @@ public class SpecificityFeatureExtractor extends AbstractFeatureExtractor {
 		
 		pair.getPattern().getFeatures().put(FeatureFactory.getInstance().getFeature("SPECIFICITY"), specificity >= 0 ? specificity : 0);
 		pair.getPattern().getFeatures().put(FeatureFactory.getInstance().getFeature("SPECIFICITY_OCCURRENCE"), (double) occurrences);
-		this.logger.debug("Specificity feature for " + pair.getMapping().getProperty().getLabel() + "/\"" + pair.getPattern().getNaturalLanguageRepresentation() + "\"  finished in " + TimeUtil.convertMilliSeconds((new Date().getTime() - start)) + ".");
+		if ( this.logger.isDebugEnabled() )
+			this.logger.debug("Specificity feature for " + pair.getMapping().getProperty().getLabel() + "/\"" + pair.getPattern().getNaturalLanguageRepresentation() + "\"  finished in " + TimeUtil.convertMilliSeconds((new Date().getTime() - start)) + ".");
 	}
 	
 	/**
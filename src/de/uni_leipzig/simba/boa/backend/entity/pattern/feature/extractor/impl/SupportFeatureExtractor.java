@@ -27,6 +27,7 @@ public class SupportFeatureExtractor extends AbstractFeatureExtractor {
 		pair.getPattern().getFeatures().put(FeatureFactory.getInstance().getFeature("SUPPORT_NUMBER_OF_MAX_PAIRS_LEARNED_FROM"), maxLearnedFrom >= 0 ? maxLearnedFrom : 0);
 		pair.getPattern().getFeatures().put(FeatureFactory.getInstance().getFeature("SUPPORT_NUMBER_OF_PAIRS_LEARNED_FROM"), countLearnedFrom  >= 0 ? countLearnedFrom : 0);
 
-		this.logger.debug("Typicity feature for " + pair.getMapping().getProperty().getLabel() + "/\"" + pair.getPattern().getNaturalLanguageRepresentation() + "\"  finished in " + TimeUtil.convertMilliSeconds((new Date().getTime() - start)) + ".");
+		if ( this.logger.isDebugEnabled() )
+			this.logger.debug("Typicity feature for " + pair.getMapping().getProperty().getLabel() + "/\"" + pair.getPattern().getNaturalLanguageRepresentation() + "\"  finished in " + TimeUtil.convertMilliSeconds((new Date().getTime() - start)) + ".");
 	}
 }
\ No newline at end of file
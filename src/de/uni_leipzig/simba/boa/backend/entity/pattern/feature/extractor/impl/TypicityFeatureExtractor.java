@@ -22,6 +22,7 @@ import de.uni_leipzig.simba.boa.backend.entity.pattern.feature.extractor.Abstrac
 import de.uni_leipzig.simba.boa.backend.entity.pattern.feature.helper.FeatureFactory;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.impl.StanfordNLPNamedEntityRecognition;
 import de.uni_leipzig.simba.boa.backend.search.impl.DefaultPatternSearcher;
@@ -76,8 +77,10 @@ public class TypicityFeatureExtractor extends AbstractFeatureExtractor {
 			if ( nerTagged != null && sentence != null && patternWithOutVariables != null &&
 					nerTagged.length() > 0 && sentence.length() > 0 && patternWithOutVariables.length() > 0 ) {
 				
-				Context leftContext     = this.createContext(LeftContext.class, nerTagged, sentence, patternWithOutVariables);
-				Context rightContext    = this.createContext(RightContext.class, nerTagged, sentence, patternWithOutVariables);
+				// the tagged sentence is parsed once for both contexts
+				TaggedSentence taggedSentence = Context.parseTaggedString(nerTagged);
+				Context leftContext     = this.createContext(LeftContext.class, taggedSentence, sentence, patternWithOutVariables);
+				Context rightContext    = this.createContext(RightContext.class, taggedSentence, sentence, patternWithOutVariables);
 				
 				// there are sentence which can not be parsed
 				if ( leftContext == null || rightContext == null ) {
@@ -110,27 +113,28 @@ public class TypicityFeatureExtractor extends AbstractFeatureExtractor {
 		pattern.getFeatures().put(FeatureFactory.getInstance().getFeature("TYPICITY_SENTENCES"), Math.log(sentenceCount + 1)  >= 0 ? Math.log(sentenceCount + 1) : 0);
 		pattern.getFeatures().put(FeatureFactory.getInstance().getFeature("TYPICITY"), typicity >= 0 ? typicity : 0 );
 		
-		this.logger.debug("Typicity feature for " + pair.getMapping().getProperty().getLabel() + "/\"" + pattern.getNaturalLanguageRepresentation() + "\"  finished in " + TimeUtil.convertMilliSeconds((new Date().getTime() - start)) + ".");
+		if ( this.logger.isDebugEnabled() )
+			this.logger.debug("Typicity feature for " + pair.getMapping().getProperty().getLabel() + "/\"" + pattern.getNaturalLanguageRepresentation() + "\"  finished in " + TimeUtil.convertMilliSeconds((new Date().getTime() - start)) + ".");
 	}
 	
 	/**
 	 * 
 	 * @param clazz
-	 * @param nerTagged
+	 * @param taggedSentence
 	 * @param foundString
 	 * @param segmentedPattern
 	 * @return
 	 */
-	private Context createContext(Class<? extends Context> clazz, String nerTagged, String foundString, String segmentedPattern) {
+	private Context createContext(Class<? extends Context> clazz, TaggedSentence taggedSentence, String foundString, String segmentedPattern) {
 
 	    Context context = null;
 	    
 	    try {
 	        
-	        if ( clazz.equals(LeftContext.class) ) context = new LeftContext(nerTagged, foundString, segmentedPattern);
+	        if ( clazz.equals(LeftContext.class) ) context = new LeftContext(taggedSentence, foundString, segmentedPattern);
 	        else {
 	            
-	            if ( clazz.equals(RightContext.class) ) context = new RightContext(nerTagged, foundString, segmentedPattern);
+	            if ( clazz.equals(RightContext.class) ) context = new RightContext(taggedSentence, foundString, segmentedPattern);
 	            else {
 	                
 	                throw new RuntimeException("Not appropriate class given: " + clazz);
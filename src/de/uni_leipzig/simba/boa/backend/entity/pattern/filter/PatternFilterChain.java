@@ -0,0 +1,139 @@
+package de.uni_leipzig.simba.boa.backend.entity.pattern.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+
+/**
+ * Runs a list of pattern filters one after another on a pattern mapping. 
+ * The order of the filters is the order in which they are configured 
+ * in the filter.xml, so cheap filters which remove many patterns should 
+ * come first. Since a chain is a filter itself, chains can be combined.
+ * 
+ * For every filter the chain counts how many patterns it removed, over 
+ * all mappings filtered with this chain.
+ * 
+ * @author Daniel Gerber
+ */
+public class PatternFilterChain implements PatternFilter {
+
+	private static final NLPediaLogger logger = new NLPediaLogger(PatternFilterChain.class);
+	
+	private final List<PatternFilter> patternFilters;
+	private final AtomicLong[] removedPatterns;
+	
+	/**
+	 * @param patternFilters - the filters in the order they should be applied
+	 */
+	public PatternFilterChain(Collection<PatternFilter> patternFilters) {
+		
+		this.patternFilters = new ArrayList<PatternFilter>(patternFilters);
+		this.removedPatterns = new AtomicLong[this.patternFilters.size()];
+		for ( int i = 0 ; i < this.removedPatterns.length ; i++ ) this.removedPatterns[i] = new AtomicLong();
+	}
+	
+	/**
+	 * Applies all filters to the mapping, a filter is only called if 
+	 * there are patterns left.
+	 */
+	@Override
+	public void filterPattern(PatternMapping patternMapping) {
+
+		for ( int i = 0 ; i < this.patternFilters.size() && !patternMapping.getPatterns().isEmpty() ; i++ ) {
+			
+			int numberOfPatterns = patternMapping.getPatterns().size();
+			this.patternFilters.get(i).filterPattern(patternMapping);
+			this.removedPatterns[i].addAndGet(numberOfPatterns - patternMapping.getPatterns().size());
+		}
+	}
+	
+	/**
+	 * Filters all mappings in parallel, each mapping is filtered by 
+	 * one thread. The size of the thread pool is configured by the 
+	 * setting patternFilterThreadPoolSize. The filters need to be 
+	 * thread safe, since they are called for different mappings at the 
+	 * same time.
+	 * 
+	 * @param patternMappings - the mappings to filter
+	 */
+	public void filterPatterns(Collection<PatternMapping> patternMappings) {
+		
+		if ( patternMappings.isEmpty() ) return;
+		
+		ExecutorService executorService = Executors.newFixedThreadPool(Math.min(getThreadPoolSize(), patternMappings.size()));
+		try {
+			
+			List<Future<?>> results = new ArrayList<Future<?>>();
+			for ( final PatternMapping patternMapping : patternMappings ) {
+				
+				results.add(executorService.submit(new Callable<Void>() {
+
+					public Void call() {
+
+						filterPattern(patternMapping);
+						return null;
+					}
+				}));
+			}
+			for ( Future<?> result : results ) result.get();
+		}
+		catch (InterruptedException e) {
+			
+			Thread.currentThread().interrupt();
+			String error = "Interrupted while filtering pattern mappings!";
+			logger.error(error, e);
+			throw new RuntimeException(error, e);
+		}
+		catch (ExecutionException e) {
+			
+			e.printStackTrace();
+			String error = "Could not filter pattern mappings!";
+			logger.error(error, e.getCause());
+			throw new RuntimeException(error, e.getCause());
+		}
+		finally {
+			
+			executorService.shutdownNow();
+		}
+	}
+	
+	/**
+	 * @return the simple class name of every filter and the number of patterns it removed, in the order of the chain
+	 */
+	public Map<String,Long> getReport() {
+		
+		Map<String,Long> report = new LinkedHashMap<String,Long>();
+		for ( int i = 0 ; i < this.patternFilters.size() ; i++ ) {
+			
+			String name = this.patternFilters.get(i).getClass().getSimpleName();
+			report.put(name, (report.containsKey(name) ? report.get(name) : 0L) + this.removedPatterns[i].get());
+		}
+		return report;
+	}
+	
+	/**
+	 * @return the filters of this chain
+	 */
+	public List<PatternFilter> getPatternFilters() {
+		
+		return this.patternFilters;
+	}
+	
+	private static int getThreadPoolSize() {
+		
+		String threadPoolSize = NLPediaSettings.getSetting("patternFilterThreadPoolSize");
+		return threadPoolSize == null || threadPoolSize.isEmpty() ? Runtime.getRuntime().availableProcessors() : Math.max(1, Integer.valueOf(threadPoolSize));
+	}
+}
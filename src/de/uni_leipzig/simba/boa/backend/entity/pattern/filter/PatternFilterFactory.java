@@ -71,6 +71,17 @@ public class PatternFilterFactory {
 		return pe; 
 	}
 
+	/**
+	 * Returns a chain of all available pattern filters in the order 
+	 * they are configured.
+	 * 
+	 * @return a new chain, every chain has its own report
+	 */
+	public PatternFilterChain getPatternFilterChain() {
+		
+		return new PatternFilterChain(PatternFilterFactory.patternFilterMap.values());
+	}
+
 	/**
 	 * @param patternFilterMap the patternFilterMap to set
 	 */
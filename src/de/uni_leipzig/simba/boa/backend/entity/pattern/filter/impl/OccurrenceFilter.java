@@ -2,7 +2,6 @@ package de.uni_leipzig.simba.boa.backend.entity.pattern.filter.impl;
 
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
@@ -11,6 +10,10 @@ import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilter;
 import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
 
 /**
+ * Discards patterns which occur too rarely, which were learned from too 
+ * few pairs or from no pair which occurs often enough. The thresholds are 
+ * read from the settings once per pattern mapping, and the counters are 
+ * checked before the learned from pairs are scanned.
  * 
  * @author Daniel Gerber
  */
@@ -21,50 +24,52 @@ public class OccurrenceFilter implements PatternFilter {
 	@Override
 	public void filterPattern(PatternMapping patternMapping) {
 
-		// collect all patterns which do not fit the filters, can't modify list while iteration
-		Set<Pattern> correctPatterns = new HashSet<Pattern>();
+		int occurrenceThreshold			= NLPediaSettings.getIntegerSetting("number.of.occurrence.threshold");
+		int uniqueOccurrenceThreshold	= NLPediaSettings.getIntegerSetting("number.of.unique.occurrence.threshold");
+		int learnedPairsThreshold		= NLPediaSettings.getIntegerSetting("number.of.learned.pairs");
 		
-		for ( Pattern p : patternMapping.getPatterns() ) {
+		Set<Pattern> patterns = patternMapping.getPatterns();
+		int numberOfCorrectPatterns = 0;
+		
+		for ( Pattern p : patterns ) {
 			
 			// skip this evaluation, because it was characterized as not suitable in a previous evaluation
 			if ( p.isUseForPatternEvaluation() ) {
 				
-				// discard only patterns which might occur randomly
 				p.setUseForPatternEvaluation(
 						
-						p.getNumberOfOccurrences() >= NLPediaSettings.getIntegerSetting("number.of.occurrence.threshold") 
-				);
-				
-				int counter = 0;
-				
-				if ( p.isUseForPatternEvaluation() ) {
-					
-					// look if there are pairs available between the pattern occurs more than NUMBER_OF_UNIQUE_OCCURRENCES_THRESHOLD
-					Map<String,Integer> learnedFrom = p.getLearnedFrom();
-					for (Entry<String,Integer> entry : learnedFrom.entrySet()) {
-						
-						if ( entry.getValue() >= NLPediaSettings.getIntegerSetting("number.of.unique.occurrence.threshold") ) counter++;
-					}
-					
-					if ( counter < 1 ) p.setUseForPatternEvaluation(false);
-					
-					if ( p.isUseForPatternEvaluation() ) {
-						
+						// discard only patterns which might occur randomly
+						p.getNumberOfOccurrences() >= occurrenceThreshold
 						// look if there are more than NUMBER_OF_LEARNED_PAIRS pairs the pattern was learned from
-						p.setUseForPatternEvaluation(
-							
-								learnedFrom.size() >= NLPediaSettings.getIntegerSetting("number.of.learned.pairs")
-						);
-					}
-				}
+						&& p.getLearnedFrom().size() >= learnedPairsThreshold
+						// look if there are pairs available between the pattern occurs more than NUMBER_OF_UNIQUE_OCCURRENCES_THRESHOLD
+						&& containsPairWithOccurrences(p.getLearnedFrom(), uniqueOccurrenceThreshold)
+				);
 			}
 			// check after filter were applied if pattern is still suitable
-			if ( p.isUseForPatternEvaluation() ) {
-				
-				correctPatterns.add(p);
-			}
+			if ( p.isUseForPatternEvaluation() ) numberOfCorrectPatterns++;
+		}
+		
+		// replace them with the ones which survived the filtering, the set can't be changed while iterating 
+		// and the hash code of a pattern might have changed since it was added
+		if ( numberOfCorrectPatterns < patterns.size() ) {
+			
+			Set<Pattern> correctPatterns = new HashSet<Pattern>(Math.max(16, (int) (numberOfCorrectPatterns / .75f) + 1));
+			for ( Pattern p : patterns )
+				if ( p.isUseForPatternEvaluation() ) correctPatterns.add(p);
+			
+			patternMapping.setPatterns(correctPatterns);
 		}
-		// replace them with the ones which survived the filtering
-		patternMapping.setPatterns(correctPatterns);
+	}
+
+	/**
+	 * @return true if at least one pair was found threshold times or more
+	 */
+	private static boolean containsPairWithOccurrences(Map<String,Integer> learnedFrom, int threshold) {
+		
+		for ( Integer occurrences : learnedFrom.values() )
+			if ( occurrences >= threshold ) return true;
+		
+		return false;
 	}
 }
@@ -1,6 +1,10 @@
 package de.uni_leipzig.simba.boa.backend.entity.patternmapping;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.persistence.CascadeType;
@@ -38,6 +42,20 @@ public class PatternMapping extends de.uni_leipzig.simba.boa.backend.entity.Enti
 	 */
 	private Set<Pattern> patterns;
 	
+	/**
+	 * the patterns sorted by score in descending order and their scores at the time 
+	 * of sorting, see {@link #retrievePatternsSortedByScore(Double)}
+	 */
+	private transient Pattern[] sortedPatterns;
+	private transient double[] sortedScores;
+	
+	/**
+	 * incremented by every change of the patterns through this class, the sorted
+	 * patterns are stale if it differs from the count at the time of sorting
+	 */
+	private transient int modificationCount = 0;
+	private transient int sortedModificationCount = -1;
+	
 	/**
 	 * default constructor needed for hibernate
 	 */
@@ -81,25 +99,96 @@ public class PatternMapping extends de.uni_leipzig.simba.boa.backend.entity.Enti
 	/**
 	 * @param patterns the patterns to set
 	 */
-	public void setPatterns(Set<Pattern> patterns) {
+	public synchronized void setPatterns(Set<Pattern> patterns) {
 	
 		this.patterns = patterns;
+		this.modificationCount++;
 	}
 	
 	/**
 	 * 
 	 * @param pattern
 	 */
-	public PatternMapping addPattern(Pattern pattern) {
+	public synchronized PatternMapping addPattern(Pattern pattern) {
 		
-		this.patterns.add(pattern);
+		if ( this.patterns.add(pattern) ) this.modificationCount++;
 		return this;
 	}
 	
-	public void removePattern(Pattern pattern) {
+	/**
+	 * Returns the patterns sorted by their score in descending order. The patterns
+	 * are sorted once and only sorted again if patterns were added or removed or 
+	 * their scores have changed since, which is checked without sorting.
+	 * 
+	 * @param scoreThreshold - only return patterns with a score greater or equal, null for all patterns
+	 * @return an unmodifiable list of the patterns, best pattern first
+	 */
+	public synchronized List<Pattern> retrievePatternsSortedByScore(Double scoreThreshold) {
+		
+		if ( !this.isSortedPatternsUpToDate() ) this.sortPatterns();
+		
+		int numberOfPatterns = this.sortedPatterns.length;
+		if ( scoreThreshold != null ) {
+			
+			// the scores are in descending order, so find the first score below the threshold
+			int low = 0, high = this.sortedScores.length;
+			while ( low < high ) {
+				
+				int middle = (low + high) >>> 1;
+				if ( this.sortedScores[middle] >= scoreThreshold ) low = middle + 1;
+				else high = middle;
+			}
+			numberOfPatterns = low;
+		}
+		return Collections.unmodifiableList(Arrays.asList(this.sortedPatterns).subList(0, numberOfPatterns));
+	}
+	
+	/**
+	 * Patterns added or removed through {@link #getPatterns()} directly are only
+	 * noticed if the number of patterns changes.
+	 * 
+	 * @return true if no pattern was added or removed since sorting and all scores are the same
+	 */
+	private boolean isSortedPatternsUpToDate() {
+		
+		if ( this.sortedPatterns == null || this.sortedModificationCount != this.modificationCount 
+				|| this.sortedPatterns.length != this.patterns.size() ) return false;
+		for ( int i = 0; i < this.sortedPatterns.length; i++ )
+			if ( Double.compare(this.sortedScores[i], this.sortedPatterns[i].getScore()) != 0 ) return false;
+		
+		return true;
+	}
+	
+	/**
+	 * Sorts a copy of the patterns, the old arrays are not changed since 
+	 * lists returned before might still use them.
+	 */
+	private void sortPatterns() {
+		
+		Pattern[] sortedPatterns = this.patterns.toArray(new Pattern[this.patterns.size()]);
+		Arrays.sort(sortedPatterns, new Comparator<Pattern>() {
+
+			@Override
+			public int compare(Pattern pattern1, Pattern pattern2) {
+
+				return Double.compare(pattern2.getScore(), pattern1.getScore());
+			}
+		});
+		double[] sortedScores = new double[sortedPatterns.length];
+		for ( int i = 0; i < sortedPatterns.length; i++ ) sortedScores[i] = sortedPatterns[i].getScore();
+		
+		this.sortedPatterns = sortedPatterns;
+		this.sortedScores = sortedScores;
+		this.sortedModificationCount = this.modificationCount;
+	}
+	
+	/**
+	 * 
+	 * @param pattern
+	 */
+	public synchronized void removePattern(Pattern pattern) {
 		
-//		pattern = this.patternMap.remove(pattern.getNaturalLanguageRepresentation().hashCode());
-//		this.patterns.remove(pattern);
+		if ( this.patterns.remove(pattern) ) this.modificationCount++;
 	}
 
 	/* (non-Javadoc)
@@ -38,7 +38,7 @@ public class EvaluationManager {
         Set<Triple> createdTriples = new HashSet<Triple>();
         
         // let the manager create the triples and then collect them in the result set
-        Map<String,Set<Triple>> urisToTriples = knowledgeCreationManager.mergeAndScoreTriples(knowledgeCreationManager.findNewTriples(index, mappings));
+        Map<String,Set<Triple>> urisToTriples = knowledgeCreationManager.mergeAndScoreTriples(knowledgeCreationManager.findNewTriples(index, mappings), mappings);
         for (Map.Entry<String, Set<Triple>> entry : urisToTriples.entrySet() ) {
             
             System.out.println("NEW: " + entry.getValue());
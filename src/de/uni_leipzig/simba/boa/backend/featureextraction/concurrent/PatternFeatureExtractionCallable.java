@@ -68,7 +68,7 @@ public class PatternFeatureExtractionCallable extends BoaCallable<PatternMapping
 	            // do feature score with respect to each pattern mapping
 	            for (PatternMappingPatternPair pair : patternMappingPatterns) {
 	                
-	                this.logger.debug(featureExtractor.getClass().getSimpleName() + "/" + this.name + ": " + pair.getMapping().getProperty().getUri() + " / " + pair.getPattern().getNaturalLanguageRepresentation());
+	                this.logger.debug("{}/{}: {} / {}", featureExtractor.getClass().getSimpleName(), this.name, pair.getMapping().getProperty().getUri(), pair.getPattern().getNaturalLanguageRepresentation());
 	                try {
 	                	
 	                	featureExtractor.score(pair);
@@ -75,7 +75,7 @@ public class PatternScoreManager {
         for (PatternMapping mapping : mappings) {
             for (Pattern pattern : mapping.getPatterns() ) {
                 
-                this.logger.debug("Generation of training example: " + mapping.getProperty().getUri() + "/" + pattern.getNaturalLanguageRepresentation());
+                this.logger.debug("Generation of training example: {}/{}", mapping.getProperty().getUri(), pattern.getNaturalLanguageRepresentation());
                 trainingFileEntries.add(MachineLearningTrainingFileFactory.getInstance().getDefaultMachineLearningTrainingFileEntry(
                                                                                             mapping.getProperty().getUri(),
                                                                                             pattern.getNaturalLanguageRepresentation(),
@@ -14,7 +14,10 @@ import de.uni_leipzig.simba.boa.backend.concurrent.PatternMappingPatternPair;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
 import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
+import de.uni_leipzig.simba.boa.backend.util.PatternUtil;
+import de.uni_leipzig.simba.boa.backend.util.PatternUtil.PatternSelectionStrategy;
 
 /**
  * 
@@ -22,6 +25,8 @@ import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
  */
 public class KnowledgeCreationManager {
 
+    private final NLPediaLogger logger = new NLPediaLogger(KnowledgeCreationManager.class);
+
     /**
      * 
      * @param index 
@@ -32,13 +37,12 @@ public class KnowledgeCreationManager {
         
         // create the input for the search threads  
         Set<PatternMappingPatternPair> pairs = new HashSet<PatternMappingPatternPair>();
+        double scoreThreshold = NLPediaSettings.getDoubleSetting("pattern.score.threshold.create.knowledge");
         for ( PatternMapping mapping : mappings) {
-            for (Pattern pattern : mapping.getPatterns()) {
-                
-                // but only those patterns which are higher scored then the threshold
-                if ( pattern.getScore() >= NLPediaSettings.getDoubleSetting("pattern.score.threshold.create.knowledge") )
-                    pairs.add(new PatternMappingPatternPair(mapping, pattern));
-            }
+            
+            // but only those patterns which are higher scored then the threshold
+            for (Pattern pattern : PatternUtil.getTopNPattern(mapping, PatternSelectionStrategy.ALL, null, scoreThreshold))
+                pairs.add(new PatternMappingPatternPair(mapping, pattern));
         }
         return KnowledgeCreationThreadManager.startKnowledgeCreationCallables(index, pairs, NLPediaSettings.getIntegerSetting("number.of.create.knowledge.threads"));
     }
@@ -46,13 +50,25 @@ public class KnowledgeCreationManager {
     /**
      * 
      * @param newKnowledge
+     * @param mappings - the mappings the new knowledge was found with, the 
+     *  triples reference their patterns only by natural language representation
      * @return
+     * @throws RuntimeException if a property or pattern of a triple is not part of the mappings
      */
-    public Map<String, Set<Triple>> mergeAndScoreTriples(Map<String, List<Triple>> newKnowledge) {
+    public Map<String, Set<Triple>> mergeAndScoreTriples(Map<String, List<Triple>> newKnowledge, Set<PatternMapping> mappings) {
 
         Map<String,Set<Triple>> results =  new HashMap<String,Set<Triple>>();
         Map<Integer,Triple> mergedTriples;
         
+        // property uri -> natural language representation -> pattern
+        Map<String,Map<String,Pattern>> patterns = new HashMap<String,Map<String,Pattern>>();
+        for ( PatternMapping mapping : mappings ) {
+            
+            Map<String,Pattern> mappingPatterns = new HashMap<String,Pattern>();
+            for ( Pattern pattern : mapping.getPatterns() ) mappingPatterns.put(pattern.getNaturalLanguageRepresentation(), pattern);
+            patterns.put(mapping.getProperty().getUri(), mappingPatterns);
+        }
+        
         for ( Map.Entry<String, List<Triple>> entry : newKnowledge.entrySet()) {
             
             mergedTriples = new HashMap<Integer,Triple>();
@@ -60,6 +76,14 @@ public class KnowledgeCreationManager {
             String propertyUri = entry.getKey();
             List<Triple> triples = entry.getValue();
             
+            // the triples were found with these mappings, so a missing one is a bug and no triple may get lost
+            if ( !patterns.containsKey(propertyUri) ) {
+                
+                String error = "Could not score " + triples.size() + " triples for property " + propertyUri + " with no pattern mapping!";
+                this.logger.error(error);
+                throw new RuntimeException(error);
+            }
+            
             for ( Triple triple : triples ) {
                 
                 // we have seen this triple before, so merge it
@@ -71,12 +95,12 @@ public class KnowledgeCreationManager {
                     // triple has been learned from
                     Triple knownTriple = mergedTriples.get(triple.hashCode());
                     knownTriple.getLearnedFromPatterns().addAll(triple.getLearnedFromPatterns());
-                    knownTriple.getLearnedFromSentences().addAll(triple.getLearnedFromSentences());
+                    knownTriple.addLearnedFromSentences(triple.getLearnedFromSentenceIds());
                 }
                 else // we can simply put it in the list
                     mergedTriples.put(triple.hashCode(), triple);
             }
-            results.put(propertyUri, this.calculateConfidence(mergedTriples.values()));
+            results.put(propertyUri, this.calculateConfidence(mergedTriples.values(), patterns.get(propertyUri)));
         }
         return results;
     }
@@ -84,18 +108,26 @@ public class KnowledgeCreationManager {
     /**
      * 
      * @param unscoredTriples
+     * @param patterns - the patterns of the triples' pattern mapping by natural language representation
      * @return
      */
-    private Set<Triple> calculateConfidence(Collection<Triple> unscoredTriples) {
+    private Set<Triple> calculateConfidence(Collection<Triple> unscoredTriples, Map<String,Pattern> patterns) {
 
         Set<Triple> scoredTriples = new HashSet<Triple>();
         
         double maximum = 0;
         
         for ( Triple triple : unscoredTriples )
-            for ( Pattern patternLearnedFrom : triple.getLearnedFromPatterns() ) {
+            for ( String patternLearnedFrom : triple.getLearnedFromPatterns() ) {
                 
-                triple.setScore(triple.getScore() + patternLearnedFrom.getScore());
+                Pattern pattern = patterns.get(patternLearnedFrom);
+                if ( pattern == null ) {
+                    
+                    String error = "Could not score triple: " + triple + " learned from unknown pattern \"" + patternLearnedFrom + "\"!";
+                    this.logger.error(error);
+                    throw new RuntimeException(error);
+                }
+                triple.setScore(triple.getScore() + pattern.getScore());
                 maximum = Math.max(maximum, triple.getScore());
             }
         
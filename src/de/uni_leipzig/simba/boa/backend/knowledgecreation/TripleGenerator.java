@@ -3,8 +3,10 @@
  */
 package de.uni_leipzig.simba.boa.backend.knowledgecreation;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
@@ -19,10 +21,13 @@ import de.uni_leipzig.simba.boa.backend.entity.pattern.impl.SubjectPredicateObje
 import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentenceCache;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagger;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Property;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Resource;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.ResourceManager;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
 import de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval;
 import de.uni_leipzig.simba.boa.backend.rdf.uri.impl.FeatureBasedDisambiguation;
@@ -42,9 +47,29 @@ public class TripleGenerator {
     private PartOfSpeechTagger posTagger;
 	private ClassesUriRetrieval classesUriRetrieval;
 	FeatureBasedDisambiguation disambiguation = new FeatureBasedDisambiguation();
+	private TaggedSentenceCache taggedSentenceCache;
+	private ResourceManager resourceManager;
+	
+	// the tags of the entities which are used to disambiguate the subject and object 
+	private static final Set<String> ENTITY_TAGS = new HashSet<String>(Arrays.asList(
+			Constants.NAMED_ENTITY_TAG_PERSON, Constants.NAMED_ENTITY_TAG_MISCELLANEOUS, Constants.NAMED_ENTITY_TAG_PLACE, 
+			Constants.NAMED_ENTITY_TAG_ORGANIZATION, "NNP"));
     
     public TripleGenerator() {
         
+        this(null, new ResourceManager());
+    }
+    
+    /**
+     * @param taggedSentenceCache - the tagged sentences of the index by id, shared by
+     * 	all generators of the same index, might be null
+     * @param resourceManager - the subjects and objects of the triples by uri, shared by 
+     * 	all generators of the same knowledge creation run
+     */
+    public TripleGenerator(TaggedSentenceCache taggedSentenceCache, ResourceManager resourceManager) {
+        
+        this.taggedSentenceCache = taggedSentenceCache;
+        this.resourceManager = resourceManager;
         if ( NLPediaSettings.getBooleanSetting("useProperNounPhraseExtraction") )
             this.nerTagger  = NaturalLanguageProcessingToolFactory.getInstance().createDefaultNamedEntityRecognition();
         else 
@@ -64,36 +89,39 @@ public class TripleGenerator {
      * 
      * @param mapping
      * @param pattern
+     * @param sentenceId - the lucene document id of the sentence
      * @param sentence
      * @return
      */
-    public Triple createTriple(PatternMapping mapping, Pattern pattern, String sentence) {
+    public Triple createTriple(PatternMapping mapping, Pattern pattern, int sentenceId, String sentence) {
      
         if ( NLPediaSettings.getBooleanSetting("useProperNounPhraseExtraction") ) 
-            return this.createTripleWithNamedEntityRecognition(mapping, pattern, sentence);
+            return this.createTripleWithNamedEntityRecognition(mapping, pattern, sentenceId, sentence);
         else 
-            return this.createTripleWithPartOfSpeechTagging(mapping, pattern, sentence);
+            return this.createTripleWithPartOfSpeechTagging(mapping, pattern, sentenceId, sentence);
     }
 
     /**
      * 
      * @param mapping
      * @param pattern
+     * @param sentenceId
      * @param sentence
      * @return
      */
-    private Triple createTripleWithPartOfSpeechTagging(PatternMapping mapping, Pattern pattern, String sentence) {
+    private Triple createTripleWithPartOfSpeechTagging(PatternMapping mapping, Pattern pattern, int sentenceId, String sentence) {
 
-        String posTaggedSentence    = this.posTagger.getAnnotatedString(sentence);
-        
-        System.out.println("Noun Phrases: " + this.posTagger.getNounPhrases(sentence));
+        // tag the sentence only once and reuse the tokens for the noun phrases
+        TaggedSentence taggedSentence   = this.getTaggedSentence(sentenceId, sentence);
+        List<String> nounPhrases        = this.posTagger.getNounPhrases(taggedSentence);
         
 		try {
-			Context leftContext     = new ProperNounPhraseLeftContext(posTaggedSentence, sentence, pattern.getNaturalLanguageRepresentationWithoutVariables(), this.posTagger.getNounPhrases(sentence));
-			Context rightContext    = new ProperNounPhraseRightContext(posTaggedSentence, sentence, pattern.getNaturalLanguageRepresentationWithoutVariables(), this.posTagger.getNounPhrases(sentence));
-        	return this.extractTriple(leftContext, rightContext, sentence, posTaggedSentence, mapping, pattern);
+			Context leftContext     = new ProperNounPhraseLeftContext(taggedSentence, sentence, pattern.getNaturalLanguageRepresentationWithoutVariables(), nounPhrases);
+			Context rightContext    = new ProperNounPhraseRightContext(taggedSentence, sentence, pattern.getNaturalLanguageRepresentationWithoutVariables(), nounPhrases);
+        	return this.extractTriple(leftContext, rightContext, sentenceId, sentence, taggedSentence, mapping, pattern);
 		} catch (StringIndexOutOfBoundsException ex) {	// @author Maciej Janicki
-            this.logger.debug("Could not create context for string " + sentence + ". TAGGED: " + posTaggedSentence + " pattern: " + pattern.getNaturalLanguageRepresentationWithoutVariables(), ex);
+            if ( this.logger.isDebugEnabled() )
+                this.logger.debug("Could not create context for string " + sentence + ". TAGGED: " + taggedSentence + " pattern: " + pattern.getNaturalLanguageRepresentationWithoutVariables(), ex);
 			return null;
 		}
     }
@@ -112,38 +140,59 @@ public class TripleGenerator {
         mapping.addPattern(pattern);
         
         TripleGenerator tg = new TripleGenerator();
-        System.out.println(tg.createTripleWithPartOfSpeechTagging(mapping, pattern, sentence1));
-        System.out.println(tg.createTripleWithPartOfSpeechTagging(mapping, pattern, sentence2));
+        System.out.println(tg.createTripleWithPartOfSpeechTagging(mapping, pattern, 1, sentence1));
+        System.out.println(tg.createTripleWithPartOfSpeechTagging(mapping, pattern, 2, sentence2));
     }
 
     /**
      * 
      * @param mapping
      * @param pattern
+     * @param sentenceId
      * @param sentence
      * @return
      */
-    private Triple createTripleWithNamedEntityRecognition(PatternMapping mapping, Pattern pattern, String sentence) {
+    private Triple createTripleWithNamedEntityRecognition(PatternMapping mapping, Pattern pattern, int sentenceId, String sentence) {
 
-        String nerTaggedSentence    = this.nerTagger.getAnnotatedString(sentence);
+        TaggedSentence nerTaggedSentence = this.getTaggedSentence(sentenceId, sentence);
         
         Context leftContext     = new LeftContext(nerTaggedSentence, sentence, pattern.getNaturalLanguageRepresentationWithoutVariables());
         Context rightContext    = new RightContext(nerTaggedSentence, sentence, pattern.getNaturalLanguageRepresentationWithoutVariables());
         
-        return this.extractTriple(leftContext, rightContext, sentence, nerTaggedSentence, mapping, pattern);
+        return this.extractTriple(leftContext, rightContext, sentenceId, sentence, nerTaggedSentence, mapping, pattern);
+    }
+    
+    /**
+     * Tags the sentence with the tagger of this generator, a sentence 
+     * which is already in the cache is not tagged again.
+     * 
+     * @param sentenceId - the lucene document id of the sentence
+     * @param sentence
+     * @return the tagged sentence
+     */
+    private TaggedSentence getTaggedSentence(int sentenceId, String sentence) {
+        
+        TaggedSentence taggedSentence = this.taggedSentenceCache != null ? this.taggedSentenceCache.get(sentenceId) : null;
+        if ( taggedSentence == null ) {
+            
+            taggedSentence = this.nerTagger != null ? this.nerTagger.getTaggedSentence(sentence) : this.posTagger.getTaggedSentence(sentence);
+            if ( this.taggedSentenceCache != null ) this.taggedSentenceCache.put(sentenceId, taggedSentence);
+        }
+        return taggedSentence;
     }
     
     /**
      * 
      * @param leftContext
      * @param rightContext
+     * @param sentenceId
      * @param sentence
      * @param taggedSentence
      * @param mapping
      * @param pattern
      * @return
      */
-    private Triple extractTriple(Context leftContext, Context rightContext, String sentence, String taggedSentence, PatternMapping mapping, Pattern pattern) {
+    private Triple extractTriple(Context leftContext, Context rightContext, int sentenceId, String sentence, TaggedSentence taggedSentence, PatternMapping mapping, Pattern pattern) {
        
         try {
             
@@ -161,7 +210,7 @@ public class TripleGenerator {
                         String subjectLabel = leftContext.getSuitableEntity(domainUri);
                         String objectLabel = rightContext.getSuitableEntity(rangeUri);
                         
-                        List<String> entities = getEntities(mergeTagsInSentences(taggedSentence));
+                        List<String> entities = taggedSentence.getEntities(ENTITY_TAGS);
                         
                         String subjectUri   = this.disambiguation.getUri(subjectLabel, objectLabel, entities);
                         String objectUri    = this.disambiguation.getUri(objectLabel, subjectLabel, entities);
@@ -169,12 +218,12 @@ public class TripleGenerator {
                         if ( subjectUri.equals(Constants.NON_GOOD_URL_FOUND) 
                         		|| objectUri.equals(Constants.NON_GOOD_URL_FOUND) ) return null;
                         
-                        Resource subject    = new Resource(subjectUri, subjectLabel, domainUri);
-                        Resource object     = new Resource(objectUri, objectLabel, rangeUri);
+                        Resource subject    = this.resourceManager.getResource(subjectUri, subjectLabel, domainUri);
+                        Resource object     = this.resourceManager.getResource(objectUri, objectLabel, rangeUri);
                         
                         Triple triple = new Triple(subject, mapping.getProperty(), object);
                         triple.addLearnedFromPattern(pattern);
-                        triple.addLearnedFromSentences(sentence);
+                        triple.addLearnedFromSentence(sentenceId);
                         
                         return triple;
                     }
@@ -200,12 +249,12 @@ public class TripleGenerator {
                         // this is necessary, because we would generate triples with the same object & subject
                         if ( subjectUri.equals(objectUri) ) return null;
                         
-                        Resource subject    = new Resource(subjectUri, subjectLabel, domainUri);
-                        Resource object     = new Resource(objectUri, objectLabel, rangeUri);
+                        Resource subject    = this.resourceManager.getResource(subjectUri, subjectLabel, domainUri);
+                        Resource object     = this.resourceManager.getResource(objectUri, objectLabel, rangeUri);
     
                         Triple triple = new Triple(subject, mapping.getProperty(), object);
                         triple.addLearnedFromPattern(pattern);
-                        triple.addLearnedFromSentences(sentence);
+                        triple.addLearnedFromSentence(sentenceId);
                         
                         return triple;
                     }
@@ -214,72 +263,13 @@ public class TripleGenerator {
         }
         catch (IllegalArgumentException e) {
             
-            this.logger.debug("Could not create context for string " + sentence + ". TAGGED: " + taggedSentence + " pattern: " + pattern.getNaturalLanguageRepresentationWithoutVariables(), e);
+            if ( this.logger.isDebugEnabled() )
+                this.logger.debug("Could not create context for string " + sentence + ". TAGGED: " + taggedSentence + " pattern: " + pattern.getNaturalLanguageRepresentationWithoutVariables(), e);
         }
 
         // we could not extract a triple
         return null;
     }
-    
-    /**
-     * 
-     * @param mergedTaggedSentence
-     * @return
-     */
-    private List<String> getEntities(List<String> mergedTaggedSentence){
-        
-        List<String> entities = new ArrayList<String>();
-        for (String entity :  mergedTaggedSentence) {
-
-            if (entity.endsWith("_PERSON") ) entities.add(entity.replace("_PERSON", ""));
-            if (entity.endsWith("_MISC")) entities.add(entity.replace("_MISC", ""));
-            if (entity.endsWith("_PLACE")) entities.add(entity.replace("_PLACE", ""));
-            if (entity.endsWith("_ORGANIZATION")) entities.add(entity.replace("_ORGANIZATION", ""));
-            if (entity.endsWith("_NNP")) entities.add(entity.replace("_NNP", ""));
-        }
-        
-        return entities;
-    }
-    
-    /**
-     * 
-     */
-    public List<String> mergeTagsInSentences(String nerTaggedSentence) {
-
-        List<String> tokens = new ArrayList<String>();
-        String lastToken = "";
-        String lastTag = "";
-        String currentTag = "";
-        String newToken = "";
-        
-        for (String currentToken : nerTaggedSentence.split(" ")) {
-
-            currentTag = currentToken.substring(currentToken.lastIndexOf("_") + 1);
-
-            // we need to check for the previous token's tag
-            if (!currentToken.endsWith("_OTHER")) {
-
-                // we need to merge the cell
-                if (currentTag.equals(lastTag)) {
-
-                    newToken = lastToken.substring(0, lastToken.lastIndexOf("_")) + " " + currentToken;
-                    tokens.set(tokens.size() - 1, newToken);
-                }
-                // different tag found so just add it
-                else
-                    tokens.add(currentToken);
-            }
-            else {
-
-                // add the current token
-                tokens.add(currentToken);
-            }
-            // update for next iteration
-            lastToken = tokens.get(tokens.size() - 1);
-            lastTag = currentTag;
-        }
-        return tokens;
-    }
 }
 
 
@@ -8,7 +8,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.lucene.store.Directory;
 
@@ -18,6 +17,8 @@ import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.featureextraction.concurrent.PatternFeatureExtractionCallable;
 import de.uni_leipzig.simba.boa.backend.knowledgecreation.TripleGenerator;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentenceCache;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.ResourceManager;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
 import de.uni_leipzig.simba.boa.backend.search.PatternSearcher;
 import de.uni_leipzig.simba.boa.backend.search.PatternSearcherFactory;
@@ -32,10 +33,14 @@ public class KnowledgeCreationCallable extends BoaCallable<Map<String, List<Trip
 
     private List<PatternMappingPatternPair> patternMappingPatternPairs;
     private PatternSearcher patternSearcher;
+    private TaggedSentenceCache taggedSentenceCache;
+    private ResourceManager resourceManager;
 
-    public KnowledgeCreationCallable(Directory index, List<PatternMappingPatternPair> patternMappingPatternPairSubList) {
+    public KnowledgeCreationCallable(Directory index, List<PatternMappingPatternPair> patternMappingPatternPairSubList, TaggedSentenceCache taggedSentenceCache, ResourceManager resourceManager) {
 
         this.patternMappingPatternPairs = patternMappingPatternPairSubList;
+        this.taggedSentenceCache = taggedSentenceCache;
+        this.resourceManager = resourceManager;
         
         // in case we run the evaluation we have a different index not the default one
         this.patternSearcher = PatternSearcherFactory.getInstance().createDefaultPatternSearcher(index);
@@ -46,25 +51,25 @@ public class KnowledgeCreationCallable extends BoaCallable<Map<String, List<Trip
     @Override
     public Collection<Map<String, List<Triple>>> call() throws Exception {
         
-        TripleGenerator tripleGenerator = new TripleGenerator();
+        TripleGenerator tripleGenerator = new TripleGenerator(this.taggedSentenceCache, this.resourceManager);
         List<Map<String, List<Triple>>> results = new ArrayList<Map<String, List<Triple>>>();
         results.add(new HashMap<String,List<Triple>>());
         
         for (PatternMappingPatternPair pair : this.patternMappingPatternPairs) {
 
-            Set<String> sentences = this.patternSearcher.getExactMatchSentences(
+            Map<String,Integer> sentences = this.patternSearcher.getExactMatchSentencesWithIds(
                     pair.getPattern().getNaturalLanguageRepresentationWithoutVariables(),
                     NLPediaSettings.getIntegerSetting("max.number.of.documents.generation"));
             
-            this.logger.debug("\tCreating knowledge for pattern mapping: " + pair.getMapping().getProperty().getUri() + 
-                    " / \"" + pair.getPattern().getNaturalLanguageRepresentation() + "\" with " + sentences.size() + " sentences");
+            this.logger.debug("\tCreating knowledge for pattern mapping: {} / \"{}\" with {} sentences", 
+                    pair.getMapping().getProperty().getUri(), pair.getPattern().getNaturalLanguageRepresentation(), sentences.size());
 
-            for (String sentence : sentences) {
+            for (Map.Entry<String,Integer> sentence : sentences.entrySet()) {
 
                 // there will never be a left argument if the sentence begins with the pattern
-                if (sentence.toLowerCase().startsWith(pair.getPattern().getNaturalLanguageRepresentationWithoutVariables().toLowerCase())) continue;
+                if (sentence.getKey().toLowerCase().startsWith(pair.getPattern().getNaturalLanguageRepresentationWithoutVariables().toLowerCase())) continue;
 
-                Triple triple = tripleGenerator.createTriple(pair.getMapping(), pair.getPattern(), sentence);
+                Triple triple = tripleGenerator.createTriple(pair.getMapping(), pair.getPattern(), sentence.getValue(), sentence.getKey());
                 if ( triple != null ) this.addTriple(results, triple);
             }
             this.progress++;
@@ -1,7 +1,9 @@
 package de.uni_leipzig.simba.boa.backend.logging;
 
-import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
 /**
@@ -16,6 +18,10 @@ import org.apache.log4j.Logger;
  * <li>class</li>
  * <li>message</li>
  * </ul>
+ * 
+ * A message is only built and numbered if the log4j logger of the calling 
+ * class is enabled for its level, the numbers of the messages are counted 
+ * per level and can be used from many threads at the same time.
  */
 public class Logging {
 
@@ -28,17 +34,21 @@ public class Logging {
 
 	private static final int stackLength = 11;
 	
+	private static final Pattern CARRIAGE_RETURN_OR_FORM_FEED = Pattern.compile("[\\r\\f]");
+	private static final Pattern CONTROL_M = Pattern.compile("[/^]M");
+	private static final Pattern LINE_BREAK = Pattern.compile("[\\r\\n]");
+	
 	protected static final String DEBUG = "DEBUG";
 	protected static final String INFO = "INFO";
 	protected static final String WARN = "WARN";
 	protected static final String ERROR = "ERROR";
 	protected static final String FATAL = "FATAL";
 	
-	private static long debugMsgNum = 0;
-	private static long infoMsgNum = 0;
-	private static long warnMsgNum = 0;
-	private static long errorMsgNum = 0;
-	private static long fatalMsgNum = 0; 
+	private static final AtomicLong debugMsgNum = new AtomicLong();
+	private static final AtomicLong infoMsgNum = new AtomicLong();
+	private static final AtomicLong warnMsgNum = new AtomicLong();
+	private static final AtomicLong errorMsgNum = new AtomicLong();
+	private static final AtomicLong fatalMsgNum = new AtomicLong(); 
 
 	/**
 	 * Returns true, if the priority level in the log4j.xml is set to DEBUG.
@@ -65,13 +75,11 @@ public class Logging {
 	 * @param logMsg - message which should be logged
 	 * @param e - Throwable that was thrown (exception)
 	 * @param callingClass - class where the recorder was called
-	 * @return long the number of the fatal message since last reboot
+	 * @return long the number of the debug message since last reboot or 0 if debug is disabled
 	 */
 	public static long logDebug(String logMsg, Throwable e, Class callingClass) {
 		
-		long msgNum = getDebugMsgNum();
-		getLogger(callingClass).debug(createLogEntry(DEBUG, PREFIX, msgNum, callingClass, logMsg, e));
-		return msgNum;
+		return log(DEBUG, getLogger(callingClass), logMsg, e, callingClass);
 	}
 	
 	/**
@@ -88,13 +96,11 @@ public class Logging {
 	 * @param logMsg - message which should be logged
 	 * @param e - Throwable that was thrown (exception) 
 	 * @param callingClass - class where the recorder was called
-	 * @return long the number of the info message since last reboot
+	 * @return long the number of the info message since last reboot or 0 if info is disabled
 	 */
 	public static long logInfo(String logMsg, Throwable e, Class callingClass) {
 		
-		long msgNum = getInfoMsgNum();
-		getLogger(callingClass).info(createLogEntry(INFO, PREFIX, msgNum, callingClass, logMsg, e));
-		return msgNum;
+		return log(INFO, getLogger(callingClass), logMsg, e, callingClass);
 	}
 	
 	/**
@@ -111,13 +117,11 @@ public class Logging {
 	 * @param logMsg - message which should be logged
 	 * @param e - Throwable that was thrown (exception)
 	 * @param callingClass - class where the recorder was called
-	 * @return long the number of the warn messages since last reboot
+	 * @return long the number of the warn messages since last reboot or 0 if warn is disabled
 	 */
 	public static long logWarn(String logMsg, Throwable e, Class callingClass) {
 		
-		long msgNum = getWarnMsgNum();
-		getLogger(callingClass).warn(createLogEntry(WARN, PREFIX, msgNum, callingClass, logMsg, e));
-		return msgNum;
+		return log(WARN, getLogger(callingClass), logMsg, e, callingClass);
 	}
 	
 	/**
@@ -134,13 +138,11 @@ public class Logging {
 	 * @param logMsg - message which should be logged
 	 * @param e - Throwable that was thrown (exception)
 	 * @param callingClass - class where the recorder was called
-	 * @return long the number of the error message since last reboot
+	 * @return long the number of the error message since last reboot or 0 if error is disabled
 	 */
 	public static long logError(String logMsg, Throwable e, Class callingClass) {
 		
-		long msgNum = getErrorMsgNum();
-		getLogger(callingClass).error(createLogEntry(ERROR, PREFIX, msgNum, callingClass, logMsg, e));
-		return msgNum;
+		return log(ERROR, getLogger(callingClass), logMsg, e, callingClass);
 	}
 	
 	/**
@@ -157,45 +159,68 @@ public class Logging {
 	 * @param logMsg - message which should be logged
 	 * @param e - Throwable that was thrown (exception)
 	 * @param callingClass - class where the recorder was called
-	 * @return long the number of the fatal message since last reboot
+	 * @return long the number of the fatal message since last reboot or 0 if fatal is disabled
 	 */
 	public static long logFatal(String logMsg, Throwable e, Class callingClass) {
 		
-		long msgNum = getFatalMsgNum();
-		getLogger(callingClass).fatal(createLogEntry(FATAL, PREFIX, msgNum, callingClass, logMsg, e));
-		return msgNum;
+		return log(FATAL, getLogger(callingClass), logMsg, e, callingClass);
 	}
 	
-	private static long getDebugMsgNum() {
+	/**
+	 * Logs the message if the logger is enabled for the level, the log 
+	 * entry is only created in this case.
+	 * 
+	 * @param level - one of DEBUG, INFO, WARN, ERROR and FATAL
+	 * @param logger - the log4j logger of the calling class
+	 * @param logMsg - message which should be logged
+	 * @param e - Throwable that was thrown (exception)
+	 * @param callingClass - class where the recorder was called
+	 * @return the number of the message of this level since last reboot or 0 if the level is disabled
+	 */
+	static long log(String level, Logger logger, String logMsg, Throwable e, Class callingClass) {
 		
-		return ++debugMsgNum;
-	}
-	
-	private static long getInfoMsgNum() {
-
-		return ++infoMsgNum;
+		if ( !isEnabled(level, logger) ) return 0;
+		
+		long msgNum = getMsgNum(level).incrementAndGet();
+		logger.log(getLevel(level), createLogEntry(level, PREFIX, msgNum, callingClass, logMsg, e));
+		return msgNum;
 	}
 	
-	private static long getWarnMsgNum() {
-	
-		return ++warnMsgNum;
+	/**
+	 * @param level - one of DEBUG, INFO, WARN, ERROR and FATAL
+	 * @param logger - the log4j logger of the calling class
+	 * @return true, if messages of this level are logged
+	 */
+	static boolean isEnabled(String level, Logger logger) {
+		
+		if ( level == DEBUG ) return logger.isDebugEnabled();
+		if ( level == INFO ) return logger.isInfoEnabled();
+		return logger.isEnabledFor(getLevel(level));
 	}
 	
-	private static long getErrorMsgNum() {
-
-		return ++errorMsgNum;
+	private static Level getLevel(String level) {
+		
+		if ( level == DEBUG ) return Level.DEBUG;
+		if ( level == INFO ) return Level.INFO;
+		if ( level == WARN ) return Level.WARN;
+		if ( level == ERROR ) return Level.ERROR;
+		return Level.FATAL;
 	}
 	
-	private static long getFatalMsgNum() {
+	private static AtomicLong getMsgNum(String level) {
 		
-		return ++fatalMsgNum;
+		if ( level == DEBUG ) return debugMsgNum;
+		if ( level == INFO ) return infoMsgNum;
+		if ( level == WARN ) return warnMsgNum;
+		if ( level == ERROR ) return errorMsgNum;
+		return fatalMsgNum;
 	}
 	
 	/**
 	 * @param callingClass
 	 * @return Logger the log4j logger
 	 */
-	private static Logger getLogger(Class callingClass) {
+	static Logger getLogger(Class callingClass) {
 		
 		return Logger.getLogger(callingClass);
 	}
@@ -213,15 +238,18 @@ public class Logging {
 	 */
 	private static String createLogEntry(String msgCategory, String prefix, long msgNum, Class callingClass, String logMsg, Throwable e) {
 		
-		StringBuffer sb = new StringBuffer();
+		StringBuilder sb = new StringBuilder();
 //		sb.append(prefix);
 //		sb.append(msgCategory);
 		sb.append("_#");
-		sb.append(new DecimalFormat("0000").format(msgNum));
+		// like new DecimalFormat("0000").format(msgNum), which is expensive to create for every message
+		String number = Long.toString(msgNum);
+		for ( int i = number.length(); i < 4; i++ ) sb.append('0');
+		sb.append(number);
 //		sb.append(SEPARATOR);
 //		sb.append(callingClass == null ? N_A : callingClass.getName());
 		sb.append(SEPARATOR);
-		sb.append(logMsg == null ? N_A : logMsg.replaceAll("[\\r\\f]", "").replaceAll("[/^]M", "").replaceAll("[\\r\\n]", ""));
+		sb.append(logMsg == null ? N_A : LINE_BREAK.matcher(CONTROL_M.matcher(CARRIAGE_RETURN_OR_FORM_FEED.matcher(logMsg).replaceAll("")).replaceAll("")).replaceAll(""));
 		sb.append(SEPARATOR);
 		if ( e == null ) {
 			if (msgCategory != DEBUG) {
@@ -252,10 +280,10 @@ public class Logging {
 	 * @param cause - the throwable containing the StackTrace
 	 * @return the stackTrace
 	 */
-	private static StringBuffer getStackTrace(Throwable cause) {
+	private static StringBuilder getStackTrace(Throwable cause) {
 		
 		StackTraceElement[] st = cause.getStackTrace();
-		StringBuffer stackTrace = new StringBuffer(500);
+		StringBuilder stackTrace = new StringBuilder(500);
 		int max = (st.length < stackLength ? st.length : stackLength);
 		for (int i = 0; i < max; i++) {
 			
@@ -1,11 +1,19 @@
 package de.uni_leipzig.simba.boa.backend.logging;
 
+import org.apache.log4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
 
 /**
  * Log file for comfortable logging in one class.
  * Create it as a static field if you want to use it in a static context.
  * <br>
  * For more details see Logging.java in same package.
+ * <br>
+ * Messages which are expensive to build should not be concatenated before 
+ * the call. Use the parameterized methods, e.g. 
+ * <code>logger.debug("Found {} results for {}", size, uri)</code>, or a 
+ * {@link Message} which are only formatted if the level is enabled, or 
+ * check isDebugEnabled() first.
  */
 public class NLPediaLogger /*implements Serializable*/ {
 	
@@ -15,10 +23,23 @@ public class NLPediaLogger /*implements Serializable*/ {
 //    private static final long serialVersionUID = 3687086210560615529L;
     
     private Class loggingClazz;
+    private Logger logger;
+	
+	/**
+	 * A message which is only created if it gets logged.
+	 */
+	public interface Message {
+		
+		/**
+		 * @return the message to log
+		 */
+		public String create();
+	}
 	
 	public NLPediaLogger(Class clazz) {
 		
 		this.loggingClazz = clazz;
+		this.logger = Logging.getLogger(clazz);
 	}
 	
 	/**
@@ -26,7 +47,15 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public boolean isDebugEnabled() {
 		
-		return Logging.isDebugEnabled(this.loggingClazz);
+		return this.logger.isDebugEnabled();
+	}
+	
+	/**
+	 * @return true, if info messages are logged
+	 */
+	public boolean isInfoEnabled() {
+		
+		return this.logger.isInfoEnabled();
 	}
 	
 	/**
@@ -34,7 +63,7 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void debug(String logMsg) {
 		
-		Logging.logDebug(logMsg, this.loggingClazz);
+		Logging.log(Logging.DEBUG, this.logger, logMsg, null, this.loggingClazz);
 	}
 	
 	/**
@@ -42,7 +71,31 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void debug(String logMsg, Throwable cause) {
 		
-		Logging.logDebug(logMsg, cause, this.loggingClazz);
+		Logging.log(Logging.DEBUG, this.logger, logMsg, cause, this.loggingClazz);
+	}
+	
+	/**
+	 * Logs the message with every {} replaced by the next argument, the 
+	 * message is only formatted if debug is enabled.
+	 * 
+	 * @param format - the message with {} as placeholders
+	 * @param arguments - the objects to replace the placeholders with
+	 */
+	public void debug(String format, Object... arguments) {
+		
+		if ( Logging.isEnabled(Logging.DEBUG, this.logger) )
+			Logging.log(Logging.DEBUG, this.logger, MessageFormatter.arrayFormat(format, arguments), null, this.loggingClazz);
+	}
+	
+	/**
+	 * Logs the message, which is only created if debug is enabled.
+	 * 
+	 * @param message - creates the message
+	 */
+	public void debug(Message message) {
+		
+		if ( Logging.isEnabled(Logging.DEBUG, this.logger) )
+			Logging.log(Logging.DEBUG, this.logger, message.create(), null, this.loggingClazz);
 	}
 
 	/**
@@ -50,7 +103,7 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void info(String logMsg) {
 		
-		Logging.logInfo(logMsg, this.loggingClazz);
+		Logging.log(Logging.INFO, this.logger, logMsg, null, this.loggingClazz);
 	}
 	
 	/**
@@ -58,7 +111,31 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void info(String logMsg, Throwable cause) {
 		
-		Logging.logInfo(logMsg, cause, this.loggingClazz);
+		Logging.log(Logging.INFO, this.logger, logMsg, cause, this.loggingClazz);
+	}
+	
+	/**
+	 * Logs the message with every {} replaced by the next argument, the 
+	 * message is only formatted if info is enabled.
+	 * 
+	 * @param format - the message with {} as placeholders
+	 * @param arguments - the objects to replace the placeholders with
+	 */
+	public void info(String format, Object... arguments) {
+		
+		if ( Logging.isEnabled(Logging.INFO, this.logger) )
+			Logging.log(Logging.INFO, this.logger, MessageFormatter.arrayFormat(format, arguments), null, this.loggingClazz);
+	}
+	
+	/**
+	 * Logs the message, which is only created if info is enabled.
+	 * 
+	 * @param message - creates the message
+	 */
+	public void info(Message message) {
+		
+		if ( Logging.isEnabled(Logging.INFO, this.logger) )
+			Logging.log(Logging.INFO, this.logger, message.create(), null, this.loggingClazz);
 	}
 	
 	/**
@@ -66,7 +143,7 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void warn(String logMsg) {
 		
-		Logging.logWarn(logMsg, this.loggingClazz);
+		Logging.log(Logging.WARN, this.logger, logMsg, null, this.loggingClazz);
 	}
 	
 	/**
@@ -74,7 +151,31 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void warn(String logMsg, Throwable cause) {
 		
-		Logging.logWarn(logMsg, cause, this.loggingClazz);
+		Logging.log(Logging.WARN, this.logger, logMsg, cause, this.loggingClazz);
+	}
+	
+	/**
+	 * Logs the message with every {} replaced by the next argument, the 
+	 * message is only formatted if warn is enabled.
+	 * 
+	 * @param format - the message with {} as placeholders
+	 * @param arguments - the objects to replace the placeholders with
+	 */
+	public void warn(String format, Object... arguments) {
+		
+		if ( Logging.isEnabled(Logging.WARN, this.logger) )
+			Logging.log(Logging.WARN, this.logger, MessageFormatter.arrayFormat(format, arguments), null, this.loggingClazz);
+	}
+	
+	/**
+	 * Logs the message, which is only created if warn is enabled.
+	 * 
+	 * @param message - creates the message
+	 */
+	public void warn(Message message) {
+		
+		if ( Logging.isEnabled(Logging.WARN, this.logger) )
+			Logging.log(Logging.WARN, this.logger, message.create(), null, this.loggingClazz);
 	}
 	
 	/**
@@ -82,7 +183,7 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void error(String logMsg) {
 		
-		Logging.logError(logMsg, this.loggingClazz);
+		Logging.log(Logging.ERROR, this.logger, logMsg, null, this.loggingClazz);
 	}
 	
 	/**
@@ -90,7 +191,7 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void error(String logMsg, Throwable cause) {
 		
-		Logging.logError(logMsg, cause, this.loggingClazz);
+		Logging.log(Logging.ERROR, this.logger, logMsg, cause, this.loggingClazz);
 	}
 	
 	/**
@@ -98,7 +199,7 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void fatal(String logMsg) {
 		
-		Logging.logFatal(logMsg, this.loggingClazz);
+		Logging.log(Logging.FATAL, this.logger, logMsg, null, this.loggingClazz);
 	}
 	
 	/**
@@ -106,6 +207,6 @@ public class NLPediaLogger /*implements Serializable*/ {
 	 */
 	public void fatal(String logMsg, Throwable cause) {
 		
-		Logging.logFatal(logMsg, cause, this.loggingClazz);
+		Logging.log(Logging.FATAL, this.logger, logMsg, cause, this.loggingClazz);
 	}
 }
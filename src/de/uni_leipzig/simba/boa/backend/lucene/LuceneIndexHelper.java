@@ -5,10 +5,12 @@ package de.uni_leipzig.simba.boa.backend.lucene;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.MapFieldSelector;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
@@ -122,6 +124,37 @@ public class LuceneIndexHelper {
         }
     }
 
+    /**
+     * Loads only the given stored fields of a document, so that several fields
+     * of the same document are read with one access.
+     * 
+     * @param searcher - the searcher of the index
+     * @param id - the lucene document id
+     * @param fieldNames - the fields to load
+     * @return the document with the given fields
+     */
+    public static Document getDocumentByDocId(IndexSearcher searcher, Integer id, String... fieldNames) {
+
+        try {
+
+            return searcher.doc(id, new MapFieldSelector(fieldNames));
+        }
+        catch (CorruptIndexException e) {
+            
+            e.printStackTrace();
+            String error = "Could not get document with id: " + id + " from index.";
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        catch (IOException e) {
+            
+            e.printStackTrace();
+            String error = "Could not get document with id: " + id + " from index.";
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+
     /**
      * Returns the sentences from the index with the given ids. Uses the method
      * DefaultPatternSearcher.getSentencesByID() to query the index
@@ -212,6 +245,33 @@ public class LuceneIndexHelper {
         }
     }
     
+    /**
+     * Writes a batch of documents to the Lucene index, the writer can be 
+     * shared by several threads.
+     * 
+     * @param writer - the writer to write the documents
+     * @param documents - the documents to add
+     */
+    public static void indexDocuments(IndexWriter writer, Collection<Document> documents) {
+        
+        try {
+            
+            writer.addDocuments(documents);
+        }
+        catch (CorruptIndexException e) {
+            
+            logger.fatal("Could not index list of documents", e);
+            e.printStackTrace();
+            throw new RuntimeException("Could not index list of documents", e);
+        }
+        catch (IOException e) {
+            
+            logger.fatal("Could not index list of documents", e);
+            e.printStackTrace();
+            throw new RuntimeException("Could not index list of documents", e);
+        }
+    }
+    
     /**
      * Closes a given index writer without Lucene exceptions.
      * This method performs a optimize step before closing.
@@ -0,0 +1,198 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import de.uni_leipzig.simba.boa.backend.Constants;
+
+
+/**
+ * The structured result of a part of speech tagger or a named entity
+ * recognizer. The tokens and their tags are kept in two parallel arrays,
+ * so that callers don't have to split the "token_TAG token_TAG" strings
+ * again and again.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public final class TaggedSentence {
+
+    private final String[] tokens;
+    private final String[] tags;
+
+    /**
+     *
+     * @param tokens - the tokens of the sentence
+     * @param tags - the tag of each token, needs to have the same length as tokens
+     */
+    public TaggedSentence(String[] tokens, String[] tags) {
+
+        if ( tokens.length != tags.length )
+            throw new IllegalArgumentException("Tokens (" + tokens.length + ") and tags (" + tags.length + ") differ in size!");
+
+        this.tokens = tokens;
+        this.tags   = tags;
+    }
+
+    /**
+     *
+     * @param tokens - the tokens of the sentence
+     * @param tags - the tag of each token, needs to have the same length as tokens
+     */
+    public TaggedSentence(List<String> tokens, List<String> tags) {
+
+        this(tokens.toArray(new String[tokens.size()]), tags.toArray(new String[tags.size()]));
+    }
+
+    /**
+     * Creates a tagged sentence from an already annotated string like "Barack_NNP Obama_NNP".
+     * The tag is everything after the last delimiter of a token.
+     *
+     * @param annotatedString - the annotated string, e.g. from the index
+     * @param delimiter - the delimiter between token and tag
+     * @return the tagged sentence
+     */
+    public static TaggedSentence fromAnnotatedString(String annotatedString, String delimiter) {
+
+        if ( annotatedString == null || annotatedString.trim().isEmpty() ) return new TaggedSentence(new String[0], new String[0]);
+
+        String[] taggedWords    = annotatedString.trim().split(" ");
+        String[] tokens         = new String[taggedWords.length];
+        String[] tags           = new String[taggedWords.length];
+
+        for ( int i = 0; i < taggedWords.length ; i++ ) {
+
+            int lastIndex = taggedWords[i].lastIndexOf(delimiter);
+            if ( lastIndex < 0 ) {
+
+                tokens[i]   = taggedWords[i];
+                tags[i]     = "";
+            }
+            else {
+
+                tokens[i]   = taggedWords[i].substring(0, lastIndex);
+                tags[i]     = taggedWords[i].substring(lastIndex + delimiter.length());
+            }
+        }
+        return new TaggedSentence(tokens, tags);
+    }
+
+    /**
+     * @return the number of tokens
+     */
+    public int size() {
+
+        return this.tokens.length;
+    }
+
+    /**
+     * @param index - the position of the token
+     * @return the token at the given position
+     */
+    public String getToken(int index) {
+
+        return this.tokens[index];
+    }
+
+    /**
+     * @param index - the position of the token
+     * @return the tag of the token at the given position
+     */
+    public String getTag(int index) {
+
+        return this.tags[index];
+    }
+
+    /**
+     * @return the tokens, do not modify
+     */
+    public String[] getTokens() {
+
+        return this.tokens;
+    }
+
+    /**
+     * @return the tags, do not modify
+     */
+    public String[] getTags() {
+
+        return this.tags;
+    }
+
+    /**
+     * @param delimiter - the delimiter between token and tag
+     * @return all tokens with their tags, e.g. "Barack_NNP Obama_NNP"
+     */
+    public String toAnnotatedString(String delimiter) {
+
+        StringBuilder builder = new StringBuilder();
+        for ( int i = 0; i < this.tokens.length ; i++ ) {
+
+            if ( i > 0 ) builder.append(' ');
+            builder.append(this.tokens[i]).append(delimiter).append(this.tags[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Merges consecutive tokens with the same tag (except OTHER) and returns the merged
+     * tokens which have one of the given tags, e.g. "Barack_PERSON Obama_PERSON was_OTHER"
+     * gives "Barack Obama" for the tag PERSON.
+     *
+     * @param entityTags - the tags of the entities
+     * @return the entities in the order of the sentence
+     */
+    public List<String> getEntities(Set<String> entityTags) {
+
+        List<String> entities = new ArrayList<String>();
+        for ( int start = 0, end = 1; end <= this.tokens.length ; end++ ) {
+
+            // the entity ends if the next token has a different tag or no named entity at all
+            if ( end == this.tokens.length || !this.tags[end].equals(this.tags[start]) || this.tags[end].equals(Constants.NAMED_ENTITY_TAG_OTHER) ) {
+
+                if ( entityTags.contains(this.tags[start]) ) entities.add(join(this.tokens, start, end));
+                start = end;
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * @return only the tags separated by a space, e.g. "NNP NNP"
+     */
+    public String getAnnotations() {
+
+        return join(this.tags, 0, this.tags.length);
+    }
+
+    /**
+     * @return only the tokens separated by a space
+     */
+    public String getSentence() {
+
+        return join(this.tokens, 0, this.tokens.length);
+    }
+
+    private static String join(String[] strings, int from, int to) {
+
+        StringBuilder builder = new StringBuilder();
+        for ( int i = from; i < to ; i++ ) {
+
+            if ( i > from ) builder.append(' ');
+            builder.append(strings[i]);
+        }
+        return builder.toString();
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return this.toAnnotatedString("_");
+    }
+}
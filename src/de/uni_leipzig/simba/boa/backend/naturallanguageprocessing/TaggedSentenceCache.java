@@ -0,0 +1,62 @@
+package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the tagged sentences of one index by their lucene document id, so
+ * that a sentence which is found by many patterns is tagged (or parsed from
+ * its annotated string) only once. The least recently used sentences are
+ * evicted if the cache is full. Instances are thread safe, but must not be
+ * shared between different indexes or between different taggers.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class TaggedSentenceCache {
+
+    private final Map<Integer,TaggedSentence> sentences;
+
+    /**
+     * @param maximumSize - the number of tagged sentences to keep
+     */
+    public TaggedSentenceCache(final int maximumSize) {
+
+        this.sentences = Collections.synchronizedMap(new LinkedHashMap<Integer,TaggedSentence>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer,TaggedSentence> eldest) {
+
+                return this.size() > maximumSize;
+            }
+        });
+    }
+
+    /**
+     * @param sentenceId - the lucene document id of the sentence
+     * @return the tagged sentence or null if it's not cached
+     */
+    public TaggedSentence get(int sentenceId) {
+
+        return this.sentences.get(sentenceId);
+    }
+
+    /**
+     * @param sentenceId - the lucene document id of the sentence
+     * @param taggedSentence - the tagged sentence
+     */
+    public void put(int sentenceId, TaggedSentence taggedSentence) {
+
+        this.sentences.put(sentenceId, taggedSentence);
+    }
+
+    /**
+     * @return the number of cached sentences
+     */
+    public int size() {
+
+        return this.sentences.size();
+    }
+}
@@ -0,0 +1,65 @@
+package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.josatagger.impl;
+
+/**
+ * A Korean sentence in which the JOSA is separated from its body.
+ * Only the offsets at which a spacebar is inserted are kept, the
+ * separated sentence is created when toString() is called.
+ *
+ * Example: "나는 집에 갑니다." with cuts {1, 4} becomes "나 는 집 에 갑니다."
+ *
+ * @author cdh4696
+ *
+ */
+public class JosaSeparatedSentence {
+
+	private final String sentence;	// The original (trimmed) sentence
+	private final int[] cuts;		// Offsets in the sentence in front of which a spacebar is inserted, ascending
+	private final int end;			// Offset after the last analyzed word
+
+	/**
+	 * @param sentence the original sentence
+	 * @param cuts the ascending offsets in front of which a spacebar is inserted
+	 * @param end the offset after the last analyzed word, the rest of the sentence is dropped
+	 */
+	public JosaSeparatedSentence(String sentence, int[] cuts, int end){
+		this.sentence	= sentence;
+		this.cuts		= cuts;
+		this.end		= end;
+	}
+
+	/**
+	 * @return the original sentence
+	 */
+	public String getSentence(){
+		return sentence;
+	}
+
+	/**
+	 * @return the offsets in the original sentence in front of which a spacebar is inserted, do not modify
+	 */
+	public int[] getCuts(){
+		return cuts;
+	}
+
+	/**
+	 * @return the offset after the last analyzed word
+	 */
+	public int getEnd(){
+		return end;
+	}
+
+	/**
+	 * @return the JOSA-separated sentence
+	 */
+	@Override
+	public String toString(){
+		StringBuilder builder	= new StringBuilder(end + cuts.length);
+		int start				= 0;
+		for(int cut : cuts){
+			builder.append(sentence, start, cut).append(' ');
+			start				= cut;
+		}
+		builder.append(sentence, start, end);
+		return builder.toString();
+	}
+}
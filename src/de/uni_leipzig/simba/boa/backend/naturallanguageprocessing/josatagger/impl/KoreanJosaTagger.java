@@ -1,11 +1,11 @@
 package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.josatagger.impl;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.StringTokenizer;
+import java.util.List;
 
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.josatagger.JosaTagger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanMorphologicalAnalysis;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanPartOfSpeechTagger;
 
 /**
@@ -25,114 +25,117 @@ public class KoreanJosaTagger implements JosaTagger{
 	 * @return
 	 */
 	public String getJosaSeparatedSentence(String origSen){
-		origSen								= origSen.trim();
-		ArrayList<String> perLineResult		= tagger.tagSentencePerWord(origSen);
-		if(perLineResult == null){
+		return separate(origSen).toString();
+	}
+	
+	/**
+	 * Batch version of getJosaSeparatedSentence, all sentences are analyzed with one pooled workflow.
+	 * 
+	 * @param origSens The original sentences
+	 * @return the JOSA-separated sentences in the same order
+	 */
+	public List<String> getJosaSeparatedSentences(List<String> origSens){
+		List<String> ret						= new ArrayList<String>(origSens.size());
+		for(JosaSeparatedSentence separated : separateSentences(origSens)){
+			ret.add(separated.toString());
+		}
+		return ret;
+	}
+	
+	/**
+	 * Separates the JOSA of the given sentence, without building the separated sentence yet.
+	 * 
+	 * @param origSen The original sentence
+	 * @return the offsets of the JOSA in the trimmed sentence
+	 */
+	public JosaSeparatedSentence separate(String origSen){
+		origSen									= origSen.trim();
+		return separate(origSen, tagger.analyze(origSen));
+	}
+	
+	/**
+	 * Batch version of separate, all sentences are analyzed with one pooled workflow.
+	 * 
+	 * @param origSens The original sentences
+	 * @return the offsets of the JOSA in the trimmed sentences, in the same order
+	 */
+	public List<JosaSeparatedSentence> separateSentences(List<String> origSens){
+		List<String> trimmed					= new ArrayList<String>(origSens.size());
+		for(String origSen : origSens) trimmed.add(origSen.trim());
+		
+		List<KoreanMorphologicalAnalysis> analyses	= tagger.analyzeSentences(trimmed);
+		List<JosaSeparatedSentence> ret			= new ArrayList<JosaSeparatedSentence>(origSens.size());
+		for(int i = 0; i < trimmed.size(); i++){
+			ret.add(separate(trimmed.get(i), analyses.get(i)));
+		}
+		return ret;
+	}
+	
+	/**
+	 * Separates the JOSA using an already available morphological analysis of the trimmed sentence.
+	 * The words are visited in sentence order, so the sentence is only scanned once.
+	 * Example: 나는 집에 갑니다. (나/n 는/j 집/n 에/j 가/v ㅂ/e 니다/e ./sf) -> 나 는 집 에 갑니다.
+	 * 
+	 * @param origSen The trimmed sentence
+	 * @param analysis The analysis of origSen, null if the POS tagging failed
+	 * @return the offsets of the JOSA in the sentence
+	 */
+	public JosaSeparatedSentence separate(String origSen, KoreanMorphologicalAnalysis analysis){
+		if(analysis == null){
 			// POS Tagging Failed. Just returns the original sentence.
-			return origSen;
+			return new JosaSeparatedSentence(origSen, new int[0], origSen.length());
 		}
-		Iterator<String> rIter				= perLineResult.iterator();
-		String ret							= "";
-		try{			
-			while(rIter.hasNext()){
-//				나는 집에 갑니다.
-//				나/noun 는/j 집/n 에/j 가/v ㅂ/e 니다/e
-//
-//				나는
-//				나/noun 는/j
-//				집에
-//				집/n 에/j
-//				갑니다.
-//				 가/v ㅂ/e 니다/e ./sf
-				
-				String origTxt					= rIter.next(); // 나는
-				String analyzed					= rIter.next(); // 나/n 는/j
-				int firstJosa					= findFirstJOSAIndex(analyzed);
-				if(firstJosa < 0){				// No JOSA in this token. Just carry the result.
-					int startIdx	= origSen.indexOf(origTxt);
-					ret				+= origSen.substring(0, startIdx + origTxt.length());
-					origSen			= origSen.substring(startIdx + origTxt.length());
-				}else{																			// JOSA found in this token. find out exact location of JOSA, and put a spacebar in between.
-					int index		= findJOSACuttingLocation(origTxt, analyzed, firstJosa);	// Found corresponding location of JOSA in original text.
-					int startIdx	= origSen.indexOf(origTxt);					
-					ret				+= origSen.substring(0, startIdx + index) + " " + origSen.substring(startIdx + index, startIdx + origTxt.length());
-					origSen			= origSen.substring(startIdx + origTxt.length());
-				}
+		int[] cuts								= new int[analysis.getWordCount()];
+		int cutCount							= 0;
+		int end									= 0;
+		for(int w = 0; w < analysis.getWordCount(); w++){
+			String[] morphemes					= analysis.getMorphemes(w);
+			int length							= analysis.getLength(w);
+			int josa							= findLastJOSAIndex(analysis.getTags(w));
+			if(josa >= 0){						// JOSA found in this token. find out exact location of JOSA, and put a spacebar in between.
+				cuts[cutCount++]				= analysis.getOffset(w) + findJOSACuttingLocation(length, morphemes, josa);
 			}
-		}catch(Exception e){
-			e.printStackTrace();
+			end									= analysis.getOffset(w) + length;
 		}
-				
-		return ret;		
+		int[] usedCuts							= new int[cutCount];
+		System.arraycopy(cuts, 0, usedCuts, 0, cutCount);
+		return new JosaSeparatedSentence(origSen, usedCuts, end);
 	}
 	
 	/**
 	 * Find out exactly which position the spacebar should be inserted, to separate JOSA from other parts.
-	 * @param origTxt original text before morphological analysis & POS tagging.
-	 * @param analyzed Analysis result of origTxt, with morphological analysis result along with POS tagging result.
-	 * @param firstJOSA location of the first JOSA in the input analyzed. The function should find out the corresponding location of firstJOSA in origTxt.
-	 * @return The corresponding location of firstJOSA in origTxt.
+	 * @param length length of the original text before morphological analysis & POS tagging.
+	 * @param morphemes morphemes of the original text.
+	 * @param josa index of the JOSA in morphemes. The function should find out the corresponding location of it in the original text.
+	 * @return The corresponding location of the JOSA in the original text.
 	 */
-	private static int findJOSACuttingLocation(String origTxt, String analyzed, int firstJosa){
-		String nounPart	= analyzed.substring(0, firstJosa);		// Those containing POS tagging results of NON-JOSA.
-		StringTokenizer nounTokens	= new StringTokenizer(nounPart, " ");
+	private static int findJOSACuttingLocation(int length, String[] morphemes, int josa){
 		int index		= 0;
-		while(nounTokens.hasMoreElements()){
-			String nt	= nounTokens.nextToken();
-			index		+=  nt.lastIndexOf('_');
+		for(int m = 0; m < josa; m++){
+			index		+= morphemes[m].length();
 		}
 		
-		if(index >= origTxt.length()){ 							// The text is "spreaded" after morphological analysis. We will count from backward.				
-			String josaPart	= analyzed.substring(firstJosa + 1);
-			StringTokenizer josaTokens	= new StringTokenizer(josaPart, " ");
-			josaTokens.nextToken();
-			index		= origTxt.length();
-			while(josaTokens.hasMoreElements()){
-				String jt	= josaTokens.nextToken();
-				index		-= jt.lastIndexOf('_');
-			}						
+		if(index >= length){ 							// The text is "spreaded" after morphological analysis. We will count from backward.				
+			index		= length;
+			for(int m = josa + 1; m < morphemes.length; m++){
+				index	-= morphemes[m].length();
+			}
 		}
-		return index;
+		return Math.max(0, Math.min(length, index));
 	}
 	
 	/**
-	 * Locate first index of JOSA from the given sentence.
+	 * Locate the last JOSA of a word.
 	 * Return -1 if not found.
-	 * @param analyzed POS tagged result.
+	 * @param tags POS tags of the morphemes of the word.
 	 * @return
 	 */
-	private static int findFirstJOSAIndex(String analyzed){
-		try{
-			String[] analArr	= analyzed.split(" ");
-			for(int i = analArr.length - 1; i >= 0; i--){
-				String pos	= getPOS(analArr[i]);
-				if(pos.equals("")){
-					// A very exotic case.
-					// A token contains a spacebar!					
-					// In this case, since the watching token is one body to the previous token (which is already seen), 
-					// Thus we can just continue for this case.
-					// Example: 0500 (yekt)_ 0600 (yekst)_ncn
-					continue;
-				}
-				if(pos.charAt(0) == 'j'){	// JOSA found.
-					return analyzed.lastIndexOf(analArr[i]);
-				}
+	private static int findLastJOSAIndex(String[] tags){
+		for(int i = tags.length - 1; i >= 0; i--){
+			if(!tags[i].isEmpty() && tags[i].charAt(0) == 'j'){	// JOSA found.
+				return i;
 			}
-		}catch(Exception e){
-			System.out.println("JOSA DETECTION FAIL: " + analyzed);
-			e.printStackTrace();
 		}
 		return -1;
 	}
-	
-	/**
-	 * Get the POS of the given POS analysis token.
-	 * Input Example: 어_ecx
-	 * @param POSToken
-	 * @return
-	 */
-	private static String getPOS(String POSToken){
-		int idx	= POSToken.lastIndexOf('_');
-		return POSToken.substring(idx + 1);
-	}
 }
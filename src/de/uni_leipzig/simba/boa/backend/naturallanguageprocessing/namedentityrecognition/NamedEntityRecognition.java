@@ -3,7 +3,10 @@
  */
 package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition;
 
+import java.util.List;
+
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingTool;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 
 
 /**
@@ -25,4 +28,20 @@ public interface NamedEntityRecognition extends NaturalLanguageProcessingTool {
 	 * @return
 	 */
 	public String getAnnotations(String string);
+	
+	/**
+	 * Classifies the string once and returns the tokens and their (normalized) tags.
+	 * 
+	 * @param string - the string to classify
+	 * @return the tagged tokens
+	 */
+	public TaggedSentence getTaggedSentence(String string);
+	
+	/**
+	 * Classifies every string of the list, the result has the same order as the input.
+	 * 
+	 * @param strings - the strings to classify
+	 * @return the tagged tokens of each string
+	 */
+	public List<TaggedSentence> getTaggedSentences(List<String> strings);
 }
@@ -10,11 +10,10 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.lang3.StringUtils;
-
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityTagNormalizer;
 import edu.stanford.nlp.ie.crf.CRFClassifier;
@@ -72,32 +71,38 @@ public final class StanfordNLPNamedEntityRecognition implements NamedEntityRecog
 	@Override
 	public String getAnnotatedString(String string) {
 
-		List<String> sentenceTokens = new ArrayList<String>();
-		
-		for ( List<CoreLabel> sentence : ((List<List<CoreLabel>>) classifier.classify(string)) ) {
-		
-			for ( CoreLabel word : sentence ) {
-				
-				String normalizedTag = NamedEntityTagNormalizer.NAMED_ENTITY_TAG_MAPPINGS.get(word.get(AnswerAnnotation.class));
-				sentenceTokens.add(word.word() + Constants.NAMED_ENTITY_TAG_DELIMITER + normalizedTag);
-			}
-		}
-		return StringUtils.join(sentenceTokens, " ");
+		return this.getTaggedSentence(string).toAnnotatedString(Constants.NAMED_ENTITY_TAG_DELIMITER);
 	}
 
 	@Override
 	public String getAnnotations(String patternString) {
 
-		List<String> sentenceTokens = new ArrayList<String>();
+		return this.getTaggedSentence(patternString).getAnnotations();
+	}
+	
+	@Override
+	public TaggedSentence getTaggedSentence(String string) {
 		
-		List<List<CoreLabel>> classifiedString = classifier.classify(patternString);
-		for ( List<CoreLabel> sentence : classifiedString) {
+		List<String> tokens	= new ArrayList<String>();
+		List<String> tags	= new ArrayList<String>();
 		
+		for ( List<CoreLabel> sentence : ((List<List<CoreLabel>>) classifier.classify(string)) ) {
+			
 			for ( CoreLabel word : sentence ) {
 				
-				sentenceTokens.add(NamedEntityTagNormalizer.NAMED_ENTITY_TAG_MAPPINGS.get(word.get(AnswerAnnotation.class)));
+				tokens.add(word.word());
+				tags.add(NamedEntityTagNormalizer.NAMED_ENTITY_TAG_MAPPINGS.get(word.get(AnswerAnnotation.class)));
 			}
 		}
-		return StringUtils.join(sentenceTokens, " ");
+		return new TaggedSentence(tokens, tags);
+	}
+	
+	@Override
+	public List<TaggedSentence> getTaggedSentences(List<String> strings) {
+		
+		List<TaggedSentence> taggedSentences = new ArrayList<TaggedSentence>(strings.size());
+		for ( String string : strings ) taggedSentences.add(this.getTaggedSentence(string));
+		
+		return taggedSentences;
 	}
 }
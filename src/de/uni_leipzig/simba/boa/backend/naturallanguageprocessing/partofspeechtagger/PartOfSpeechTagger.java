@@ -6,6 +6,7 @@ package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeecht
 import java.util.List;
 
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingTool;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 
 
 /**
@@ -34,4 +35,28 @@ public interface PartOfSpeechTagger extends NaturalLanguageProcessingTool {
 	 * @return
 	 */
 	public List<String> getNounPhrases(String sentence);
+	
+	/**
+	 * Tags the string once and returns the tokens and their tags.
+	 * 
+	 * @param string - the string to tag
+	 * @return the tagged tokens
+	 */
+	public TaggedSentence getTaggedSentence(String string);
+	
+	/**
+	 * Tags every string of the list, the result has the same order as the input.
+	 * 
+	 * @param strings - the strings to tag
+	 * @return the tagged tokens of each string
+	 */
+	public List<TaggedSentence> getTaggedSentences(List<String> strings);
+	
+	/**
+	 * Extracts the noun phrases from an already tagged sentence, without tagging it again.
+	 * 
+	 * @param sentence - the tagged sentence
+	 * @return the noun phrases in order of occurrence
+	 */
+	public List<String> getNounPhrases(TaggedSentence sentence);
 }
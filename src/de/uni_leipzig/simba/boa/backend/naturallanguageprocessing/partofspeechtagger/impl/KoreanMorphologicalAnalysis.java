@@ -0,0 +1,277 @@
+package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
+
+/**
+ * The morphological analysis of a Korean sentence, aligned to the offsets of
+ * the words in the sentence. It is computed once while indexing and stored in
+ * a compact form, so that the pattern search does not need to run the tagger
+ * again.
+ *
+ * The encoded form has one line per word: offset, length, and the morphemes
+ * with their POS tags, all separated by tabs.
+ * Example for "측천무후의 ...": "0\t5\t측천무후\tncn\t의\tjcm\n..."
+ *
+ * @author cdh4696
+ */
+public class KoreanMorphologicalAnalysis {
+
+	private static final char FIELD_SEPARATOR	= '\t';
+	private static final char WORD_SEPARATOR	= '\n';
+
+	private final int[] offsets;		// Offset of the starting point of each word inside the sentence
+	private final int[] lengths;		// Length of each word inside the sentence
+	private final String[][] morphemes;	// Morphemes of each word
+	private final String[][] tags;		// POS tag of each morpheme
+
+	private KoreanMorphologicalAnalysis(int[] offsets, int[] lengths, String[][] morphemes, String[][] tags){
+		this.offsets	= offsets;
+		this.lengths	= lengths;
+		this.morphemes	= morphemes;
+		this.tags		= tags;
+	}
+
+	/**
+	 * @return an analysis without words, used if the tagging failed
+	 */
+	public static KoreanMorphologicalAnalysis empty(){
+		return new KoreanMorphologicalAnalysis(new int[0], new int[0], new String[0][], new String[0][]);
+	}
+
+	/**
+	 * Creates the analysis from the result of KoreanPartOfSpeechTagger.tagSentencePerWord.
+	 * The words are located in the sentence with a single forward cursor.
+	 *
+	 * @param sentence the analyzed sentence
+	 * @param perWordResult alternating lines of original word and POS-tagged word, may be null if the tagging failed
+	 * @return the analysis, without words if the tagging failed
+	 */
+	public static KoreanMorphologicalAnalysis create(String sentence, List<String> perWordResult){
+		if(perWordResult == null){
+			return empty();
+		}
+
+		int words				= perWordResult.size() / 2;
+		String[] origWords		= new String[words];
+		String[][] morphemes	= new String[words][];
+		String[][] tags			= new String[words][];
+
+		List<String> wordMorphemes	= new ArrayList<String>();
+		List<String> wordTags		= new ArrayList<String>();
+		Iterator<String> resultIter	= perWordResult.iterator();
+		for(int w = 0; w < words; w++){
+			origWords[w]		= resultIter.next();
+			String analResult	= resultIter.next().trim();
+
+			StringTokenizer eachAnal	= new StringTokenizer(analResult, " ");
+			while(eachAnal.hasMoreElements()){
+				String nextAnal		= eachAnal.nextToken();
+				// A very exotic case, a token contains a spacebar
+				while(nextAnal.indexOf('_') == -1 && eachAnal.hasMoreElements()){
+					nextAnal		+= eachAnal.nextToken();
+				}
+				addMorpheme(nextAnal, '_', wordMorphemes, wordTags);
+			}
+			morphemes[w]		= wordMorphemes.toArray(new String[wordMorphemes.size()]);
+			tags[w]				= wordTags.toArray(new String[wordTags.size()]);
+			wordMorphemes.clear();
+			wordTags.clear();
+		}
+		return locate(sentence, origWords, morphemes, tags);
+	}
+
+	/**
+	 * Creates the analysis directly from the result of a JHanNanum workflow,
+	 * without building the per word strings of tagSentencePerWord first.
+	 * The result has two lines per word, the original word and its analysis,
+	 * e.g. "측천무후의\n\t측천무후/ncn+의/jcm\n".
+	 *
+	 * @param sentence the analyzed sentence
+	 * @param result the result of Workflow.getResultOfDocument()
+	 * @return the analysis
+	 */
+	public static KoreanMorphologicalAnalysis fromWorkflowResult(String sentence, String result){
+		List<String> origWords		= new ArrayList<String>();
+		List<String[]> morphemes	= new ArrayList<String[]>();
+		List<String[]> tags			= new ArrayList<String[]>();
+
+		List<String> wordMorphemes	= new ArrayList<String>();
+		List<String> wordTags		= new ArrayList<String>();
+		StringTokenizer tok			= new StringTokenizer(result, "\n");
+		while(tok.hasMoreElements()){
+			origWords.add(tok.nextToken());
+			StringTokenizer tok2	= new StringTokenizer(tok.nextToken().trim(), "+");
+			while(tok2.hasMoreElements()){
+				String token		= tok2.nextToken();
+				// the morpheme itself contains a "+"
+				if(token.lastIndexOf('/') < 0){
+					StringBuilder builder	= new StringBuilder(token);
+					while(token.lastIndexOf('/') < 0){
+						token		= tok2.nextToken();
+						builder.append(token);
+					}
+					token			= builder.toString();
+				}
+				addMorpheme(token, '/', wordMorphemes, wordTags);
+			}
+			morphemes.add(wordMorphemes.toArray(new String[wordMorphemes.size()]));
+			tags.add(wordTags.toArray(new String[wordTags.size()]));
+			wordMorphemes.clear();
+			wordTags.clear();
+		}
+		return locate(sentence, origWords.toArray(new String[origWords.size()]),
+				morphemes.toArray(new String[morphemes.size()][]), tags.toArray(new String[tags.size()][]));
+	}
+
+	/**
+	 * Splits "morpheme{separator}TAG" at the last separator.
+	 */
+	private static void addMorpheme(String taggedMorpheme, char separator, List<String> morphemes, List<String> tags){
+		int idx					= taggedMorpheme.lastIndexOf(separator);
+		morphemes.add(idx < 0 ? taggedMorpheme : taggedMorpheme.substring(0, idx));
+		tags.add(idx < 0 ? "" : taggedMorpheme.substring(idx + 1));
+	}
+
+	/**
+	 * Locates the original words in the sentence with a single forward cursor.
+	 */
+	private static KoreanMorphologicalAnalysis locate(String sentence, String[] origWords, String[][] morphemes, String[][] tags){
+		int[] offsets			= new int[origWords.length];
+		int[] lengths			= new int[origWords.length];
+		int cursor				= 0;
+		for(int w = 0; w < origWords.length; w++){
+			int offset			= sentence.indexOf(origWords[w], cursor);
+			if(offset < 0){
+				// The tagger changed the word, take the next word of the sentence.
+				offset			= cursor;
+				while(offset < sentence.length() && Character.isWhitespace(sentence.charAt(offset))) offset++;
+			}
+			offsets[w]			= offset;
+			lengths[w]			= Math.min(origWords[w].length(), sentence.length() - offset);
+			cursor				= offset + lengths[w];
+		}
+		return new KoreanMorphologicalAnalysis(offsets, lengths, morphemes, tags);
+	}
+
+	/**
+	 * Decodes an analysis created by encode().
+	 *
+	 * @param encoded the stored analysis
+	 * @return the analysis
+	 */
+	public static KoreanMorphologicalAnalysis decode(String encoded){
+		List<String> lines		= split(encoded, WORD_SEPARATOR);
+		int words				= encoded.isEmpty() ? 0 : lines.size();
+		int[] offsets			= new int[words];
+		int[] lengths			= new int[words];
+		String[][] morphemes	= new String[words][];
+		String[][] tags			= new String[words][];
+
+		for(int w = 0; w < words; w++){
+			List<String> fields	= split(lines.get(w), FIELD_SEPARATOR);
+			offsets[w]			= Integer.parseInt(fields.get(0));
+			lengths[w]			= Integer.parseInt(fields.get(1));
+			int count			= (fields.size() - 2) / 2;
+			morphemes[w]		= new String[count];
+			tags[w]				= new String[count];
+			for(int m = 0; m < count; m++){
+				morphemes[w][m]	= fields.get(2 + 2 * m);
+				tags[w][m]		= fields.get(3 + 2 * m);
+			}
+		}
+		return new KoreanMorphologicalAnalysis(offsets, lengths, morphemes, tags);
+	}
+
+	/**
+	 * @return the compact form to store in the index
+	 */
+	public String encode(){
+		StringBuilder builder	= new StringBuilder();
+		for(int w = 0; w < offsets.length; w++){
+			if(w > 0) builder.append(WORD_SEPARATOR);
+			builder.append(offsets[w]).append(FIELD_SEPARATOR).append(lengths[w]);
+			for(int m = 0; m < morphemes[w].length; m++){
+				builder.append(FIELD_SEPARATOR).append(morphemes[w][m]).append(FIELD_SEPARATOR).append(tags[w][m]);
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Splits without regular expressions and keeps empty fields.
+	 */
+	private static List<String> split(String string, char separator){
+		List<String> parts		= new ArrayList<String>();
+		int start				= 0;
+		for(int i = 0; i < string.length(); i++){
+			if(string.charAt(i) == separator){
+				parts.add(string.substring(start, i));
+				start			= i + 1;
+			}
+		}
+		parts.add(string.substring(start));
+		return parts;
+	}
+
+	/**
+	 * @return all morphemes of the sentence and their POS tags
+	 */
+	public TaggedSentence getTaggedSentence(){
+		int size				= 0;
+		for(int w = 0; w < morphemes.length; w++) size += morphemes[w].length;
+
+		String[] allMorphemes	= new String[size];
+		String[] allTags		= new String[size];
+		int i					= 0;
+		for(int w = 0; w < morphemes.length; w++){
+			System.arraycopy(morphemes[w], 0, allMorphemes, i, morphemes[w].length);
+			System.arraycopy(tags[w], 0, allTags, i, tags[w].length);
+			i					+= morphemes[w].length;
+		}
+		return new TaggedSentence(allMorphemes, allTags);
+	}
+
+	/**
+	 * @return the number of words
+	 */
+	public int getWordCount(){
+		return offsets.length;
+	}
+
+	/**
+	 * @param word index of the word
+	 * @return offset of the word inside the sentence
+	 */
+	public int getOffset(int word){
+		return offsets[word];
+	}
+
+	/**
+	 * @param word index of the word
+	 * @return length of the word inside the sentence
+	 */
+	public int getLength(int word){
+		return lengths[word];
+	}
+
+	/**
+	 * @param word index of the word
+	 * @return the morphemes of the word
+	 */
+	public String[] getMorphemes(int word){
+		return morphemes[word];
+	}
+
+	/**
+	 * @param word index of the word
+	 * @return the POS tags of the morphemes of the word
+	 */
+	public String[] getTags(int word){
+		return tags[word];
+	}
+}
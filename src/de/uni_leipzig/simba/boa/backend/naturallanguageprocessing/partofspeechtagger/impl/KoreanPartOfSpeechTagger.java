@@ -1,51 +1,19 @@
 package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl;
 
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.StringTokenizer;
 
 import kr.ac.kaist.swrc.jhannanum.hannanum.Workflow;
-import kr.ac.kaist.swrc.jhannanum.plugin.MajorPlugin.MorphAnalyzer.ChartMorphAnalyzer.ChartMorphAnalyzer;
-import kr.ac.kaist.swrc.jhannanum.plugin.MajorPlugin.PosTagger.HmmPosTagger.HMMTagger;
-import kr.ac.kaist.swrc.jhannanum.plugin.SupplementPlugin.MorphemeProcessor.UnknownMorphProcessor.UnknownProcessor;
-import kr.ac.kaist.swrc.jhannanum.plugin.SupplementPlugin.PlainTextProcessor.InformalSentenceFilter.InformalSentenceFilter;
-import kr.ac.kaist.swrc.jhannanum.plugin.SupplementPlugin.PlainTextProcessor.SentenceSegmentor.SentenceSegmentor;
-import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagger;
 
 public class KoreanPartOfSpeechTagger  implements PartOfSpeechTagger{
 	private final NLPediaLogger logger = new NLPediaLogger(KoreanPartOfSpeechTagger.class);
 
-	private Workflow wf;
+	// the workflows are not thread safe, so every call borrows its own one from the shared pool
+	private final KoreanWorkflowPool pool	= KoreanWorkflowPool.getInstance();
 	
-	public KoreanPartOfSpeechTagger(){
-		try {
-			String baseDir	= NLPediaSettings.BOA_BASE_DIRECTORY + "training/pos/koreanpostagger/";
-			wf				= new Workflow();
-			wf.appendPlainTextProcessor(new SentenceSegmentor(), null);
-			wf.appendPlainTextProcessor(new InformalSentenceFilter(), null);
-			wf.setMorphAnalyzer(new ChartMorphAnalyzer(), baseDir + "conf/plugin/MajorPlugin/MorphAnalyzer/ChartMorphAnalyzer.json", baseDir );
-			wf.appendMorphemeProcessor(new UnknownProcessor(), null);
-			wf.setPosTagger(new HMMTagger(), baseDir + "conf/plugin/MajorPlugin/PosTagger/HmmPosTagger.json", baseDir);
-			
-			wf.activateWorkflow(false);
-		}
-		catch (ClassNotFoundException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		catch (Exception e){
-			e.printStackTrace();
-		}
-	}
-
 	/**
 	 * Analyze morphemes of the given sentence, and add POS tags to it.
 	 * Returns empty string if the POS tagging fails.
@@ -53,48 +21,84 @@ public class KoreanPartOfSpeechTagger  implements PartOfSpeechTagger{
 	 * @return POS tagged result.
 	 */
 	public String getAnnotatedString(String sentence){	
-		ArrayList<String> perLineResult		= tagSentencePerWord(sentence);
-		if(perLineResult == null){
-			// POS Tagging Failed!
-			return "";
-		}
-		String ret							= "";
-		Iterator<String> resultIter			= perLineResult.iterator();
-		while(resultIter.hasNext()){
-			resultIter.next();
-			ret					+= resultIter.next() + " ";
-		}
-
-		return ret.trim();
+		return getTaggedSentence(sentence).toAnnotatedString("_");
 	}
 	
 	/**
 	 * Analyze morphemes of the given sentence, and add POS tags to it.
 	 * Returns empty string if the POS tagging fails.
 	 * @param sentence the target sentence
-	 * @return POS tagged result.
+	 * @return POS tags of the morphemes.
 	 */
 	public String getAnnotations(String sentence){	
-		ArrayList<String> perLineResult		= tagSentencePerWord(sentence);
-		if(perLineResult == null){
-			// POS Tagging Failed!
-			return "";
+		return getTaggedSentence(sentence).getAnnotations();
+	}
+	
+	/**
+	 * Analyze morphemes of the given sentence, one token per morpheme.
+	 * Returns an empty tagged sentence if the POS tagging fails.
+	 * @param sentence the target sentence
+	 * @return the morphemes and their POS tags
+	 */
+	public TaggedSentence getTaggedSentence(String sentence){
+		KoreanMorphologicalAnalysis analysis	= analyze(sentence);
+		return analysis == null ? KoreanMorphologicalAnalysis.empty().getTaggedSentence() : analysis.getTaggedSentence();
+	}
+	
+	/**
+	 * Analyze morphemes of every sentence in the given order.
+	 * @param sentences the target sentences
+	 * @return the morphemes and their POS tags for each sentence
+	 */
+	public List<TaggedSentence> getTaggedSentences(List<String> sentences){
+		List<TaggedSentence> ret			= new ArrayList<TaggedSentence>(sentences.size());
+		for (KoreanMorphologicalAnalysis analysis : analyzeSentences(sentences)){
+			ret.add(analysis == null ? KoreanMorphologicalAnalysis.empty().getTaggedSentence() : analysis.getTaggedSentence());
 		}
-		String ret							= "";
-		Iterator<String> resultIter			= perLineResult.iterator();
-		while(resultIter.hasNext()){
-			resultIter.next();
-			String taggedR		= resultIter.next();
-			for (String s : taggedR.split(" ")){
-				ret				+= s.substring(s.lastIndexOf('/') + 1) + " ";
-			}
+		return ret;
+	}
+	
+	/**
+	 * Analyze morphemes of the given sentence. The morphemes are kept in arrays
+	 * together with the offsets of the words in the sentence, the string forms
+	 * are only created if a caller asks for them.
+	 * Returns null if the POS tagging fails.
+	 * @param sentence the target sentence, the offsets of the analysis refer to it
+	 * @return the morphological analysis
+	 */
+	public KoreanMorphologicalAnalysis analyze(String sentence){
+		Workflow wf				= pool.borrowWorkflow();
+		try{
+			KoreanMorphologicalAnalysis ret	= analyze(wf, sentence);
+			pool.returnWorkflow(wf);
+			return ret;
+		}catch(RuntimeException e){
+			pool.discardWorkflow(wf);
+			throw e;
 		}
-
-		return ret.trim();
 	}
 	
+	/**
+	 * Batch version of analyze, all sentences are analyzed with the same workflow.
+	 * The analysis of a sentence is null if the POS tagging fails.
+	 * @param sentences the target sentences
+	 * @return the analyses in the order of the sentences
+	 */
+	public List<KoreanMorphologicalAnalysis> analyzeSentences(List<String> sentences){
+		List<KoreanMorphologicalAnalysis> ret	= new ArrayList<KoreanMorphologicalAnalysis>(sentences.size());
+		Workflow wf				= pool.borrowWorkflow();
+		try{
+			for(String sentence : sentences){
+				ret.add(analyze(wf, sentence));
+			}
+			pool.returnWorkflow(wf);
+		}catch(RuntimeException e){
+			pool.discardWorkflow(wf);
+			throw e;
+		}
+		return ret;
+	}
 
-	
 	/**
 	 * Since the form of Korean texts after morphological analysis could be greatly different from the original text,
 	 * We provide a result in which one line represents one word.
@@ -103,30 +107,56 @@ public class KoreanPartOfSpeechTagger  implements PartOfSpeechTagger{
 	 * @return
 	 */
 	public ArrayList<String> tagSentencePerWord(String sentence){
-		sentence				= sentence.trim();		
-		ArrayList<String> ret	= new ArrayList<String>();
+		return toPerWordResult(sentence, analyze(sentence));
+	}
+	
+	/**
+	 * Batch version of tagSentencePerWord, all sentences are analyzed with the same workflow.
+	 * The result of a sentence is null if the POS tagging fails.
+	 * @param sentences the target sentences
+	 * @return the per word results in the order of the sentences
+	 */
+	public List<ArrayList<String>> tagSentences(List<String> sentences){
+		List<KoreanMorphologicalAnalysis> analyses	= analyzeSentences(sentences);
+		List<ArrayList<String>> ret	= new ArrayList<ArrayList<String>>(sentences.size());
+		for(int i = 0; i < sentences.size(); i++){
+			ret.add(toPerWordResult(sentences.get(i), analyses.get(i)));
+		}
+		return ret;
+	}
+	
+	/**
+	 * Creates the string form of tagSentencePerWord from an analysis.
+	 */
+	private static ArrayList<String> toPerWordResult(String sentence, KoreanMorphologicalAnalysis analysis){
+		if(analysis == null){
+			return null;
+		}
+		ArrayList<String> ret	= new ArrayList<String>(analysis.getWordCount() * 2);
+		StringBuilder lineAnal	= new StringBuilder();
+		for(int w = 0; w < analysis.getWordCount(); w++){
+			ret.add(sentence.substring(analysis.getOffset(w), analysis.getOffset(w) + analysis.getLength(w)));
+			String[] morphemes	= analysis.getMorphemes(w);
+			String[] tags		= analysis.getTags(w);
+			lineAnal.setLength(0);
+			for(int m = 0; m < morphemes.length; m++){
+				if(m > 0) lineAnal.append(' ');
+				lineAnal.append(morphemes[m]).append('_').append(tags[m]);
+			}
+			ret.add(lineAnal.toString());
+		}
+		return ret;
+	}
+	
+	/**
+	 * Analyzes the sentence with the given workflow, which must not be used by another thread at the same time.
+	 */
+	private KoreanMorphologicalAnalysis analyze(Workflow wf, String sentence){
 		String result			= "";
 		try{
-			wf.analyze(sentence);
+			wf.analyze(sentence.trim());
 			result				= wf.getResultOfDocument();
-			StringTokenizer tok	= new StringTokenizer(result, "\n");
-	
-			while(tok.hasMoreElements()){
-				ret.add(tok.nextToken());
-				String analyzed	= tok.nextToken().trim();
-				String lineAnal	= "";
-				StringTokenizer tok2	= new StringTokenizer(analyzed, "+");
-				while(tok2.hasMoreElements()){
-					String token	= tok2.nextToken();
-					int idxSlash	= token.lastIndexOf('/');
-					while(idxSlash < 0){
-						token		+= tok2.nextToken();
-						idxSlash	= token.lastIndexOf('/');
-					}
-					lineAnal			= lineAnal + token.substring(0, idxSlash) + "_" + token.substring(idxSlash + 1) + " ";					
-				}
-				ret.add(lineAnal.trim());
-			}
+			return KoreanMorphologicalAnalysis.fromWorkflowResult(sentence, result);
 		}catch(NullPointerException ne){
 			// The POS tagger fails to process the sentence.
 			// It fails when the input contains single Korean character, which is very unrealistic in real texts (except linguistic things).
@@ -134,19 +164,48 @@ public class KoreanPartOfSpeechTagger  implements PartOfSpeechTagger{
 			// Luckily, there are not so many case (Total 6 sentences for the whole corpus), so for now I just ignored that sentence.			
 			return null;
 		}catch(Exception e){
-			System.out.println(sentence);
-			System.out.println(result);
-			e.printStackTrace();
+			logger.warn("Could not analyze sentence: " + sentence + "\n" + result, e);
+			return null;
 		}
-		return ret;
 	}
 
-    @Override
-    public List<String> getNounPhrases(String sentence) {
+	/**
+	 * Analyze morphemes of the given sentence and return its noun phrases.
+	 * Returns an empty list if the POS tagging fails.
+	 * @param sentence the target sentence
+	 * @return the noun phrases, see getNounPhrases(TaggedSentence)
+	 */
+	@Override
+	public List<String> getNounPhrases(String sentence){
+		return getNounPhrases(getTaggedSentence(sentence));
+	}
 
-        // TODO Auto-generated method stub
-        return null;
-    }
+	/**
+	 * Collects runs of consecutive common (nc*) and proper (nq*) noun morphemes,
+	 * e.g. "측천무후_ncn 의_jcm" gives "측천무후". The morphemes of a noun phrase
+	 * are separated by a space, like the tokens of the tagged sentence.
+	 * @param sentence the morphemes and their POS tags
+	 * @return the noun phrases in the order of the sentence
+	 */
+	@Override
+	public List<String> getNounPhrases(TaggedSentence sentence){
+		List<String> nounPhrases	= new ArrayList<String>();
+		StringBuilder nounPhrase	= new StringBuilder();
+		for(int i = 0; i < sentence.size(); i++){
+			String tag				= sentence.getTag(i);
+			if(tag.startsWith("nc") || tag.startsWith("nq")){
+				if(nounPhrase.length() > 0) nounPhrase.append(' ');
+				nounPhrase.append(sentence.getToken(i));
+			}else if(nounPhrase.length() > 0){
+				nounPhrases.add(nounPhrase.toString());
+				nounPhrase.setLength(0);
+			}
+		}
+		if(nounPhrase.length() > 0){
+			nounPhrases.add(nounPhrase.toString());
+		}
+		return nounPhrases;
+	}
 	
 //	/**
 //	 * all input strings get trimmed
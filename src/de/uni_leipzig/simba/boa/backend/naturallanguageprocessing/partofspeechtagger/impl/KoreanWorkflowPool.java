@@ -0,0 +1,139 @@
+package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import kr.ac.kaist.swrc.jhannanum.hannanum.Workflow;
+import kr.ac.kaist.swrc.jhannanum.plugin.MajorPlugin.MorphAnalyzer.ChartMorphAnalyzer.ChartMorphAnalyzer;
+import kr.ac.kaist.swrc.jhannanum.plugin.MajorPlugin.PosTagger.HmmPosTagger.HMMTagger;
+import kr.ac.kaist.swrc.jhannanum.plugin.SupplementPlugin.MorphemeProcessor.UnknownMorphProcessor.UnknownProcessor;
+import kr.ac.kaist.swrc.jhannanum.plugin.SupplementPlugin.PlainTextProcessor.InformalSentenceFilter.InformalSentenceFilter;
+import kr.ac.kaist.swrc.jhannanum.plugin.SupplementPlugin.PlainTextProcessor.SentenceSegmentor.SentenceSegmentor;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+
+/**
+ * A bounded pool of activated JHanNanum workflows. A workflow can only
+ * analyze one sentence at a time, so every thread borrows its own workflow
+ * and returns it afterwards. Workflows are created lazily, at most
+ * "koreanPosTaggerPoolSize" of them, further threads wait for a returned one.
+ *
+ * @author cdh4696
+ */
+public final class KoreanWorkflowPool {
+
+	private static final NLPediaLogger logger	= new NLPediaLogger(KoreanWorkflowPool.class);
+	private static KoreanWorkflowPool INSTANCE	= null;
+
+	// guarded by this, like the number of created workflows
+	private final Queue<Workflow> idleWorkflows	= new LinkedList<Workflow>();
+	private final int maximumSize;
+	private int createdWorkflows				= 0;
+
+	private KoreanWorkflowPool(int maximumSize){
+		this.maximumSize	= maximumSize;
+	}
+
+	/**
+	 * @return the pool shared by all korean taggers
+	 */
+	public static synchronized KoreanWorkflowPool getInstance(){
+		if(INSTANCE == null){
+			String poolSize	= NLPediaSettings.getSetting("koreanPosTaggerPoolSize");
+			INSTANCE		= new KoreanWorkflowPool(poolSize == null || poolSize.isEmpty() ?
+					Runtime.getRuntime().availableProcessors() : Math.max(1, Integer.valueOf(poolSize)));
+		}
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns an idle workflow, creates a new one if the pool is not full yet
+	 * or waits until another thread returns one.
+	 *
+	 * @return an activated workflow, which needs to be given back with returnWorkflow
+	 */
+	public Workflow borrowWorkflow(){
+		synchronized(this){
+			try {
+				// a discarded workflow frees a slot, so waiting threads need to re-check both
+				while(idleWorkflows.isEmpty() && createdWorkflows >= maximumSize){
+					wait();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				String error = "Interrupted while waiting for a korean workflow!";
+				logger.error(error, e);
+				throw new RuntimeException(error, e);
+			}
+			if(!idleWorkflows.isEmpty()){
+				return idleWorkflows.poll();
+			}
+			createdWorkflows++;
+		}
+
+		try{
+			return createWorkflow();
+		}catch(RuntimeException e){
+			releaseSlot();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param workflow a workflow borrowed from this pool
+	 */
+	public synchronized void returnWorkflow(Workflow workflow){
+		idleWorkflows.offer(workflow);
+		notifyAll();
+	}
+
+	/**
+	 * Closes a workflow which failed during the analysis, the next waiting
+	 * thread creates a new one instead.
+	 *
+	 * @param workflow a workflow borrowed from this pool
+	 */
+	public void discardWorkflow(Workflow workflow){
+		try{
+			workflow.close();
+		}catch(Exception e){
+			logger.warn("Could not close korean workflow", e);
+		}
+		releaseSlot();
+	}
+
+	/**
+	 * Frees the slot of a workflow which does not exist anymore and wakes up
+	 * the threads waiting for a workflow.
+	 */
+	private synchronized void releaseSlot(){
+		createdWorkflows--;
+		notifyAll();
+	}
+
+	/**
+	 * @return a new activated workflow
+	 */
+	private Workflow createWorkflow(){
+		try {
+			String baseDir	= NLPediaSettings.BOA_BASE_DIRECTORY + "training/pos/koreanpostagger/";
+			Workflow wf		= new Workflow();
+			wf.appendPlainTextProcessor(new SentenceSegmentor(), null);
+			wf.appendPlainTextProcessor(new InformalSentenceFilter(), null);
+			wf.setMorphAnalyzer(new ChartMorphAnalyzer(), baseDir + "conf/plugin/MajorPlugin/MorphAnalyzer/ChartMorphAnalyzer.json", baseDir );
+			wf.appendMorphemeProcessor(new UnknownProcessor(), null);
+			wf.setPosTagger(new HMMTagger(), baseDir + "conf/plugin/MajorPlugin/PosTagger/HmmPosTagger.json", baseDir);
+
+			wf.activateWorkflow(false);
+			logger.info("Created korean workflow " + createdWorkflows + " of " + maximumSize);
+			return wf;
+		}
+		catch (Exception e){
+			e.printStackTrace();
+			String error = "Could not create korean workflow!";
+			logger.fatal(error, e);
+			throw new RuntimeException(error, e);
+		}
+	}
+}
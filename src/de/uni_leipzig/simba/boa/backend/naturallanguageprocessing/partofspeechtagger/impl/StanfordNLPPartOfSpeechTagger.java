@@ -3,18 +3,22 @@ package de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeecht
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
-import cern.colt.Arrays;
-
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagNormalizer;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagger;
+import edu.stanford.nlp.ling.HasWord;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.objectbank.TokenizerFactory;
 import edu.stanford.nlp.tagger.maxent.MaxentTagger;
 
 /**
@@ -24,7 +28,7 @@ import edu.stanford.nlp.tagger.maxent.MaxentTagger;
 public final class StanfordNLPPartOfSpeechTagger implements PartOfSpeechTagger {
 
 	private final NLPediaLogger logger	= new NLPediaLogger(StanfordNLPPartOfSpeechTagger.class);
-	private MaxentTagger tagger;
+	private ConfiguredMaxentTagger tagger;
 
 	public StanfordNLPPartOfSpeechTagger() {
 		
@@ -34,7 +38,7 @@ public final class StanfordNLPPartOfSpeechTagger implements PartOfSpeechTagger {
             PrintStream standardErrorStream = System.err;
             System.setErr(new PrintStream(new ByteArrayOutputStream()));
 		    
-			this.tagger = new MaxentTagger(NLPediaSettings.BOA_BASE_DIRECTORY + NLPediaSettings.getSetting("pos.tagger.model"));
+			this.tagger = new ConfiguredMaxentTagger(NLPediaSettings.BOA_BASE_DIRECTORY + NLPediaSettings.getSetting("pos.tagger.model"));
 			
 			// revert to original standard error stream
             System.setErr(standardErrorStream);
@@ -51,38 +55,66 @@ public final class StanfordNLPPartOfSpeechTagger implements PartOfSpeechTagger {
 			e.printStackTrace();
 			throw new RuntimeException("Could not read trained model!", e);
 		}
+		catch (NoSuchMethodException e) {
+			
+			this.logger.fatal("Could not create the tokenizer factory of the model!", e);
+			e.printStackTrace();
+			throw new RuntimeException("Could not create the tokenizer factory of the model!", e);
+		}
+		catch (IllegalAccessException e) {
+			
+			this.logger.fatal("Could not create the tokenizer factory of the model!", e);
+			e.printStackTrace();
+			throw new RuntimeException("Could not create the tokenizer factory of the model!", e);
+		}
+		catch (InvocationTargetException e) {
+			
+			this.logger.fatal("Could not create the tokenizer factory of the model!", e);
+			e.printStackTrace();
+			throw new RuntimeException("Could not create the tokenizer factory of the model!", e);
+		}
 	}
 	
 	@Override
 	public String getAnnotatedString(String string) {
 
-		List<String> sentence = new ArrayList<String>();
-		for ( String taggedWord : tagger.tagString(string).split(" ")) {
-			
-			int lastIndex	= taggedWord.lastIndexOf("/");
-			String posTag	= taggedWord.substring(lastIndex + 1);
-			String token	= taggedWord.substring(0, lastIndex);
-			
-			sentence.add(token + Constants.PART_OF_SPEECH_TAG_DELIMITER + posTag);
-			
-			if ( PartOfSpeechTagNormalizer.PART_OF_SPEECH_TAG_MAPPINGS.get(posTag) == null )
-				System.err.println("No tag mapping for tag: \"" + posTag + "\" found");
-		}
-		return StringUtils.join(sentence, " ");
+		return this.getTaggedSentence(string).toAnnotatedString(Constants.PART_OF_SPEECH_TAG_DELIMITER);
 	}
 
 	@Override
 	public String getAnnotations(String string) {
 
-		// add the surfaceForms ot the front/end to improve accuracy and tag it 
-		String[] taggedSentence = this.getAnnotatedString(string).split(" ");
-		// remove the words, to only have the pos tags
-		List<String> tags = new ArrayList<String>();
-		for ( String s : taggedSentence ) {
+		return this.getTaggedSentence(string).getAnnotations();
+	}
+	
+	@Override
+	public TaggedSentence getTaggedSentence(String string) {
+		
+		List<String> tokens	= new ArrayList<String>();
+		List<String> tags	= new ArrayList<String>();
+		
+		// the tagger returns the tagged words directly, no need to split "token/TAG" strings
+		for ( List<HasWord> sentence : this.tagger.tokenize(string) ) {
 			
-			tags.add(s.substring(s.lastIndexOf(Constants.PART_OF_SPEECH_TAG_DELIMITER) + 1));
+			for ( TaggedWord taggedWord : this.tagger.tagSentence(sentence) ) {
+				
+				tokens.add(taggedWord.word());
+				tags.add(taggedWord.tag());
+				
+				if ( PartOfSpeechTagNormalizer.PART_OF_SPEECH_TAG_MAPPINGS.get(taggedWord.tag()) == null )
+					System.err.println("No tag mapping for tag: \"" + taggedWord.tag() + "\" found");
+			}
 		}
-		return StringUtils.join(tags, " ");
+		return new TaggedSentence(tokens, tags);
+	}
+	
+	@Override
+	public List<TaggedSentence> getTaggedSentences(List<String> strings) {
+		
+		List<TaggedSentence> taggedSentences = new ArrayList<TaggedSentence>(strings.size());
+		for ( String string : strings ) taggedSentences.add(this.getTaggedSentence(string));
+		
+		return taggedSentences;
 	}
 	
 	/**
@@ -92,17 +124,21 @@ public final class StanfordNLPPartOfSpeechTagger implements PartOfSpeechTagger {
 	 */
 	public List<String> getNounPhrases(String sentence) {
 
-	    String[] taggedSentence    = this.getAnnotatedString(sentence).split(" ");
+	    return this.getNounPhrases(this.getTaggedSentence(sentence));
+	}
+	
+	@Override
+	public List<String> getNounPhrases(TaggedSentence sentence) {
+
 	    List<String> nounPhrases   = new ArrayList<String>();
-	    
 	    List<String> currentNounPhrase = new ArrayList<String>();
 	    
-	    for ( String taggedWord : taggedSentence) {
+	    for ( int i = 0; i < sentence.size() ; i++ ) {
 	        
 	        // do we have a proper noun in singular or plural
-            if ( taggedWord.matches(".+_NNP?S?") ) {
+            if ( sentence.getTag(i).matches("NNP?S?") ) {
                 
-                currentNounPhrase.add(taggedWord.substring(0, taggedWord.indexOf("_")));
+                currentNounPhrase.add(sentence.getToken(i));
             }
             else {
                 
@@ -116,4 +152,26 @@ public final class StanfordNLPPartOfSpeechTagger implements PartOfSpeechTagger {
 	    
 	    return nounPhrases;
 	}
+	
+	/**
+	 * Tokenizes with the tokenizer factory the model was trained with, like 
+	 * the tagger does for its own input. The static MaxentTagger.tokenizeText 
+	 * always uses the default PTB tokenizer and ignores the model. 
+	 */
+	private static final class ConfiguredMaxentTagger extends MaxentTagger {
+		
+		private final TokenizerFactory<? extends HasWord> tokenizerFactory;
+		
+		private ConfiguredMaxentTagger(String modelFile) throws IOException, ClassNotFoundException, 
+				NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+			
+			super(modelFile);
+			this.tokenizerFactory = this.chooseTokenizerFactory();
+		}
+		
+		private List<List<HasWord>> tokenize(String string) {
+			
+			return tokenizeText(new StringReader(string), this.tokenizerFactory);
+		}
+	}
 }
@@ -1,20 +1,59 @@
 package de.uni_leipzig.simba.boa.backend.pipeline;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.io.FileUtils;
 
 import de.uni_leipzig.simba.boa.backend.BoaHelper;
+import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.configuration.PipelineConfiguration;
+import de.uni_leipzig.simba.boa.backend.pipeline.interchangeobject.ModuleInterchangeObject;
+import de.uni_leipzig.simba.boa.backend.pipeline.interchangeobject.ModuleInterchangeObjectCheckpoint;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule;
+import de.uni_leipzig.simba.boa.backend.util.PatternUtil;
 
 /**
+ * Runs the configured modules. A module is started as soon as all modules
+ * it depends on are finished, so independent modules run in parallel (at 
+ * most "pipelineThreadPoolSize" at the same time). The configured order is
+ * the tie-break: a module never starts before an earlier configured module
+ * unless the two are independent, and with a single thread the modules run
+ * one after another in this order. Wall time and approximate cpu time and
+ * peak heap of each module are written to a tab separated run report in 
+ * the data directory. If "pipelineCheckpoint" is enabled the interchange
+ * object is checkpointed after every module and a restarted pipeline skips
+ * the modules which already finished.
  * 
  * @author gerb
  */
 public class Pipeline {
 
+	private static final long HEAP_MONITOR_INTERVAL = 100;
+	
 	private PipelineConfiguration pipelineConfiguration;
+	private ModuleInterchangeObjectCheckpoint checkpoint;
 	private final NLPediaLogger logger = new NLPediaLogger(Pipeline.class); 
 
 	/**
@@ -56,23 +95,157 @@ public class Pipeline {
 			}
 		}
 		
+		// a module waits for all configured modules it depends on
+		final Map<PipelineModule,Set<PipelineModule>> dependencies = this.createDependencyGraph();
+		List<PipelineModule> modules = this.createExecutionOrder(dependencies);
+		
 		String successMessage = "All modules are configured correctly.";
 		this.logger.info(successMessage);
 		System.out.println(successMessage + "\n");
 		
-		// configuration is correct so we can run each module
-		for ( PipelineModule module : this.pipelineConfiguration.getPipelineModules() ) {
+		// resume from the last checkpoint, finished modules will be skipped
+		if ( this.isCheckpointEnabled() ) {
+			
+			this.checkpoint = new ModuleInterchangeObjectCheckpoint(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.CHECKPOINT_PATH);
+			this.checkpoint.restore(this.pipelineConfiguration.getModuleInterchangeObject());
+		}
+		
+		final List<PipelineModuleReport> reports = new ArrayList<PipelineModuleReport>();
+		final Set<PipelineModuleReport> runningReports = Collections.synchronizedSet(new HashSet<PipelineModuleReport>());
+		
+		// sample the heap while modules are running to get their approximate peak heap usage,
+		// the heap is shared by all modules running at the same time
+		Timer heapMonitor = new Timer("PipelineHeapMonitor", true);
+		heapMonitor.scheduleAtFixedRate(new TimerTask() {
+			
+			@Override
+			public void run() {
+				
+				long usedHeap = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+				synchronized (runningReports) {
+					
+					for ( PipelineModuleReport report : runningReports ) report.updatePeakHeap(usedHeap);
+				}
+			}
+		}, 0, HEAP_MONITOR_INTERVAL);
+		
+		int threadPoolSize = this.getThreadPoolSize();
+		ExecutorService executorService = Executors.newFixedThreadPool(threadPoolSize);
+		CompletionService<PipelineModule> completionService = new ExecutorCompletionService<PipelineModule>(executorService);
+		
+		// configuration is correct so we can run each module as soon as its dependencies are finished
+		try {
+			
+			Set<PipelineModule> finishedModules = new HashSet<PipelineModule>();
+			Set<PipelineModule> submittedModules = new HashSet<PipelineModule>();
+			
+			while ( finishedModules.size() < modules.size() ) {
+				
+				// submit all modules whose dependencies are finished, in the execution order
+				for ( int i = 0; i < modules.size(); i++ ) {
+					
+					// without parallel modules no module may overtake an earlier one
+					if ( threadPoolSize == 1 && !finishedModules.containsAll(modules.subList(0, i)) ) break;
+					
+					final PipelineModule module = modules.get(i);
+					if ( !submittedModules.contains(module) && finishedModules.containsAll(dependencies.get(module)) ) {
+						
+						final PipelineModuleReport report = new PipelineModuleReport(module.getName());
+						reports.add(report);
+						submittedModules.add(module);
+						
+						completionService.submit(new Callable<PipelineModule>() {
+
+							@Override
+							public PipelineModule call() throws Exception {
+								
+								runningReports.add(report);
+								try {
+									
+									runModule(module, report);
+								}
+								finally {
+									
+									runningReports.remove(report);
+								}
+								return module;
+							}
+						});
+					}
+				}
+				finishedModules.add(completionService.take().get());
+			}
+		}
+		catch (InterruptedException e) {
+			
+			e.printStackTrace();
+			String error = "Pipeline got interrupted!";
+			this.logger.fatal(error, e);
+			throw new RuntimeException(error, e);
+		}
+		catch (ExecutionException e) {
+			
+			e.printStackTrace();
+			String error = "Module failed, stopping pipeline!";
+			this.logger.fatal(error, e);
+			throw new RuntimeException(error, e.getCause());
+		}
+		finally {
+			
+			executorService.shutdownNow();
+			heapMonitor.cancel();
+			// the corpus index searchers are shared by all modules, they are closed once the pipeline is done
+			PatternUtil.closePatternSearchers();
+			this.writeRunReport(reports);
+		}
+	}
+	
+	/**
+	 * Runs the module or loads its already available data and updates the
+	 * module interchange object. The resource usage is recorded in the report,
+	 * the cpu time only for the thread running this method.
+	 * 
+	 * @param module - the module to run
+	 * @param report - the report of this module
+	 */
+	private void runModule(PipelineModule module, PipelineModuleReport report) {
+		
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		boolean measureCpuTime = threadBean.isCurrentThreadCpuTimeSupported();
+		long cpuStart = measureCpuTime ? threadBean.getCurrentThreadCpuTime() : 0;
+		report.setStart(System.currentTimeMillis());
+		report.setStatus(PipelineModuleReport.Status.FAILED);
+		
+		try {
 			
 			String launchMessage = "Launching: " + module.getName();
 			this.logger.info(launchMessage);
 			System.out.println(launchMessage);
 			
+			// the results of the module are already part of the restored interchange object
+			if ( this.checkpoint != null && !module.isOverrideData() && this.checkpoint.isModuleCompleted(module.getName()) ) {
+				
+				String skipMessage = "  Restored from checkpoint, skipping module!";
+				this.logger.info(skipMessage);
+				System.out.println(skipMessage + "\n");
+				report.setAction(PipelineModuleReport.Action.CHECKPOINT);
+				report.setStatus(PipelineModuleReport.Status.SUCCESS);
+				return;
+			}
+			
+			// these are not part of the checkpoint, so we need to know if the module changes them
+			ModuleInterchangeObject moduleInterchangeObject = this.pipelineConfiguration.getModuleInterchangeObject();
+			Object index = moduleInterchangeObject.getIndex();
+			Object machineLearningTool = moduleInterchangeObject.getMachineLearningTool();
+			Object classesSurfaceForms = moduleInterchangeObject.getClassesSurfaceForms();
+			
 			// do only run the module if either we don't have data already or we have data and want to override it 
 			if ( (module.isDataAlreadyAvailable() && module.isOverrideData()) || !module.isDataAlreadyAvailable() ) {
 			    
 			    String runMessage = "  Beginning to create data!";
 	            this.logger.info(runMessage);
 	            System.out.println(runMessage);
+	            report.setAction(PipelineModuleReport.Action.RUN);
 			    module.run();
 			}
 			else {
@@ -80,21 +253,142 @@ public class Pipeline {
 			    String runMessage = "  Loading already available data!";
                 this.logger.info(runMessage);
                 System.out.println(runMessage);
+                report.setAction(PipelineModuleReport.Action.LOAD);
 			    module.loadAlreadyAvailableData();
 			}
-				
 			
-			// we want to update the interchange module anyway
-			module.updateModuleInterchangeObject();
+			// we want to update the interchange module anyway, its collections are thread safe but
+			// an update and the checkpoint written after it must not interleave with other modules
+			synchronized (moduleInterchangeObject) {
+				
+				module.updateModuleInterchangeObject();
+				
+				if ( this.checkpoint != null ) {
+					
+					boolean restorable = index == moduleInterchangeObject.getIndex() 
+							&& machineLearningTool == moduleInterchangeObject.getMachineLearningTool()
+							&& classesSurfaceForms == moduleInterchangeObject.getClassesSurfaceForms();
+					this.checkpoint.save(moduleInterchangeObject, module.getName(), restorable);
+				}
+			}
 			
-			String report = module.getReport();
-			this.logger.info(report);
-			System.out.println("  " + report);
+			String moduleReport = module.getReport();
+			this.logger.info(moduleReport);
+			System.out.println("  " + moduleReport);
 			
 			String shutdownMessage = "Shutting down: " + module.getName();
 			this.logger.info(shutdownMessage);
 			System.out.println(shutdownMessage + "\n");
+			
+			report.setStatus(PipelineModuleReport.Status.SUCCESS);
 		}
+		finally {
+			
+			report.setWallTime(System.currentTimeMillis() - report.getStart());
+			if ( measureCpuTime ) report.setCpuTime((threadBean.getCurrentThreadCpuTime() - cpuStart) / 1000000L);
+		}
+	}
+	
+	/**
+	 * Writes one tab separated line per module to the data directory.
+	 * 
+	 * @param reports - the reports of all started modules
+	 */
+	private void writeRunReport(List<PipelineModuleReport> reports) {
+		
+		List<String> lines = new ArrayList<String>();
+		lines.add(PipelineModuleReport.HEADER);
+		for ( PipelineModuleReport report : reports ) lines.add(report.toReportLine());
+		
+		String filename = NLPediaSettings.BOA_DATA_DIRECTORY + "pipeline_report_" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".tsv";
+		try {
+			
+			FileUtils.writeLines(new File(filename), "UTF-8", lines);
+			this.logger.info("Wrote pipeline run report to: " + filename);
+		}
+		catch (IOException e) {
+			
+			// the report is not worth stopping the pipeline
+			e.printStackTrace();
+			this.logger.error("Could not write pipeline run report to: " + filename, e);
+		}
+	}
+	
+	/**
+	 * @return the configured modules each module depends on
+	 */
+	private Map<PipelineModule,Set<PipelineModule>> createDependencyGraph() {
+		
+		Map<PipelineModule,Set<PipelineModule>> dependencies = new HashMap<PipelineModule,Set<PipelineModule>>();
+		for ( PipelineModule module : this.pipelineConfiguration.getPipelineModules() ) {
+			
+			Set<PipelineModule> moduleDependencies = new HashSet<PipelineModule>();
+			for ( Class<PipelineModule> dependency : module.getModuleDependencies() )
+				for ( PipelineModule pipelineModule : this.pipelineConfiguration.getPipelineModules() )
+					if ( pipelineModule != module && dependency.equals(pipelineModule.getClass()) ) moduleDependencies.add(pipelineModule);
+			
+			dependencies.put(module, moduleDependencies);
+		}
+		return dependencies;
+	}
+	
+	/**
+	 * Orders the modules so that every module comes after the modules it
+	 * depends on. Apart from that the configured order is kept, i.e. the next
+	 * module is always the first configured module whose dependencies are
+	 * already ordered. Throws a runtime exception if the modules can not be 
+	 * ordered because of circular dependencies.
+	 * 
+	 * @param dependencies - the dependency graph
+	 * @return the modules in the order they are started
+	 */
+	private List<PipelineModule> createExecutionOrder(Map<PipelineModule,Set<PipelineModule>> dependencies) {
+		
+		List<PipelineModule> configured = new ArrayList<PipelineModule>(this.pipelineConfiguration.getPipelineModules());
+		List<PipelineModule> ordered = new ArrayList<PipelineModule>();
+		boolean progress = true;
+		while ( progress ) {
+			
+			progress = false;
+			for ( PipelineModule module : configured ) {
+				
+				if ( ordered.containsAll(dependencies.get(module)) ) {
+					
+					ordered.add(module);
+					configured.remove(module);
+					progress = true;
+					break;
+				}
+			}
+		}
+		if ( !configured.isEmpty() ) {
+			
+			List<String> cyclicModules = new ArrayList<String>();
+			for ( PipelineModule module : configured ) cyclicModules.add(module.getName());
+			
+			String errorMessage = "Circular dependency between modules: " + cyclicModules;
+			this.logger.fatal(errorMessage);
+			throw new RuntimeException(errorMessage);
+		}
+		return ordered;
+	}
+	
+	/**
+	 * @return true if the interchange object should be checkpointed after every module
+	 */
+	private boolean isCheckpointEnabled() {
+		
+		String checkpoint = NLPediaSettings.getSetting("pipelineCheckpoint");
+		return checkpoint != null && Boolean.valueOf(checkpoint);
+	}
+	
+	/**
+	 * @return the number of modules which may run in parallel, 1 if not configured
+	 */
+	private int getThreadPoolSize() {
+		
+		String threadPoolSize = NLPediaSettings.getSetting("pipelineThreadPoolSize");
+		return threadPoolSize == null || threadPoolSize.isEmpty() ? 1 : Math.max(1, Integer.valueOf(threadPoolSize));
 	}
 	
 	/**
@@ -0,0 +1,167 @@
+package de.uni_leipzig.simba.boa.backend.pipeline;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+
+/**
+ * Resource usage of a single module during a pipeline run. The pipeline
+ * writes one line per module to the run report. Only the wall time is
+ * exact, the cpu time and the peak heap are approximations: the cpu time
+ * misses the worker threads a module starts itself and the peak heap is 
+ * sampled for the whole jvm, so it includes modules running in parallel.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class PipelineModuleReport {
+
+    /**
+     * the header of the tab separated run report
+     */
+    public static final String HEADER = "module\taction\tstatus\tstart\twallTimeMs\tapproxCpuTimeMs\tapproxPeakHeapMb";
+
+    public enum Action { RUN, LOAD, CHECKPOINT }
+    public enum Status { SUCCESS, FAILED }
+
+    private final String moduleName;
+    private Action action;
+    private Status status;
+    private long start;
+    private long wallTime;
+    private long cpuTime;
+    private volatile long peakHeap;
+
+    /**
+     * @param moduleName - the name of the module
+     */
+    public PipelineModuleReport(String moduleName) {
+
+        this.moduleName = moduleName;
+    }
+
+    /**
+     * Updates the peak heap if the given heap usage is higher. Called
+     * periodically by the pipeline while the module is running.
+     *
+     * @param usedHeap - the currently used heap in bytes
+     */
+    public synchronized void updatePeakHeap(long usedHeap) {
+
+        if ( usedHeap > this.peakHeap ) this.peakHeap = usedHeap;
+    }
+
+    /**
+     * @return one tab separated line of the run report
+     */
+    public String toReportLine() {
+
+        return this.moduleName + "\t" + this.action + "\t" + this.status + "\t" + this.start + "\t" +
+                this.wallTime + "\t" + this.cpuTime + "\t" + (this.peakHeap / NLPediaSettings.MEGABYTE);
+    }
+
+    /**
+     * @return the moduleName
+     */
+    public String getModuleName() {
+
+        return moduleName;
+    }
+
+    /**
+     * @return if the module created the data, loaded already available data or was restored from a checkpoint
+     */
+    public Action getAction() {
+
+        return action;
+    }
+
+    /**
+     * @param action the action to set
+     */
+    public void setAction(Action action) {
+
+        this.action = action;
+    }
+
+    /**
+     * @return the status
+     */
+    public Status getStatus() {
+
+        return status;
+    }
+
+    /**
+     * @param status the status to set
+     */
+    public void setStatus(Status status) {
+
+        this.status = status;
+    }
+
+    /**
+     * @return the start of the module in milliseconds since epoch
+     */
+    public long getStart() {
+
+        return start;
+    }
+
+    /**
+     * @param start the start to set
+     */
+    public void setStart(long start) {
+
+        this.start = start;
+    }
+
+    /**
+     * @return the wall time in milliseconds
+     */
+    public long getWallTime() {
+
+        return wallTime;
+    }
+
+    /**
+     * @param wallTime the wallTime to set
+     */
+    public void setWallTime(long wallTime) {
+
+        this.wallTime = wallTime;
+    }
+
+    /**
+     * @return the approximate cpu time in milliseconds, i.e. the cpu time of the 
+     * thread which ran the module, worker threads started by the module itself 
+     * are not included
+     */
+    public long getCpuTime() {
+
+        return cpuTime;
+    }
+
+    /**
+     * @param cpuTime the cpuTime to set
+     */
+    public void setCpuTime(long cpuTime) {
+
+        this.cpuTime = cpuTime;
+    }
+
+    /**
+     * @return the approximate peak heap in bytes, i.e. the highest heap usage of the
+     * jvm while the module was running, modules running in parallel are included
+     */
+    public long getPeakHeap() {
+
+        return peakHeap;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return this.toReportLine();
+    }
+}
@@ -19,6 +19,9 @@ import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
 
 
 /**
+ * Implementations are shared by the pipeline modules which run in parallel, 
+ * so the returned collections have to be thread safe.
+ * 
  * @author gerb
  *
  */
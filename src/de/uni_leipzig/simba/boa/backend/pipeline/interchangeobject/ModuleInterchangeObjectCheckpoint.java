@@ -0,0 +1,369 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.pipeline.interchangeobject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+
+import de.uni_leipzig.simba.boa.backend.backgroundknowledge.BackgroundKnowledge;
+import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.Property;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
+
+
+/**
+ * Checkpoints the background knowledge, properties, pattern mappings and new
+ * knowledge of a module interchange object after every finished module. Each
+ * section is written to its own file with java serialization. After a module
+ * the sections are only hashed, and only the sections whose hash changed are
+ * written to disk. A manifest stores the hash of every section and the names 
+ * of all finished modules, so that a restarted pipeline can read the sections
+ * back with an ObjectInputStream and skip the modules which already finished.
+ *
+ * The index, the machine learning tool and the classes surface forms are not
+ * part of the checkpoint. Modules which change them are marked as not
+ * restorable and run again (or load their own data) after a restart.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class ModuleInterchangeObjectCheckpoint {
+
+    private final NLPediaLogger logger = new NLPediaLogger(ModuleInterchangeObjectCheckpoint.class);
+
+    private static final String MANIFEST_FILE       = "checkpoint.properties";
+    private static final String SECTION_PREFIX      = "section.";
+    private static final String MODULE_PREFIX       = "module.";
+    private static final String MODULE_RESTORABLE   = "restorable";
+    private static final String MODULE_RERUN        = "rerun";
+
+    public enum Section {
+
+        BACKGROUND_KNOWLEDGE("backgroundknowledge.bin"),
+        PROPERTIES("properties.bin"),
+        PATTERN_MAPPINGS("patternmappings.bin"),
+        NEW_KNOWLEDGE("newknowledge.bin");
+
+        private final String filename;
+
+        private Section(String filename) {
+
+            this.filename = filename;
+        }
+
+        /**
+         * @return the filename of the section in the checkpoint directory
+         */
+        public String getFilename() {
+
+            return this.filename;
+        }
+    }
+
+    private final String checkpointDirectory;
+    private final Properties manifest = new Properties();
+    private final Set<String> restorableModules = new HashSet<String>();
+
+    /**
+     * @param checkpointDirectory - the directory of the checkpoint, with trailing "/"
+     */
+    public ModuleInterchangeObjectCheckpoint(String checkpointDirectory) {
+
+        this.checkpointDirectory = checkpointDirectory;
+    }
+
+    /**
+     * Loads the manifest and all sections of the last checkpoint into the given
+     * interchange object. If a section is missing or its content hash does not
+     * match the manifest, nothing is restored and every module needs to run again.
+     *
+     * @param moduleInterchangeObject - the object to fill
+     * @return true if a checkpoint was restored
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized boolean restore(ModuleInterchangeObject moduleInterchangeObject) {
+
+        File manifestFile = new File(this.checkpointDirectory + MANIFEST_FILE);
+        if ( !manifestFile.exists() ) return false;
+
+        InputStream manifestStream = null;
+        try {
+
+            manifestStream = new FileInputStream(manifestFile);
+            this.manifest.load(manifestStream);
+
+            Object[] sections = new Object[Section.values().length];
+            for ( Section section : Section.values() ) {
+
+                String hash = this.manifest.getProperty(SECTION_PREFIX + section.getFilename());
+                if ( hash == null ) continue;
+
+                sections[section.ordinal()] = this.loadSection(section, hash);
+                if ( sections[section.ordinal()] == null ) {
+
+                    this.manifest.clear();
+                    return false;
+                }
+            }
+
+            if ( sections[Section.BACKGROUND_KNOWLEDGE.ordinal()] != null )
+                moduleInterchangeObject.setBackgroundKnowledge((Set<BackgroundKnowledge>) sections[Section.BACKGROUND_KNOWLEDGE.ordinal()]);
+            if ( sections[Section.PROPERTIES.ordinal()] != null )
+                moduleInterchangeObject.setProperties((Map<Integer,Property>) sections[Section.PROPERTIES.ordinal()]);
+            if ( sections[Section.PATTERN_MAPPINGS.ordinal()] != null )
+                moduleInterchangeObject.setPatternMappings((Set<PatternMapping>) sections[Section.PATTERN_MAPPINGS.ordinal()]);
+            if ( sections[Section.NEW_KNOWLEDGE.ordinal()] != null )
+                moduleInterchangeObject.setNewKnowledge((Map<String,Set<Triple>>) sections[Section.NEW_KNOWLEDGE.ordinal()]);
+
+            for ( String key : this.manifest.stringPropertyNames() )
+                if ( key.startsWith(MODULE_PREFIX) && this.manifest.getProperty(key).equals(MODULE_RESTORABLE) )
+                    this.restorableModules.add(key.substring(MODULE_PREFIX.length()));
+
+            this.logger.info("Restored checkpoint from " + this.checkpointDirectory + " with finished modules: " + this.restorableModules);
+            return true;
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not read checkpoint from: " + this.checkpointDirectory;
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
+
+            IOUtils.closeQuietly(manifestStream);
+        }
+    }
+
+    /**
+     * @param moduleName - the name of the module
+     * @return true if the module finished in a previous run and its results are part of the checkpoint
+     */
+    public synchronized boolean isModuleCompleted(String moduleName) {
+
+        return this.restorableModules.contains(moduleName);
+    }
+
+    /**
+     * Writes the sections whose content changed since the last checkpoint and
+     * marks the module as finished. Needs to be called while no other module
+     * changes the interchange object.
+     *
+     * @param moduleInterchangeObject - the object to checkpoint
+     * @param moduleName - the name of the finished module
+     * @param restorable - false if the module changed data which is not part of the checkpoint
+     */
+    public synchronized void save(ModuleInterchangeObject moduleInterchangeObject, String moduleName, boolean restorable) {
+
+        new File(this.checkpointDirectory).mkdirs();
+
+        this.saveSection(Section.BACKGROUND_KNOWLEDGE, moduleInterchangeObject.getBackgroundKnowledge());
+        this.saveSection(Section.PROPERTIES, moduleInterchangeObject.getProperties());
+        this.saveSection(Section.PATTERN_MAPPINGS, moduleInterchangeObject.getPatternMappings());
+        this.saveSection(Section.NEW_KNOWLEDGE, moduleInterchangeObject.getNewKnowledge());
+
+        this.manifest.setProperty(MODULE_PREFIX + moduleName, restorable ? MODULE_RESTORABLE : MODULE_RERUN);
+
+        OutputStream manifestStream = null;
+        try {
+
+            File tempFile = new File(this.checkpointDirectory + MANIFEST_FILE + ".tmp");
+            manifestStream = new FileOutputStream(tempFile);
+            this.manifest.store(manifestStream, "BOA pipeline checkpoint");
+            manifestStream.close();
+            this.replace(tempFile, new File(this.checkpointDirectory + MANIFEST_FILE));
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not write checkpoint manifest to: " + this.checkpointDirectory;
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
+
+            IOUtils.closeQuietly(manifestStream);
+        }
+    }
+
+    /**
+     * Hashes the serialized section without writing it anywhere. Only if the 
+     * hash differs from the manifest, the section is serialized to a temporary
+     * file which then replaces the section file. The section is never held in
+     * memory as a whole.
+     *
+     * @param section - the section to write
+     * @param content - the content of the section, null sections are not written
+     */
+    private void saveSection(Section section, Object content) {
+
+        if ( content == null ) return;
+
+        File tempFile = new File(this.checkpointDirectory + section.getFilename() + ".tmp");
+        try {
+
+            // nothing changed since the last module
+            String hash = this.serialize(content, new NullOutputStream());
+            if ( hash.equals(this.manifest.getProperty(SECTION_PREFIX + section.getFilename())) ) return;
+
+            // modules running in parallel may have changed the section in between, so the hash of the file is used 
+            hash = this.serialize(content, new BufferedOutputStream(new FileOutputStream(tempFile)));
+
+            long bytes = tempFile.length();
+            this.replace(tempFile, new File(this.checkpointDirectory + section.getFilename()));
+            this.manifest.setProperty(SECTION_PREFIX + section.getFilename(), hash);
+
+            this.logger.info("Wrote checkpoint section " + section + " (" + bytes + " bytes)");
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not write checkpoint section: " + section;
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+    
+    /**
+     * Serializes the object to the stream and closes it.
+     *
+     * @param content - the object to serialize
+     * @param stream - the stream to write to
+     * @return the hex encoded md5 hash of the serialized object
+     * @throws IOException if the object could not be written
+     */
+    private String serialize(Object content, OutputStream stream) throws IOException {
+
+        MessageDigest digest = this.createDigest();
+        OutputStream out = new DigestOutputStream(stream, digest);
+        try {
+
+            ObjectOutputStream objectStream = new ObjectOutputStream(out);
+            out = objectStream;
+            objectStream.writeObject(content);
+            out.close();
+        }
+        finally {
+
+            IOUtils.closeQuietly(out);
+        }
+        return new String(Hex.encodeHex(digest.digest()));
+    }
+
+    /**
+     * Verifies the hash of the section file and deserializes it.
+     *
+     * @param section - the section to load
+     * @param expectedHash - the hash from the manifest
+     * @return the deserialized section or null if the file is missing or corrupt
+     * @throws IOException if the file can not be read
+     */
+    private Object loadSection(Section section, String expectedHash) throws IOException {
+
+        File sectionFile = new File(this.checkpointDirectory + section.getFilename());
+        if ( !sectionFile.exists() ) {
+
+            this.logger.warn("Checkpoint section " + section + " is missing, ignoring checkpoint!");
+            return null;
+        }
+
+        if ( !expectedHash.equals(this.hash(sectionFile)) ) {
+
+            this.logger.warn("Checkpoint section " + section + " does not match its hash, ignoring checkpoint!");
+            return null;
+        }
+
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(sectionFile)));
+        try {
+
+            return in.readObject();
+        }
+        catch (ClassNotFoundException e) {
+
+            this.logger.warn("Checkpoint section " + section + " contains unknown classes, ignoring checkpoint!", e);
+            return null;
+        }
+        finally {
+
+            in.close();
+        }
+    }
+
+    /**
+     * @param file - the file to hash
+     * @return the hex encoded md5 hash of the file
+     * @throws IOException if the file can not be read
+     */
+    private String hash(File file) throws IOException {
+
+        MessageDigest digest = this.createDigest();
+        InputStream in = new DigestInputStream(new BufferedInputStream(new FileInputStream(file)), digest);
+        try {
+
+            byte[] buffer = new byte[8192];
+            while ( in.read(buffer) != -1 );
+        }
+        finally {
+
+            in.close();
+        }
+        return new String(Hex.encodeHex(digest.digest()));
+    }
+
+    /**
+     * @return a new md5 digest
+     */
+    private MessageDigest createDigest() {
+
+        try {
+
+            return MessageDigest.getInstance("MD5");
+        }
+        catch (NoSuchAlgorithmException e) {
+
+            e.printStackTrace();
+            String error = "MD5 is not available!";
+            this.logger.fatal(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * Replaces the target file with the temporary file by renaming it. If the
+     * file system can't rename onto an existing file, the target is deleted
+     * first. A crash in between leaves a missing section, which invalidates
+     * the checkpoint on restore instead of loading half written data.
+     *
+     * @param tempFile - the new file
+     * @param target - the file to replace
+     * @throws IOException if the file could not be renamed
+     */
+    private void replace(File tempFile, File target) throws IOException {
+
+        if ( tempFile.renameTo(target) ) return;
+        
+        target.delete();
+        if ( !tempFile.renameTo(target) ) throw new IOException("Could not rename " + tempFile + " to " + target);
+    }
+}
@@ -4,11 +4,12 @@
 package de.uni_leipzig.simba.boa.backend.pipeline.interchangeobject.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.lucene.store.Directory;
 
@@ -21,25 +22,52 @@ import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
 
 
 /**
+ * Modules which run in parallel share this object, so the background 
+ * knowledge, properties, pattern mappings and the new knowledge are kept
+ * in concurrent collections. Collections given to the setters are copied
+ * into concurrent ones, all fields are volatile.
+ * 
  * @author gerb
  *
  */
 public class DefaultModuleInterchangeObject implements ModuleInterchangeObject {
 
-	private Set<BackgroundKnowledge> backgroundKnowledge;
-	private Set<PatternMapping> patternMappings;
-	private Map<Integer,Property> properties;
-    private Directory index;
-    private MachineLearningTool machineLearningTool;
-    private Map<String,Set<Triple>> triples;
-	private HashMap<String, ArrayList<String>> classesSurfaceForms; // @author Maciej Janicki <macjan@o2.pl>
+	private volatile Set<BackgroundKnowledge> backgroundKnowledge;
+	private volatile Set<PatternMapping> patternMappings;
+	private volatile Map<Integer,Property> properties;
+    private volatile Directory index;
+    private volatile MachineLearningTool machineLearningTool;
+    private volatile Map<String,Set<Triple>> triples;
+	private volatile HashMap<String, ArrayList<String>> classesSurfaceForms; // @author Maciej Janicki <macjan@o2.pl>
 	
 	public DefaultModuleInterchangeObject(){
 		
-		this.backgroundKnowledge  = new HashSet<BackgroundKnowledge>();
-		this.patternMappings      = new HashSet<PatternMapping>();
-		this.properties           = new HashMap<Integer, Property>();
-		this.triples              = new HashMap<String,Set<Triple>>();
+		this.backgroundKnowledge  = createConcurrentSet(null);
+		this.patternMappings      = createConcurrentSet(null);
+		this.properties           = createConcurrentMap(null);
+		this.triples              = createConcurrentMap(null);
+	}
+	
+	/**
+	 * @param elements - the elements of the new set, may be null
+	 * @return a thread safe set containing the elements
+	 */
+	private static <T> Set<T> createConcurrentSet(Set<T> elements) {
+		
+		Set<T> set = Collections.newSetFromMap(new ConcurrentHashMap<T,Boolean>());
+		if ( elements != null ) set.addAll(elements);
+		return set;
+	}
+	
+	/**
+	 * @param entries - the entries of the new map, may be null
+	 * @return a thread safe map containing the entries
+	 */
+	private static <K,V> Map<K,V> createConcurrentMap(Map<K,V> entries) {
+		
+		Map<K,V> map = new ConcurrentHashMap<K,V>();
+		if ( entries != null ) map.putAll(entries);
+		return map;
 	}
 	
 	@Override
@@ -51,7 +79,7 @@ public class DefaultModuleInterchangeObject implements ModuleInterchangeObject {
 	@Override
 	public void setBackgroundKnowledge(Set<BackgroundKnowledge> backgroundKnowledge) {
 
-		this.backgroundKnowledge = backgroundKnowledge;
+		this.backgroundKnowledge = backgroundKnowledge == null ? null : createConcurrentSet(backgroundKnowledge);
 	}
 
 	@Override
@@ -63,7 +91,7 @@ public class DefaultModuleInterchangeObject implements ModuleInterchangeObject {
 	@Override
 	public void setPatternMappings(Set<PatternMapping> patternMappings) {
 
-		this.patternMappings = patternMappings;
+		this.patternMappings = patternMappings == null ? null : createConcurrentSet(patternMappings);
 	}
 
 	@Override
@@ -75,7 +103,7 @@ public class DefaultModuleInterchangeObject implements ModuleInterchangeObject {
 	@Override
 	public void setProperties(Map<Integer,Property> properties) {
 
-		this.properties = properties;		
+		this.properties = properties == null ? null : createConcurrentMap(properties);
 	}
 
     @Override
@@ -112,7 +140,7 @@ public class DefaultModuleInterchangeObject implements ModuleInterchangeObject {
     @Override
     public void setNewKnowledge(Map<String, Set<Triple>> mergedTriples) {
 
-        this.triples = mergedTriples;
+        this.triples = mergedTriples == null ? null : createConcurrentMap(mergedTriples);
     }
 
     @Override
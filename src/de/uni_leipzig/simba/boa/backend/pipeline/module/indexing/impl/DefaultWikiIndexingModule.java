@@ -32,12 +32,15 @@ import org.jsoup.Jsoup;
 import com.github.gerbsen.file.BufferedFileReader;
 import com.github.gerbsen.file.FileUtil;
 
+import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.entity.context.Context;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.lucene.LowerCaseWhitespaceAnalyzer;
 import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper;
 import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper.LuceneIndexType;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagger;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.sentenceboundarydisambiguation.SentenceBoundaryDisambiguation;
@@ -146,15 +149,15 @@ public class DefaultWikiIndexingModule extends AbstractPipelineModule {
 				if (documents.size() == 1000) {
 					
 					this.logger.debug("Starting IndexingThread");
-					this.logger.debug("BlockingQueue-Size: " + blockingQueue.size());
-					executorService.submit(new IndexingThread(writer, documents));
+					this.logger.debug("BlockingQueue-Size: {}", blockingQueue.size());
+					executorService.submit(this.createIndexingTask(writer, documents));
 					documents = new ArrayList<IndexDocument>();
 				}
 			}
 			// index the remaining x documents
 			if ( documents.size() > 0 ) { 
 
-				executorService.submit(new IndexingThread(writer, documents));
+				executorService.submit(this.createIndexingTask(writer, documents));
 				indexDocumentCount += documents.size();
 			}
 		}
@@ -162,6 +165,18 @@ public class DefaultWikiIndexingModule extends AbstractPipelineModule {
 		LuceneIndexHelper.closeIndexWriter(writer);
 	}
 
+	/**
+	 * Creates the task which indexes a batch of documents on the thread pool.
+	 * 
+	 * @param writer - the writer to write the sentences
+	 * @param documents - the documents to index
+	 * @return the task, which creates its own (not thread safe) taggers
+	 */
+	protected Runnable createIndexingTask(IndexWriter writer, List<IndexDocument> documents) {
+		
+		return new IndexingThread(writer, documents);
+	}
+
 	private class IndexingThread implements Runnable {
 
 		private List<IndexDocument> documents;
@@ -181,26 +196,13 @@ public class DefaultWikiIndexingModule extends AbstractPipelineModule {
 		public void run() {
 			
 			// go through every document
-			for (IndexDocument doc : this.documents)
-				// get every sentence from this document
-				for (String sentence : sentenceBoundaryDisambiguation.getSentences(Jsoup.parse(doc.text.toString()).text()) ) {
-
-					// there are a lot of very short sentences
-					// there are mostly due to sbd errors :(
-					if ( StringUtils.countMatches(sentence, " ") < 5 ) continue;
-					
-					String nerSentence = nerTagger.getAnnotatedString(sentence);
-					String posTagged = posTagger.getAnnotatedString(sentence);
-					
-					// add it to the index
-				    LuceneIndexHelper.indexDocument(writer, 
-				    		createLuceneDocument(
-				    				doc.uri, 
-				    				sentence, 
-				    				nerSentence,
-				    				posTagged,
-				    				new HashSet<String>(getEntities(this.mergeTagsInSentences(nerSentence)))));
-				}
+			for (IndexDocument doc : this.documents) {
+				
+				// get every sentence from this document and tag them
+				List<String> sentences = getSentences(sentenceBoundaryDisambiguation, Jsoup.parse(doc.text.toString()).text());
+				for ( Document luceneDocument : createLuceneDocuments(doc.uri, sentences, nerTagger, posTagger) )
+					LuceneIndexHelper.indexDocument(writer, luceneDocument);
+			}
 			
 			// set those null so that they dont take up all RAM, since the 
 			// reference to this thread lives on until all indexing is finished
@@ -211,92 +213,78 @@ public class DefaultWikiIndexingModule extends AbstractPipelineModule {
 			indexDocumentCount += this.documents.size();			
 			logger.info("Finished indexing of " + indexDocumentCount + " documents!");
 		}
+	}
+	
+	/**
+	 * Splits the text into sentences and drops the very short ones.
+	 * 
+	 * @param sentenceBoundaryDisambiguation - the sentence splitter
+	 * @param text - the plain text of a document
+	 * @return the sentences to index
+	 */
+	protected static List<String> getSentences(SentenceBoundaryDisambiguation sentenceBoundaryDisambiguation, String text) {
 		
-	    /**
-	     * 
-	     * @param mergedTaggedSentence
-	     * @return
-	     */
-	    private List<String> getEntities(List<String> mergedTaggedSentence){
-	        
-	        List<String> entities = new ArrayList<String>();
-	        for (String entity :  mergedTaggedSentence) {
-
-                if (entity.endsWith("_PERSON") ) entities.add(entity.replace("_PERSON", ""));
-                if (entity.endsWith("_MISC")) entities.add(entity.replace("_MISC", ""));
-                if (entity.endsWith("_PLACE")) entities.add(entity.replace("_PLACE", ""));
-                if (entity.endsWith("_ORGANIZATION")) entities.add(entity.replace("_ORGANIZATION", ""));
-	        }
-	        
-	        return entities;
-	    }
-	    
-	    /**
-	     * 
-	     */
-	    public List<String> mergeTagsInSentences(String nerTaggedSentence) {
-
-	        List<String> tokens = new ArrayList<String>();
-	        String lastToken = "";
-	        String lastTag = "";
-	        String currentTag = "";
-	        String newToken = "";
-	        
-	        for (String currentToken : nerTaggedSentence.split(" ")) {
-
-	            currentTag = currentToken.substring(currentToken.lastIndexOf("_") + 1);
-
-	            // we need to check for the previous token's tag
-	            if (!currentToken.endsWith("_OTHER")) {
-
-	                // we need to merge the cell
-	                if (currentTag.equals(lastTag)) {
+		List<String> sentences = new ArrayList<String>();
+		for (String sentence : sentenceBoundaryDisambiguation.getSentences(text) ) {
 
-	                    newToken = lastToken.substring(0, lastToken.lastIndexOf("_")) + " " + currentToken;
-	                    tokens.set(tokens.size() - 1, newToken);
-	                }
-	                // different tag found so just add it
-	                else
-	                    tokens.add(currentToken);
-	            }
-	            else {
-
-	                // add the current token
-	                tokens.add(currentToken);
-	            }
-	            // update for next iteration
-	            lastToken = tokens.get(tokens.size() - 1);
-	            lastTag = currentTag;
-	        }
-	        return tokens;
-	    }
+			// there are a lot of very short sentences
+			// there are mostly due to sbd errors :(
+			if ( StringUtils.countMatches(sentence, " ") >= 5 ) sentences.add(sentence);
+		}
+		return sentences;
+	}
+	
+	/**
+	 * Tags all sentences of a document at once (every sentence gets tagged 
+	 * exactly once) and creates a lucene document for each of them.
+	 * 
+	 * @param uri - the uri of the document
+	 * @param sentences - the sentences of the document
+	 * @param nerTagger - the named entity recognition, not thread safe
+	 * @param posTagger - the part of speech tagger, not thread safe
+	 * @return one lucene document per sentence, see {@link #createLuceneDocument(String, String, String, String, Set)}
+	 */
+	protected static List<Document> createLuceneDocuments(String uri, List<String> sentences, NamedEntityRecognition nerTagger, PartOfSpeechTagger posTagger) {
 		
-		/**
-		 * Indexes a document as follow:
-		 * 
-		 * - uri: Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO
-		 * - sentence: Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO
-		 * 
-		 * the field name are "uri" and "sentence".
-		 * 
-		 * @param uri - the uri of the wiki entry
-		 * @param sentence - a single sentence from the wiki entry
-		 * @param posTagged 
-		 * @return a Lucene Document
-		 */
-		protected Document createLuceneDocument(String uri, String sentence, String nerSentence, String posTagged, Set<String> entities) {
-
-			Document luceneDocument = new Document();
-			luceneDocument.add(new Field("uri", uri, Field.Store.YES, Field.Index.NOT_ANALYZED, Field.TermVector.NO));
-			luceneDocument.add(new Field("sentence", sentence, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
-			luceneDocument.add(new Field("ner", nerSentence, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
-			luceneDocument.add(new Field("pos", posTagged, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
+		List<TaggedSentence> nerSentences = nerTagger.getTaggedSentences(sentences);
+		List<TaggedSentence> posSentences = posTagger.getTaggedSentences(sentences);
+		
+		List<Document> documents = new ArrayList<Document>();
+		for ( int i = 0 ; i < sentences.size() ; i++ ) {
 			
-			for ( String entity : entities )
+			String nerSentence = nerSentences.get(i).toAnnotatedString(Constants.NAMED_ENTITY_TAG_DELIMITER);
+			String posTagged = posSentences.get(i).toAnnotatedString(Constants.PART_OF_SPEECH_TAG_DELIMITER);
+			
+			documents.add(createLuceneDocument(uri, sentences.get(i), nerSentence, posTagged, new HashSet<String>(nerSentences.get(i).getEntities(Context.namedEntityRecognitionTags))));
+		}
+		return documents;
+	}
+	
+	/**
+	 * Indexes a document as follow:
+	 * 
+	 * - uri: Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO
+	 * - sentence: Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO
+	 * 
+	 * the field name are "uri" and "sentence".
+	 * 
+	 * @param uri - the uri of the wiki entry
+	 * @param sentence - a single sentence from the wiki entry
+	 * @param posTagged 
+	 * @return a Lucene Document
+	 */
+	protected static Document createLuceneDocument(String uri, String sentence, String nerSentence, String posTagged, Set<String> entities) {
+
+		Document luceneDocument = new Document();
+		luceneDocument.add(new Field("uri", uri, Field.Store.YES, Field.Index.NOT_ANALYZED, Field.TermVector.NO));
+		luceneDocument.add(new Field("sentence", sentence, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
+		luceneDocument.add(new Field("ner", nerSentence, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
+		luceneDocument.add(new Field("pos", posTagged, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
+		
+		for ( String entity : entities )
                 luceneDocument.add(new Field("entity", entity, Field.Store.YES, Field.Index.NOT_ANALYZED, Field.TermVector.NO));
                 
-			return luceneDocument;
-		}
+		return luceneDocument;
 	}
 	
 	/**
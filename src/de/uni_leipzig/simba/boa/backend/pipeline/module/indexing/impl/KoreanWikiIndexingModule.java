@@ -1,70 +1,120 @@
-package de.uni_leipzig.simba.boa.backend.pipeline.module.indexing.impl;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.apache.lucene.document.Document;
-import org.apache.lucene.document.Field;
-import org.apache.lucene.index.CorruptIndexException;
-import org.apache.lucene.index.IndexWriter;
-
-import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
-import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
-import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.josatagger.impl.KoreanJosaTagger;
-
-public class KoreanWikiIndexingModule extends DefaultWikiIndexingModule {
-	private final NLPediaLogger logger		= new NLPediaLogger(KoreanWikiIndexingModule.class);
-	private final KoreanJosaTagger kjt		= (KoreanJosaTagger) NaturalLanguageProcessingToolFactory.getInstance().createDefaultJosaTagger();	// Somehow will be implemented.
-
-	
-	@Override
-	public String getName() {
-
-		return "Korean Wiki Indexing Module (ko)";
-	}
-	
-	/**
-	 * Writes all sentences of all sentences in the given list to the Lucene index.
-	 * 
-	 * @param writer - the writer to write the sentences
-	 * @param documents - all documents to be processed
-	 */
-	protected void indexDocuments(IndexWriter writer, List<IndexDocument> documents) {
-		
-		try {
-			
-			// go through every document
-			for (IndexDocument doc : documents)
-				// get every sentence from this document
-				for (String sentence : new ArrayList<String>() /*doc.getSentences() TODO*/ ){
-					// add it to the index					
-					String JosaSeparatedSentence	= kjt.getJosaSeparatedSentence(sentence);
-					writer.addDocument(this.createLuceneDocument(doc.uri, sentence, JosaSeparatedSentence));
-				}
-		}
-		catch (CorruptIndexException e) {
-			
-			this.logger.fatal("Could not index list of documents", e);
-			e.printStackTrace();
-			throw new RuntimeException("Could not index list of documents", e);
-		}
-		catch (IOException e) {
-			
-			this.logger.fatal("Could not index list of documents", e);
-			e.printStackTrace();
-			throw new RuntimeException("Could not index list of documents", e);
-		}
-	}
-	
-	protected Document createLuceneDocument(String uri, String origSentence, String sentence) {
-
-		Document luceneDocument = new Document();
-		luceneDocument.add(new Field("uri", uri, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
-		luceneDocument.add(new Field("sentence", sentence, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
-		luceneDocument.add(new Field("originalsentence", origSentence, Field.Store.YES, Field.Index.NOT_ANALYZED, Field.TermVector.NO));
-		return luceneDocument;
-	}
-	
-
-}
+package de.uni_leipzig.simba.boa.backend.pipeline.module.indexing.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.IndexWriter;
+import org.jsoup.Jsoup;
+
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.josatagger.impl.KoreanJosaTagger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanMorphologicalAnalysis;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanPartOfSpeechTagger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.sentenceboundarydisambiguation.SentenceBoundaryDisambiguation;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.sentenceboundarydisambiguation.impl.KoreanSentenceBoundaryDisambiguation;
+
+public class KoreanWikiIndexingModule extends DefaultWikiIndexingModule {
+	private final NLPediaLogger logger		= new NLPediaLogger(KoreanWikiIndexingModule.class);
+	private final KoreanJosaTagger kjt		= (KoreanJosaTagger) NaturalLanguageProcessingToolFactory.getInstance().createDefaultJosaTagger();	// Somehow will be implemented.
+	private final KoreanPartOfSpeechTagger kpos	= (KoreanPartOfSpeechTagger) NaturalLanguageProcessingToolFactory.getInstance().createDefaultPartOfSpeechTagger();
+	private final SentenceBoundaryDisambiguation ksbd	= new KoreanSentenceBoundaryDisambiguation();
+
+	
+	@Override
+	public String getName() {
+
+		return "Korean Wiki Indexing Module (ko)";
+	}
+	
+	/**
+	 * The korean taggers borrow their workflows from a shared pool, so the 
+	 * documents are indexed with them instead of the taggers of the default
+	 * indexing task.
+	 */
+	@Override
+	protected Runnable createIndexingTask(final IndexWriter writer, final List<IndexDocument> documents) {
+		
+		return new Runnable() {
+			
+			@Override
+			public void run() {
+				
+				indexDocuments(writer, documents);
+			}
+		};
+	}
+	
+	/**
+	 * Writes all sentences of all sentences in the given list to the Lucene index.
+	 * 
+	 * @param writer - the writer to write the sentences
+	 * @param documents - all documents to be processed
+	 */
+	protected void indexDocuments(IndexWriter writer, List<IndexDocument> documents) {
+		
+		try {
+			
+			// go through every document
+			for (IndexDocument doc : documents) {
+				// get every sentence from this document
+				List<String> sentences					= ksbd.getSentences(Jsoup.parse(doc.text.toString()).text());
+				// analyze all sentences of the document with one pooled workflow
+				List<String> josaSeparatedSentences		= kjt.getJosaSeparatedSentences(sentences);
+				// the pattern search works on the lower cased sentence, so we analyze it once here and never while searching
+				List<String> lowerCaseSentences			= new ArrayList<String>(josaSeparatedSentences.size());
+				for (String josaSeparatedSentence : josaSeparatedSentences) lowerCaseSentences.add(josaSeparatedSentence.toLowerCase());
+				List<KoreanMorphologicalAnalysis> analyses	= kpos.analyzeSentences(lowerCaseSentences);
+				
+				for (int i = 0; i < sentences.size(); i++) {
+					// add it to the index
+					KoreanMorphologicalAnalysis analysis	= analyses.get(i);
+					String morphology				= (analysis == null ? KoreanMorphologicalAnalysis.empty() : analysis).encode();
+					writer.addDocument(this.createLuceneDocument(doc.uri, sentences.get(i), josaSeparatedSentences.get(i), morphology));
+				}
+			}
+		}
+		catch (CorruptIndexException e) {
+			
+			this.logger.fatal("Could not index list of documents", e);
+			e.printStackTrace();
+			throw new RuntimeException("Could not index list of documents", e);
+		}
+		catch (IOException e) {
+			
+			this.logger.fatal("Could not index list of documents", e);
+			e.printStackTrace();
+			throw new RuntimeException("Could not index list of documents", e);
+		}
+	}
+	
+	/**
+	 * Indexes a document as follow:
+	 * 
+	 * - uri: Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO
+	 * - sentence: Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO
+	 * - originalsentence: Field.Store.YES, Field.Index.NOT_ANALYZED, Field.TermVector.NO
+	 * - morphology: Field.Store.YES, Field.Index.NO, Field.TermVector.NO
+	 * 
+	 * @param uri - the uri of the wiki entry
+	 * @param origSentence - the sentence as found in the wiki entry
+	 * @param sentence - the josa separated sentence
+	 * @param morphology - the encoded KoreanMorphologicalAnalysis of the lower cased josa separated sentence
+	 * @return a Lucene Document
+	 */
+	protected Document createLuceneDocument(String uri, String origSentence, String sentence, String morphology) {
+
+		Document luceneDocument = new Document();
+		luceneDocument.add(new Field("uri", uri, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
+		luceneDocument.add(new Field("sentence", sentence, Field.Store.YES, Field.Index.ANALYZED, Field.TermVector.NO));
+		luceneDocument.add(new Field("originalsentence", origSentence, Field.Store.YES, Field.Index.NOT_ANALYZED, Field.TermVector.NO));
+		luceneDocument.add(new Field("morphology", morphology, Field.Store.YES, Field.Index.NO, Field.TermVector.NO));
+		return luceneDocument;
+	}
+	
+
+}
@@ -1,118 +1,100 @@
 package de.uni_leipzig.simba.boa.backend.pipeline.module.indexing.impl;
 
-import java.util.ArrayList;
+import java.io.StringReader;
 
-import org.apache.lucene.index.IndexWriter;
 import org.xml.sax.Attributes;
-import org.xml.sax.ContentHandler;
-import org.xml.sax.Locator;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
-import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
-import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.sentenceboundarydisambiguation.SentenceBoundaryDisambiguation;
+/**
+ * Collects the pubmed id and the text of the body of one PubMed Central
+ * article (NXML) at a time. Paragraphs and titles are separated by line
+ * breaks, tables, figures and formulas are skipped. The characters are
+ * appended to buffers which are reused for every article, so a handler
+ * (and the parser it belongs to) should be used by one thread only.
+ *
+ * The DTD of the articles is not loaded.
+ */
+public class PubMedArticleContentHandler extends DefaultHandler {
 
-public class PubMedArticleContentHandler extends DefaultWikiIndexingModule
-		implements ContentHandler {
+	public static final String PUBMED_URI_PREFIX = "http://www.ncbi.nlm.nih.gov/pubmed/";
 
-	private String currentValue;
-	private StringBuilder builder = new StringBuilder();
-	private IndexWriter writer;
-	private SentenceBoundaryDisambiguation sbd = NaturalLanguageProcessingToolFactory
-			.getInstance().createDefaultSentenceBoundaryDisambiguation();
-	private IndexDocument document;
-	private boolean pmid;
-	private ArrayList<IndexDocument> documents;
+	private final StringBuilder text = new StringBuilder();
+	private final StringBuilder pmid = new StringBuilder();
 
-	public PubMedArticleContentHandler(IndexWriter writer) {
-		this.writer = writer;
-		documents = new ArrayList<IndexDocument>();
-	}
+	private boolean inPmid;
+	private int bodyDepth;
+	private int skippedDepth;
 
-	public void characters(char[] ch, int start, int length)
-			throws SAXException {
-		currentValue = new String(ch, start, length);
-		document.text.append(currentValue);
+	public void startDocument() throws SAXException {
+		text.setLength(0);
+		pmid.setLength(0);
+		inPmid = false;
+		bodyDepth = 0;
+		skippedDepth = 0;
 	}
 
-	public void endDocument() throws SAXException {
-		if (documents.size() == 1000) {
-			indexDocuments(writer, documents);
-			documents = new ArrayList<IndexDocument>();
+	public void startElement(String uri, String localName, String qName,
+			Attributes attributes) throws SAXException {
+		if (qName.equals("body")) {
+			bodyDepth++;
+		} else if (bodyDepth > 0 && isSkipped(qName)) {
+			skippedDepth++;
+		} else if (qName.equals("article-id") && pmid.length() == 0
+				&& "pmid".equals(attributes.getValue("pub-id-type"))) {
+			inPmid = true;
 		}
 	}
 
-	private void indexDocuments(IndexWriter writer2,
-			ArrayList<IndexDocument> documents2) {
-		// TODO Auto-generated method stub
-		
+	public void characters(char[] ch, int start, int length)
+			throws SAXException {
+		if (inPmid) {
+			pmid.append(ch, start, length);
+		} else if (bodyDepth > 0 && skippedDepth == 0) {
+			text.append(ch, start, length);
+		}
 	}
 
 	public void endElement(String uri, String localName, String qName)
 			throws SAXException {
-		if (qName == null)
-			return;
 		if (qName.equals("body")) {
-			documents.add(document);
-		} else if (qName.equals("p")) {
-			document.text.append("\n");
-		} else if (qName.equals("title")) {
-			document.text.append("\n");
-		} else if (qName.equals("article-id") && pmid) {
-			document.uri = currentValue;
+			bodyDepth--;
+		} else if (bodyDepth > 0 && isSkipped(qName)) {
+			skippedDepth--;
+		} else if (qName.equals("article-id")) {
+			inPmid = false;
+		} else if (bodyDepth > 0 && skippedDepth == 0
+				&& (qName.equals("p") || qName.equals("title"))) {
+			text.append('\n');
 		}
-
-	}
-
-	public void endPrefixMapping(String arg0) throws SAXException {
-		// TODO Auto-generated method stub
-
-	}
-
-	public void ignorableWhitespace(char[] arg0, int arg1, int arg2)
-			throws SAXException {
-		// TODO Auto-generated method stub
-
 	}
 
-	public void processingInstruction(String arg0, String arg1)
-			throws SAXException {
-		// TODO Auto-generated method stub
-
+	/**
+	 * Does not resolve the DTD of the articles, it might not be available.
+	 */
+	public InputSource resolveEntity(String publicId, String systemId) {
+		return new InputSource(new StringReader(""));
 	}
 
-	public void setDocumentLocator(Locator arg0) {
-		// TODO Auto-generated method stub
-
+	private static boolean isSkipped(String qName) {
+		return qName.equals("table-wrap") || qName.equals("fig")
+				|| qName.equals("disp-formula");
 	}
 
-	public void skippedEntity(String arg0) throws SAXException {
-		// TODO Auto-generated method stub
-
+	/**
+	 * @return the uri of the last article or null if it has no pubmed id
+	 */
+	public String getUri() {
+		String id = pmid.toString().trim();
+		return id.isEmpty() ? null : PUBMED_URI_PREFIX + id;
 	}
 
-	public void startDocument() throws SAXException {
-		document = new IndexDocument();
+	/**
+	 * @return the text of the body of the last article, the buffer is
+	 *         cleared when the next article is parsed
+	 */
+	public CharSequence getText() {
+		return text;
 	}
-
-	public void startElement(String uri, String localName, String qName,
-			Attributes attributes) throws SAXException {
-		try {
-			if (qName.equals("body")) {
-				builder = new StringBuilder();
-			} else if (attributes != null && qName.equals("article-id")
-					&& attributes.getValue("pub-id-type").equals("pmid")) {
-				pmid = true;
-			}
-		} catch (NullPointerException e) {
-			return;
-		}
-
-	}
-
-	public void startPrefixMapping(String arg0, String arg1)
-			throws SAXException {
-		// TODO Auto-generated method stub
-
-	}
-
 }
@@ -1,11 +1,25 @@
 package de.uni_leipzig.simba.boa.backend.pipeline.module.indexing.impl;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
-
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
@@ -19,12 +33,23 @@ import org.xml.sax.helpers.XMLReaderFactory;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
-import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.lucene.LowerCaseWhitespaceAnalyzer;
 import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper;
 import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper.LuceneIndexType;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.sentenceboundarydisambiguation.SentenceBoundaryDisambiguation;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.AbstractPreprocessingModule;
 
+/**
+ * Indexes the sentences of the PubMed Central articles (NXML files in the
+ * sub directories of pubmed/raw/) with the same fields as the
+ * {@link DefaultWikiIndexingModule}. The articles are parsed by a pool of
+ * threads (setting pubMedIndexingThreadPoolSize), every thread has its own
+ * SAX parser, sentence splitter and taggers and writes its sentences to the
+ * shared index writer in batches.
+ */
 public class PubMedIndexGenerator extends AbstractPreprocessingModule {
 	private final static Logger log = LoggerFactory.getLogger(PubMedIndexGenerator.class);
 	private File PUBMED_DIR = new File(NLPediaSettings.BOA_DATA_DIRECTORY+"pubmed/raw/");
@@ -33,19 +58,8 @@ public class PubMedIndexGenerator extends AbstractPreprocessingModule {
 	private final int RAM_BUFFER_MAX_SIZE = NLPediaSettings
 			.getIntegerSetting("ramBufferMaxSizeInMb");
 	private final boolean OVERWRITE_INDEX = this.overrideData;
-	private XMLReader xmlReader;
-	private int indexDocumentCount= 0;
-
-	public void initParser(IndexWriter writer) {
-		try {
-			xmlReader = XMLReaderFactory.createXMLReader();
-			xmlReader.setEntityResolver(null);
-			xmlReader
-					.setContentHandler(new PubMedArticleContentHandler(writer));
-		} catch (SAXException e) {
-			log.error(e.getMessage(), e);
-		}
-	}
+	private static final int BATCH_SIZE = 1000;
+	private AtomicInteger indexDocumentCount = new AtomicInteger();
 
 	/**
 	 * @return the dir
@@ -67,39 +81,67 @@ public class PubMedIndexGenerator extends AbstractPreprocessingModule {
 		return "PubMed Index Generator";
 	}
 
-	private void parseFiles() {
+	/**
+	 * @return the article files of all journals except the korean ones
+	 */
+	private List<File> getArticleFiles() {
+		List<File> articles = new ArrayList<File>();
 		for (File file : PUBMED_DIR.listFiles()) {
-			if(file.getName().contains("Korean")){
+			if (!file.isDirectory() || file.getName().contains("Korean")) {
 				continue;
 			}
 			for (File article : file.listFiles(new FilenameFilter() {
 
 				public boolean accept(File file, String name) {
-					if (name.endsWith(".nxml")) {
-						return true;
-					}
-					return false;
+					return name.endsWith(".nxml");
 				}
 			})) {
-				FileReader reader;
-				try {
-					reader = new FileReader(
-							article);
-					InputSource inputSource = new InputSource(reader);
-					xmlReader.parse(inputSource);
-					indexDocumentCount++;
-				} catch (FileNotFoundException e) {
-					log.error("Error by parsing file "+article.getAbsolutePath()+" "+e);
-				} catch (IOException e) {
-					log.error("Error by parsing file "+article.getAbsolutePath()+" "+e);
-				} catch (SAXException e) {
-					log.error("Error by parsing file "+article.getAbsolutePath()+" "+e);
-				}
-				if(indexDocumentCount % 1000 ==0){
-					log.info(""+indexDocumentCount+" documents indexed");
-				}
+				articles.add(article);
+			}
+		}
+		return articles;
+	}
+
+	/**
+	 * Indexes the sentences of the articles concurrently. Articles which can
+	 * not be parsed are logged and skipped.
+	 *
+	 * @param articles
+	 *            the NXML files
+	 * @param writer
+	 *            the index to write to, it is not closed
+	 * @return the number of indexed articles
+	 */
+	public int index(Collection<File> articles, IndexWriter writer) {
+		if (articles.isEmpty()) {
+			return 0;
+		}
+		Queue<File> queue = new ConcurrentLinkedQueue<File>(articles);
+		int threads = Math.min(getThreadPoolSize(), articles.size());
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		int indexedArticles = 0;
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executorService.submit(new ArticleIndexer(queue, writer)));
+			}
+			for (Future<Integer> result : results) {
+				indexedArticles += result.get();
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			String error = "Interrupted while indexing PubMed articles!";
+			log.error(error, e);
+			throw new RuntimeException(error, e);
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+			String error = "Could not index PubMed articles!";
+			log.error(error, e.getCause());
+			throw new RuntimeException(error, e.getCause());
+		} finally {
+			executorService.shutdownNow();
 		}
+		return indexedArticles;
 	}
 
 	@Override
@@ -113,8 +155,78 @@ public class PubMedIndexGenerator extends AbstractPreprocessingModule {
 						: OpenMode.APPEND);
 		IndexWriter writer = LuceneIndexHelper.createIndex(INDEX_DIRECTORY,
 				indexWriterConfig, LuceneIndexType.DIRECTORY_INDEX);
-		this.initParser(writer);
-		this.parseFiles();
+		try {
+			this.index(this.getArticleFiles(), writer);
+		} finally {
+			LuceneIndexHelper.closeIndexWriter(writer);
+		}
+	}
+
+	private static int getThreadPoolSize() {
+		String threadPoolSize = NLPediaSettings.getSetting("pubMedIndexingThreadPoolSize");
+		return threadPoolSize == null || threadPoolSize.isEmpty() ? Runtime.getRuntime().availableProcessors() : Math.max(1, Integer.valueOf(threadPoolSize));
+	}
+
+	/**
+	 * Takes articles from the queue until it's empty.
+	 */
+	private class ArticleIndexer implements Callable<Integer> {
+
+		private final Queue<File> articles;
+		private final IndexWriter writer;
+
+		public ArticleIndexer(Queue<File> articles, IndexWriter writer) {
+			this.articles = articles;
+			this.writer = writer;
+		}
+
+		public Integer call() throws SAXException {
+			PubMedArticleContentHandler handler = new PubMedArticleContentHandler();
+			XMLReader xmlReader = XMLReaderFactory.createXMLReader();
+			xmlReader.setContentHandler(handler);
+			xmlReader.setEntityResolver(handler);
+
+			SentenceBoundaryDisambiguation sentenceBoundaryDisambiguation = NaturalLanguageProcessingToolFactory.getInstance().createDefaultSentenceBoundaryDisambiguation();
+			NamedEntityRecognition nerTagger = NaturalLanguageProcessingToolFactory.getInstance().createDefaultNamedEntityRecognition();
+			PartOfSpeechTagger posTagger = NaturalLanguageProcessingToolFactory.getInstance().createDefaultPartOfSpeechTagger();
+
+			List<Document> documents = new ArrayList<Document>();
+			int indexedArticles = 0;
+			File article;
+			while ((article = articles.poll()) != null) {
+				InputStream in = null;
+				try {
+					in = new BufferedInputStream(new FileInputStream(article));
+					InputSource inputSource = new InputSource(in);
+					inputSource.setSystemId(article.toURI().toString());
+					xmlReader.parse(inputSource);
+				} catch (IOException e) {
+					log.error("Error by parsing file "+article.getAbsolutePath()+" "+e);
+					continue;
+				} catch (SAXException e) {
+					log.error("Error by parsing file "+article.getAbsolutePath()+" "+e);
+					continue;
+				} finally {
+					IOUtils.closeQuietly(in);
+				}
+
+				String uri = handler.getUri() != null ? handler.getUri() : article.getName();
+				List<String> sentences = DefaultWikiIndexingModule.getSentences(sentenceBoundaryDisambiguation, handler.getText().toString());
+				documents.addAll(DefaultWikiIndexingModule.createLuceneDocuments(uri, sentences, nerTagger, posTagger));
+				if (documents.size() >= BATCH_SIZE) {
+					LuceneIndexHelper.indexDocuments(writer, documents);
+					documents.clear();
+				}
+				indexedArticles++;
+				if (indexDocumentCount.incrementAndGet() % 1000 == 0) {
+					log.info(""+indexDocumentCount+" documents indexed");
+				}
+			}
+			if (!documents.isEmpty()) {
+				LuceneIndexHelper.indexDocuments(writer, documents);
+			}
+			return indexedArticles;
+		}
 	}
 
 	@Override
@@ -62,7 +62,7 @@ public class DefaultKnowledgeCreationModule extends AbstractKnowledgeCreationMod
         
         this.logger.info("Starting to merge and score new triples");
         long startMergeTriple = System.currentTimeMillis();
-        Map<String, Set<Triple>> mergedTriples = knowledgeManager.mergeAndScoreTriples(newKnowledge);
+        Map<String, Set<Triple>> mergedTriples = knowledgeManager.mergeAndScoreTriples(newKnowledge, this.moduleInterchangeObject.getPatternMappings());
         this.mergeAndScoreTripleTime = System.currentTimeMillis() - startMergeTriple;
         this.logger.info("Merging and scoring of new triples took: " + TimeUtil.convertMilliSeconds(mergeAndScoreTripleTime) + ".");
         
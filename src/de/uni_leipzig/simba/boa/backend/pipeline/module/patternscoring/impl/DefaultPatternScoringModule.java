@@ -72,7 +72,7 @@ public class DefaultPatternScoringModule extends AbstractPatternScoringModule {
                         score == Double.POSITIVE_INFINITY
                         ? 0D : score);
                 
-                this.logger.debug(pattern.getNaturalLanguageRepresentation() + ": " +score);
+                this.logger.debug("{}: {}", pattern.getNaturalLanguageRepresentation(), score);
             }
             // update the pattern mapping "database"
             SerializationManager.getInstance().serializePatternMapping(mapping, PATTERN_MAPPING_FOLDER + mapping.getProperty().getPropertyLocalname() + "--" + mapping.getProperty().getUri().hashCode() + ".bin");
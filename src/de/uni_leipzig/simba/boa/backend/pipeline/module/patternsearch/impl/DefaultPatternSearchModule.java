@@ -10,8 +10,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
@@ -22,12 +24,13 @@ import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.concurrent.PatternSearchThreadManager;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
-import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilter;
+import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilterChain;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilterFactory;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.impl.SubjectPredicateObjectPattern;
 import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.PartOfSpeechTagger;
 import de.uni_leipzig.simba.boa.backend.persistance.serialization.SerializationManager;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.patternsearch.AbstractPatternSearchModule;
@@ -264,36 +267,47 @@ public class DefaultPatternSearchModule extends AbstractPatternSearchModule {
      */
     private void createPartOfSpeechTags(Collection<PatternMapping> mappings) {
     	
+    	// many patterns are found in the same sentence, so we tag every sentence only once
+    	Set<Integer> sentenceIds = new LinkedHashSet<Integer>();
+    	for ( PatternMapping mapping : mappings )
+    		for ( Pattern pattern : mapping.getPatterns() )
+    			sentenceIds.add(pattern.getFoundInSentences().iterator().next());
+    	
+    	List<String> sentences = this.patternSearcher.getSentencesByIds(new ArrayList<Integer>(sentenceIds));
+    	
+    	Map<Integer,TaggedSentence> taggedSentences = new HashMap<Integer,TaggedSentence>();
+    	Iterator<TaggedSentence> taggedSentenceIterator = this.posTagger.getTaggedSentences(sentences).iterator();
+    	for ( Integer sentenceId : sentenceIds ) taggedSentences.put(sentenceId, taggedSentenceIterator.next());
+    	
     	for ( PatternMapping mapping : mappings ) {
     		for ( Pattern pattern : mapping.getPatterns() ) {
-    			pattern.setPosTaggedString(getPartOfSpeechTags(pattern, pattern.getFoundInSentences().iterator().next()));
+    			pattern.setPosTaggedString(getPartOfSpeechTags(pattern, taggedSentences.get(pattern.getFoundInSentences().iterator().next())));
     		}
     	}
 	}
 
-	private String getPartOfSpeechTags(Pattern pattern, int sentenceId) {
+	private String getPartOfSpeechTags(Pattern pattern, TaggedSentence taggedSentence) {
 
-    	String[] taggedSplit = this.posTagger.getAnnotatedString(this.patternSearcher.getSentencesByID(sentenceId)).split(" ");
     	String[] patternSplit = pattern.getNaturalLanguageRepresentation().replace("?D?", "").replace("?R?", "").trim().split(" ");
     	int  patternSplitIndex = 0;    	
     	
     	String patternPosTags = "";
     	
-    	for (int i = 0; i < taggedSplit.length ; i++) {
+    	for (int i = 0; i < taggedSentence.size() ; i++) {
     		
-    		if ( taggedSplit[i].startsWith(patternSplit[patternSplitIndex] + "_")) {
+    		if ( taggedSentence.getToken(i).equals(patternSplit[patternSplitIndex])) {
     			
     			// first or any token except the last
     			if (patternSplitIndex >= 0 && patternSplitIndex < patternSplit.length - 1) {
     				
-    				patternPosTags += taggedSplit[i].substring(taggedSplit[i].indexOf("_") + 1) + " ";
+    				patternPosTags += taggedSentence.getTag(i) + " ";
     				patternSplitIndex++;
         			continue;
     			}
     			// last token of pattern
     			else {
     				
-    				patternPosTags += taggedSplit[i].substring(taggedSplit[i].indexOf("_") + 1);
+    				patternPosTags += taggedSentence.getTag(i);
     				break;
     			}
     		}
@@ -308,22 +322,14 @@ public class DefaultPatternSearchModule extends AbstractPatternSearchModule {
      */
     protected void filterPatterns(Collection<PatternMapping> patternMappings) {
 
-        Map<String,PatternFilter> patternEvaluators = PatternFilterFactory.getInstance().getPatternFilterMap();
+        PatternFilterChain patternFilterChain = PatternFilterFactory.getInstance().getPatternFilterChain();
+        this.logger.info("Filtering " + patternMappings.size() + " pattern mappings with " + patternFilterChain.getPatternFilters().size() + " filter(s).");
         
-        // go through all filter
-        for ( PatternFilter patternEvaluator : patternEvaluators.values() ) {
-
-            this.logger.info(patternEvaluator.getClass().getSimpleName() + " started!");
-            
-            // and check each pattern mapping
-            for ( PatternMapping patternMapping : patternMappings ) {
-            
-//                this.logger.debug("Starting to filter pattern mapping: " + patternMapping.getProperty().getUri() + " with filter: " + patternEvaluator.getClass().getSimpleName());
-                patternEvaluator.filterPattern(patternMapping);
-            }
-            
-            this.logger.info(patternEvaluator.getClass().getSimpleName() + " finished!");
-        }
+        // check each pattern mapping with all filters in parallel
+        patternFilterChain.filterPatterns(patternMappings);
+        
+        for ( Map.Entry<String,Long> removedPatterns : patternFilterChain.getReport().entrySet() )
+            this.logger.info(removedPatterns.getKey() + " removed " + removedPatterns.getValue() + " patterns.");
         this.logger.info("All filters are finished.");
     }
 
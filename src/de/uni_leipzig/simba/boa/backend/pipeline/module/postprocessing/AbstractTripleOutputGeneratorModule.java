@@ -0,0 +1,264 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.SuffixFileFilter;
+
+import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.comparator.TripleScoreComparator;
+import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
+
+
+/**
+ * Base class for the modules which write the new knowledge to disk. Every
+ * property gets its own file and the files are written in parallel. Depending
+ * on the setting "tripleOutputFormat" the files are written as plain text (plain),
+ * gzip compressed (gzip) or split into several files with at most
+ * "tripleOutputChunkSize" triples each (chunked). Only if "tripleOutputSorted"
+ * is true, the triples above the score threshold get sorted, otherwise they are
+ * streamed to the file in the order of the set.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public abstract class AbstractTripleOutputGeneratorModule extends AbstractPostProcessingModule {
+
+    private final NLPediaLogger logger = new NLPediaLogger(AbstractTripleOutputGeneratorModule.class);
+
+    public enum TripleOutputFormat {
+
+        PLAIN,
+        GZIP,
+        CHUNKED;
+    }
+
+    protected final int threadPoolSize                  = NLPediaSettings.getIntegerSetting("tripleOutputThreadPoolSize");
+    protected final TripleOutputFormat outputFormat     = TripleOutputFormat.valueOf(NLPediaSettings.getSetting("tripleOutputFormat").toUpperCase());
+    protected final int chunkSize                       = NLPediaSettings.getIntegerSetting("tripleOutputChunkSize");
+    protected final boolean sortTriples                 = NLPediaSettings.getBooleanSetting("tripleOutputSorted");
+
+    // for the report
+    protected long writingTime = 0;
+    protected long tripleCount = 0;
+
+    /**
+     * @return the directory where the files get written to, with trailing "/"
+     */
+    protected abstract String getOutputDirectory();
+
+    /**
+     * @return the file extension of the files, e.g. ".nt"
+     */
+    protected abstract String getFileExtension();
+
+    /**
+     * @return only triples with a higher score get written
+     */
+    protected abstract double getTripleScoreThreshold();
+
+    /**
+     * Writes a single triple to the given writer.
+     *
+     * @param writer - the writer of the property file
+     * @param triple - the triple to write
+     * @throws IOException if the writer fails
+     */
+    protected abstract void writeTriple(Writer writer, Triple triple) throws IOException;
+
+    /* (non-Javadoc)
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#run()
+     */
+    @Override
+    public void run() {
+
+        long startWriting = System.currentTimeMillis();
+        this.logger.info("Starting to write " + this.getFileExtension() + " files with " + this.threadPoolSize + " threads in " + this.outputFormat + " format!");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(this.threadPoolSize);
+        List<Future<Integer>> answers = new ArrayList<Future<Integer>>();
+
+        // for each mapping we write one file in the output directory
+        for (final Map.Entry<String, Set<Triple>> uriToTriplesMapping : this.moduleInterchangeObject.getNewKnowledge().entrySet() ) {
+
+            if ( uriToTriplesMapping.getValue().size() == 0 ) {
+
+                this.logger.info("Could not create knowledge (" + this.getFileExtension() + ") for mapping: " + uriToTriplesMapping.getKey() + " no data available.");
+                continue;
+            }
+
+            answers.add(executorService.submit(new Callable<Integer>() {
+
+                @Override
+                public Integer call() throws Exception {
+
+                    return writeTriples(uriToTriplesMapping.getKey(), uriToTriplesMapping.getValue());
+                }
+            }));
+        }
+
+        try {
+
+            for ( Future<Integer> answer : answers ) this.tripleCount += answer.get();
+        }
+        catch (InterruptedException e) {
+
+            e.printStackTrace();
+            String error = "Threads got interrupted!";
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        catch (ExecutionException e) {
+
+            e.printStackTrace();
+            String error = "Could not write triples!";
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
+
+            executorService.shutdown();
+        }
+
+        this.writingTime = System.currentTimeMillis() - startWriting;
+        this.logger.info("Finished writing " + this.tripleCount + " triples to " + this.getFileExtension() + " files in " + TimeUtil.convertMilliSeconds(this.writingTime));
+    }
+
+    /**
+     * Writes all triples of one property above the score threshold to disk.
+     *
+     * @param propertyUri - the uri of the property
+     * @param triples - all triples of the property
+     * @return the number of written triples
+     * @throws IOException if the file could not be written
+     */
+    private int writeTriples(String propertyUri, Set<Triple> triples) throws IOException {
+
+        Iterable<Triple> triplesToWrite = triples;
+
+        // only sort those triples we want to write so that the highest scored triples are on the top
+        if ( this.sortTriples ) {
+
+            List<Triple> sortedTriples = new ArrayList<Triple>();
+            for ( Triple triple : triples )
+                if ( triple.getScore() > this.getTripleScoreThreshold() ) sortedTriples.add(triple);
+
+            Collections.sort(sortedTriples, new TripleScoreComparator());
+            triplesToWrite = sortedTriples;
+        }
+
+        String uriLabel = propertyUri.substring(propertyUri.lastIndexOf("/") + 1);
+        int chunk = 0, writtenTriples = 0;
+        Writer writer = this.openWriter(uriLabel, chunk);
+
+        try {
+
+            for ( Triple triple : triplesToWrite ) {
+
+                // only if triple score is higher then x
+                if ( triple.getScore() > this.getTripleScoreThreshold() ) {
+
+                    if ( this.outputFormat == TripleOutputFormat.CHUNKED && writtenTriples > 0 && writtenTriples % this.chunkSize == 0 ) {
+
+                        writer.close();
+                        writer = this.openWriter(uriLabel, ++chunk);
+                    }
+                    this.writeTriple(writer, triple);
+                    writtenTriples++;
+                }
+            }
+        }
+        finally {
+
+            writer.close();
+        }
+        return writtenTriples;
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer for the given property according to the output format.
+     *
+     * @param uriLabel - the local name of the property
+     * @param chunk - the number of the chunk, only used for chunked output
+     * @return a new buffered writer
+     * @throws IOException if the file could not be created
+     */
+    private Writer openWriter(String uriLabel, int chunk) throws IOException {
+
+        String filename = this.getOutputDirectory() + uriLabel;
+        OutputStream stream = null;
+
+        switch ( this.outputFormat ) {
+
+            case GZIP:      stream = new GZIPOutputStream(new FileOutputStream(filename + this.getFileExtension() + ".gz")); break;
+            case CHUNKED:   stream = new FileOutputStream(filename + "-" + chunk + this.getFileExtension()); break;
+            default:        stream = new FileOutputStream(filename + this.getFileExtension());
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, "UTF-8"));
+    }
+
+    /**
+     * Writes the line and a line separator.
+     *
+     * @param writer - the writer to write to
+     * @param line - the line to write
+     * @throws IOException if the writer fails
+     */
+    protected void writeLine(Writer writer, String line) throws IOException {
+
+        writer.write(line);
+        writer.write(Constants.NEW_LINE_SEPARATOR);
+    }
+
+    /* (non-Javadoc)
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#updateModuleInterchangeObject()
+     */
+    @Override
+    public void updateModuleInterchangeObject() {
+
+        // nothing to do here
+    }
+
+    /* (non-Javadoc)
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#isDataAlreadyAvailable()
+     */
+    @Override
+    public boolean isDataAlreadyAvailable() {
+
+        // lists all files (plain or gzipped) in the output directory and does not go into subdirectories
+        return // true of more than one file is found
+            FileUtils.listFiles(new File(this.getOutputDirectory()),
+                    new SuffixFileFilter(new String[]{ this.getFileExtension(), this.getFileExtension() + ".gz" }), null).size() > 0;
+    }
+
+    /* (non-Javadoc)
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#loadAlreadyAvailableData()
+     */
+    @Override
+    public void loadAlreadyAvailableData() {
+
+        // nothing to do here
+    }
+}
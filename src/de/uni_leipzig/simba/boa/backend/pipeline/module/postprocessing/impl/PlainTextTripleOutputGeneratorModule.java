@@ -3,29 +3,20 @@
  */
 package de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.impl;
 
-import java.io.File;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.io.IOException;
+import java.io.Writer;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.FileFilterUtils;
-
-import com.github.gerbsen.file.BufferedFileWriter;
-import com.github.gerbsen.file.BufferedFileWriter.WRITER_WRITE_MODE;
-import com.github.gerbsen.file.FileUtil;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.IndexSearcher;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
-import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.NaturalLanguageProcessingToolFactory;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.namedentityrecognition.NamedEntityRecognition;
-import de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractPostProcessingModule;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractTripleOutputGeneratorModule;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
-import de.uni_leipzig.simba.boa.backend.rdf.entity.comparator.TripleScoreComparator;
 import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
 
 
@@ -33,15 +24,19 @@ import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
  * @author gerb
  *
  */
-public class PlainTextTripleOutputGeneratorModule extends AbstractPostProcessingModule {
+public class PlainTextTripleOutputGeneratorModule extends AbstractTripleOutputGeneratorModule {
+
+    private final NLPediaLogger logger                  = new NLPediaLogger(PlainTextTripleOutputGeneratorModule.class);
 
-    private final NLPediaLogger logger = new NLPediaLogger(PlainTextTripleOutputGeneratorModule.class);
-    
     private static final String RDF_TEXT_OUTPUT_PATH    = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.RDF_DATA_TEXT_PATH;
     private static final Double TRIPLE_SCORE_THRESHOLD  = NLPediaSettings.getDoubleSetting("score.threshold.write.plaintext.knowledge");
+    private static final String INDEX_CORPUS_PATH       = NLPediaSettings.BOA_DATA_DIRECTORY + Constants.INDEX_CORPUS_PATH;
     
-    // for the report
-    private long writePlainTextOutputFilesTime = 0;
+    // the triples only know the ids of their sentences in the corpus index
+    private IndexSearcher indexSearcher = null;
+    
+    // only created if the corpus index does not contain the ner tagged sentences
+    private NamedEntityRecognition ner = null;
     
     /* (non-Javadoc)
      * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#getName()
@@ -53,98 +48,133 @@ public class PlainTextTripleOutputGeneratorModule extends AbstractPostProcessing
     }
 
     /* (non-Javadoc)
-     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#run()
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractTripleOutputGeneratorModule#run()
      */
     @Override
     public void run() {
         
-        this.logger.info("Starting to write plain text triple output files");
-        long startWritePlainTextOutputFiles = System.currentTimeMillis();
+        try {
+            
+            super.run();
+        }
+        finally {
+            
+            this.closeIndexSearcher();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractTripleOutputGeneratorModule#writeTriple(java.io.Writer, de.uni_leipzig.simba.boa.backend.rdf.entity.Triple)
+     */
+    @Override
+    protected void writeTriple(Writer writer, Triple triple) throws IOException {
+
+        this.writeLine(writer, String.valueOf(triple.getScore()));
+        this.writeLine(writer, "\t<" + triple.getSubject().getUri() + "> <" + triple.getProperty().getUri() + "> <" + triple.getObject().getUri() + "> . ");
+        this.writeLine(writer, "\t " + triple.getSubject().getLabel() + "\t" + triple.getObject().getLabel()); 
+        this.writeLine(writer, "---");
+        int i = 1;
+        for ( String pattern : triple.getLearnedFromPatterns() ) {
+            
+            this.writeLine(writer, "\t" + i++ + ". " + pattern);
+        }
+        this.writeLine(writer, "---");
+        i = 1;
+        for ( int sentenceId : triple.getLearnedFromSentenceIds() ) {
+            
+            // both fields are read from the same stored document
+            Document document = LuceneIndexHelper.getDocumentByDocId(this.getIndexSearcher(), sentenceId, "sentence", "ner");
+            String sentence = document.get("sentence");
+            this.writeLine(writer, "\t" + i + ". " + sentence);
+            this.writeLine(writer, "\t" + i++ + ". " + this.getAnnotatedSentence(document.get("ner"), sentence));
+        }
+        this.writeLine(writer, Constants.NEW_LINE_SEPARATOR);
+    }
+    
+    /**
+     * Returns the ner tagged sentence from the corpus index. Only if the
+     * index was created without ner tagged sentences the sentence gets tagged.
+     * 
+     * @param annotatedSentence - the ner tagged sentence from the index, may be null
+     * @param sentence - the sentence
+     * @return the ner tagged sentence
+     */
+    private String getAnnotatedSentence(String annotatedSentence, String sentence) {
         
-        NamedEntityRecognition ner = NaturalLanguageProcessingToolFactory.getInstance().createDefaultNamedEntityRecognition();
+        if ( annotatedSentence != null ) return annotatedSentence;
         
-        // for each mapping we write one file in the rdf/nt directory 
-        for (Map.Entry<String, Set<Triple>> uriToTriplesMapping : this.moduleInterchangeObject.getNewKnowledge().entrySet() ) {
+        synchronized (this) {
             
-            if ( uriToTriplesMapping.getValue().size() == 0 ) {
-                
-                this.logger.info("Could not create knowledge (plain text) for mapping: " + uriToTriplesMapping.getKey() + " no data available.");
-                continue;
-            }
+            if ( this.ner == null ) this.ner = NaturalLanguageProcessingToolFactory.getInstance().createDefaultNamedEntityRecognition();
+            return this.ner.getAnnotatedString(sentence);
+        }
+    }
+
+    /**
+     * @return the searcher for the corpus index the triples were learned from, opened read only
+     */
+    private synchronized IndexSearcher getIndexSearcher() {
+        
+        if ( this.indexSearcher == null ) this.indexSearcher = LuceneIndexHelper.openIndexSearcher(LuceneIndexHelper.openIndex(INDEX_CORPUS_PATH), true);
+        return this.indexSearcher;
+    }
+    
+    /**
+     * Closes the searcher of the corpus index if it was opened.
+     */
+    private synchronized void closeIndexSearcher() {
+        
+        if ( this.indexSearcher == null ) return;
+        try {
             
-            String uriLabel =  uriToTriplesMapping.getKey().substring(uriToTriplesMapping.getKey().lastIndexOf("/") + 1);
-            BufferedFileWriter writer = FileUtil.openWriter(RDF_TEXT_OUTPUT_PATH + uriLabel + ".txt", "UTF-8", WRITER_WRITE_MODE.OVERRIDE);
+            this.indexSearcher.close();
+        }
+        catch (IOException e) {
             
-            // sort them so that the highest scored triples are on the top
-            List<Triple> sortTriples = new ArrayList<Triple>(uriToTriplesMapping.getValue());
-            Collections.sort(sortTriples, new TripleScoreComparator());
+            e.printStackTrace();
+            String error = "Could not close corpus index: " + INDEX_CORPUS_PATH;
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
             
-            for ( Triple triple : sortTriples ) {
-                
-                // only if triple score is higher then x
-                if ( triple.getScore() > TRIPLE_SCORE_THRESHOLD ) {
-                    
-                    writer.write(String.valueOf(triple.getScore()));
-                    writer.write("\t<" + triple.getSubject().getUri() + "> <" + triple.getProperty().getUri() + "> <" + triple.getObject().getUri() + "> . ");
-                    writer.write("\t " + triple.getSubject().getLabel() + "\t" + triple.getObject().getLabel()); 
-                    writer.write("---");
-                    int i = 1;
-                    for ( Pattern pattern : triple.getLearnedFromPatterns() ) {
-                        
-                        writer.write("\t" + i++ + ". " + pattern.getNaturalLanguageRepresentation());
-                    }
-                    writer.write("---");
-                    i = 1;
-                    for ( String sentence : triple.getLearnedFromSentences() ) {
-                        
-                        writer.write("\t" + i + ". " + sentence);
-                        writer.write("\t" + i++ + ". " + ner.getAnnotatedString(sentence));
-                    }
-                    writer.write(Constants.NEW_LINE_SEPARATOR);
-                }
-            }
-            writer.close();
+            this.indexSearcher = null;
         }
-        
-        this.writePlainTextOutputFilesTime = System.currentTimeMillis() - startWritePlainTextOutputFiles;
-        this.logger.info("Writing plain text output files finished in " + TimeUtil.convertMilliSeconds(this.writePlainTextOutputFilesTime) + "." );
     }
 
     /* (non-Javadoc)
-     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#getReport()
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractTripleOutputGeneratorModule#getOutputDirectory()
      */
     @Override
-    public String getReport() {
+    protected String getOutputDirectory() {
 
-        return "Writing plain text output files finished in " + TimeUtil.convertMilliSeconds(this.writePlainTextOutputFilesTime) + "." ;
+        return RDF_TEXT_OUTPUT_PATH;
     }
 
     /* (non-Javadoc)
-     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#updateModuleInterchangeObject()
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractTripleOutputGeneratorModule#getFileExtension()
      */
     @Override
-    public void updateModuleInterchangeObject() {
+    protected String getFileExtension() {
 
-        // nothing to do here
+        return ".txt";
     }
 
     /* (non-Javadoc)
-     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#isDataAlreadyAvailable()
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.postprocessing.AbstractTripleOutputGeneratorModule#getTripleScoreThreshold()
      */
     @Override
-    public boolean isDataAlreadyAvailable() {
+    protected double getTripleScoreThreshold() {
 
-        // lists all files in the directory which end with .nt and does not go into subdirectories
-        return // true of more than one file is found
-            FileUtils.listFiles(new File(RDF_TEXT_OUTPUT_PATH), FileFilterUtils.suffixFileFilter(".txt"), null).size() > 0;
+        return TRIPLE_SCORE_THRESHOLD;
     }
 
     /* (non-Javadoc)
-     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#loadAlreadyAvailableData()
+     * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#getReport()
      */
     @Override
-    public void loadAlreadyAvailableData() {
+    public String getReport() {
 
-        // nothing to do here
+        return "Writing " + this.tripleCount + " triples to plain text output files finished in " + TimeUtil.convertMilliSeconds(this.writingTime) + "." ;
     }
 }
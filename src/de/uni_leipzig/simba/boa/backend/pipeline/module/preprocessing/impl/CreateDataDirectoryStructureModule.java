@@ -133,6 +133,10 @@ public class CreateDataDirectoryStructureModule extends AbstractPreprocessingMod
         if ( !new File(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.MACHINE_LEARNING_TRAINING_PATH).exists()) 
             new File(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.MACHINE_LEARNING_TRAINING_PATH).mkdir();
         
+        // checkpoints of the module interchange object to resume a pipeline run
+        if ( !new File(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.CHECKPOINT_PATH).exists()) 
+            new File(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.CHECKPOINT_PATH).mkdir();
+        
         try {
             // copy the boa to arff script to the directory where the boa training file is generated
             FileUtils.copyFile(
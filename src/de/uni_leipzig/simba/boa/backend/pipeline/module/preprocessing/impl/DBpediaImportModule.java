@@ -12,16 +12,10 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
-import org.semanticweb.yars.nx.Node;
-import org.semanticweb.yars.nx.parser.NxParser;
-
-import com.github.gerbsen.file.BufferedFileWriter;
-import com.github.gerbsen.file.BufferedFileWriter.WRITER_WRITE_MODE;
-import com.github.gerbsen.rdf.NtripleUtil;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
@@ -31,6 +25,7 @@ import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.interchangeobject.ModuleInterchangeObject;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.AbstractPreprocessingModule;
+import de.uni_leipzig.simba.boa.backend.util.DumpFileFilter;
 import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
 import edu.stanford.nlp.util.StreamGobbler;
 
@@ -83,7 +78,7 @@ public class DBpediaImportModule extends AbstractPreprocessingModule {
 
         try {
             
-            String ontologyImportString = "/usr/local/bin/isql 1111 dba dba \"EXEC=TTLP_MT(file_to_string_output('" + NLPediaSettings.BOA_BASE_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + "dbpedia_3.7.owl'), '', '"+NLPediaSettings.getSetting("importGraph")+"', 255)\"";
+            String ontologyImportString = "/usr/local/bin/isql 1111 dba dba \"EXEC=TTLP_MT(file_to_string_output('" + NLPediaSettings.BOA_BASE_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + Constants.DBPEDIA_ONTOLOGY_FILE + "'), '', '"+NLPediaSettings.getSetting("importGraph")+"', 255)\"";
             Process ontologyImport = Runtime.getRuntime().exec(ontologyImportString);
             
             System.out.println(ontologyImportString+"\n");
@@ -138,58 +133,35 @@ public class DBpediaImportModule extends AbstractPreprocessingModule {
     /**
      * Creates filtered versions of dbpedia. also the filtering is only applied 
      * if a file could not be found, meaning was not filtered in a previous run.
-     *  
+     * All files are filtered at the same time, see {@link DumpFileFilter}.
      */
     private void filterDbpedia() {
 
         // load surface forms, every uri which has surface forms is a good uri
         DBpediaSpotlightSurfaceFormGenerator generator = new DBpediaSpotlightSurfaceFormGenerator();
-        Set<String> resourceUris = new HashSet<String>();//generator.createSurfaceForms().keySet();
-        
-        if ( !new File(DBPEDIA_MAPPING_PROPERTIES_FILE.replace(".nt", "_filtered.nt")).exists() ) {
+        DumpFileFilter filter = new DumpFileFilter(generator.createSurfaceForms());
         
-            // filter mappings
-            this.logger.info("Start filtering of mappings file!");
-            BufferedFileWriter writer = new BufferedFileWriter(DBPEDIA_MAPPING_PROPERTIES_FILE.replace(".nt", "_filtered.nt"), "UTF-8", WRITER_WRITE_MODE.OVERRIDE);
-            NxParser nxp = NtripleUtil.openNxParser(DBPEDIA_MAPPING_PROPERTIES_FILE);
-            while (nxp.hasNext()) {
-
-                Node[] ns = nxp.next();
-                if ( resourceUris.contains(ns[0].toString()) ) writer.write(String.format("%s %s %s .", ns[0].toN3(), ns[1].toN3(), ns[2].toN3()));
-            }
-            writer.close();
-        }
-        else this.logger.info("Skipping filtering of mappings file!");
-        
-        if ( !new File(DBPEDIA_LABELS_FILE.replace(".nt", "_filtered.nt")).exists() ) {
-            
-            // filter labels
-            this.logger.info("Start filtering of labels file!");
-            BufferedFileWriter writer = new BufferedFileWriter(DBPEDIA_LABELS_FILE.replace(".nt", "_filtered.nt"), "UTF-8", WRITER_WRITE_MODE.OVERRIDE);
-            NxParser nxp = NtripleUtil.openNxParser(DBPEDIA_LABELS_FILE);
-            while (nxp.hasNext()) {
-
-                Node[] ns = nxp.next();
-                if ( resourceUris.contains(ns[0].toString()) ) writer.write(String.format("%s %s %s .", ns[0].toN3(), ns[1].toN3(), ns[2].toN3()));
-            }
-            writer.close();
-        }
-        else this.logger.info("Skipping filtering of labels file!");
+        Map<String,String> files = new LinkedHashMap<String,String>();
+        this.addUnfilteredFile(files, DBPEDIA_MAPPING_PROPERTIES_FILE, "mappings");
+        this.addUnfilteredFile(files, DBPEDIA_LABELS_FILE, "labels");
+        this.addUnfilteredFile(files, DBPEDIA_INSTANCE_TYPES_FILE, "types");
+        filter.filter(files);
+    }
+
+    /**
+     * @param files - the files which need to be filtered
+     * @param file - the dump file
+     * @param name - the name of the file for logging
+     */
+    private void addUnfilteredFile(Map<String,String> files, String file, String name) {
         
-        if ( !new File(DBPEDIA_INSTANCE_TYPES_FILE.replace(".nt", "_filtered.nt")).exists() ) {
+        String filteredFile = file.replace(".nt", "_filtered.nt");
+        if ( !new File(filteredFile).exists() ) {
             
-            // filter instances
-            this.logger.info("Start filtering of types file!");
-            BufferedFileWriter writer = new BufferedFileWriter(DBPEDIA_INSTANCE_TYPES_FILE.replace(".nt", "_filtered.nt"), "UTF-8", WRITER_WRITE_MODE.OVERRIDE);
-            NxParser nxp = NtripleUtil.openNxParser(DBPEDIA_INSTANCE_TYPES_FILE);
-            while (nxp.hasNext()) {
-
-                Node[] ns = nxp.next();
-                if ( resourceUris.contains(ns[0].toString()) ) writer.write(String.format("%s %s %s .", ns[0].toN3(), ns[1].toN3(), ns[2].toN3()));
-            }
-            writer.close();
+            this.logger.info("Start filtering of " + name + " file!");
+            files.put(file, filteredFile);
         }
-        else this.logger.info("Skipping filtering of typesfile!");
+        else this.logger.info("Skipping filtering of " + name + " file!");
     }
 
     @Override
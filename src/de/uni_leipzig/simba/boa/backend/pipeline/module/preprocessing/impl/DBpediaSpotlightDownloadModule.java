@@ -4,7 +4,6 @@
 package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl;
 
 import java.io.File;
-import java.io.IOException;
 
 import com.github.gerbsen.www.FileDownloader;
 
@@ -68,52 +67,13 @@ public class DBpediaSpotlightDownloadModule extends AbstractPreprocessingModule
         Thread disambiguations  	= this.startDownloadThread(DBPEDIA_DISAMBIGUATIONS_FILE_URL,  		DBPEDIA_DISAMBIGUATIONS_FILE_BZ2);
         Thread interlanguageLinks	= this.startDownloadThread(DBPEDIA_INTERLANGUAGE_LINKS_FILE_URL,  	DBPEDIA_INTERLANGUAGE_LINKS_FILE_BZ2);
         
+        // the files are not unzipped, they are decompressed while they are parsed (see DumpFileUtil)
         this.waitForThreads(labels, redirects, disambiguations, interlanguageLinks);
-        this.unzip();
         
         this.downloadDBpediaSpotlightFilesTime = System.currentTimeMillis() - startDownloadDBpediaSpotlightFiles;
         this.logger.info("Downloading the DBpedia files finished in " + TimeUtil.convertMilliSeconds(this.downloadDBpediaSpotlightFilesTime));
     }
     
-    /**
-     * 
-     */
-    private void unzip() {
-
-        try {
-            
-            Process unzip = Runtime.getRuntime().exec("bunzip2 " + DBPEDIA_LABELS_FILE_BZ2);
-            if ( unzip.waitFor() != 0 ) throw new RuntimeException("bunzip2 of labels file failed!");
-            this.logger.info("Unzipping of labels file finished!");
-            
-            unzip = Runtime.getRuntime().exec("bunzip2 " + DBPEDIA_REDIRECTS_FILE_BZ2);
-            if ( unzip.waitFor() != 0 ) throw new RuntimeException("bunzip2 of redirect file ailed!");
-            this.logger.info("Unzipping of redirects file finished!");
-            
-            unzip = Runtime.getRuntime().exec("bunzip2 " + DBPEDIA_DISAMBIGUATIONS_FILE_BZ2);
-            if ( unzip.waitFor() != 0 ) throw new RuntimeException("bunzip2 of dismabiguations file failed!");
-            this.logger.info("Unzipping of dismabiguations file finished!");
-            
-            unzip = Runtime.getRuntime().exec("bunzip2 " + DBPEDIA_INTERLANGUAGE_LINKS_FILE_BZ2);
-            if ( unzip.waitFor() != 0 ) throw new RuntimeException("bunzip2 of interlanguage links failed!");
-            this.logger.info("Unzipping of interlanguage links file finished!");
-        }
-        catch (IOException e) {
-            
-            e.printStackTrace();
-            String error = "Could not find required files!";
-            this.logger.error(error, e);
-            throw new RuntimeException(error, e);
-        }
-        catch (InterruptedException e) {
-            
-            e.printStackTrace();
-            String error = "Extracting process was interrupted!";
-            this.logger.error(error, e);
-            throw new RuntimeException(error, e);
-        }
-    }
-
     /**
      * 
      * @param labels
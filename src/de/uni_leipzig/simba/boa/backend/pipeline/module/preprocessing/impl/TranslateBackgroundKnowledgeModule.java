@@ -11,7 +11,6 @@ import com.github.gerbsen.file.BufferedFileReader;
 import com.github.gerbsen.file.BufferedFileWriter;
 import com.github.gerbsen.file.BufferedFileWriter.WRITER_WRITE_MODE;
 import com.github.gerbsen.file.FileUtil;
-import com.github.gerbsen.rdf.NtripleUtil;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.backgroundknowledge.BackgroundKnowledge;
@@ -20,6 +19,7 @@ import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.AbstractPreprocessingModule;
 import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormGenerator;
+import de.uni_leipzig.simba.boa.backend.util.DumpFileUtil;
 import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
 
 public class TranslateBackgroundKnowledgeModule extends AbstractPreprocessingModule{
@@ -52,9 +52,9 @@ public class TranslateBackgroundKnowledgeModule extends AbstractPreprocessingMod
         
 	    // read the target label data file, this is basically the translation dictionary
         // e.g. http://de.dbpedia.org/resource/Leipzig -> Leipzig
-		Map<String,String> uriToLabelMapping              = NtripleUtil.getSubjectAndObjectsMappingFromNTriple(TARGET_LANGUAGE_DBPEDIA_LABELS_FILE, "");
+		Map<String,String> uriToLabelMapping              = DumpFileUtil.getMapping(TARGET_LANGUAGE_DBPEDIA_LABELS_FILE, true);
 		// e.g. http://dbpedia.org/resource/Leipzig -> http://de.dbpedia.org/resource/Leipzig
-		Map<String,String> languageToEnglishUriMapping    = NtripleUtil.getObjectsAndSubjectsMappingFromNTriple(TARGET_LANGUAGE_DBPEDIA_INTERLANGUAGE_LINKS_FILE, "");
+		Map<String,String> languageToEnglishUriMapping    = DumpFileUtil.getMapping(TARGET_LANGUAGE_DBPEDIA_INTERLANGUAGE_LINKS_FILE, false);
 		
 		// gp through every file in the object background knowledge directory // TODO datatype properties
 		for ( File file : FileUtils.listFiles(new File(BACKGROUND_KNOWLEDGE_OBJECT_PATH), FileFilterUtils.suffixFileFilter(".txt"), null)) {
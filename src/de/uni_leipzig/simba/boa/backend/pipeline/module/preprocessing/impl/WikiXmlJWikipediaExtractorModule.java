@@ -17,11 +17,13 @@ import com.github.gerbsen.file.BufferedFileWriter.WRITER_WRITE_MODE;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.AbstractPreprocessingModule;
+import de.uni_leipzig.simba.boa.backend.util.DumpFileUtil;
 import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
 import edu.jhu.nlp.wikipedia.PageCallbackHandler;
 import edu.jhu.nlp.wikipedia.WikiPage;
 import edu.jhu.nlp.wikipedia.WikiXMLParser;
 import edu.jhu.nlp.wikipedia.WikiXMLParserFactory;
+import edu.jhu.nlp.wikipedia.WikiXMLSAXParser;
 
 
 /**
@@ -63,17 +65,12 @@ public class WikiXmlJWikipediaExtractorModule extends AbstractPreprocessingModul
             if ( chmod.waitFor() != 0 ) throw new RuntimeException("Chmod of extractor script failed!");
             this.logger.info("Chmod of Wikipedia Extractor successful!");
             
-            // only unzip if not already unzipped
-            if ( !new File(extractorInputPath).exists() ) {
-
-                Process bunzip2 = Runtime.getRuntime().exec("bunzip2 " + wikipediaDumpPath);
-                if ( bunzip2.waitFor() != 0 ) throw new RuntimeException("bunzip2 of wikipedia dump failed!");
-                this.logger.info("Unzipping of wikipedia dump finished!");
-            }
-            
             final BufferedFileWriter writer = new BufferedFileWriter(outputPath + NLPediaSettings.BOA_LANGUAGE + "wiki.xml", "UTF-8", WRITER_WRITE_MODE.OVERRIDE);
             
-            WikiXMLParser wxsp = WikiXMLParserFactory.getSAXParser(extractorInputPath);
+            // use an already unzipped dump, otherwise the dump is decompressed while it's parsed
+            WikiXMLParser wxsp = new File(extractorInputPath).exists() 
+                    ? WikiXMLParserFactory.getSAXParser(extractorInputPath)
+                    : new WikiXMLSAXParser(DumpFileUtil.openDumpFile(wikipediaDumpPath));
             wxsp.setPageCallback(new PageCallbackHandler() { 
             	int id = 1;
             	
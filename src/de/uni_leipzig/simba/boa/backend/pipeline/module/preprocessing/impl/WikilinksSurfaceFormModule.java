@@ -5,11 +5,6 @@ package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 
 import com.github.gerbsen.encoding.Encoder.Encoding;
 import com.github.gerbsen.file.BufferedFileReader;
@@ -21,6 +16,7 @@ import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.AbstractPreprocessingModule;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
 import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
 import edu.stanford.nlp.util.StringUtils;
 
@@ -73,40 +69,13 @@ public class WikilinksSurfaceFormModule extends AbstractPreprocessingModule {
         long startDownloadDBpediaSpotlightFiles = System.currentTimeMillis();
         this.logger.info("Starting to download dbpedia spotlight files.");
         
+        // the labels file is not unzipped, it's decompressed while it's parsed (see DumpFileUtil)
         this.startDownloadsThread();
-        this.unzip();
         
         this.downloadDBpediaSpotlightFilesTime = System.currentTimeMillis() - startDownloadDBpediaSpotlightFiles;
         this.logger.info("Downloading the DBpedia files finished in " + TimeUtil.convertMilliSeconds(this.downloadDBpediaSpotlightFilesTime));
     }
     
-	/**
-     * 
-     */
-    private void unzip() {
-
-        try {
-            
-            Process unzip = Runtime.getRuntime().exec("bunzip2 " + DBPEDIA_LABELS_FILE_BZ2);
-            if ( unzip.waitFor() != 0 ) throw new RuntimeException("bunzip2 of labels file failed!");
-            this.logger.info("Unzipping of labels file finished!");
-        }
-        catch (IOException e) {
-            
-            e.printStackTrace();
-            String error = "Could not find required files!";
-            this.logger.error(error, e);
-            throw new RuntimeException(error, e);
-        }
-        catch (InterruptedException e) {
-            
-            e.printStackTrace();
-            String error = "Extracting process was interrupted!";
-            this.logger.error(error, e);
-            throw new RuntimeException(error, e);
-        }
-    }
-    
     private void startDownloadsThread() {
     	
     	
@@ -177,10 +146,10 @@ public class WikilinksSurfaceFormModule extends AbstractPreprocessingModule {
         // nothing to do here
     }
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 		
     	BufferedFileReader reader = new BufferedFileReader("/Users/gerb/Development/workspaces/experimental/boa/qa/en/google/data-00000-of-00010", Encoding.UTF_8);
-    	Map<String, Set<String>> urisToSurfaceForms = new TreeMap<String,Set<String>>();
+    	SurfaceFormDictionary.Builder builder = new SurfaceFormDictionary.Builder();
     	String line = "";
     	while ( (line = reader.readLine()) != null) {
     		
@@ -188,16 +157,23 @@ public class WikilinksSurfaceFormModule extends AbstractPreprocessingModule {
     			
     			// MENTION Lincoln Continental Mark IV 40110 http://en.wikipedia.org/wiki/Lincoln_Continental_Mark_IV
     			String[] parts = line.split("\t");
-				if ( !urisToSurfaceForms.containsKey(parts[3]) ) urisToSurfaceForms.put(parts[3], new HashSet<String>());
-    			urisToSurfaceForms.get(parts[3]).add(parts[1]);
+    			builder.add(parts[3], parts[1]);
     		}
     	}
+    	reader.close();
+    	
+    	// the dictionary sorts the uris, so there is no need for a sorted map of all mentions
+    	String surfaceFormsFile = "/Users/gerb/Development/workspaces/experimental/boa/qa/en/google/test.tsv";
+    	File dictionaryFile = SurfaceFormDictionary.getDictionaryFile(surfaceFormsFile);
+    	builder.write(dictionaryFile.getAbsolutePath());
+    	SurfaceFormDictionary urisToSurfaceForms = SurfaceFormDictionary.open(dictionaryFile.getAbsolutePath());
     	
-    	BufferedFileWriter writer = new BufferedFileWriter("/Users/gerb/Development/workspaces/experimental/boa/qa/en/google/test.tsv", Encoding.UTF_8, WRITER_WRITE_MODE.OVERRIDE);
-    	for ( Map.Entry<String, Set<String>> entry : urisToSurfaceForms.entrySet()) {
-    		writer.write(entry.getKey() + "\t" + StringUtils.join(entry.getValue(), "\t"));
+    	BufferedFileWriter writer = new BufferedFileWriter(surfaceFormsFile, Encoding.UTF_8, WRITER_WRITE_MODE.OVERRIDE);
+    	for ( int id = 0; id < urisToSurfaceForms.size(); id++ ) {
+    		writer.write(urisToSurfaceForms.getUri(id) + "\t" + StringUtils.join(urisToSurfaceForms.getSurfaceForms(id), "\t"));
     	}
     	writer.close();
-    	reader.close();
+    	// the dictionary is not older than the file it was created from
+    	dictionaryFile.setLastModified(new File(surfaceFormsFile).lastModified());
 	}
 }
@@ -3,12 +3,19 @@
  */
 package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
 
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.AbstractPreprocessingModule;
+import de.uni_leipzig.simba.boa.backend.util.ParallelBZip2InputStream;
 import de.uni_leipzig.simba.boa.backend.util.TimeUtil;
 
 
@@ -34,8 +41,9 @@ public class WikipediaExtractorModule extends AbstractPreprocessingModule {
 
     /**
      * This method extract the wikipedia dump file into the BOA index
-     * format xml document. Please keep in mind that you will need bunzip2 
-     * and python installed on your system. Also chmod needs to be present, 
+     * format xml document. The dump is decompressed with one thread per
+     * processor. Please keep in mind that you will need python installed 
+     * on your system. Also chmod needs to be present, 
      * this means that someone needs to make this also available for windows 
      * machines in future work.
      * Please also note that this method will take some time according to your
@@ -63,8 +71,7 @@ public class WikipediaExtractorModule extends AbstractPreprocessingModule {
             // only unzip if not already unzipped
             if ( !new File(extractorInputPath).exists() ) {
 
-                Process bunzip2 = Runtime.getRuntime().exec("bunzip2 " + wikipediaDumpPath);
-                if ( bunzip2.waitFor() != 0 ) throw new RuntimeException("bunzip2 of wikipedia dump failed!");
+                this.decompress(wikipediaDumpPath, extractorInputPath);
                 this.logger.info("Unzipping of wikipedia dump finished!");
             }
             
@@ -90,6 +97,33 @@ public class WikipediaExtractorModule extends AbstractPreprocessingModule {
         this.logger.info("Finished extracting wikipedia dump in " + TimeUtil.convertMilliSeconds(this.wikipediaExtractionTime) + ".");
     }
 
+    /**
+     * Decompresses the bzip2 file into a temporary file which is renamed
+     * when it is complete, so an interrupted run is not mistaken for an 
+     * already unzipped dump. The bzip2 file is kept.
+     * 
+     * @param bzip2File - the compressed wikipedia dump
+     * @param outputFile - the xml file to write
+     * @throws IOException if the dump can't be read or the file can't be written
+     */
+    private void decompress(String bzip2File, String outputFile) throws IOException {
+        
+        File temporaryFile = new File(outputFile + ".part");
+        InputStream in = new ParallelBZip2InputStream(bzip2File);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(temporaryFile), 1024 * 1024);
+        try {
+            
+            IOUtils.copyLarge(in, out);
+        }
+        finally {
+            
+            in.close();
+            out.close();
+        }
+        if ( !temporaryFile.renameTo(new File(outputFile)) ) 
+            throw new IOException("Could not rename " + temporaryFile + " to " + outputFile);
+    }
+
     /* (non-Javadoc)
      * @see de.uni_leipzig.simba.boa.backend.pipeline.module.PipelineModule#getReport()
      */
@@ -1,79 +1,126 @@
 package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.fileUtils;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Journal of the already crawled urls. The urls are written in batches and
+ * every batch is synced to disk, so a crash loses at most the last batch.
+ * A line which was only partly written before a crash is removed when the
+ * store is opened again.
+ */
 public class URLStore {
 
-	private BufferedWriter writer;
-	
-	public URLStore(BufferedWriter br){
-		writer=br;
+	public static final int DEFAULT_BATCH_SIZE = 100;
+
+	private static final String ENCODING = "UTF-8";
+
+	private final FileOutputStream out;
+	private final int batchSize;
+	private final StringBuilder batch = new StringBuilder();
+	private int batchedUrls = 0;
+
+	public URLStore(FileOutputStream out, int batchSize){
+		this.out = out;
+		this.batchSize = batchSize;
 	}
-	
+
 	public static URLStore createNewURLStore(String file){
 		try {
-			BufferedWriter br = new BufferedWriter(new FileWriter(new File(file),false));
-			
-			return new URLStore(br);
+			return new URLStore(new FileOutputStream(new File(file), false), DEFAULT_BATCH_SIZE);
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
 			e.printStackTrace();
 			return null;
 		}
-		
 	}
-	
+
 	public static URLStore createOpenExistingURLStore(String file, Collection<String> urls){
-		if(urls!=null){
-			urls.addAll(readUrlsFromFile(file));			
-		}
-		
 		try {
-			BufferedWriter br = new BufferedWriter(new FileWriter(new File(file),true));
-			
-			return new URLStore(br);
+			List<String> storedUrls = readUrlsFromFile(file);
+			if(urls!=null){
+				urls.addAll(storedUrls);
+			}
+			return new URLStore(new FileOutputStream(new File(file), true), DEFAULT_BATCH_SIZE);
 		} catch (IOException e) {
-			// TODO Auto-generated catch block
 			e.printStackTrace();
 			return null;
 		}
 	}
-	
-	
-	private static List<String> readUrlsFromFile(String file){
+
+	/**
+	 * Reads all complete lines and cuts off a line without line break,
+	 * which is the rest of an interrupted write.
+	 */
+	private static List<String> readUrlsFromFile(String file) throws IOException{
 		ArrayList<String> urls = new ArrayList<String>();
-		
+
 		File f= new File(file);
-		if(f.exists()){
-			
+		if(!f.exists()){
+			return urls;
+		}
+
+		byte[] bytes = FileUtils.readFileToByteArray(f);
+		int completeLength = bytes.length;
+		while (completeLength > 0 && bytes[completeLength - 1] != '\n')
+			completeLength--;
+
+		// remove the partly written last line
+		if (completeLength < bytes.length) {
+			RandomAccessFile raf = new RandomAccessFile(f, "rw");
+			try {
+				raf.setLength(completeLength);
+			} finally {
+				raf.close();
+			}
+		}
+
+		for (String line : new String(bytes, 0, completeLength, ENCODING).split("\n")) {
+			if (!line.isEmpty())
+				urls.add(line);
 		}
 		return urls;
 	}
-	
-	public void addUrl(String url) throws IOException{
-		writer.append(url);
-		writer.newLine();
-		writer.flush();
-	}
-	
-	public void close(){
-		try {
-			writer.close();
-		} catch (IOException e) {}
-	}
-	
+
 	/**
-	 * @param args
+	 * Adds the url to the current batch, the batch is written once it is full.
+	 *
+	 * @param url the crawled url
+	 * @throws IOException if the batch could not be written
 	 */
-	public static void main(String[] args) {
-		// TODO Auto-generated method stub
+	public synchronized void addUrl(String url) throws IOException{
+		batch.append(url).append('\n');
+		if (++batchedUrls >= batchSize)
+			flush();
+	}
 
+	/**
+	 * Writes the current batch and syncs it to disk.
+	 *
+	 * @throws IOException if the batch could not be written
+	 */
+	public synchronized void flush() throws IOException{
+		if (batchedUrls == 0)
+			return;
+		out.write(batch.toString().getBytes(ENCODING));
+		out.getFD().sync();
+		batch.setLength(0);
+		batchedUrls = 0;
 	}
 
+	public synchronized void close(){
+		try {
+			flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		IOUtils.closeQuietly(out);
+	}
 }
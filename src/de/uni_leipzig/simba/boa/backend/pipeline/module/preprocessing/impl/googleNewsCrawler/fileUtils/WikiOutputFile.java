@@ -5,8 +5,12 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+
 public class WikiOutputFile {
 
+	private static final NLPediaLogger logger = new NLPediaLogger(WikiOutputFile.class);
+
 	private String outPutFile;
 	public BufferedWriter bw;
 	private boolean rewriteExistingFile;
@@ -36,6 +40,18 @@ public class WikiOutputFile {
 			System.out.println(getStatisic());
 	}
 	
+	public synchronized void close(){
+		try {
+			bw.close();
+		} catch (IOException e) {
+			
+			e.printStackTrace();
+			String error = "Could not close output file: " + outPutFile;
+			logger.error(error, e);
+			throw new RuntimeException(error, e);
+		}
+	}
+	
 	public String getStatisic(){
 		return "added: "+this.nrOfDokuments+"\tnot empty: "+this.nrOfNotEmptyDokuments;
 	}
@@ -1,15 +1,18 @@
 package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParserThreads;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
 
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.fileUtils.WikiOutputFile;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParser.BigTextExtractor;
 
 
-public class BigPageParserThread extends Thread {
+/**
+ * One worker of the crawler pool. Takes urls until the director has no more
+ * and writes the extracted text to the output file. Every worker has its own
+ * extractor, since the web client is not thread safe.
+ */
+public class BigPageParserThread implements Runnable {
 
 	private NLPediaLogger logger = new NLPediaLogger(
 			BigPageParserThread.class);
@@ -27,27 +30,22 @@ public class BigPageParserThread extends Thread {
 	@Override
 	public void run(){
 		String uri;
-		while((uri=controller.getNextUri())!=null&&interrupted()==false){
-			if(uri.compareTo("wait")!=0){
-				try {
-					output.appendTextBlock(uri, this.bigTextExtractor.extractBigText(uri));
-				} catch (IOException e) {
-					System.out.println("exception on "+uri);
-					e.printStackTrace();
-				}catch(Exception e){
-					e.printStackTrace();
-					System.out.println("fatal error \n"+Arrays.toString(e.getStackTrace()));
-					logger.error("fatal error",e);
-				}
-			}
-			else
-			{
-				System.out.println("wait");
-				try {
-					TimeUnit.SECONDS.sleep(5);
-				} catch (InterruptedException e) {
-					break;
+		while((uri=controller.getNextUri())!=null&&!Thread.currentThread().isInterrupted()){
+			boolean success = false;
+			try {
+				String text = this.bigTextExtractor.extractBigText(uri);
+				if (text != null) {
+					output.appendTextBlock(uri, text);
+					success = true;
 				}
+			} catch (IOException e) {
+				logger.error("exception on "+uri, e);
+			}catch(Exception e){
+				logger.error("fatal error on "+uri,e);
+			}finally{
+				// failed pages are journaled too, so a resumed crawl skips them instead of retrying them,
+				// they are only counted as failed pages
+				controller.pageCrawled(uri, success);
 			}
 		}
 	}
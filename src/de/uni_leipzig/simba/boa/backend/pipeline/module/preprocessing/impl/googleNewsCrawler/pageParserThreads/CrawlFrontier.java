@@ -0,0 +1,193 @@
+package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParserThreads;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The urls which still need to be crawled. Every host has its own queue and
+ * a host is only asked again after the politeness delay, so that many
+ * crawler threads never hit the same news site at once. take() blocks until
+ * a url of some host is allowed, and returns null after close() was called
+ * and all queues are empty.
+ */
+public class CrawlFrontier {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+
+	private final long politenessDelay;
+	private final SeenUrlSet seen = new SeenUrlSet();
+	private final Map<String, HostQueue> hosts = new HashMap<String, HostQueue>();
+	// hosts with urls, ordered by the time they may be asked again
+	private final PriorityQueue<HostQueue> readyHosts = new PriorityQueue<HostQueue>();
+
+	private int queuedUrls = 0;
+	private boolean closed = false;
+
+	/**
+	 * @param politenessDelay minimal time between two requests to the same host in milliseconds
+	 */
+	public CrawlFrontier(long politenessDelay){
+		this.politenessDelay = politenessDelay;
+	}
+
+	/**
+	 * Marks the url as seen without crawling it, e.g. urls of a previous run.
+	 *
+	 * @param url the url
+	 */
+	public void markSeen(String url){
+		lock.lock();
+		try {
+			seen.add(url);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds all urls which were not seen before.
+	 *
+	 * @param urls the urls to crawl
+	 * @return the number of new urls
+	 */
+	public int addAll(String[] urls){
+		int added = 0;
+		lock.lock();
+		try {
+			if (closed)
+				throw new IllegalStateException("Frontier is already closed");
+
+			for (String url : urls) {
+				if (url == null || !seen.add(url))
+					continue;
+
+				String host = getHost(url);
+				HostQueue hostQueue = hosts.get(host);
+				if (hostQueue == null) {
+					hostQueue = new HostQueue(host);
+					hosts.put(host, hostQueue);
+				}
+				if (hostQueue.urls.isEmpty())
+					readyHosts.add(hostQueue);
+				hostQueue.urls.add(url);
+				queuedUrls++;
+				added++;
+			}
+			if (added > 0)
+				changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		return added;
+	}
+
+	/**
+	 * No more urls will be added, take() returns null once the queues are empty.
+	 */
+	public void close(){
+		lock.lock();
+		try {
+			closed = true;
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until a url may be crawled.
+	 *
+	 * @return the next url or null if the frontier is closed and empty
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public String take() throws InterruptedException{
+		lock.lock();
+		try {
+			while (true) {
+				HostQueue hostQueue = readyHosts.peek();
+				if (hostQueue == null) {
+					if (closed)
+						return null;
+					changed.await();
+					continue;
+				}
+
+				long wait = hostQueue.nextAccess - System.currentTimeMillis();
+				if (wait > 0) {
+					changed.await(wait, TimeUnit.MILLISECONDS);
+					continue;
+				}
+
+				readyHosts.poll();
+				String url = hostQueue.urls.poll();
+				queuedUrls--;
+				hostQueue.nextAccess = System.currentTimeMillis() + politenessDelay;
+				if (!hostQueue.urls.isEmpty())
+					readyHosts.add(hostQueue);
+				return url;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of urls which still need to be crawled
+	 */
+	public int size(){
+		lock.lock();
+		try {
+			return queuedUrls;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of urls added or marked as seen
+	 */
+	public int getSeenUrls(){
+		lock.lock();
+		try {
+			return seen.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static String getHost(String url){
+		try {
+			String host = new URI(url).getHost();
+			return host == null ? "" : host.toLowerCase();
+		} catch (Exception e) {
+			// not a valid uri, the extractor will fail for it anyway
+			return "";
+		}
+	}
+
+	private static class HostQueue implements Comparable<HostQueue> {
+
+		private final String host;
+		private final Queue<String> urls = new LinkedList<String>();
+		private long nextAccess = 0;
+
+		private HostQueue(String host){
+			this.host = host;
+		}
+
+		@Override
+		public int compareTo(HostQueue other){
+			if (nextAccess != other.nextAccess)
+				return nextAccess < other.nextAccess ? -1 : 1;
+			return host.compareTo(other.host);
+		}
+	}
+}
@@ -2,46 +2,78 @@ package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.goog
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.fileUtils.FileWithSubjectsReader;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.fileUtils.URLStore;
 import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.fileUtils.WikiOutputFile;
 
+/**
+ * Runs a pool of crawler threads over the urls found by the input thread.
+ * The urls are handed out by a crawl frontier with one politeness queue per
+ * host, and every crawled url is written to the url store, so that a second
+ * run with appendToExistingData skips the already crawled pages.
+ */
 public class CrawlerDirector {
 
 	private NLPediaLogger logger = new NLPediaLogger(
 			CrawlerDirector.class);
-	
+
+	private static final int DEFAULT_NUMBER_OF_CRAWLER = 6;
+	private static final long DEFAULT_POLITENESS_DELAY = 1000;
+
 	private WikiOutputFile output;
 
-	private HashSet<String> uris;
-	private Queue<String> uriStack = new LinkedList<String>();
+	private final CrawlFrontier frontier;
 	private URLStore urlStore=null;
 
-	private final int nrOfCrawler = 1;//6;
+	private final int nrOfCrawler;
 	private String language;
 
+	private final AtomicInteger crawledPages = new AtomicInteger();
+	private final AtomicInteger failedPages = new AtomicInteger();
+	private long crawlTime = 0;
+
+	/**
+	 * Reads the number of crawler threads and the politeness delay from the
+	 * settings "newsCrawlerThreadPoolSize" and "newsCrawlerPolitenessDelay".
+	 */
 	public CrawlerDirector(String language, String outPutFile,
 			String urlStoreFile, boolean appendToExistingData){
+		this(language, outPutFile, urlStoreFile, appendToExistingData,
+				getSetting("newsCrawlerThreadPoolSize", DEFAULT_NUMBER_OF_CRAWLER),
+				getSetting("newsCrawlerPolitenessDelay", DEFAULT_POLITENESS_DELAY));
+	}
+
+	/**
+	 * @param nrOfCrawler the number of crawler threads
+	 * @param politenessDelay minimal time between two requests to the same host in milliseconds
+	 */
+	public CrawlerDirector(String language, String outPutFile,
+			String urlStoreFile, boolean appendToExistingData, int nrOfCrawler, long politenessDelay){
 		this.language = language;
+		this.nrOfCrawler = Math.max(1, nrOfCrawler);
+		this.frontier = new CrawlFrontier(politenessDelay);
 		try {
 			output = new WikiOutputFile(outPutFile, !appendToExistingData);
 		} catch (IOException e) {
 			logger.error("cann't create the output file: "+outPutFile,e);
 		}
 
-		uris = new LinkedHashSet<String>();
-
 		if (urlStoreFile != null)
 			if (appendToExistingData) {
+				List<String> crawledUrls = new ArrayList<String>();
 				urlStore = URLStore.createOpenExistingURLStore(urlStoreFile,
-						uris);
+						crawledUrls);
+				for (String url : crawledUrls)
+					frontier.markSeen(url);
+				logger.info("Skipping " + crawledUrls.size() + " already crawled urls");
 			} else {
 				urlStore = URLStore.createNewURLStore(urlStoreFile);
 			}
@@ -49,94 +81,136 @@ public class CrawlerDirector {
 	}
 
 	public void startCrawler(String theme, String[] subjects) {
-		// initialize all
-
 		// create news crawler
 		GoogleNewsThread inputThread = new GoogleNewsThread(this, theme, subjects,
 				language);
-		inputThread.start();
-
-		// wait that the stack fills a bit
-		try {
-			TimeUnit.SECONDS.sleep(5);
-		} catch (InterruptedException e) {
-		}
+		crawl(inputThread);
 
-		System.out.println("crawler starts");
+		logger.info("problems with google: "+inputThread.problemPages);
+	}
 
-		Thread[] executiveThreads = new Thread[nrOfCrawler];
+	/**
+	 * Crawls the given urls, e.g. from a file or a test server.
+	 *
+	 * @param urls the urls to crawl
+	 */
+	public void crawlUrls(final String[] urls) {
+		crawl(new Thread() {
+			@Override
+			public void run() {
+				addUris(urls);
+			}
+		});
+	}
 
-		// create big text parser
-		for (int i = 0; i < nrOfCrawler; i++) {
-			executiveThreads[i] = new BigPageParserThread(this, output,
-					language);
-			executiveThreads[i].start();
-		}
+	/**
+	 * Starts the crawler threads and the input thread, which adds the urls
+	 * with addUris. Returns after the input thread finished and all urls are crawled.
+	 */
+	private void crawl(Thread inputThread) {
+		long start = System.currentTimeMillis();
 
-		// wait that googleNewsThread is finish and then that bigPageParser is
-		// finish
-		boolean finish = false;
-		while (finish == false) {
+		ExecutorService executorService = Executors.newFixedThreadPool(nrOfCrawler);
+		for (int i = 0; i < nrOfCrawler; i++)
+			executorService.execute(new BigPageParserThread(this, output, language));
 
-			if (inputThread.isAlive() == false) {
-				if (uriStack.isEmpty())
-					finish = true;
-			}
+		inputThread.start();
+		logger.info("crawler starts with " + nrOfCrawler + " threads");
 
-			try {
-				TimeUnit.SECONDS.sleep(10);
-			} catch (InterruptedException e) {
-			}
+		try {
+			// no more urls after the input thread is finished, so the crawler threads stop once the frontier is empty
+			inputThread.join();
+			frontier.close();
+			executorService.shutdown();
+			while (!executorService.awaitTermination(1, TimeUnit.MINUTES))
+				logger.info("waiting for crawler, urls left: " + frontier.size());
 		}
-		System.out.println("finish, stop crawler");
-		// stop crawler
-		for (int i = 0; i < nrOfCrawler; i++) {
-			executiveThreads[i].interrupt();
+		catch (InterruptedException e) {
+			logger.error("crawler was interrupted, stopping all threads", e);
+			inputThread.interrupt();
+			frontier.close();
+			executorService.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			crawlTime = System.currentTimeMillis() - start;
+			if (urlStore != null)
+				urlStore.close();
+			if (output != null)
+				output.close();
 		}
 
-		System.out.println("problems with google: "+inputThread.problemPages);
-		
+		logger.info("finish, crawled " + crawledPages.get() + " pages (" + failedPages.get() + " failed) in "
+				+ crawlTime + "ms, " + String.format("%.2f", getPagesPerSecond()) + " pages per second");
 	}
 
 	public void addUris(String[] newUris) {
-		ArrayList<String> addableUris = new ArrayList<String>(newUris.length);
+		frontier.addAll(newUris);
+	}
 
-		// find new uris
-		for (String u : newUris) {
-			if (!this.uris.contains(u))
-				addableUris.add(u);
+	/**
+	 * Waits until a url of some host may be crawled.
+	 *
+	 * @return the next url or null if all urls are crawled
+	 */
+	public String getNextUri() {
+		try {
+			return frontier.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
 		}
+	}
+
+	/**
+	 * Called by the crawler threads after a url was processed.
+	 *
+	 * @param uri the crawled url
+	 * @param success true if the text of the page was written to the output
+	 */
+	public void pageCrawled(String uri, boolean success) {
+		if (success)
+			crawledPages.incrementAndGet();
+		else
+			failedPages.incrementAndGet();
+
+		if (urlStore != null)
+			try {
+				urlStore.addUrl(uri);
+			} catch (IOException e) {
+				logger.error("could not write url to the url store: " + uri, e);
+			}
+	}
 
-		// add new uris
-		uriStack.addAll(addableUris);
-		uris.addAll(addableUris);
+	/**
+	 * @return the number of pages written to the output
+	 */
+	public int getCrawledPages() {
+		return crawledPages.get();
 	}
 
-	public synchronized String getNextUri() {
+	/**
+	 * @return the number of pages which could not be crawled
+	 */
+	public int getFailedPages() {
+		return failedPages.get();
+	}
 
-		String uri;
-		try {
-			uri = this.uriStack.poll();
-		} catch (ArrayIndexOutOfBoundsException e) {
-			System.out.println("wait");
-			return "wait";
-		}
-		if (uri != null) {
-			System.out.println(uri);
+	/**
+	 * @return crawled pages per second of the last crawl
+	 */
+	public double getPagesPerSecond() {
+		return crawlTime == 0 ? 0 : crawledPages.get() * 1000D / crawlTime;
+	}
 
-			if (urlStore != null)
-				try {
-					urlStore.addUrl(uri);
-				} catch (IOException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
-
-			return uri;
-		} else {
-			System.out.println("wait");
-			return "wait";
-		}
+	private static int getSetting(String key, int defaultValue) {
+		String value = NLPediaSettings.getSetting(key);
+		return value == null || value.isEmpty() ? defaultValue : Integer.valueOf(value);
+	}
+
+	private static long getSetting(String key, long defaultValue) {
+		String value = NLPediaSettings.getSetting(key);
+		return value == null || value.isEmpty() ? defaultValue : Long.valueOf(value);
 	}
 
 	/**
@@ -150,9 +224,9 @@ public class CrawlerDirector {
 
 		String[] subjects = FileWithSubjectsReader
 				.readSubjectsFromFile("D:\\myTemp\\labels.txt").toArray(new String[0]);
-		
+
 		CrawlerDirector cd = new CrawlerDirector("en", "output.txt",
-				"urlstore.txt", false);
+				"urlstore.txt", false, DEFAULT_NUMBER_OF_CRAWLER, DEFAULT_POLITENESS_DELAY);
 		cd.startCrawler("Music", subjects);
 		// cd.startCrawler("Music", new String[] { "Black Eyed Peace",
 		// "Madonna",
@@ -0,0 +1,111 @@
+package de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParserThreads;
+
+/**
+ * A compact set of already seen urls. Only a 64 bit hash of every url is
+ * kept in an open addressing table, so a url costs 8 to 16 bytes instead of
+ * a string in a hash set. Two different urls with the same hash are treated
+ * as the same url, which is very unlikely for 64 bit hashes and only means
+ * that a page is not crawled.
+ *
+ * Not thread safe, the crawl frontier guards it with its lock.
+ */
+public class SeenUrlSet {
+
+	private static final long EMPTY = 0L;
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private long[] table;
+	private int size = 0;
+
+	public SeenUrlSet(){
+		this(1024);
+	}
+
+	/**
+	 * @param expectedSize the number of urls which fit without resizing
+	 */
+	public SeenUrlSet(int expectedSize){
+		int capacity = 16;
+		while (capacity < expectedSize * 2)
+			capacity <<= 1;
+		table = new long[capacity];
+	}
+
+	/**
+	 * @param url the url to add
+	 * @return true if the url was not seen before
+	 */
+	public boolean add(String url){
+		if (insert(table, hash(url))) {
+			if (++size > table.length / 2)
+				resize();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param url the url to check
+	 * @return true if the url was added before
+	 */
+	public boolean contains(String url){
+		long hash = hash(url);
+		int mask = table.length - 1;
+		for (int i = (int) mix(hash) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+			if (table[i] == hash)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of seen urls
+	 */
+	public int size(){
+		return size;
+	}
+
+	private static boolean insert(long[] table, long hash){
+		int mask = table.length - 1;
+		int i = (int) mix(hash) & mask;
+		for (; table[i] != EMPTY; i = (i + 1) & mask) {
+			if (table[i] == hash)
+				return false;
+		}
+		table[i] = hash;
+		return true;
+	}
+
+	private void resize(){
+		long[] newTable = new long[table.length * 2];
+		for (long hash : table) {
+			if (hash != EMPTY)
+				insert(newTable, hash);
+		}
+		table = newTable;
+	}
+
+	/**
+	 * 64 bit FNV-1a hash of the url, 0 marks an empty slot and is never returned.
+	 */
+	private static long hash(String url){
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < url.length(); i++) {
+			char c = url.charAt(i);
+			hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return hash == EMPTY ? 1L : hash;
+	}
+
+	/**
+	 * Spreads the bits of the hash for the table index.
+	 */
+	private static long mix(long hash){
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
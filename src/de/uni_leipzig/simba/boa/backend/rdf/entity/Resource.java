@@ -1,6 +1,7 @@
 package de.uni_leipzig.simba.boa.backend.rdf.entity;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import javax.persistence.Basic;
@@ -8,8 +9,15 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 
+import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.entity.context.Context;
 
+/**
+ * A resource with its label, type and surface forms. The surface forms are
+ * stored as a single string, the labels parsed from it are cached. Resources
+ * which are used a lot (e.g. by the triples of the knowledge creation) should
+ * be shared with the {@link ResourceManager}.
+ */
 @Entity
 @Table(name="resource")
 public class Resource extends de.uni_leipzig.simba.boa.backend.entity.Entity {
@@ -25,6 +33,9 @@ public class Resource extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	protected String context;
 	protected String surfaceForms;
 	
+	// parsed from label, type and surfaceForms on first use
+	private transient Set<String> labels;
+	
 	/**
 	 * 
 	 * @param uri
@@ -65,6 +76,7 @@ public class Resource extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	public void setLabel(String label) {
 
 		this.label = label;
+		this.labels = null;
 	}
 	
 	/**
@@ -101,6 +113,7 @@ public class Resource extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	public void setType(String type) {
 
 		this.type = type;
+		this.labels = null;
 	}
 
 	/**
@@ -143,28 +156,48 @@ public class Resource extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	 * Since we save the list of surface forms as a single string in the database
 	 * we need to split them into a list in java. if the surface forms do not contain
 	 * the regular label (wiki page title) the label gets added to the list of surface
-	 * forms.
+	 * forms. The labels are parsed once and interned, so resources with the same
+	 * surface forms share the strings. Changing the label, type or surface forms
+	 * parses them again.
 	 * 
-	 * @return a list of surface forms
+	 * @return an unmodifiable set of the surface forms in the order of their first occurrence
 	 */
 	public Set<String> retrieveLabels(){
 		
-		Set<String> labels = new HashSet<String>();
-		for ( String s : this.surfaceForms.toLowerCase().split("_&_")) {
+		Set<String> labels = this.labels;
+		if ( labels == null ) {
 			
-			// avoid labels with only one character like the TV station "A" 
-			if ( s.length() > 1 ) {
-				
-				labels.add(" " + s.trim() + " ");
-			}
-			// this is very experimental 
-			if ( Context.namedEntityRecognitionMappings.get(this.type).equals("PER") ) {
+			labels = Collections.unmodifiableSet(this.parseLabels());
+			this.labels = labels;
+		}
+		return labels;
+	}
+	
+	/**
+	 * @return the labels of this resource, see {@link #retrieveLabels()}
+	 */
+	private Set<String> parseLabels() {
+		
+		Set<String> labels = new LinkedHashSet<String>();
+		if ( this.surfaceForms != null ) {
+			
+			for ( String s : this.surfaceForms.toLowerCase().split(Constants.BACKGROUND_KNOWLEDGE_SURFACE_FORM_SEPARATOR)) {
 				
-				labels.add("he");
-				labels.add("she");
+				// avoid labels with only one character like the TV station "A" 
+				if ( s.length() > 1 ) {
+					
+					labels.add((" " + s.trim() + " ").intern());
+				}
 			}
 		}
-		if ( this.label.length() > 1 ) labels.add(" " + this.label.toLowerCase() + " ");
+		if ( this.label != null && this.label.length() > 1 ) labels.add((" " + this.label.toLowerCase() + " ").intern());
+		
+		// this is very experimental 
+		if ( "PER".equals(Context.namedEntityRecognitionMappings.get(this.type)) ) {
+			
+			labels.add("he");
+			labels.add("she");
+		}
 		return labels;
 	}
 
@@ -174,6 +207,7 @@ public class Resource extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	public void setSurfaceForms(String labels) {
 	
 		this.surfaceForms = labels;
+		this.labels = null;
 	}
 
 	/* (non-Javadoc)
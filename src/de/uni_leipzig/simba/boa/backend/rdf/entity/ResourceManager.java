@@ -0,0 +1,51 @@
+package de.uni_leipzig.simba.boa.backend.rdf.entity;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares the resources with the same uri, so that triples which have the same
+ * subject or object do not carry their own copy of it. The first resource
+ * created for a uri is returned for all further requests, its label and type
+ * are the ones of the first request. Shared resources must not be changed.
+ *
+ * Every knowledge creation run uses its own instance, which is shared by all
+ * threads of the run. The resources are forgotten with the instance when the
+ * run is finished, so concurrent runs (e.g. of the webservice) don't see the
+ * labels and types of each other.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class ResourceManager {
+
+	private final ConcurrentMap<String,Resource> resources = new ConcurrentHashMap<String,Resource>();
+
+	/**
+	 * Returns the resource with the given uri or creates it if it's not yet known.
+	 * This method is thread safe.
+	 *
+	 * @param uri - the uri of the resource
+	 * @param label - the label, used only if the resource is created
+	 * @param type - the type, used only if the resource is created
+	 * @return the shared resource for the uri
+	 */
+	public Resource getResource(String uri, String label, String type) {
+
+		Resource resource = this.resources.get(uri);
+		if ( resource == null ) {
+
+			Resource newResource = new Resource(uri, label, type);
+			resource = this.resources.putIfAbsent(uri, newResource);
+			if ( resource == null ) resource = newResource;
+		}
+		return resource;
+	}
+
+	/**
+	 * @return the number of shared resources
+	 */
+	public int size() {
+
+		return this.resources.size();
+	}
+}
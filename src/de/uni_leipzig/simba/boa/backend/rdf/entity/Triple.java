@@ -1,5 +1,6 @@
 package de.uni_leipzig.simba.boa.backend.rdf.entity;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -10,14 +11,21 @@ import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
-import javax.persistence.JoinColumn;
-import javax.persistence.JoinTable;
-import javax.persistence.ManyToMany;
+import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
 
+/**
+ * A triple found during knowledge creation. The patterns and sentences it was
+ * learned from are only referenced: the patterns by their natural language 
+ * representation (which identifies them in the pattern mapping of the triple's
+ * property) and the sentences by their lucene document ids in the corpus index.
+ * The sentence texts can be retrieved from the index when needed.
+ * 
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
 @Entity
 @Table(name="triple")
 public class Triple extends de.uni_leipzig.simba.boa.backend.entity.Entity {
@@ -25,7 +33,7 @@ public class Triple extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	/**
 	 * 
 	 */
-	private static final long serialVersionUID = 3148247276053130633L;
+	private static final long serialVersionUID = -2260468733596209416L;
 	
 	private Resource subject;
 	private Property property;
@@ -34,8 +42,8 @@ public class Triple extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	private int learnedInIteration;
 	private boolean isCorrect;
 	private double confidence;
-	private Set<Pattern> learnedFromPatterns;
-	private Set<String> learnedFromSentences;
+	private Set<String> learnedFromPatterns;
+	private int[] learnedFromSentenceIds;
 	
 	public Triple(Resource subject, Property property, Resource object) {
 		super();
@@ -45,16 +53,16 @@ public class Triple extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 		this.object = object;
 		this.confidence = 0d;
 		this.learnedInIteration = -1;
-		this.learnedFromPatterns = new HashSet<Pattern>();
-		this.learnedFromSentences = new HashSet<String>();
+		this.learnedFromPatterns = new HashSet<String>();
+		this.learnedFromSentenceIds = new int[0];
 	}
 
 	public Triple() {
 		
 		this.confidence = -1d;
 		this.learnedInIteration = -1;
-		this.learnedFromPatterns = new HashSet<Pattern>();
-		this.learnedFromSentences = new HashSet<String>();
+		this.learnedFromPatterns = new HashSet<String>();
+		this.learnedFromSentenceIds = new int[0];
 	}
 
 	/**
@@ -152,53 +160,89 @@ public class Triple extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 	}
 	
 	/**
-	 * @return the learnedFromPatterns
+	 * @return the natural language representations of the patterns this triple was learned from
 	 */
-	@ManyToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
-	@JoinTable(name="triple_pattern", joinColumns =  {
-        @JoinColumn(name = "triple_id", referencedColumnName = "id")
-    }, inverseJoinColumns =  {
-        @JoinColumn(name = "pattern_id", referencedColumnName = "id")
-    })
-	public Set<Pattern> getLearnedFromPatterns() {
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name="triple_pattern")
+	@Column(length=1000)
+	public Set<String> getLearnedFromPatterns() {
 	
 		return learnedFromPatterns;
 	}
 	
 	/**
-	 * @param LearnedFromSentences the LearnedFromSentences to set
+	 * @param learnedFromPatterns the natural language representations of the patterns to set
 	 */
-	public void setLearnedFromSentences(Set<String> learnedFromSentences) {
+	public void setLearnedFromPatterns(Set<String> learnedFromPatterns) {
 	
-		this.learnedFromSentences = learnedFromSentences;
+		this.learnedFromPatterns = learnedFromPatterns;
 	}
 	
 	/**
-	 * @return the LearnedFromSentences
+	 * 
+	 * @param pattern
 	 */
-	@ElementCollection(fetch = FetchType.EAGER)
-	@CollectionTable(name="triple_sentences")
-	@Column(length=1000)
-	public Set<String> getLearnedFromSentences() {
+	public void addLearnedFromPattern(Pattern pattern) {
+
+		this.learnedFromPatterns.add(pattern.getNaturalLanguageRepresentation());
+	}
 	
-		return this.learnedFromSentences;
+	/**
+	 * @return the sorted lucene document ids of the sentences this triple was learned from
+	 */
+	@Lob
+	public int[] getLearnedFromSentenceIds() {
+	
+		return this.learnedFromSentenceIds;
 	}
 	
 	/**
-	 * @param learnedFromPatterns the learnedFromPatterns to set
+	 * @param learnedFromSentenceIds the sorted and distinct lucene document ids to set
 	 */
-	public void setLearnedFromPatterns(Set<Pattern> learnedFromPatterns) {
+	public void setLearnedFromSentenceIds(int[] learnedFromSentenceIds) {
 	
-		this.learnedFromPatterns = learnedFromPatterns;
+		this.learnedFromSentenceIds = learnedFromSentenceIds;
 	}
 	
 	/**
+	 * @param sentenceId - the lucene document id of a sentence this triple was learned from
+	 */
+	public void addLearnedFromSentence(int sentenceId) {
+		
+		int index = Arrays.binarySearch(this.learnedFromSentenceIds, sentenceId);
+		if ( index >= 0 ) return;
+		
+		index = -(index + 1);
+		int[] sentenceIds = new int[this.learnedFromSentenceIds.length + 1];
+		System.arraycopy(this.learnedFromSentenceIds, 0, sentenceIds, 0, index);
+		sentenceIds[index] = sentenceId;
+		System.arraycopy(this.learnedFromSentenceIds, index, sentenceIds, index + 1, this.learnedFromSentenceIds.length - index);
+		this.learnedFromSentenceIds = sentenceIds;
+	}
+	
+	/**
+	 * Merges the given ids into the ids of this triple.
 	 * 
-	 * @param pattern
+	 * @param sentenceIds - sorted and distinct lucene document ids, e.g. of another triple
 	 */
-	public void addLearnedFromPattern(Pattern pattern) {
-
-		this.learnedFromPatterns.add(pattern);
+	public void addLearnedFromSentences(int[] sentenceIds) {
+		
+		int[] merged = new int[this.learnedFromSentenceIds.length + sentenceIds.length];
+		int i = 0, j = 0, size = 0;
+		while ( i < this.learnedFromSentenceIds.length && j < sentenceIds.length ) {
+			
+			if ( this.learnedFromSentenceIds[i] < sentenceIds[j] ) merged[size++] = this.learnedFromSentenceIds[i++];
+			else if ( this.learnedFromSentenceIds[i] > sentenceIds[j] ) merged[size++] = sentenceIds[j++];
+			else {
+				
+				merged[size++] = this.learnedFromSentenceIds[i++];
+				j++;
+			}
+		}
+		while ( i < this.learnedFromSentenceIds.length ) merged[size++] = this.learnedFromSentenceIds[i++];
+		while ( j < sentenceIds.length ) merged[size++] = sentenceIds[j++];
+		
+		this.learnedFromSentenceIds = size == merged.length ? merged : Arrays.copyOf(merged, size);
 	}
 
 	/**
@@ -269,11 +313,6 @@ public class Triple extends de.uni_leipzig.simba.boa.backend.entity.Entity {
 		return true;
 	}
 
-	public void addLearnedFromSentences(String sentence) {
-
-		this.learnedFromSentences.add(sentence);
-	}
-
     public String toN3() {
 
         return "<" + subject.uri + "> <" + property.uri + "> <" + object.uri + "> .";
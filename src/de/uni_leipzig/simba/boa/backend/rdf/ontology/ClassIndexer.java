@@ -1,6 +1,8 @@
 package de.uni_leipzig.simba.boa.backend.rdf.ontology;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -13,17 +15,27 @@ import org.slf4j.LoggerFactory;
 import com.hp.hpl.jena.ontology.OntClass;
 import com.hp.hpl.jena.ontology.OntModel;
 import com.hp.hpl.jena.ontology.OntModelSpec;
+import com.hp.hpl.jena.rdf.model.Literal;
 import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.RDFNode;
 
 import de.uni_leipzig.simba.boa.backend.Constants;
 
 /**
  * Indexes an Ontology
  * skips complex classes per default, this does not affect the hierarchy outcome
+ *
+ * The ontology is compiled once into a table of named classes with integer ids.
+ * Every class has a bitset of the ids of all its (transitive) superclasses and
+ * the labels are kept in one array per language, so subclass checks and
+ * superclass iteration do not touch the Jena model anymore.
  */
 public class ClassIndexer {
     private static Logger log = LoggerFactory.getLogger(ClassIndexer.class);
 
+    private static final String OWL_THING = "http://www.w3.org/2002/07/owl#Thing";
+    private static final String RDFS_RESOURCE = "http://www.w3.org/2000/01/rdf-schema#Resource";
+
     //Options
     private boolean copyLabels = true;
     private boolean copyComments = true;
@@ -35,19 +47,306 @@ public class ClassIndexer {
     private Set<String> remove = new HashSet<String>();
 
     //internal variables
-    private Map<String, OntModel> classUriToClassHierarchy = new HashMap<String, OntModel>();
+    private Map<String, Integer> classUriToId = new HashMap<String, Integer>();
+    private List<String> classUris = new ArrayList<String>();
+    private int[][] directSuperClassIds = new int[0][];
+    private BitSet[] superClassIds = new BitSet[0];
+    // language -> class id -> label, the empty string is the language of untagged labels
+    private Map<String, String[]> labels = new HashMap<String, String[]>();
+    // comments in the configured language
+    private String[] comments = new String[0];
 
     public ClassIndexer() {
     }
 
     public void index(OntModel from) {
         Set<OntClass> classes = from.listClasses().toSet();
-        int i = 0;
+        classUriToId = new HashMap<String, Integer>();
+        classUris = new ArrayList<String>();
+
+        // assign ids to all named classes and their direct superclasses
+        Map<Integer, OntClass> idToClass = new HashMap<Integer, OntClass>();
+        List<List<Integer>> parents = new ArrayList<List<Integer>>();
+        List<OntClass> queue = new ArrayList<OntClass>();
         for (OntClass cl : classes) {
-            Tree t = new Tree(cl);
-            classUriToClassHierarchy.put(cl.getURI(), t.toModel());
+            //this is were complex classes are skipped
+            if (!cl.isAnon()) {
+                queue.add(cl);
+            }
+        }
+        for (int i = 0; i < queue.size(); i++) {
+            OntClass cl = queue.get(i);
+            int id = getOrCreateId(cl.getURI(), parents);
+            if (idToClass.containsKey(id)) {
+                continue;
+            }
+            idToClass.put(id, cl);
+
+            for (OntClass s : cl.listSuperClasses(true).toSet()) {
+                if (s.isAnon()) {
+                    continue;
+                }
+                log.trace(s.toString());
+                parents.get(id).add(getOrCreateId(s.getURI(), parents));
+                queue.add(s);
+            }
+        }
+
+        int size = classUris.size();
+        directSuperClassIds = new int[size][];
+        for (int id = 0; id < size; id++) {
+            List<Integer> p = parents.get(id);
+            directSuperClassIds[id] = new int[p.size()];
+            for (int j = 0; j < p.size(); j++) {
+                directSuperClassIds[id][j] = p.get(j);
+            }
+        }
+
+        // transitive closure, every class is visited once
+        superClassIds = new BitSet[size];
+        TarjanState state = new TarjanState(size);
+        for (int id = 0; id < size; id++) {
+            if (state.index[id] < 0) {
+                computeSuperClasses(id, state);
+            }
+        }
+
+        labels = new HashMap<String, String[]>();
+        comments = new String[size];
+        for (Map.Entry<Integer, OntClass> entry : idToClass.entrySet()) {
+            OntClass cl = entry.getValue();
+            for (RDFNode node : cl.listLabels(null).toList()) {
+                if (node.isLiteral()) {
+                    Literal literal = (Literal) node;
+                    // language tags are case insensitive
+                    String tag = literal.getLanguage().toLowerCase();
+                    String[] labelsOfLanguage = labels.get(tag);
+                    if (labelsOfLanguage == null) {
+                        labelsOfLanguage = new String[size];
+                        labels.put(tag, labelsOfLanguage);
+                    }
+                    labelsOfLanguage[entry.getKey()] = literal.getLexicalForm();
+                }
+            }
+            comments[entry.getKey()] = cl.getComment(language);
+        }
+        log.info("Indexed " + size + " classes with labels in " + labels.size() + " languages");
+    }
+
+    private int getOrCreateId(String uri, List<List<Integer>> parents) {
+        Integer id = classUriToId.get(uri);
+        if (id == null) {
+            id = classUris.size();
+            classUriToId.put(uri, id);
+            classUris.add(uri);
+            parents.add(new ArrayList<Integer>());
+        }
+        return id;
+    }
+
+    /**
+     * Tarjan's algorithm over the direct superclass edges. The superclasses of a
+     * strongly connected component (a cycle like A ⊑ B ⊑ A) are only stored once
+     * the whole component is known, every component after the ones it points to.
+     *
+     * @param id
+     * @param state - the traversal state of all classes
+     */
+    private void computeSuperClasses(int id, TarjanState state) {
+        state.index[id] = state.lowLink[id] = state.counter++;
+        state.stack.add(id);
+        state.onStack.set(id);
+        for (int parent : directSuperClassIds[id]) {
+            if (state.index[parent] < 0) {
+                computeSuperClasses(parent, state);
+                state.lowLink[id] = Math.min(state.lowLink[id], state.lowLink[parent]);
+            } else if (state.onStack.get(parent)) {
+                state.lowLink[id] = Math.min(state.lowLink[id], state.index[parent]);
+            }
         }
+        if (state.lowLink[id] != state.index[id]) {
+            return;
+        }
+
+        // id is the root of a component, all of its members are on top of the stack
+        List<Integer> component = new ArrayList<Integer>();
+        int member;
+        do {
+            member = state.stack.remove(state.stack.size() - 1);
+            state.onStack.clear(member);
+            component.add(member);
+        } while (member != id);
+
+        BitSet closure = new BitSet(classUris.size());
+        for (int m : component) {
+            for (int parent : directSuperClassIds[m]) {
+                closure.set(parent);
+                // parents outside of the component are already complete
+                if (superClassIds[parent] != null) {
+                    closure.or(superClassIds[parent]);
+                }
+            }
+        }
+        for (int m : component) {
+            BitSet superClasses = (BitSet) closure.clone();
+            // a class is not its own superclass, even in a cycle
+            superClasses.clear(m);
+            superClassIds[m] = superClasses;
+        }
+    }
+
+    /**
+     * The bookkeeping of one run of Tarjan's algorithm.
+     */
+    private static class TarjanState {
+        private final int[] index;
+        private final int[] lowLink;
+        private final BitSet onStack;
+        private final List<Integer> stack = new ArrayList<Integer>();
+        private int counter = 0;
+
+        private TarjanState(int size) {
+            index = new int[size];
+            lowLink = new int[size];
+            onStack = new BitSet(size);
+            Arrays.fill(index, -1);
+        }
+    }
 
+    /**
+     * @return the number of indexed classes, ids are between 0 and size() - 1
+     */
+    public int size() {
+        return classUris.size();
+    }
+
+    /**
+     * @param classUri
+     * @return the id of the class or -1 if the class is not indexed
+     */
+    public int getClassId(String classUri) {
+        Integer id = classUriToId.get(classUri);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param classId
+     * @return the uri of the class
+     */
+    public String getClassUri(int classId) {
+        return classUris.get(classId);
+    }
+
+    /**
+     * @param classId
+     * @param superClassId
+     * @return true if both are the same class or the second is a (transitive) superclass of the first
+     */
+    public boolean isSubclassOf(int classId, int superClassId) {
+        return classId == superClassId || superClassIds[classId].get(superClassId);
+    }
+
+    /**
+     * @param classUri
+     * @param superClassUri
+     * @return true if both are the same class or the second is a (transitive) superclass of the first, false for unknown classes
+     */
+    public boolean isSubclassOf(String classUri, String superClassUri) {
+        int classId = getClassId(classUri);
+        int superClassId = getClassId(superClassUri);
+        return classId >= 0 && superClassId >= 0 && isSubclassOf(classId, superClassId);
+    }
+
+    /**
+     * Iterates over the superclasses without creating objects:
+     * <code>for (int s = next(c, 0); s >= 0; s = next(c, s + 1))</code>
+     *
+     * @param classId
+     * @param fromId - the first id to check
+     * @return the smallest id of a superclass of the class which is not smaller than fromId, -1 if there is none
+     */
+    public int nextSuperClassId(int classId, int fromId) {
+        return superClassIds[classId].nextSetBit(fromId);
+    }
+
+    /**
+     * @param classId
+     * @return the ids of the direct superclasses, do not modify
+     */
+    public int[] getDirectSuperClassIds(int classId) {
+        return directSuperClassIds[classId];
+    }
+
+    /**
+     * Extends a mapping of classes to the indexed classes without a mapping of their own.
+     * Such a class gets the value of its nearest mapped superclass, the superclasses are
+     * visited breadth first along the direct superclasses.
+     *
+     * @param mappings - class uri to value, is not modified
+     * @return the uris of the unmapped classes with a mapped superclass and the value of this superclass
+     */
+    public <T> Map<String, T> getInheritedMappings(Map<String, T> mappings) {
+        Map<String, T> inheritedMappings = new HashMap<String, T>();
+        for (int id = 0; id < size(); id++) {
+            String uri = classUris.get(id);
+            if (mappings.containsKey(uri)) {
+                continue;
+            }
+            T value = getNearestMappedValue(id, mappings);
+            if (value != null) {
+                inheritedMappings.put(uri, value);
+            }
+        }
+        return inheritedMappings;
+    }
+
+    private <T> T getNearestMappedValue(int classId, Map<String, T> mappings) {
+        BitSet visited = new BitSet(size());
+        visited.set(classId);
+        List<Integer> level = Arrays.asList(classId);
+        while (!level.isEmpty()) {
+            List<Integer> nextLevel = new ArrayList<Integer>();
+            for (int id : level) {
+                for (int parent : directSuperClassIds[id]) {
+                    if (visited.get(parent)) {
+                        continue;
+                    }
+                    visited.set(parent);
+                    T value = mappings.get(classUris.get(parent));
+                    if (value != null) {
+                        return value;
+                    }
+                    nextLevel.add(parent);
+                }
+            }
+            level = nextLevel;
+        }
+        return null;
+    }
+
+    /**
+     * Falls back to the primary subtag ("en" for "en-US") and then to the untagged label.
+     *
+     * @param classId
+     * @param language - the language of the label, null or the empty string for untagged labels
+     * @return the label of the class or null if it has neither a label in this language nor an untagged one
+     */
+    public String getLabel(int classId, String language) {
+        String tag = language == null ? "" : language.toLowerCase();
+        String label = getLabelOfLanguage(classId, tag);
+        int separator = tag.indexOf('-');
+        if (label == null && separator > 0) {
+            label = getLabelOfLanguage(classId, tag.substring(0, separator));
+        }
+        if (label == null && !tag.isEmpty()) {
+            label = getLabelOfLanguage(classId, "");
+        }
+        return label;
+    }
+
+    private String getLabelOfLanguage(int classId, String language) {
+        String[] labelsOfLanguage = labels.get(language);
+        return labelsOfLanguage == null ? null : labelsOfLanguage[classId];
     }
 
     /**
@@ -55,7 +354,31 @@ public class ClassIndexer {
      * @return a filled OntModel with all superclasses of classUri or null, if no class is found
      */
     public OntModel getHierarchyForClassURI(String classUri) {
-        return classUriToClassHierarchy.get(classUri);
+        int id = getClassId(classUri);
+        if (id < 0) {
+            return null;
+        }
+        OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM, ModelFactory.createDefaultModel());
+        addToModel(model, id);
+        for (int s = nextSuperClassId(id, 0); s >= 0; s = nextSuperClassId(id, s + 1)) {
+            addToModel(model, s);
+        }
+        return model;
+    }
+
+    private void addToModel(OntModel model, int id) {
+        OntClass me = model.createClass(classUris.get(id));
+        // only the label in exactly this language, a fallback would get the wrong tag
+        String label = getLabelOfLanguage(id, language == null ? "" : language.toLowerCase());
+        if (copyLabels && label != null) {
+            me.addLabel(label, language);
+        }
+        if (copyComments && comments[id] != null) {
+            me.addComment(comments[id], language);
+        }
+        for (int p : directSuperClassIds[id]) {
+            me.addSuperClass(model.createClass(classUris.get(p)));
+        }
     }
     
     /**
@@ -66,24 +389,24 @@ public class ClassIndexer {
      */
     public Set<String> getSuperClassUrisForClassUri(String classUri, String language){
     	
-    	OntModel classHierarchie = classUriToClassHierarchy.get(classUri);
     	Set<String> classLabels = new HashSet<String>();
-    	if ( classHierarchie != null ) {
+    	int id = getClassId(classUri);
+    	if ( id >= 0 ) {
     	    
-    	    Set<OntClass> classes = classHierarchie.listClasses().toSet();
-            
-            // try to get labels for the given language
-            for ( OntClass clazz : classes) {
-                
-                if ( !clazz.getURI().equals("http://www.w3.org/2002/07/owl#Thing") && !clazz.getURI().equals("http://www.w3.org/2000/01/rdf-schema#Resource") ) {
-                    
-                    classLabels.add(clazz.getURI().replace(Constants.DBPEDIA_ONTOLOGY_PREFIX, ""));
-                }
-            }
+    	    addLocalName(classLabels, id);
+    	    for ( int s = nextSuperClassId(id, 0); s >= 0; s = nextSuperClassId(id, s + 1) ) addLocalName(classLabels, s);
     	}
     	return classLabels;
     }
 
+    private void addLocalName(Set<String> classLabels, int id) {
+        String uri = classUris.get(id);
+        if ( !uri.equals(OWL_THING) && !uri.equals(RDFS_RESOURCE) ) {
+            
+            classLabels.add(uri.replace(Constants.DBPEDIA_ONTOLOGY_PREFIX, ""));
+        }
+    }
+
     /**
      * transforms namespaces
      *
@@ -141,50 +464,6 @@ public class ClassIndexer {
         this.language = language;
     }
 
-    /**
-     * A simple Helper Class to convert the hierarchy
-     */
-    private class Tree {
-        final String uri;
-        List<Tree> parents;
-        final String label;
-        final String comment;
-
-        public Tree(OntClass me) {
-            this.uri = me.getURI();
-            label = me.getLabel(language);
-            comment = me.getComment(language);
-            parents = new ArrayList<Tree>();
-
-            Set<OntClass> superClasses = me.listSuperClasses(true).toSet();
-            for (OntClass s : superClasses) {
-                //this is were complex classes are skipped
-                if (s.isAnon()) {
-                    continue;
-                }
-                log.trace(s.toString());
-                parents.add(new Tree(s));
-            }
-        }
-
-        public OntModel toModel() {
-            OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM, ModelFactory.createDefaultModel());
-            OntClass me = model.createClass(uri);
-            if (copyLabels && label != null) {
-                me.addLabel(label, language);
-            }
-            if (copyComments && comment != null) {
-                me.addComment(comment, language);
-            }
-            for (Tree p : parents) {
-                OntClass superClass = model.createClass(p.uri);
-                me.addSuperClass(superClass);
-                model.add(p.toModel());
-            }
-            return model;
-        }
-    }
-
 }
 
 /**
@@ -0,0 +1,28 @@
+package de.uni_leipzig.simba.boa.backend.rdf.uri;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implements the batched lookup with one call of {@link #getUri(String)} per
+ * label. Implementations which can do better (e.g. a local index) should
+ * overwrite it.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public abstract class AbstractUriRetrieval implements UriRetrieval {
+
+	/* (non-Javadoc)
+	 * @see de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval#getUris(java.util.Collection)
+	 */
+	@Override
+	public Map<String,String> getUris(Collection<String> labels) {
+
+		Map<String,String> uris = new LinkedHashMap<String,String>();
+		for ( String label : labels )
+			if ( !uris.containsKey(label) ) uris.put(label, this.getUri(label));
+
+		return uris;
+	}
+}
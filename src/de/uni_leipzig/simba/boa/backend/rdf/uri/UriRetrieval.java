@@ -1,5 +1,8 @@
 package de.uni_leipzig.simba.boa.backend.rdf.uri;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 
  * @author Daniel Gerber
@@ -11,4 +14,12 @@ public interface UriRetrieval {
 	 * @return
 	 */
 	public String getUri(String label);
+
+	/**
+	 * Looks up the uris of several labels at once.
+	 *
+	 * @param labels - the labels, duplicates are looked up once
+	 * @return the uri for every label (as returned by {@link #getUri(String)}) in the order of the labels
+	 */
+	public Map<String,String> getUris(Collection<String> labels);
 }
@@ -11,12 +11,12 @@ import com.github.gerbsen.file.FileUtil;
 
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
-import de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval;
+import de.uni_leipzig.simba.boa.backend.rdf.uri.AbstractUriRetrieval;
 
 /**
  * @author Maciej Janicki <macjan@o2.pl>
  */
-public class ClassesUriRetrieval implements UriRetrieval {
+public class ClassesUriRetrieval extends AbstractUriRetrieval {
 
     protected final String BACKGROUND_KNOWLEDGE_OUTPUT_PATH = NLPediaSettings.BOA_DATA_DIRECTORY + de.uni_leipzig.simba.boa.backend.Constants.BACKGROUND_KNOWLEDGE_PATH;
 	private final String CLASSES_SURFACE_FORMS_FILE = BACKGROUND_KNOWLEDGE_OUTPUT_PATH + "classes_surface_forms.tsv";
@@ -11,10 +11,10 @@ import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
-import de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval;
+import de.uni_leipzig.simba.boa.backend.rdf.uri.AbstractUriRetrieval;
 
 
-public class DbpediaUriRetrieval implements UriRetrieval {
+public class DbpediaUriRetrieval extends AbstractUriRetrieval {
 
 	private final NLPediaLogger logger = new NLPediaLogger(DbpediaUriRetrieval.class);
 	
@@ -5,10 +5,10 @@ import nlpbox.lookup.SparqlLookup;
 import com.hp.hpl.jena.query.QueryParseException;
 
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
-import de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval;
+import de.uni_leipzig.simba.boa.backend.rdf.uri.AbstractUriRetrieval;
 
 
-public class MeshupUriRetrieval implements UriRetrieval {
+public class MeshupUriRetrieval extends AbstractUriRetrieval {
 
 	private NLPediaLogger logger = new NLPediaLogger(MeshupUriRetrieval.class);
 	
@@ -6,10 +6,10 @@ import com.sindice.result.SearchResult;
 import com.sindice.result.SearchResults;
 
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
-import de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval;
+import de.uni_leipzig.simba.boa.backend.rdf.uri.AbstractUriRetrieval;
 
 
-public class SindiceUriRetrieval implements UriRetrieval {
+public class SindiceUriRetrieval extends AbstractUriRetrieval {
 	
 	private final Sindice sindice;
 	private final NLPediaLogger logger = new NLPediaLogger(SindiceUriRetrieval.class);
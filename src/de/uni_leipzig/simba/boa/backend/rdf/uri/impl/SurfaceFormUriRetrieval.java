@@ -0,0 +1,193 @@
+package de.uni_leipzig.simba.boa.backend.rdf.uri.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.rdf.uri.AbstractUriRetrieval;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
+
+/**
+ * Looks up uris in a label index which is built from the surface forms file,
+ * so no remote service is queried. Every surface form of a uri is a label of
+ * it. A label is looked up as it is first and, if no uri is found, normalized:
+ * lower case and every run of characters which are no letters or digits
+ * replaced by one space, e.g. "the ``Beatles''" finds the uris of "The Beatles".
+ *
+ * If a label belongs to several uris, the uri with the label as dbpedia style
+ * local name is returned, otherwise the first one. Labels without uri get a
+ * generated boa uri.
+ *
+ * The index maps every label (and normalized label) to the ids of its uris
+ * in the surface form dictionary, so the labels are kept on the heap but the
+ * uris are read from the (memory mapped) dictionary when returned. A batch of
+ * labels reads every uri only once. Instances are thread safe.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class SurfaceFormUriRetrieval extends AbstractUriRetrieval {
+
+	private static final NLPediaLogger logger = new NLPediaLogger(SurfaceFormUriRetrieval.class);
+
+	private final SurfaceFormDictionary dictionary;
+	private final Map<String,int[]> labels = new HashMap<String,int[]>();
+	private final Map<String,int[]> normalizedLabels = new HashMap<String,int[]>();
+
+	/**
+	 * Uses the surface forms file of the background knowledge.
+	 */
+	public SurfaceFormUriRetrieval() {
+
+		this(SurfaceFormDictionary.openOrCreate(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms.tsv"));
+	}
+
+	/**
+	 * @param dictionary - the uris and their surface forms
+	 */
+	public SurfaceFormUriRetrieval(SurfaceFormDictionary dictionary) {
+
+		long start = System.currentTimeMillis();
+		this.dictionary = dictionary;
+
+		// the ids are added in ascending order, so the arrays are sorted
+		for ( int id = 0; id < dictionary.size(); id++ ) {
+			for ( String surfaceForm : dictionary.getSurfaceForms(id) ) {
+
+				addId(this.labels, surfaceForm, id);
+				String normalizedSurfaceForm = normalize(surfaceForm);
+				if ( !normalizedSurfaceForm.isEmpty() ) addId(this.normalizedLabels, normalizedSurfaceForm, id);
+			}
+		}
+		logger.info("Created uri index for " + this.labels.size() + " labels (" + this.normalizedLabels.size() +
+				" normalized) in " + (System.currentTimeMillis() - start) + "ms.");
+	}
+
+	/* (non-Javadoc)
+	 * @see de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval#getUri(java.lang.String)
+	 */
+	@Override
+	public String getUri(String label) {
+
+		return this.getUri(label, null);
+	}
+
+	/* (non-Javadoc)
+	 * @see de.uni_leipzig.simba.boa.backend.rdf.uri.AbstractUriRetrieval#getUris(java.util.Collection)
+	 */
+	@Override
+	public Map<String,String> getUris(Collection<String> labels) {
+
+		// labels of one batch often share their uris
+		Map<Integer,String> uriCache = new HashMap<Integer,String>();
+		Map<String,String> uris = new LinkedHashMap<String,String>();
+		for ( String label : labels )
+			if ( !uris.containsKey(label) ) uris.put(label, this.getUri(label, uriCache));
+
+		return uris;
+	}
+
+	/**
+	 * @param label - the label of a resource
+	 * @param uriCache - the uris already read from the dictionary by id, may be null
+	 * @return the uri of the label
+	 */
+	private String getUri(String label, Map<Integer,String> uriCache) {
+
+		List<String> uris = this.getUriCandidates(label, uriCache);
+		if ( uris.isEmpty() ) return generateUri(label);
+
+		String localName = "/" + label.trim().replace(" ", "_");
+		for ( String uri : uris )
+			if ( uri.endsWith(localName) ) return uri;
+
+		return uris.get(0);
+	}
+
+	/**
+	 * @param label - the label of a resource
+	 * @return all uris which have the label (or the normalized label) as surface form, sorted
+	 */
+	public List<String> getUriCandidates(String label) {
+
+		return this.getUriCandidates(label, null);
+	}
+
+	/**
+	 * @param label - the label of a resource
+	 * @param uriCache - the uris already read from the dictionary by id, may be null
+	 * @return all uris which have the label (or the normalized label) as surface form, sorted
+	 */
+	private List<String> getUriCandidates(String label, Map<Integer,String> uriCache) {
+
+		int[] ids = this.labels.get(label);
+		if ( ids == null ) ids = this.normalizedLabels.get(normalize(label));
+		if ( ids == null ) return new ArrayList<String>();
+
+		List<String> uris = new ArrayList<String>(ids.length);
+		for ( int id : ids ) {
+
+			String uri = uriCache == null ? null : uriCache.get(id);
+			if ( uri == null ) {
+
+				uri = this.dictionary.getUri(id);
+				if ( uriCache != null ) uriCache.put(id, uri);
+			}
+			uris.add(uri);
+		}
+
+		return uris;
+	}
+
+	/**
+	 * @param label
+	 * @return a boa uri for the label
+	 */
+	public String generateUri(String label) {
+
+		return Constants.BOA_PREFIX + label.trim().replace(" ", "_");
+	}
+
+	/**
+	 * @param label
+	 * @return the label in lower case with the letters and digits only, separated by single spaces
+	 */
+	public static String normalize(String label) {
+
+		StringBuilder builder = new StringBuilder(label.length());
+		boolean separator = false;
+		for ( int i = 0; i < label.length(); i++ ) {
+
+			char character = label.charAt(i);
+			if ( Character.isLetterOrDigit(character) ) {
+
+				if ( separator && builder.length() > 0 ) builder.append(' ');
+				builder.append(Character.toLowerCase(character));
+				separator = false;
+			}
+			else separator = true;
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Appends the id to the ids of the label if it's not already the last one.
+	 */
+	private static void addId(Map<String,int[]> labels, String label, int id) {
+
+		int[] ids = labels.get(label);
+		if ( ids == null ) labels.put(label, new int[]{ id });
+		else if ( ids[ids.length - 1] != id ) {
+
+			ids = Arrays.copyOf(ids, ids.length + 1);
+			ids[ids.length - 1] = id;
+			labels.put(label, ids);
+		}
+	}
+}
@@ -5,6 +5,7 @@ package de.uni_leipzig.simba.boa.backend.search;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.lucene.store.Directory;
@@ -30,6 +31,8 @@ public interface PatternSearcher {
 	
 	public Set<String> getExactMatchSentences(String keyphrase, int maxNumberOfDocuments);
 	
+	public Map<String,Integer> getExactMatchSentencesWithIds(String keyphrase, int maxNumberOfDocuments);
+	
 	public Set<String> getExactMatchSentencesForLabels(String label1, String label2, int maxNumberOfDocuments);
 	
 	public void close();
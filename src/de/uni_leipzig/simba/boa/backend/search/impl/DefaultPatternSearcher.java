@@ -4,17 +4,21 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.FieldSelector;
+import org.apache.lucene.document.MapFieldSelector;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
@@ -49,6 +53,7 @@ public class DefaultPatternSearcher implements PatternSearcher {
     protected final static int MAX_PATTERN_CHUNK_LENGTH  = NLPediaSettings.getIntegerSetting("maxPatternLenght");
     private final static int MIN_PATTERN_CHUNK_LENGTH  = NLPediaSettings.getIntegerSetting("minPatternLenght");
     private final static int MAX_NUMBER_OF_DOCUMENTS   = NLPediaSettings.getIntegerSetting("maxNumberOfDocuments");
+    private final static FieldSelector SENTENCE_FIELD_SELECTOR = new MapFieldSelector("sentence");
 
     protected PartOfSpeechTagger posTagger;
 
@@ -127,20 +132,66 @@ public class DefaultPatternSearcher implements PatternSearcher {
     }
 
     /**
-     * Returns the sentences from the index with the given ids. Uses the method
-     * DefaultPatternSearcher.getSentencesByID() to query the index
+     * Returns the sentences from the index with the given ids. The documents
+     * are loaded in the order of their ids, which reads the stored fields of
+     * the index sequentially, and only the sentence field is loaded.
      * 
-     * @param listOfIds
-     * @return
+     * @param ids - the lucene document ids
+     * @return the sentences in the order of the given ids
      */
     public List<String> getSentencesByIds(List<Integer> ids) {
 
-        List<String> sentences = new ArrayList<String>();
-        for (Integer id : ids) {
+        init();
+        
+        // sort the positions of the ids by the ids
+        Integer[] positions = new Integer[ids.size()];
+        for ( int i = 0; i < positions.length ; i++ ) positions[i] = i;
+        final int[] documentIds = new int[ids.size()];
+        for ( int i = 0; i < documentIds.length ; i++ ) documentIds[i] = ids.get(i);
+        Arrays.sort(positions, new Comparator<Integer>() {
 
-            sentences.add(this.getSentencesByID(id));
+            @Override
+            public int compare(Integer position1, Integer position2) {
+
+                return documentIds[position1] < documentIds[position2] ? -1 : (documentIds[position1] == documentIds[position2] ? 0 : 1);
+            }
+        });
+        
+        String[] sentences = new String[documentIds.length];
+        for ( int i = 0; i < positions.length ; i++ ) {
+            
+            int position = positions[i];
+            // the same id is loaded only once
+            if ( i > 0 && documentIds[positions[i - 1]] == documentIds[position] ) sentences[position] = sentences[positions[i - 1]];
+            else sentences[position] = this.getSentence(documentIds[position]);
+        }
+        return Arrays.asList(sentences);
+    }
+    
+    /**
+     * @param id - the lucene document id
+     * @return the sentence of the document
+     */
+    private String getSentence(int id) {
+        
+        try {
+
+            return this.indexSearcher.doc(id, SENTENCE_FIELD_SELECTOR).get("sentence");
+        }
+        catch (CorruptIndexException e) {
+            
+            e.printStackTrace();
+            String error = "Could not get document with id: " + id + " from index.";
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        catch (IOException e) {
+            
+            e.printStackTrace();
+            String error = "Could not get document with id: " + id + " from index.";
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
         }
-        return sentences;
     }
 
     /**
@@ -166,7 +217,7 @@ public class DefaultPatternSearcher implements PatternSearcher {
         
         if ( firstLabels.size() == 0 || secondLabels.size() == 0 ) { 
             
-            this.logger.debug("Surface forms were empty, first: " + firstLabels + " second: " + secondLabels);
+            this.logger.debug("Surface forms were empty, first: {} second: {}", firstLabels, secondLabels);
             return results;
         }
         
@@ -193,7 +244,7 @@ public class DefaultPatternSearcher implements PatternSearcher {
                 }
             }
         }
-        logger.debug("Found " + results.size() + " results!");
+        logger.debug("Found {} results!", results.size());
         
         return results;
     }
@@ -455,6 +506,28 @@ public class DefaultPatternSearcher implements PatternSearcher {
         return list;
     }
     
+    /**
+     * Same as {@link #getExactMatchSentences(String, int)} but each sentence
+     * is mapped to the lucene document id it was found in.
+     * 
+     * @param keyphrase - the phrase the sentences have to contain
+     * @param maxNumberOfDocuments - the maximum number of documents to look at
+     * @return the sorted sentences and their document ids
+     */
+    public Map<String,Integer> getExactMatchSentencesWithIds(String keyphrase, int maxNumberOfDocuments) {
+
+        ScoreDoc[] hits = this.searchIndexWithoutFilter(this.parseQuery("+sentence:\"" + QueryParser.escape(keyphrase) + "\""), maxNumberOfDocuments);
+        Map<String,Integer> sentences = new TreeMap<String,Integer>();
+
+        // same order as in getExactMatchSentences, the first document of a sentence is kept
+        for (int i = hits.length - 1; i >= 0; i--) {
+
+            String sentence = this.getIndexDocument(hits[i], "sentence");
+            if ( !sentences.containsKey(sentence) ) sentences.put(sentence, hits[i].doc);
+        }
+        return sentences;
+    }
+    
     public Map<String,String> getExactMatchSentencesTagged(String keyphrase, int maxNumberOfDocuments) {
 
         ScoreDoc[] hits = this.searchIndexWithoutFilter(this.parseQuery("+sentence:\"" + QueryParser.escape(keyphrase) + "\""), maxNumberOfDocuments);
@@ -576,7 +649,11 @@ public class DefaultPatternSearcher implements PatternSearcher {
         
         try {
             
-            return this.parser.parse(query);
+            // the query parser is not thread safe, searching the index is
+            synchronized (this.parser) {
+                
+                return this.parser.parse(query);
+            }
         }
         catch (ParseException e) {
             
@@ -3,15 +3,14 @@ package de.uni_leipzig.simba.boa.backend.search.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.StringTokenizer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.lucene.search.ScoreDoc;
 
 import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanMorphologicalAnalysis;
 import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanPartOfSpeechTagger;
 
 public class KoreanPatternSearcher extends DefaultPatternSearcher{
@@ -49,10 +48,34 @@ public class KoreanPatternSearcher extends DefaultPatternSearcher{
 		public boolean isReverse	= false;
 	}
 	
+	/**
+	 * The sentence read last from the index and its decoded morphological analysis.
+	 * findMatchedText gets called for every label pair of this sentence.
+	 */
+	private String currentSentence				= null;
+	private POSTaggingResult[] currentAnalysis	= null;
+	
+	@Override
+	protected String getSentenceFromIndex(ScoreDoc hit) {
+		
+		String sentence				= super.getSentenceFromIndex(hit);
+		String morphology			= LuceneIndexHelper.getFieldValueByDocId(this.indexSearcher, hit.doc, "morphology");
+		
+		// the analysis was done while indexing, old indexes don't have it
+		this.currentSentence		= sentence.toLowerCase();
+		this.currentAnalysis		= morphology == null ? null : analyzePOS(this.currentSentence, KoreanMorphologicalAnalysis.decode(morphology));
+		
+		return sentence;
+	}
+	
 	@ Override
 	protected List<String> findMatchedText(String sentence, String firstLabel, String secondLabel){
 		sentence					= sentence.toLowerCase();
-		POSTaggingResult[] wtr		= analyzePOS(sentence);
+		if(!sentence.equals(currentSentence) || currentAnalysis == null){
+			currentSentence			= sentence;
+			currentAnalysis			= analyzePOS(sentence);
+		}
+		POSTaggingResult[] wtr		= currentAnalysis;
 		List<String> currentMatches = new ArrayList<String>();
 		firstLabel					= firstLabel.trim();
 		secondLabel					= secondLabel.trim();
@@ -87,49 +110,49 @@ public class KoreanPatternSearcher extends DefaultPatternSearcher{
 	public POSTaggingResult[] analyzePOS(String sentence){
 		
 		KoreanPartOfSpeechTagger kpos	= (KoreanPartOfSpeechTagger)this.posTagger;
-		ArrayList<String> posTagged		= kpos.tagSentencePerWord(sentence);
-		Iterator<String> posIter		= posTagged.iterator();
-
-		POSTaggingResult current		= null;
+		KoreanMorphologicalAnalysis analysis	= kpos.analyze(sentence);
+		return analyzePOS(sentence, analysis == null ? KoreanMorphologicalAnalysis.empty() : analysis);
+	}
+	
+	/**
+	 * Refine an already available analysis of the given Korean sentence into the form of array.
+	 * 
+	 * ret[i] = the analysis result of a word, whos position includes i-th offset of the sentence.
+	 * 
+	 * @param sentence
+	 * @param analysis the analysis of the sentence, e.g. decoded from the index
+	 * @return
+	 */
+	public POSTaggingResult[] analyzePOS(String sentence, KoreanMorphologicalAnalysis analysis){
+		
 		POSTaggingResult[] ret			= new POSTaggingResult[sentence.length() + 1];
-		for(int i = 0; i < sentence.length(); i++){
-			if(sentence.charAt(i) == ' ' || sentence.charAt(i) == '\t'){
-				ret[i]					= current;
-			}else{
-				POSTaggingResult tr		= new POSTaggingResult();
-				tr.offset				= i;
-				String origWord			= posIter.next();
-				String analResult		= posIter.next().trim();
-				StringTokenizer eachAnal	= new StringTokenizer(analResult, " ");
-				tr.ttArr					= new POSTaggingResult.TaggedToken[eachAnal.countTokens()];
-				tr.orig						= origWord;
-				int cnt				= 0;
-				while(eachAnal.hasMoreElements()){
-					String nextAnal		= eachAnal.nextToken();
-					while(nextAnal.indexOf('_') == -1){
-						nextAnal		+= eachAnal.nextToken();
-					}
-					tr.ttArr[cnt]		= tr.new TaggedToken();
-					tr.ttArr[cnt].token	= nextAnal.substring(0, nextAnal.lastIndexOf('_'));
-					tr.ttArr[cnt].POS	= nextAnal.substring(nextAnal.lastIndexOf('_') + 1);
-					cnt++;
-				}
-				if(cnt < tr.ttArr.length){
-					POSTaggingResult.TaggedToken[] tmp	= new POSTaggingResult.TaggedToken[cnt];
-					for(int j = 0; j < tmp.length; j++){
-						tmp[j]			= tr.ttArr[j];
-					}
-					tr.ttArr			= tmp;
-				}
-					
-				for(int j = i; j < (i + origWord.length()); j++){
-					ret[j]				= tr;
-				}
-				i						+= (origWord.length() - 1);
-				current					= tr;
-			}	
+		POSTaggingResult current		= null;
+		int nextOffset					= 0;
+		for(int w = 0; w < analysis.getWordCount(); w++){
+			POSTaggingResult tr			= new POSTaggingResult();
+			tr.offset					= analysis.getOffset(w);
+			tr.orig						= sentence.substring(tr.offset, tr.offset + analysis.getLength(w));
+			String[] morphemes			= analysis.getMorphemes(w);
+			String[] tags				= analysis.getTags(w);
+			tr.ttArr					= new POSTaggingResult.TaggedToken[morphemes.length];
+			for(int m = 0; m < morphemes.length; m++){
+				tr.ttArr[m]				= tr.new TaggedToken();
+				tr.ttArr[m].token		= morphemes[m];
+				tr.ttArr[m].POS			= tags[m];
+			}
+			// spaces in between belong to the previous word
+			for(int j = nextOffset; j < tr.offset; j++){
+				ret[j]					= current;
+			}
+			for(int j = tr.offset; j < tr.offset + analysis.getLength(w); j++){
+				ret[j]					= tr;
+			}
+			nextOffset					= tr.offset + analysis.getLength(w);
+			current						= tr;
+		}
+		for(int j = nextOffset; j < ret.length; j++){
+			ret[j]						= current;
 		}
-		ret[ret.length - 1]	= ret[ret.length - 2];
 		return ret;
 	}
 	
@@ -0,0 +1,241 @@
+package de.uni_leipzig.simba.boa.backend.search.patternindex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.search.Filter;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.NumericRangeFilter;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+
+import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternIndexResult;
+
+/**
+ * Read-only query service for the pattern index written by the
+ * DefaultPatternIndexCreationModule (and DetailedPatternIndexCreationModule).
+ * Patterns can be retrieved by property uri, by prefix of their natural
+ * language representation or by a fuzzy natural language representation.
+ * All queries can be restricted to a boa-score range and only return the
+ * top-k patterns ordered by their boa-score. Lucene collects those with a
+ * bounded priority queue, so the matching patterns are never fully sorted.
+ * The results of the most recent queries are cached.
+ *
+ * This class is thread safe, one instance should be shared by all readers of an index.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class PatternIndexSearcher {
+
+    private final NLPediaLogger logger = new NLPediaLogger(PatternIndexSearcher.class);
+
+    /**
+     * the patterns with the highest score come first
+     */
+    private static final Sort SCORE_DESCENDING_SORT = new Sort(new SortField("boa-score", FieldCache.NUMERIC_UTILS_DOUBLE_PARSER, true));
+
+    private final IndexSearcher indexSearcher;
+    private final Map<String,List<PatternIndexResult>> cache;
+
+    /**
+     * Opens the default pattern index of the current boa data directory.
+     */
+    public PatternIndexSearcher() {
+
+        this(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.INDEX_DEFAULT_PATTERN_PATH);
+    }
+
+    /**
+     * Opens the pattern index in the given directory in read only mode.
+     *
+     * @param indexDirectory - the directory of the pattern index
+     */
+    public PatternIndexSearcher(String indexDirectory) {
+
+        this(LuceneIndexHelper.openIndex(indexDirectory));
+    }
+
+    /**
+     * Opens the pattern index in the given lucene directory in read only mode.
+     *
+     * @param directory - the lucene directory of the pattern index
+     */
+    public PatternIndexSearcher(Directory directory) {
+
+        this.indexSearcher  = LuceneIndexHelper.openIndexSearcher(directory, true);
+        this.cache          = createCache(NLPediaSettings.getIntegerSetting("patternIndexSearcherCacheSize"));
+    }
+
+    /**
+     * @return the number of patterns in the index
+     */
+    public int getNumberOfPatterns() {
+
+        return this.indexSearcher.getIndexReader().numDocs();
+    }
+
+    /**
+     * Returns the top-k patterns of the property with the given uri.
+     *
+     * @param propertyUri - the uri of the property
+     * @param minScore - the minimum boa-score (inclusive), null for no lower bound
+     * @param maxScore - the maximum boa-score (inclusive), null for no upper bound
+     * @param topK - the maximum number of returned patterns
+     * @return the patterns sorted descending by boa-score
+     */
+    public List<PatternIndexResult> getPatternsForProperty(String propertyUri, Double minScore, Double maxScore, int topK) {
+
+        return this.search(new TermQuery(new Term("uri", propertyUri)), minScore, maxScore, topK);
+    }
+
+    /**
+     * Returns the top-k patterns (of all properties) whose natural language
+     * representation without variables starts with the given prefix.
+     * The prefix is matched case-insensitive.
+     *
+     * @param prefix - the beginning of the natural language representation, e.g. "was born"
+     * @param minScore - the minimum boa-score (inclusive), null for no lower bound
+     * @param maxScore - the maximum boa-score (inclusive), null for no upper bound
+     * @param topK - the maximum number of returned patterns
+     * @return the patterns sorted descending by boa-score
+     */
+    public List<PatternIndexResult> getPatternsByPrefix(String prefix, Double minScore, Double maxScore, int topK) {
+
+        return this.search(new PrefixQuery(new Term("nlr-prefix", prefix.toLowerCase().trim())), minScore, maxScore, topK);
+    }
+
+    /**
+     * Returns the top-k patterns (of all properties) where every token of the
+     * given natural language representation is similar to a token of the pattern.
+     * Variables (?D? and ?R?) are ignored.
+     *
+     * @param naturalLanguageRepresentation - the pattern to look for, e.g. "was bron in"
+     * @param minSimilarity - the minimum similarity of each token, between 0 and 1
+     * @param minScore - the minimum boa-score (inclusive), null for no lower bound
+     * @param maxScore - the maximum boa-score (inclusive), null for no upper bound
+     * @param topK - the maximum number of returned patterns
+     * @return the patterns sorted descending by boa-score
+     */
+    public List<PatternIndexResult> getPatternsByFuzzyNaturalLanguageRepresentation(String naturalLanguageRepresentation,
+            float minSimilarity, Double minScore, Double maxScore, int topK) {
+
+        BooleanQuery query = new BooleanQuery();
+        for ( String token : naturalLanguageRepresentation.toLowerCase().split(" ") ) {
+
+            if ( token.isEmpty() || token.equals("?d?") || token.equals("?r?") ) continue;
+            query.add(new FuzzyQuery(new Term("nlr-no-var", token), minSimilarity), BooleanClause.Occur.MUST);
+        }
+        return this.search(query, minScore, maxScore, topK);
+    }
+
+    /**
+     * Returns the top-k patterns of all properties.
+     *
+     * @param minScore - the minimum boa-score (inclusive), null for no lower bound
+     * @param maxScore - the maximum boa-score (inclusive), null for no upper bound
+     * @param topK - the maximum number of returned patterns
+     * @return the patterns sorted descending by boa-score
+     */
+    public List<PatternIndexResult> getPatterns(Double minScore, Double maxScore, int topK) {
+
+        return this.search(new MatchAllDocsQuery(), minScore, maxScore, topK);
+    }
+
+    /**
+     * Executes the query or returns the cached result of a previous
+     * execution with the same parameters.
+     *
+     * @param query - the query to execute
+     * @param minScore - the minimum boa-score (inclusive), null for no lower bound
+     * @param maxScore - the maximum boa-score (inclusive), null for no upper bound
+     * @param topK - the maximum number of returned patterns
+     * @return an unmodifiable list of patterns sorted descending by boa-score
+     */
+    private List<PatternIndexResult> search(Query query, Double minScore, Double maxScore, int topK) {
+
+        if ( topK <= 0 ) return Collections.<PatternIndexResult>emptyList();
+
+        String cacheKey = query.toString() + " " + minScore + " " + maxScore + " " + topK;
+        List<PatternIndexResult> results = this.cache.get(cacheKey);
+        if ( results != null ) return results;
+
+        Filter filter = minScore == null && maxScore == null ? null : NumericRangeFilter.newDoubleRange("boa-score", minScore, maxScore, true, true);
+
+        try {
+
+            ScoreDoc[] hits = this.indexSearcher.search(query, filter, topK, SCORE_DESCENDING_SORT).scoreDocs;
+            results = new ArrayList<PatternIndexResult>(hits.length);
+            for ( ScoreDoc hit : hits ) {
+
+                results.add(new PatternIndexResult(hit.doc, this.indexSearcher.doc(hit.doc)));
+            }
+            results = Collections.unmodifiableList(results);
+            this.cache.put(cacheKey, results);
+
+            return results;
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not query pattern index for query: \"" + query.toString() + "\"";
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * Closes the underlying index searcher and clears the cache.
+     */
+    public void close() {
+
+        try {
+
+            this.cache.clear();
+            this.indexSearcher.close();
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not close pattern index!";
+            this.logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * @param maximumSize - the number of query results to keep
+     * @return a synchronized map which evicts the least recently used entry
+     */
+    private static Map<String,List<PatternIndexResult>> createCache(final int maximumSize) {
+
+        return Collections.synchronizedMap(new LinkedHashMap<String,List<PatternIndexResult>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,List<PatternIndexResult>> eldest) {
+
+                return this.size() > maximumSize;
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package de.uni_leipzig.simba.boa.backend.search.result;
+
+/**
+ * A sentence a pattern was learned from, together with the character 
+ * offsets of the subject label, the object label and the pattern in 
+ * this sentence. Start offsets are inclusive, end offsets exclusive and 
+ * both are -1 if the part was not found in the sentence.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class EvidenceSentence {
+
+    private final int sentenceId;
+    private final String sentence;
+    private final int subjectStart;
+    private final int subjectEnd;
+    private final int objectStart;
+    private final int objectEnd;
+    private final int patternStart;
+    private final int patternEnd;
+
+    public EvidenceSentence(int sentenceId, String sentence, int subjectStart, int subjectEnd, int objectStart, int objectEnd, int patternStart, int patternEnd) {
+
+        this.sentenceId     = sentenceId;
+        this.sentence       = sentence;
+        this.subjectStart   = subjectStart;
+        this.subjectEnd     = subjectEnd;
+        this.objectStart    = objectStart;
+        this.objectEnd      = objectEnd;
+        this.patternStart   = patternStart;
+        this.patternEnd     = patternEnd;
+    }
+
+    /**
+     * @return the id of the sentence in the corpus index
+     */
+    public int getSentenceId() {
+
+        return sentenceId;
+    }
+
+    /**
+     * @return the sentence
+     */
+    public String getSentence() {
+
+        return sentence;
+    }
+
+    /**
+     * @return the start of the subject label or -1
+     */
+    public int getSubjectStart() {
+
+        return subjectStart;
+    }
+
+    /**
+     * @return the end of the subject label or -1
+     */
+    public int getSubjectEnd() {
+
+        return subjectEnd;
+    }
+
+    /**
+     * @return the start of the object label or -1
+     */
+    public int getObjectStart() {
+
+        return objectStart;
+    }
+
+    /**
+     * @return the end of the object label or -1
+     */
+    public int getObjectEnd() {
+
+        return objectEnd;
+    }
+
+    /**
+     * @return the start of the pattern or -1
+     */
+    public int getPatternStart() {
+
+        return patternStart;
+    }
+
+    /**
+     * @return the end of the pattern or -1
+     */
+    public int getPatternEnd() {
+
+        return patternEnd;
+    }
+}
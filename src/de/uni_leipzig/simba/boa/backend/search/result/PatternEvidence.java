@@ -0,0 +1,154 @@
+package de.uni_leipzig.simba.boa.backend.search.result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
+import de.uni_leipzig.simba.boa.backend.search.PatternSearcher;
+
+/**
+ * Pages through the sentences a pattern was found in. The sentence ids 
+ * are sorted and the labels of the pairs the pattern was learned from 
+ * are prepared once, every page then only loads the sentences of this 
+ * page from the index. So a page costs the same for patterns found in 
+ * ten and in ten thousand sentences.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class PatternEvidence {
+
+    private static final Comparator<String> LONGEST_FIRST = new Comparator<String>() {
+
+        @Override
+        public int compare(String first, String second) {
+
+            return second.length() - first.length();
+        }
+    };
+    
+    private final PatternSearcher patternSearcher;
+    private final int[] sentenceIds;
+    private final String patternString;
+    private final String[] subjectLabels;
+    private final String[] objectLabels;
+
+    /**
+     * @param patternSearcher - the searcher for the corpus index the pattern was found in
+     * @param pattern - the pattern to show the sentences for
+     */
+    public PatternEvidence(PatternSearcher patternSearcher, Pattern pattern) {
+
+        this.patternSearcher = patternSearcher;
+        this.patternString = pattern.getNaturalLanguageRepresentationWithoutVariables();
+        
+        this.sentenceIds = new int[pattern.getFoundInSentences().size()];
+        int i = 0;
+        for ( Integer sentenceId : pattern.getFoundInSentences() ) this.sentenceIds[i++] = sentenceId;
+        Arrays.sort(this.sentenceIds);
+        
+        Set<String> subjectLabels = new LinkedHashSet<String>();
+        Set<String> objectLabels = new LinkedHashSet<String>();
+        for ( String pair : pattern.getLearnedFrom().keySet() ) {
+            
+            String[] pairParts = pair.split(java.util.regex.Pattern.quote("-;-"));
+            if ( pairParts.length == 2 ) {
+                
+                subjectLabels.add(pairParts[0].toLowerCase());
+                objectLabels.add(pairParts[1].toLowerCase());
+            }
+        }
+        this.subjectLabels = sortLongestFirst(subjectLabels);
+        this.objectLabels = sortLongestFirst(objectLabels);
+    }
+
+    /**
+     * @return the number of sentences the pattern was found in
+     */
+    public int size() {
+
+        return this.sentenceIds.length;
+    }
+
+    /**
+     * Loads the sentences from offset (inclusive) to offset + limit 
+     * (exclusive), ordered by their id.
+     * 
+     * @param offset - the first sentence of the page
+     * @param limit - the maximum number of sentences of the page
+     * @return the sentences of the page, an empty list if offset is behind the last sentence
+     */
+    public List<EvidenceSentence> getSentences(int offset, int limit) {
+
+        int from = Math.max(0, offset);
+        int to = (int) Math.min((long) from + Math.max(0, limit), this.sentenceIds.length);
+        if ( from >= to ) return Collections.<EvidenceSentence>emptyList();
+        
+        List<Integer> pageIds = new ArrayList<Integer>(to - from);
+        for ( int i = from; i < to; i++ ) pageIds.add(this.sentenceIds[i]);
+        List<String> pageSentences = this.patternSearcher.getSentencesByIds(pageIds);
+        
+        List<EvidenceSentence> sentences = new ArrayList<EvidenceSentence>(to - from);
+        for ( int i = 0; i < pageIds.size(); i++ )
+            sentences.add(this.getEvidenceSentence(pageIds.get(i), pageSentences.get(i)));
+        
+        return sentences;
+    }
+
+    /**
+     * Finds the longest subject and object label of all learned from 
+     * pairs and the pattern in the sentence. The labels are matched 
+     * case insensitive, the pattern case sensitive if possible.
+     * 
+     * @param sentenceId - the id of the sentence
+     * @param sentence - the text of the sentence
+     * @return the sentence with the offsets of the labels and the pattern
+     */
+    public EvidenceSentence getEvidenceSentence(int sentenceId, String sentence) {
+
+        String sentenceLowerCase = sentence.toLowerCase();
+        
+        // lower casing might change the length of a sentence, offsets of the lower case sentence can't be used then
+        if ( sentenceLowerCase.length() != sentence.length() ) sentenceLowerCase = sentence;
+        
+        int subjectStart = -1, subjectEnd = -1;
+        for ( String label : this.subjectLabels ) {
+            
+            int start = sentenceLowerCase.indexOf(label);
+            if ( start >= 0 ) {
+                
+                subjectStart = start;
+                subjectEnd = start + label.length();
+                break;
+            }
+        }
+        int objectStart = -1, objectEnd = -1;
+        for ( String label : this.objectLabels ) {
+            
+            int start = sentenceLowerCase.indexOf(label);
+            if ( start >= 0 ) {
+                
+                objectStart = start;
+                objectEnd = start + label.length();
+                break;
+            }
+        }
+        int patternStart = sentence.indexOf(this.patternString);
+        if ( patternStart < 0 ) patternStart = sentenceLowerCase.indexOf(this.patternString.toLowerCase());
+        int patternEnd = patternStart < 0 ? -1 : patternStart + this.patternString.length();
+        
+        return new EvidenceSentence(sentenceId, sentence, subjectStart, subjectEnd, objectStart, objectEnd, patternStart, patternEnd);
+    }
+    
+    private static String[] sortLongestFirst(Set<String> labels) {
+        
+        labels.remove("");
+        String[] sortedLabels = labels.toArray(new String[labels.size()]);
+        Arrays.sort(sortedLabels, LONGEST_FIRST);
+        return sortedLabels;
+    }
+}
@@ -0,0 +1,83 @@
+package de.uni_leipzig.simba.boa.backend.search.result;
+
+import org.apache.lucene.document.Document;
+
+/**
+ * A lightweight, read-only view of a pattern stored in the pattern index
+ * written by the DefaultPatternIndexCreationModule. It only contains the
+ * stored fields and avoids deserializing the complete pattern mapping.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class PatternIndexResult {
+
+    private final int luceneDocId;
+    private final String propertyUri;
+    private final String naturalLanguageRepresentation;
+    private final String naturalLanguageRepresentationWithoutVariables;
+    private final double score;
+
+    /**
+     * Creates a new result from a document of the pattern index.
+     *
+     * @param luceneDocId - the id of the document in the pattern index
+     * @param document - the stored fields of the document
+     */
+    public PatternIndexResult(int luceneDocId, Document document) {
+
+        this.luceneDocId                                    = luceneDocId;
+        this.propertyUri                                    = document.get("uri");
+        this.naturalLanguageRepresentation                  = document.get("nlr-var");
+        this.naturalLanguageRepresentationWithoutVariables  = document.get("nlr-no-var");
+        this.score                                          = Double.valueOf(document.get("boa-score"));
+    }
+
+    /**
+     * @return the id of the document in the pattern index
+     */
+    public int getLuceneDocId() {
+
+        return luceneDocId;
+    }
+
+    /**
+     * @return the uri of the property this pattern belongs to
+     */
+    public String getPropertyUri() {
+
+        return propertyUri;
+    }
+
+    /**
+     * @return the naturalLanguageRepresentation
+     */
+    public String getNaturalLanguageRepresentation() {
+
+        return naturalLanguageRepresentation;
+    }
+
+    /**
+     * @return the naturalLanguageRepresentation without ?D? and ?R?
+     */
+    public String getNaturalLanguageRepresentationWithoutVariables() {
+
+        return naturalLanguageRepresentationWithoutVariables;
+    }
+
+    /**
+     * @return the boa score of the pattern
+     */
+    public double getScore() {
+
+        return score;
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return this.propertyUri + " " + this.naturalLanguageRepresentation + " " + this.score;
+    }
+}
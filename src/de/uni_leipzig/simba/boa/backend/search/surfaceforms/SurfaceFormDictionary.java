@@ -0,0 +1,672 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.search.surfaceforms;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+
+
+/**
+ * A read only mapping from uris to their surface forms which is built once
+ * from a surface forms file and memory mapped afterwards. Opening it does not
+ * read the file and all processes which open it share the same pages.
+ *
+ * The uris and the (deduplicated) surface forms are stored sorted by their
+ * UTF-8 bytes and front coded in blocks of {@value #BLOCK_SIZE} strings: the
+ * first string of a block is stored completely, every other string only as
+ * the length of the prefix it shares with its predecessor and the remaining
+ * bytes. A uri is found by a binary search over the first strings of the
+ * blocks and a scan of one block. The surface forms of a uri are stored as
+ * delta and variable byte encoded ids.
+ *
+ * The file may not be larger than 2GB. Instances are thread safe.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class SurfaceFormDictionary {
+
+    private static final NLPediaLogger logger = new NLPediaLogger(SurfaceFormDictionary.class);
+
+    public static final String DICTIONARY_SUFFIX = ".dict";
+
+    private static final Charset UTF_8      = Charset.forName("UTF-8");
+    private static final int MAGIC          = 0x53464431; // "SFD1"
+    private static final int BLOCK_SIZE     = 16;
+    private static final int VERSION        = 1;
+    // magic, version, number of uris and surface forms, block index, first block and maximum
+    // length of the uris and surface forms, index and start of the surface form ids
+    private static final int HEADER_SIZE    = 12 * 4;
+
+    private final MappedByteBuffer buffer;
+    private final StringTable uris;
+    private final StringTable surfaceForms;
+    private final int surfaceFormIdsIndex;
+    private final int surfaceFormIdsStart;
+
+    /**
+     * Use {@link #open(String)} or {@link #openOrCreate(String)}.
+     */
+    private SurfaceFormDictionary(MappedByteBuffer buffer) {
+
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.BIG_ENDIAN);
+
+        this.uris                   = new StringTable(buffer, buffer.getInt(8), buffer.getInt(16), buffer.getInt(20), buffer.getInt(24));
+        this.surfaceForms           = new StringTable(buffer, buffer.getInt(12), buffer.getInt(28), buffer.getInt(32), buffer.getInt(36));
+        this.surfaceFormIdsIndex    = buffer.getInt(40);
+        this.surfaceFormIdsStart    = buffer.getInt(44);
+    }
+
+    /**
+     * Opens the dictionary of a surface forms file and creates it if it does
+     * not exist, if it is older than the surface forms file or if its header
+     * is not the one of this version.
+     *
+     * @param surfaceFormsFile - the tab separated file of uris and surface forms
+     * @return the dictionary
+     */
+    public static synchronized SurfaceFormDictionary openOrCreate(String surfaceFormsFile) {
+
+        File dictionary = getDictionaryFile(surfaceFormsFile);
+        if ( !dictionary.exists() || dictionary.lastModified() < new File(surfaceFormsFile).lastModified() || !hasValidHeader(dictionary) ) {
+
+            long start = System.currentTimeMillis();
+            logger.info("Creating surface form dictionary: " + dictionary);
+            createFromFile(surfaceFormsFile, dictionary.getAbsolutePath());
+            logger.info("Created surface form dictionary in " + (System.currentTimeMillis() - start) + "ms.");
+        }
+        return open(dictionary.getAbsolutePath());
+    }
+
+    /**
+     * @param dictionary - the dictionary file
+     * @return true if the file starts with the magic number and version of this class
+     */
+    private static boolean hasValidHeader(File dictionary) {
+
+        RandomAccessFile file = null;
+        try {
+
+            file = new RandomAccessFile(dictionary, "r");
+            return file.length() >= HEADER_SIZE && file.readInt() == MAGIC && file.readInt() == VERSION;
+        }
+        catch (IOException e) {
+
+            logger.warn("Could not read header of surface form dictionary: " + dictionary, e);
+            return false;
+        }
+        finally {
+
+            IOUtils.closeQuietly(file);
+        }
+    }
+
+    /**
+     * @param surfaceFormsFile - the tab separated file of uris and surface forms, e.g. en_surface_forms.tsv
+     * @return the dictionary file next to it, e.g. en_surface_forms.dict
+     */
+    public static File getDictionaryFile(String surfaceFormsFile) {
+
+        String name = surfaceFormsFile.endsWith(".tsv") ? surfaceFormsFile.substring(0, surfaceFormsFile.length() - 4) : surfaceFormsFile;
+        return new File(name + DICTIONARY_SUFFIX);
+    }
+
+    /**
+     * Maps a dictionary file into memory.
+     *
+     * @param dictionaryFile - a file written by {@link Builder#write(String)}
+     * @return the dictionary
+     */
+    public static SurfaceFormDictionary open(String dictionaryFile) {
+
+        RandomAccessFile file = null;
+        try {
+
+            file = new RandomAccessFile(dictionaryFile, "r");
+            // the mapping stays valid after the file is closed
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            if ( file.length() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ) throw new IOException("Not a surface form dictionary: " + dictionaryFile);
+
+            return new SurfaceFormDictionary(buffer);
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not open surface form dictionary: " + dictionaryFile;
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
+
+            IOUtils.closeQuietly(file);
+        }
+    }
+
+    /**
+     * Creates a dictionary from a tab separated file with a uri and its surface
+     * forms on each line. Empty lines and lines starting with "#" are skipped,
+     * the surface forms of a uri which occurs on several lines are merged.
+     *
+     * @param surfaceFormsFile - the tab separated file
+     * @param dictionaryFile - the file to write the dictionary to
+     */
+    public static void createFromFile(String surfaceFormsFile, String dictionaryFile) {
+
+        BufferedReader reader = null;
+        try {
+
+            Builder builder = new Builder();
+            reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(new FileInputStream(surfaceFormsFile)), UTF_8));
+
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+
+                if ( line.isEmpty() || line.startsWith("#") ) continue;
+
+                String[] lineParts = line.split("\t");
+                builder.addUri(lineParts[0]);
+                for ( int i = 1; i < lineParts.length; i++ )
+                    if ( !lineParts[i].isEmpty() ) builder.add(lineParts[0], lineParts[i]);
+            }
+            builder.write(dictionaryFile);
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not create surface form dictionary: " + dictionaryFile + " from file: " + surfaceFormsFile;
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
+
+            IOUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * @return the number of uris
+     */
+    public int size() {
+
+        return this.uris.size;
+    }
+
+    /**
+     * @return the number of distinct surface forms of all uris
+     */
+    public int getNumberOfSurfaceForms() {
+
+        return this.surfaceForms.size;
+    }
+
+    /**
+     * @param uri
+     * @return true if the uri is in the dictionary, even if it has no surface forms
+     */
+    public boolean contains(String uri) {
+
+        byte[] key = uri.getBytes(UTF_8);
+        return this.uris.find(key, 0, key.length) >= 0;
+    }
+
+    /**
+     * Checks a uri without decoding it, e.g. the subject of a line of an N-Triples file.
+     *
+     * @param bytes - contains the UTF-8 bytes of the uri
+     * @param offset - the start of the uri in the bytes
+     * @param length - the number of bytes of the uri
+     * @return true if the uri is in the dictionary, even if it has no surface forms
+     */
+    public boolean contains(byte[] bytes, int offset, int length) {
+
+        return this.uris.find(bytes, offset, length) >= 0;
+    }
+
+    /**
+     * @param uri
+     * @return a new set with the surface forms of the uri or null if the uri is not in the dictionary
+     */
+    public Set<String> getSurfaceForms(String uri) {
+
+        byte[] key = uri.getBytes(UTF_8);
+        int id = this.uris.find(key, 0, key.length);
+        return id >= 0 ? this.getSurfaceForms(id) : null;
+    }
+
+    /**
+     * @param id - the id of a uri, between 0 and size() - 1, ids are sorted like the uris
+     * @return the uri
+     */
+    public String getUri(int id) {
+
+        return this.uris.get(id);
+    }
+
+    /**
+     * @param id - the id of a uri, between 0 and size() - 1
+     * @return a new set with the surface forms of the uri
+     */
+    public Set<String> getSurfaceForms(int id) {
+
+        int position    = this.surfaceFormIdsStart + this.buffer.getInt(this.surfaceFormIdsIndex + id * 4);
+        int end         = this.surfaceFormIdsStart + this.buffer.getInt(this.surfaceFormIdsIndex + id * 4 + 4);
+
+        Set<String> surfaceFormsOfUri = new HashSet<String>();
+        int surfaceFormId = 0;
+        while ( position < end ) {
+
+            // variable byte encoded gaps between the sorted ids
+            int gap = 0, shift = 0, b;
+            do {
+
+                b = this.buffer.get(position++);
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ( (b & 0x80) != 0 );
+
+            surfaceFormId += gap;
+            surfaceFormsOfUri.add(this.surfaceForms.get(surfaceFormId));
+        }
+        return surfaceFormsOfUri;
+    }
+
+    /**
+     * A front coded table of sorted strings in the mapped file.
+     */
+    private static class StringTable {
+
+        private final MappedByteBuffer buffer;
+        private final int size;
+        private final int blockIndex;
+        private final int blocksStart;
+        private final int maximumLength;
+
+        private StringTable(MappedByteBuffer buffer, int size, int blockIndex, int blocksStart, int maximumLength) {
+
+            this.buffer         = buffer;
+            this.size           = size;
+            this.blockIndex     = blockIndex;
+            this.blocksStart    = blocksStart;
+            this.maximumLength  = maximumLength;
+        }
+
+        /**
+         * @param key - contains the UTF-8 bytes of the string
+         * @param offset - the start of the string in the key
+         * @param length - the number of bytes of the string
+         * @return the id of the string or a negative number if it's not in the table
+         */
+        private int find(byte[] key, int offset, int length) {
+
+            if ( this.size == 0 ) return -1;
+
+            // the last block whose first string is not larger than the key
+            int low = 0, high = (this.size - 1) / BLOCK_SIZE;
+            while ( low < high ) {
+
+                int middle = (low + high + 1) >>> 1;
+                int position = this.getBlockPosition(middle);
+                int firstLength = this.readVariableByte(position);
+                if ( this.compareAt(key, offset, length, position + variableByteLength(firstLength), firstLength) >= 0 ) low = middle;
+                else high = middle - 1;
+            }
+
+            byte[] current = new byte[this.maximumLength];
+            int position = this.getBlockPosition(low);
+            int end = Math.min(this.size, (low + 1) * BLOCK_SIZE);
+            for ( int id = low * BLOCK_SIZE; id < end; id++ ) {
+
+                int[] lengthAndPosition = this.readEntry(position, current, id % BLOCK_SIZE == 0);
+                position = lengthAndPosition[1];
+
+                int comparison = SurfaceFormDictionary.compare(key, offset, length, current, lengthAndPosition[0]);
+                if ( comparison == 0 ) return id;
+                if ( comparison < 0 ) return -1;
+            }
+            return -1;
+        }
+
+        /**
+         * @param id - the id of the string
+         * @return the string
+         */
+        private String get(int id) {
+
+            byte[] current = new byte[this.maximumLength];
+            int position = this.getBlockPosition(id / BLOCK_SIZE);
+            int length = 0;
+            for ( int i = 0; i <= id % BLOCK_SIZE; i++ ) {
+
+                int[] lengthAndPosition = this.readEntry(position, current, i == 0);
+                length = lengthAndPosition[0];
+                position = lengthAndPosition[1];
+            }
+            return new String(current, 0, length, UTF_8);
+        }
+
+        private int getBlockPosition(int block) {
+
+            return this.blocksStart + this.buffer.getInt(this.blockIndex + block * 4);
+        }
+
+        /**
+         * Decodes the entry at the position into the bytes of its predecessor.
+         *
+         * @return the length of the string and the position of the next entry
+         */
+        private int[] readEntry(int position, byte[] current, boolean firstOfBlock) {
+
+            int prefix = 0;
+            if ( !firstOfBlock ) {
+
+                prefix = this.readVariableByte(position);
+                position += variableByteLength(prefix);
+            }
+            int suffix = this.readVariableByte(position);
+            position += variableByteLength(suffix);
+
+            for ( int i = 0; i < suffix; i++ ) current[prefix + i] = this.buffer.get(position + i);
+            return new int[]{ prefix + suffix, position + suffix };
+        }
+
+        private int readVariableByte(int position) {
+
+            int value = 0, shift = 0, b;
+            do {
+
+                b = this.buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ( (b & 0x80) != 0 );
+
+            return value;
+        }
+
+        /**
+         * Compares the key with the bytes at the position of the mapped file.
+         */
+        private int compareAt(byte[] key, int offset, int keyLength, int position, int length) {
+
+            int minimum = Math.min(keyLength, length);
+            for ( int i = 0; i < minimum; i++ ) {
+
+                int difference = (key[offset + i] & 0xFF) - (this.buffer.get(position + i) & 0xFF);
+                if ( difference != 0 ) return difference;
+            }
+            return keyLength - length;
+        }
+    }
+
+    /**
+     * Compares unsigned bytes lexicographically, which is the order of the uris and surface forms.
+     */
+    private static int compare(byte[] first, int firstOffset, int firstLength, byte[] second, int secondLength) {
+
+        int minimum = Math.min(firstLength, secondLength);
+        for ( int i = 0; i < minimum; i++ ) {
+
+            int difference = (first[firstOffset + i] & 0xFF) - (second[i] & 0xFF);
+            if ( difference != 0 ) return difference;
+        }
+        return firstLength - secondLength;
+    }
+
+    private static int variableByteLength(int value) {
+
+        int length = 1;
+        while ( (value >>>= 7) != 0 ) length++;
+        return length;
+    }
+
+    /**
+     * Collects uris and surface forms and writes them as a dictionary. Every
+     * distinct string is kept only once, the pairs of uri and surface form
+     * are kept as two ints.
+     */
+    public static class Builder {
+
+        private final Map<String,Integer> uriIds            = new HashMap<String,Integer>();
+        private final Map<String,Integer> surfaceFormIds    = new HashMap<String,Integer>();
+        private long[] pairs = new long[1024];
+        private int numberOfPairs = 0;
+
+        /**
+         * Adds a uri without surface forms.
+         *
+         * @param uri
+         * @return this builder
+         */
+        public Builder addUri(String uri) {
+
+            getId(this.uriIds, uri);
+            return this;
+        }
+
+        /**
+         * @param uri
+         * @param surfaceForm
+         * @return this builder
+         */
+        public Builder add(String uri, String surfaceForm) {
+
+            if ( this.numberOfPairs == this.pairs.length ) this.pairs = Arrays.copyOf(this.pairs, this.pairs.length * 2);
+            this.pairs[this.numberOfPairs++] = ((long) getId(this.uriIds, uri) << 32) | getId(this.surfaceFormIds, surfaceForm);
+            return this;
+        }
+
+        private static int getId(Map<String,Integer> ids, String string) {
+
+            Integer id = ids.get(string);
+            if ( id == null ) {
+
+                id = ids.size();
+                ids.put(string, id);
+            }
+            return id;
+        }
+
+        /**
+         * Writes the dictionary to a temporary file next to the dictionary file and
+         * renames it afterwards, so that a crash never leaves a partially written
+         * dictionary. If the file system can't rename onto an existing file, the
+         * old dictionary is deleted first and a crash in between leaves no 
+         * dictionary, which openOrCreate rebuilds.
+         *
+         * @param dictionaryFile - the file to write the dictionary to, an existing file is overwritten
+         * @throws IOException
+         */
+        public void write(String dictionaryFile) throws IOException {
+
+            int[] uriRanks = new int[this.uriIds.size()];
+            byte[][] uris = sort(this.uriIds, uriRanks);
+            int[] surfaceFormRanks = new int[this.surfaceFormIds.size()];
+            byte[][] surfaceForms = sort(this.surfaceFormIds, surfaceFormRanks);
+
+            // pairs sorted by uri and surface form with the new ids, duplicates are skipped while writing
+            long[] sortedPairs = new long[this.numberOfPairs];
+            for ( int i = 0; i < this.numberOfPairs; i++ )
+                sortedPairs[i] = ((long) uriRanks[(int) (this.pairs[i] >>> 32)] << 32) | surfaceFormRanks[(int) this.pairs[i]];
+            Arrays.sort(sortedPairs);
+
+            int[] header = new int[HEADER_SIZE / 4];
+            header[0] = MAGIC;
+            header[1] = VERSION;
+            header[2] = uris.length;
+            header[3] = surfaceForms.length;
+
+            File tempFile = new File(dictionaryFile + ".tmp");
+            CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1024 * 1024));
+            DataOutputStream out = new DataOutputStream(counter);
+            try {
+
+                out.write(new byte[HEADER_SIZE]);
+
+                header[5] = out.size();
+                int[] uriBlocks = writeStrings(out, uris);
+                header[4] = out.size();
+                writeInts(out, uriBlocks);
+                header[6] = maximumLength(uris);
+
+                header[8] = out.size();
+                int[] surfaceFormBlocks = writeStrings(out, surfaceForms);
+                header[7] = out.size();
+                writeInts(out, surfaceFormBlocks);
+                header[9] = maximumLength(surfaceForms);
+
+                header[11] = out.size();
+                int[] surfaceFormIdPositions = new int[uris.length + 1];
+                int pair = 0;
+                for ( int uri = 0; uri < uris.length; uri++ ) {
+
+                    surfaceFormIdPositions[uri] = out.size() - header[11];
+                    long previousPair = -1;
+                    int previousSurfaceForm = 0;
+                    for ( ; pair < sortedPairs.length && (int) (sortedPairs[pair] >>> 32) == uri; pair++ ) {
+
+                        if ( sortedPairs[pair] == previousPair ) continue;
+
+                        int surfaceForm = (int) sortedPairs[pair];
+                        writeVariableByte(out, surfaceForm - previousSurfaceForm);
+                        previousSurfaceForm = surfaceForm;
+                        previousPair = sortedPairs[pair];
+                    }
+                }
+                surfaceFormIdPositions[uris.length] = out.size() - header[11];
+                header[10] = out.size();
+                writeInts(out, surfaceFormIdPositions);
+
+                // the offsets are ints and DataOutputStream.size() stops counting at Integer.MAX_VALUE
+                if ( counter.getByteCount() > Integer.MAX_VALUE ) {
+
+                    out.close();
+                    tempFile.delete();
+                    throw new IOException("Surface form dictionary is larger than 2GB: " + dictionaryFile);
+                }
+            }
+            finally {
+
+                out.close();
+            }
+
+            RandomAccessFile file = new RandomAccessFile(tempFile, "rw");
+            try {
+
+                for ( int value : header ) file.writeInt(value);
+            }
+            finally {
+
+                file.close();
+            }
+            File target = new File(dictionaryFile);
+            if ( !tempFile.renameTo(target) ) {
+
+                target.delete();
+                if ( !tempFile.renameTo(target) ) throw new IOException("Could not rename " + tempFile + " to " + dictionaryFile);
+            }
+        }
+    }
+
+    /**
+     * Sorts the strings as unsigned UTF-8 bytes.
+     *
+     * @param ids - the strings and their ids
+     * @param ranks - filled with the position of every id in the sorted strings
+     * @return the sorted UTF-8 bytes
+     */
+    private static byte[][] sort(Map<String,Integer> ids, int[] ranks) {
+
+        final byte[][] strings = new byte[ids.size()][];
+        for ( Map.Entry<String,Integer> entry : ids.entrySet() ) strings[entry.getValue()] = entry.getKey().getBytes(UTF_8);
+
+        Integer[] order = new Integer[strings.length];
+        for ( int i = 0; i < order.length; i++ ) order[i] = i;
+        Arrays.sort(order, new Comparator<Integer>() {
+
+            public int compare(Integer first, Integer second) {
+
+                return SurfaceFormDictionary.compare(strings[first], 0, strings[first].length, strings[second], strings[second].length);
+            }
+        });
+
+        byte[][] sortedStrings = new byte[strings.length][];
+        for ( int rank = 0; rank < order.length; rank++ ) {
+
+            sortedStrings[rank] = strings[order[rank]];
+            ranks[order[rank]] = rank;
+        }
+        return sortedStrings;
+    }
+
+    private static int maximumLength(byte[][] strings) {
+
+        int maximum = 0;
+        for ( byte[] string : strings ) maximum = Math.max(maximum, string.length);
+        return maximum;
+    }
+
+    /**
+     * Writes the strings front coded in blocks.
+     *
+     * @return the position of every block relative to the first block
+     */
+    private static int[] writeStrings(DataOutputStream out, byte[][] strings) throws IOException {
+
+        int[] blocks = new int[(strings.length + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        int start = out.size();
+        for ( int i = 0; i < strings.length; i++ ) {
+
+            int prefix = 0;
+            if ( i % BLOCK_SIZE == 0 ) blocks[i / BLOCK_SIZE] = out.size() - start;
+            else {
+
+                int maximum = Math.min(strings[i].length, strings[i - 1].length);
+                while ( prefix < maximum && strings[i][prefix] == strings[i - 1][prefix] ) prefix++;
+                writeVariableByte(out, prefix);
+            }
+            writeVariableByte(out, strings[i].length - prefix);
+            out.write(strings[i], prefix, strings[i].length - prefix);
+        }
+        return blocks;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+
+        for ( int value : values ) out.writeInt(value);
+    }
+
+    private static void writeVariableByte(DataOutputStream out, int value) throws IOException {
+
+        while ( (value & ~0x7F) != 0 ) {
+
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -8,14 +8,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
-import com.github.gerbsen.file.FileUtil;
-
 import weka.core.tokenizers.NGramTokenizer;
 import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.backgroundknowledge.BackgroundKnowledge;
@@ -25,15 +20,17 @@ import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 
 /**
- * This thing needs at least 4GB of RAM.
- * 
+ * The surface forms of the uris are read from a memory mapped dictionary
+ * (see {@link SurfaceFormDictionary}), which is created from the surface
+ * forms file on first use.
  * 
  * @author gerb
  */
 public class SurfaceFormGenerator {
 
     private static NLPediaLogger logger = new NLPediaLogger(SurfaceFormGenerator.class);
-    private Map<String,Set<String>> urisToLabels;
+    private SurfaceFormDictionary urisToLabels;
+    private int surfaceFormMinimumLength;
     private static SurfaceFormGenerator INSTANCE = null;
     
     private SurfaceFormGenerator() { 
@@ -63,46 +60,9 @@ public class SurfaceFormGenerator {
         
         SurfaceFormGenerator.logger.info("Intializing surface forms...");
         
-        List<String> surfaceForms = FileUtil.readFileInList(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms.tsv", "UTF-8", "#");
-        
-//        // we dont have backup for english
-//        List<String> backup = new ArrayList<String>();
-//        if ( new File(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms_backup.tsv").exists() )
-//        	backup = FileUtil.readFileInList(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms_backup.tsv", "UTF-8");
-        
-        this.urisToLabels = new HashMap<String,Set<String>>(); 
+        this.urisToLabels = SurfaceFormDictionary.openOrCreate(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.BACKGROUND_KNOWLEDGE_PATH + NLPediaSettings.BOA_LANGUAGE + "_surface_forms.tsv");
+        this.surfaceFormMinimumLength = NLPediaSettings.getIntegerSetting("surfaceFormMinimumLength");
         
-        // initialize the surface forms from dbpedia spotlight 
-        for ( String line : surfaceForms ) {
-            
-            String[] lineParts = line.split("\t");
-            String[] surfaceFormsPart = Arrays.copyOfRange(lineParts, 1, lineParts.length);
-            Set<String> filteredSurfaceForms = new HashSet<String>();
-            
-            for ( String surfaceForm : surfaceFormsPart) {
-                
-                if ( surfaceForm.length() >= NLPediaSettings.getIntegerSetting("surfaceFormMinimumLength") ) filteredSurfaceForms.add(" " + surfaceForm + " ");
-            }
-            this.urisToLabels.put(lineParts[0], filteredSurfaceForms);
-            this.urisToLabels.put(lineParts[0].replace("http://" + NLPediaSettings.BOA_LANGUAGE + ".", "http://"), filteredSurfaceForms);
-        }
-        
-//        for ( String line : backup ) {
-//        	
-//        	String[] lineParts = line.split("\t");
-//            String[] surfaceFormsPart = Arrays.copyOfRange(lineParts, 1, lineParts.length);
-//            Set<String> filteredSurfaceForms = new HashSet<String>();
-//            
-//            for ( String surfaceForm : surfaceFormsPart) {
-//                
-//                if ( surfaceForm.length() >= NLPediaSettings.getIntegerSetting("surfaceFormMinimumLength") ) filteredSurfaceForms.add(" " + surfaceForm + " ");
-//            }
-//            String uri = lineParts[0].replace("http://" + NLPediaSettings.BOA_LANGUAGE + ".", "http://");
-//            
-//            if ( this.urisToLabels.containsKey(uri) ) 
-//            	this.urisToLabels.get(uri).addAll(filteredSurfaceForms);
-//        }
-
 		// @author Maciej Janicki -- add classes surface forms from WordNet expansion
 //        if ( NLPediaSettings.getBooleanSetting("rdfTypeKnowledgeGeneration") ) {
 //
@@ -125,6 +85,28 @@ public class SurfaceFormGenerator {
         SurfaceFormGenerator.logger.info("Finished intializing surface forms! Found " + urisToLabels.size() + " dbpedia spotlight surfaceforms");
     }
     
+    /**
+     * Uris of other languages can also be found without the language, e.g.
+     * http://dbpedia.org/resource/Berlin for http://de.dbpedia.org/resource/Berlin.
+     * 
+     * @param uri
+     * @return the surface forms of the uri, surrounded by spaces, or null if the uri is not in the surface forms file
+     */
+    private Set<String> getSurfaceForms(String uri) {
+        
+        Set<String> surfaceForms = this.urisToLabels.getSurfaceForms(uri);
+        if ( surfaceForms == null && uri.startsWith("http://") && !uri.startsWith("http://" + NLPediaSettings.BOA_LANGUAGE + ".") ) 
+            surfaceForms = this.urisToLabels.getSurfaceForms("http://" + NLPediaSettings.BOA_LANGUAGE + "." + uri.substring("http://".length()));
+        if ( surfaceForms == null ) return null;
+        
+        Set<String> filteredSurfaceForms = new HashSet<String>();
+        for ( String surfaceForm : surfaceForms) {
+            
+            if ( surfaceForm.length() >= this.surfaceFormMinimumLength ) filteredSurfaceForms.add(" " + surfaceForm + " ");
+        }
+        return filteredSurfaceForms;
+    }
+    
     /**
      * 
      * @param backgroundKnowledge
@@ -157,11 +139,12 @@ public class SurfaceFormGenerator {
         subjectSurfaceForms.add(" " + objectPropertyBackgroundKnowledge.getSubjectLabel().toLowerCase() + " ");
         
         // we found labels for the subject in the surface form file
-        if ( this.urisToLabels.containsKey(subjectUri) ) {
+        Set<String> subjectLabels = this.getSurfaceForms(subjectUri);
+        if ( subjectLabels != null ) {
             
-            for (String s : urisToLabels.get(subjectUri) ) subjectSurfaceForms.add(s.toLowerCase());
+            for (String s : subjectLabels ) subjectSurfaceForms.add(s.toLowerCase());
         }
-        logger.debug("Found " + subjectSurfaceForms.size() + " at all!");
+        logger.debug("Found {} at all!", subjectSurfaceForms.size());
         subjectSurfaceForms.removeAll(Arrays.asList("", null));
         objectPropertyBackgroundKnowledge.setSubjectSurfaceForms(subjectSurfaceForms);
         
@@ -173,11 +156,12 @@ public class SurfaceFormGenerator {
         objectSurfaceForms.add(" " + objectPropertyBackgroundKnowledge.getObjectLabel().toLowerCase() + " ");
         
         // we found labels for the object in the surface form file
-        if ( this.urisToLabels.containsKey(objectUri) ) {
+        Set<String> objectLabels = this.getSurfaceForms(objectUri);
+        if ( objectLabels != null ) {
             
-            for (String s : urisToLabels.get(objectUri)) objectSurfaceForms.add(s.toLowerCase());
+            for (String s : objectLabels) objectSurfaceForms.add(s.toLowerCase());
         }
-        logger.debug("Found " + objectSurfaceForms.size() + " at all");
+        logger.debug("Found {} at all", objectSurfaceForms.size());
         
         objectSurfaceForms.removeAll(Arrays.asList("", null));
         objectPropertyBackgroundKnowledge.setObjectSurfaceForms(objectSurfaceForms);
@@ -326,7 +310,7 @@ public class SurfaceFormGenerator {
         while (ngt.hasMoreElements())
             variations.add(String.valueOf(ngt.nextElement()));
         
-        Set<String> surfaceForms = urisToLabels.get(objectLabel.replace(" ", "_"));
+        Set<String> surfaceForms = this.getSurfaceForms(objectLabel.replace(" ", "_"));
         // replace whitespace with _ and try to get surface forms from the "index"
         if ( surfaceForms != null ) variations.addAll(surfaceForms);
         
@@ -0,0 +1,206 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.util;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+import org.semanticweb.yars.nx.Literal;
+
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
+
+
+/**
+ * Keeps the triples of N-Triples dump files whose subject is a uri of a
+ * surface form dictionary. The lines are not parsed: the subject is taken
+ * from the bytes between the leading "&lt;" and the first "&gt;" and looked up
+ * without decoding it, kept lines are copied byte by byte. Only subjects
+ * with escapes (e.g. \\u00FC) are decoded and unescaped like NxParser does,
+ * since the dictionary contains the unescaped uris. For dumps with one triple
+ * per line and single spaces between the nodes, like the DBpedia dumps, the
+ * output is the same as parsing and writing the triples with NxParser. Comments, empty lines and triples with a blank node as subject
+ * are dropped.
+ *
+ * All files are filtered at the same time by one thread each, they share
+ * the (memory mapped) dictionary.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class DumpFileFilter {
+
+    private static final NLPediaLogger logger = new NLPediaLogger(DumpFileFilter.class);
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final SurfaceFormDictionary resources;
+
+    /**
+     * @param resources - the uris of the subjects to keep
+     */
+    public DumpFileFilter(SurfaceFormDictionary resources) {
+
+        this.resources = resources;
+    }
+
+    /**
+     * Filters all files concurrently.
+     *
+     * @param inputToOutputFiles - the uncompressed dump filenames (see {@link DumpFileUtil#openDumpFile(String)}) and the files to write the kept triples to
+     */
+    public void filter(Map<String,String> inputToOutputFiles) {
+
+        if ( inputToOutputFiles.isEmpty() ) return;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(inputToOutputFiles.size());
+        try {
+
+            List<Future<Long>> results = new ArrayList<Future<Long>>();
+            for ( final Map.Entry<String,String> files : inputToOutputFiles.entrySet() ) {
+
+                results.add(executorService.submit(new Callable<Long>() {
+
+                    public Long call() {
+
+                        return filter(files.getKey(), files.getValue());
+                    }
+                }));
+            }
+            for ( Future<Long> result : results ) result.get();
+        }
+        catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            String error = "Interrupted while filtering dump files!";
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        catch (ExecutionException e) {
+
+            e.printStackTrace();
+            String error = "Could not filter dump files!";
+            logger.error(error, e.getCause());
+            throw new RuntimeException(error, e.getCause());
+        }
+        finally {
+
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @param inputFile - the uncompressed dump filename, the bzip2 file is used if it does not exist
+     * @param outputFile - the file to write the kept triples to, an existing file is overwritten
+     * @return the number of kept triples
+     */
+    public long filter(String inputFile, String outputFile) {
+
+        logger.info("Start filtering of file: " + inputFile);
+        long start = System.currentTimeMillis();
+        long lines = 0, keptLines = 0;
+
+        InputStream in = DumpFileUtil.openDumpFile(inputFile);
+        OutputStream out = null;
+        try {
+
+            out = new BufferedOutputStream(new FileOutputStream(outputFile), BUFFER_SIZE);
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int lineStart = 0, end = 0;
+            boolean endOfFile = false;
+            while ( true ) {
+
+                int lineEnd = lineStart;
+                while ( lineEnd < end && buffer[lineEnd] != '\n' ) lineEnd++;
+
+                if ( lineEnd == end ) {
+
+                    if ( endOfFile ) {
+
+                        // a last line without line break
+                        if ( lineStart < end ) {
+
+                            lines++;
+                            if ( this.write(out, buffer, lineStart, end) ) keptLines++;
+                        }
+                        break;
+                    }
+                    // move the incomplete line to the front and read more
+                    System.arraycopy(buffer, lineStart, buffer, 0, end - lineStart);
+                    end -= lineStart;
+                    lineStart = 0;
+                    if ( end == buffer.length ) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+
+                    int read = in.read(buffer, end, buffer.length - end);
+                    if ( read < 0 ) endOfFile = true;
+                    else end += read;
+                    continue;
+                }
+
+                lines++;
+                if ( this.write(out, buffer, lineStart, lineEnd) ) keptLines++;
+                lineStart = lineEnd + 1;
+            }
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not filter file: " + inputFile + " to file: " + outputFile;
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+        finally {
+
+            IOUtils.closeQuietly(in);
+            IOUtils.closeQuietly(out);
+        }
+        logger.info("Finished filtering of file: " + inputFile + ". Kept " + keptLines + " of " + lines + " lines in " + (System.currentTimeMillis() - start) + "ms.");
+        return keptLines;
+    }
+
+    /**
+     * Writes the line if its subject is a known uri.
+     *
+     * @return true if the line was written
+     */
+    private boolean write(OutputStream out, byte[] buffer, int start, int end) throws IOException {
+
+        if ( end > start && buffer[end - 1] == '\r' ) end--;
+        if ( end == start || buffer[start] != '<' ) return false;
+
+        int subjectEnd = start + 1;
+        while ( subjectEnd < end && buffer[subjectEnd] != '>' ) subjectEnd++;
+        if ( subjectEnd == end || !this.contains(buffer, start + 1, subjectEnd) ) return false;
+
+        out.write(buffer, start, end - start);
+        out.write('\n');
+        return true;
+    }
+
+    /**
+     * @return true if the uri between start and end is in the dictionary
+     */
+    private boolean contains(byte[] buffer, int start, int end) {
+
+        for ( int i = start; i < end; i++ )
+            if ( buffer[i] == '\\' ) return this.resources.contains(Literal.unescape(new String(buffer, start, end - start, UTF_8)));
+
+        return this.resources.contains(buffer, start, end - start);
+    }
+}
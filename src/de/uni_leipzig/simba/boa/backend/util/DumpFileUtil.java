@@ -0,0 +1,169 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.semanticweb.yars.nx.Node;
+import org.semanticweb.yars.nx.parser.NxParser;
+
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+
+
+/**
+ * Reads DBpedia and Wikipedia dump files without decompressing them to disk
+ * first. If the uncompressed file (e.g. labels_en.nt) does not exist, the
+ * bzip2 file next to it (labels_en.nt.bz2) is decompressed in parallel while
+ * it is parsed.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class DumpFileUtil {
+
+    private static final NLPediaLogger logger = new NLPediaLogger(DumpFileUtil.class);
+
+    public static final String BZIP2_SUFFIX = ".bz2";
+
+    /**
+     * @param filename - the uncompressed filename, e.g. labels_en.nt
+     * @return true if the file or its bzip2 version exists
+     */
+    public static boolean exists(String filename) {
+
+        return new File(filename).exists() || new File(filename + BZIP2_SUFFIX).exists();
+    }
+
+    /**
+     * Opens the uncompressed file if it exists, the bzip2 file otherwise.
+     * Filenames ending with ".bz2" are always decompressed.
+     *
+     * @param filename - the uncompressed filename, e.g. labels_en.nt
+     * @return a stream of the uncompressed content
+     */
+    public static InputStream openDumpFile(String filename) {
+
+        try {
+
+            if ( filename.endsWith(BZIP2_SUFFIX) ) return new ParallelBZip2InputStream(filename);
+            if ( new File(filename).exists() ) return new BufferedInputStream(new FileInputStream(filename));
+            if ( new File(filename + BZIP2_SUFFIX).exists() ) {
+
+                logger.info("Reading compressed dump file: " + filename + BZIP2_SUFFIX);
+                return new ParallelBZip2InputStream(filename + BZIP2_SUFFIX);
+            }
+            throw new IOException("Neither " + filename + " nor " + filename + BZIP2_SUFFIX + " exist!");
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            String error = "Could not open dump file: " + filename;
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * The parser does not close the stream, callers need to close it once
+     * they are done, e.g. in a finally block. Only if the parser can't be
+     * created the stream is closed here.
+     *
+     * @param in - a stream opened with {@link #openDumpFile(String)}
+     * @param filename - the uncompressed filename, e.g. labels_en.nt, for error messages
+     * @return a parser over the (decompressed) triples of the stream
+     */
+    public static NxParser openNxParser(InputStream in, String filename) {
+
+        try {
+
+            return new NxParser(in);
+        }
+        catch (Exception e) {
+
+            IOUtils.closeQuietly(in);
+            e.printStackTrace();
+            String error = "Could not parse dump file: " + filename;
+            logger.error(error, e);
+            throw new RuntimeException(error, e);
+        }
+    }
+
+    /**
+     * @param filename - the uncompressed filename, e.g. redirects_en.nt
+     * @return the subject of every triple
+     */
+    public static List<String> getSubjects(String filename) {
+
+        List<String> subjects = new ArrayList<String>();
+        InputStream in = openDumpFile(filename);
+        try {
+
+            NxParser parser = openNxParser(in, filename);
+            while ( parser.hasNext() ) subjects.add(parser.next()[0].toString());
+        }
+        finally {
+
+            IOUtils.closeQuietly(in);
+        }
+        return subjects;
+    }
+
+    /**
+     * @param filename - the uncompressed filename, e.g. redirects_en.nt
+     * @return the subject and object of every triple
+     */
+    public static List<String[]> getSubjectsAndObjects(String filename) {
+
+        List<String[]> subjectsAndObjects = new ArrayList<String[]>();
+        InputStream in = openDumpFile(filename);
+        try {
+
+            NxParser parser = openNxParser(in, filename);
+            while ( parser.hasNext() ) {
+
+                Node[] triple = parser.next();
+                subjectsAndObjects.add(new String[]{ triple[0].toString(), triple[2].toString() });
+            }
+        }
+        finally {
+
+            IOUtils.closeQuietly(in);
+        }
+        return subjectsAndObjects;
+    }
+
+    /**
+     * @param filename - the uncompressed filename, e.g. labels_de.nt
+     * @param subjectToObject - true for subject -> object, false for object -> subject
+     * @return a mapping between subject and object of every triple, later triples overwrite earlier ones
+     */
+    public static Map<String,String> getMapping(String filename, boolean subjectToObject) {
+
+        Map<String,String> mapping = new HashMap<String,String>();
+        InputStream in = openDumpFile(filename);
+        try {
+
+            NxParser parser = openNxParser(in, filename);
+            while ( parser.hasNext() ) {
+
+                Node[] triple = parser.next();
+                if ( subjectToObject ) mapping.put(triple[0].toString(), triple[2].toString());
+                else mapping.put(triple[2].toString(), triple[0].toString());
+            }
+        }
+        finally {
+
+            IOUtils.closeQuietly(in);
+        }
+        return mapping;
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.tools.bzip2.CBZip2InputStream;
+
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+
+
+/**
+ * Decompresses a bzip2 file with several threads while it is read. A bzip2
+ * stream consists of independent blocks of up to 900k, each starting with a
+ * 48 bit magic number at an arbitrary bit position. A splitter thread scans
+ * the compressed file for these numbers, wraps every block into a stream of
+ * its own and hands it to a thread pool. The decompressed blocks are read in
+ * their original order, at most two blocks per thread are kept in memory.
+ *
+ * Concatenated streams (e.g. created by pbzip2) are supported as well. The
+ * block magic may also appear inside compressed data, which is so unlikely
+ * (2^-48 per bit) that it is not handled.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class ParallelBZip2InputStream extends InputStream {
+
+    private static final NLPediaLogger logger = new NLPediaLogger(ParallelBZip2InputStream.class);
+
+    private static final long BLOCK_MAGIC           = 0x314159265359L;
+    private static final long END_OF_STREAM_MAGIC   = 0x177245385090L;
+    private static final long MAGIC_MASK            = 0xFFFFFFFFFFFFL;
+    private static final int HEADER_BITS            = 16; // "h9" of the stream created for each block
+
+    // marks the end of the file in the queue of decompressed blocks
+    private static final Future<byte[]> END_OF_FILE = new FutureTask<byte[]>(new Callable<byte[]>() {
+
+        public byte[] call() { return null; }
+    });
+    static { ((FutureTask<byte[]>) END_OF_FILE).run(); }
+
+    private final InputStream compressed;
+    private final ExecutorService executorService;
+    private final BlockingQueue<Future<byte[]>> blocks;
+    private final Thread splitter;
+    private volatile IOException splitterException = null;
+
+    private byte[] currentBlock = new byte[0];
+    private int position = 0;
+    private boolean endOfFile = false;
+
+    /**
+     * Uses one thread per available processor.
+     *
+     * @param file - the bzip2 file
+     * @throws IOException if the file can not be opened
+     */
+    public ParallelBZip2InputStream(String file) throws IOException {
+
+        this(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param file - the bzip2 file
+     * @param numberOfThreads - the number of threads which decompress blocks
+     * @throws IOException if the file can not be opened or is not a bzip2 file
+     */
+    public ParallelBZip2InputStream(String file, int numberOfThreads) throws IOException {
+
+        this.compressed = new BufferedInputStream(new FileInputStream(new File(file)), 1024 * 1024);
+        if ( this.compressed.read() != 'B' || this.compressed.read() != 'Z' || this.compressed.read() != 'h' || this.compressed.read() < '1' ) {
+
+            this.compressed.close();
+            throw new IOException("Not a bzip2 file: " + file);
+        }
+
+        numberOfThreads = Math.max(1, numberOfThreads);
+        this.blocks = new ArrayBlockingQueue<Future<byte[]>>(2 * numberOfThreads);
+        this.executorService = Executors.newFixedThreadPool(numberOfThreads, new ThreadFactory() {
+
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "bzip2-block");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.splitter = new Thread("bzip2-splitter: " + file) {
+
+            @Override
+            public void run() {
+
+                splitBlocks();
+            }
+        };
+        this.splitter.setDaemon(true);
+        this.splitter.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        if ( !this.fillBlock() ) return -1;
+        return this.currentBlock[this.position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+
+        if ( length == 0 ) return 0;
+        if ( !this.fillBlock() ) return -1;
+
+        length = Math.min(length, this.currentBlock.length - this.position);
+        System.arraycopy(this.currentBlock, this.position, bytes, offset, length);
+        this.position += length;
+        return length;
+    }
+
+    @Override
+    public int available() {
+
+        return this.currentBlock.length - this.position;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        this.endOfFile = true;
+        this.splitter.interrupt();
+        this.executorService.shutdownNow();
+        this.blocks.clear();
+        this.compressed.close();
+    }
+
+    /**
+     * Waits for the next decompressed block if the current one is consumed.
+     *
+     * @return false if there are no more blocks
+     * @throws IOException if a block could not be decompressed
+     */
+    private boolean fillBlock() throws IOException {
+
+        while ( this.position >= this.currentBlock.length ) {
+
+            if ( this.endOfFile ) return false;
+
+            try {
+
+                byte[] block = this.blocks.take().get();
+                if ( block == null ) {
+
+                    this.endOfFile = true;
+                    this.executorService.shutdown();
+                    if ( this.splitterException != null ) throw this.splitterException;
+                    return false;
+                }
+                this.currentBlock = block;
+                this.position = 0;
+            }
+            catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for bzip2 block", e);
+            }
+            catch (ExecutionException e) {
+
+                throw new IOException("Could not decompress bzip2 block", e.getCause());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the compressed bits for block and end of stream magic numbers and
+     * submits every complete block.
+     */
+    private void splitBlocks() {
+
+        try {
+
+            long window = 0;
+            BitWriter block = null;
+
+            int read;
+            while ( (read = this.compressed.read()) != -1 ) {
+
+                for ( int bit = 7; bit >= 0; bit-- ) {
+
+                    int value = (read >>> bit) & 1;
+                    window = ((window << 1) | value) & MAGIC_MASK;
+                    if ( block != null ) block.write(value, 1);
+
+                    if ( window == BLOCK_MAGIC || window == END_OF_STREAM_MAGIC ) {
+
+                        if ( block != null ) {
+
+                            block.truncate(48);
+                            this.submit(block);
+                        }
+                        if ( window == BLOCK_MAGIC ) {
+
+                            block = new BitWriter();
+                            block.write('h', 8);
+                            block.write('9', 8);
+                            block.write(BLOCK_MAGIC, 48);
+                        }
+                        else block = null;
+                    }
+                }
+            }
+            // a truncated file, the last block is decompressed as far as possible
+            if ( block != null ) this.submit(block);
+        }
+        catch (InterruptedException e) {
+
+            return;
+        }
+        catch (IOException e) {
+
+            logger.error("Could not read bzip2 file", e);
+            this.splitterException = e;
+        }
+
+        try {
+
+            this.blocks.put(END_OF_FILE);
+        }
+        catch (InterruptedException e) {
+
+            // the stream was closed
+        }
+    }
+
+    /**
+     * Ends the block with an end of stream marker and submits it to the thread pool.
+     */
+    private void submit(BitWriter block) throws InterruptedException {
+
+        // one block per stream, so the combined crc is the crc of the block
+        long blockCrc = block.read(HEADER_BITS + 48, 32);
+        block.write(END_OF_STREAM_MAGIC, 48);
+        block.write(blockCrc, 32);
+        final byte[] stream = block.toByteArray();
+
+        this.blocks.put(this.executorService.submit(new Callable<byte[]>() {
+
+            public byte[] call() throws IOException {
+
+                // the stream starts after "BZ" as expected by CBZip2InputStream
+                CBZip2InputStream in = new CBZip2InputStream(new ByteArrayInputStream(stream));
+                ByteArrayOutputStream out = new ByteArrayOutputStream(stream.length * 6);
+                int read;
+                while ( (read = in.read()) != -1 ) out.write(read);
+                in.close();
+                return out.toByteArray();
+            }
+        }));
+    }
+
+    /**
+     * Appends bits to a growing byte array.
+     */
+    private static class BitWriter {
+
+        private byte[] bytes = new byte[64 * 1024];
+        private long bits = 0;
+
+        void write(long value, int numberOfBits) {
+
+            for ( int i = numberOfBits - 1; i >= 0; i-- ) {
+
+                int index = (int) (this.bits >>> 3);
+                if ( index == this.bytes.length ) {
+
+                    byte[] newBytes = new byte[this.bytes.length * 2];
+                    System.arraycopy(this.bytes, 0, newBytes, 0, this.bytes.length);
+                    this.bytes = newBytes;
+                }
+                if ( ((value >>> i) & 1) == 1 ) this.bytes[index] |= 0x80 >>> (this.bits & 7);
+                this.bits++;
+            }
+        }
+
+        long read(long start, int numberOfBits) {
+
+            long value = 0;
+            for ( long bit = start; bit < start + numberOfBits; bit++ )
+                value = (value << 1) | ((this.bytes[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1);
+            return value;
+        }
+
+        void truncate(int numberOfBits) {
+
+            for ( int i = 0; i < numberOfBits; i++ ) {
+
+                this.bits--;
+                this.bytes[(int) (this.bits >>> 3)] &= ~(0x80 >>> (this.bits & 7));
+            }
+        }
+
+        byte[] toByteArray() {
+
+            byte[] result = new byte[(int) ((this.bits + 7) >>> 3)];
+            System.arraycopy(this.bytes, 0, result, 0, result.length);
+            return result;
+        }
+    }
+}
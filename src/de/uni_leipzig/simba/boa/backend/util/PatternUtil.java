@@ -1,15 +1,18 @@
 package de.uni_leipzig.simba.boa.backend.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
+import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.search.PatternSearcher;
 import de.uni_leipzig.simba.boa.backend.search.impl.DefaultPatternSearcher;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternEvidence;
 
 /**
  * 
@@ -17,7 +20,8 @@ import de.uni_leipzig.simba.boa.backend.search.impl.DefaultPatternSearcher;
  */
 public class PatternUtil {
 	
-	private static PatternSearcher patternSearcher;
+	// one searcher per index directory, a searcher can be used by many threads
+	private static final ConcurrentMap<String,PatternSearcher> PATTERN_SEARCHERS = new ConcurrentHashMap<String,PatternSearcher>();
 	private static NLPediaLogger logger = new NLPediaLogger(PatternUtil.class);
 	
 	/**
@@ -46,61 +50,127 @@ public class PatternUtil {
 	}
 	
 	/**
+	 * the SAFE strategy never selects more patterns 
+	 */
+	private static final int SAFE_MAXIMUM_TOP_N = 5;
+	
+	/**
+	 * Selects the best patterns in one pass over the patterns. Only the best 
+	 * topN (or for the SAFE strategy at most 5) patterns are kept in a 
+	 * small heap while the other patterns are counted.
 	 * 
-	 * @param mapping
+	 * @param patterns
 	 * @param strategy
-	 * @param topN
+	 * @param topN - the number of patterns to select, null for all patterns (ignored by SAFE)
 	 * @param scoreThreshold - score threshold for patterns, inclusive
-	 * @return
+	 * @return the selected patterns sorted by their score in descending order
 	 */
 	public static List<Pattern> getTopNPattern(Set<Pattern> patterns, PatternSelectionStrategy strategy, Integer topN, Double scoreThreshold) {
 
-		List<Pattern> patternList = new ArrayList<Pattern>();
+		int capacity = strategy == PatternSelectionStrategy.SAFE ? SAFE_MAXIMUM_TOP_N : 
+			topN == null ? patterns.size() : Math.max(0, Math.min(topN, patterns.size()));
 		
-		// if there is a threshold given, only use those patterns which abide it
-		if ( scoreThreshold != null ) {
-
-			for (Pattern p : patterns) {
-
-				if ( p.getScore() >= scoreThreshold ) {
-
-					patternList.add(p);
+		// min-heap of the best patterns found so far, the worst of them is at the root
+		Pattern[] heap = new Pattern[capacity];
+		double[] heapScores = new double[capacity];
+		int heapSize = 0;
+		int numberOfPatterns = 0;
+		
+		for ( Pattern pattern : patterns ) {
+			
+			double score = pattern.getScore();
+			
+			// if there is a threshold given, only use those patterns which abide it
+			if ( scoreThreshold != null && score < scoreThreshold ) continue;
+			numberOfPatterns++;
+			
+			if ( heapSize < capacity ) {
+				
+				int child = heapSize++;
+				while ( child > 0 ) {
+					
+					int parent = (child - 1) >>> 1;
+					if ( heapScores[parent] <= score ) break;
+					heap[child] = heap[parent];
+					heapScores[child] = heapScores[parent];
+					child = parent;
 				}
+				heap[child] = pattern;
+				heapScores[child] = score;
 			}
+			else if ( capacity > 0 && score > heapScores[0] ) siftDown(heap, heapScores, heapSize, pattern, score);
 		}
-		// if not just take all patterns
-		else patternList = new ArrayList<Pattern>(patterns);
-				
-		if ( strategy == PatternUtil.PatternSelectionStrategy.ALL ) {
+		
+		int numberOfSelectedPatterns = getNumberOfSelectedPatterns(strategy, numberOfPatterns, topN);
+		
+		// take the worst pattern from the heap until it's sorted in descending order
+		Pattern[] sortedPatterns = new Pattern[heapSize];
+		for ( int size = heapSize; size > 0; size-- ) {
 			
-			// topN = topN; we don't need to change the topN value 
+			sortedPatterns[size - 1] = heap[0];
+			siftDown(heap, heapScores, size - 1, heap[size - 1], heapScores[size - 1]);
 		}
-		else if ( strategy == PatternUtil.PatternSelectionStrategy.SAFE ) {
+		return new ArrayList<Pattern>(Arrays.asList(sortedPatterns).subList(0, Math.min(numberOfSelectedPatterns, heapSize)));
+	}
+	
+	/**
+	 * Same as {@link #getTopNPattern(Set, PatternSelectionStrategy, Integer, Double)} but
+	 * uses the patterns of the mapping which are sorted once, so that selecting the 
+	 * patterns for several thresholds or topNs does not need to look at all patterns.
+	 * 
+	 * @param mapping
+	 * @param strategy
+	 * @param topN - the number of patterns to select, null for all patterns (ignored by SAFE)
+	 * @param scoreThreshold - score threshold for patterns, inclusive
+	 * @return the selected patterns sorted by their score in descending order
+	 */
+	public static List<Pattern> getTopNPattern(PatternMapping mapping, PatternSelectionStrategy strategy, Integer topN, Double scoreThreshold) {
+		
+		List<Pattern> patterns = mapping.retrievePatternsSortedByScore(scoreThreshold);
+		return new ArrayList<Pattern>(patterns.subList(0, getNumberOfSelectedPatterns(strategy, patterns.size(), topN)));
+	}
+	
+	/**
+	 * @param strategy
+	 * @param numberOfPatterns - the number of patterns above the threshold
+	 * @param topN - the requested number of patterns, null for all
+	 * @return how many of the best patterns should be selected
+	 */
+	private static int getNumberOfSelectedPatterns(PatternSelectionStrategy strategy, int numberOfPatterns, Integer topN) {
+		
+		if ( strategy == PatternUtil.PatternSelectionStrategy.SAFE ) {
 			
 			// too few patterns so we wont create anything for this pattern
-			if ( patternList.size() < 3 ) return Collections.<Pattern>emptyList();
-			else {
-				
-				if ( patternList.size() >= 3 && patternList.size() < 5) topN = 1;
-				if ( patternList.size() >= 5 && patternList.size() < 10 ) topN = 2;
-				if ( patternList.size() >= 10 && patternList.size() < 20 ) topN = 3;
-				if ( patternList.size() >= 20 ) topN = 5;
-			}
+			if ( numberOfPatterns < 3 ) topN = 0;
+			else if ( numberOfPatterns < 5 ) topN = 1;
+			else if ( numberOfPatterns < 10 ) topN = 2;
+			else if ( numberOfPatterns < 20 ) topN = 3;
+			else topN = SAFE_MAXIMUM_TOP_N;
 		}
+		// for ALL we don't need to change the topN value 
+		return topN == null ? numberOfPatterns : Math.max(0, Math.min(topN, numberOfPatterns));
+	}
+	
+	/**
+	 * Replaces the root of the heap with the given pattern and restores the heap.
+	 */
+	private static void siftDown(Pattern[] heap, double[] heapScores, int heapSize, Pattern pattern, double score) {
 		
-		// sort the pattern by their confidence in descending order
-		Collections.sort(patternList, new Comparator<Pattern>() {
-
-			@Override
-			public int compare(Pattern pattern1, Pattern pattern2) {
-
-				return pattern2.getScore().compareTo(pattern1.getScore());
-			}
-		});
-		
-		// return the list from 0 to topN or the whole list if the list is smaller-equal than topN
-		// since subList's "to" is exclusive this means from 0 to 3 -> top3 pattern 
-		return patternList.size() > topN ? patternList.subList(0, topN) : patternList;
+		int parent = 0;
+		int child;
+		while ( (child = 2 * parent + 1) < heapSize ) {
+			
+			if ( child + 1 < heapSize && heapScores[child + 1] < heapScores[child] ) child++;
+			if ( score <= heapScores[child] ) break;
+			heap[parent] = heap[child];
+			heapScores[parent] = heapScores[child];
+			parent = child;
+		}
+		if ( heapSize > 0 ) {
+			
+			heap[parent] = pattern;
+			heapScores[parent] = score;
+		}
 	}
 	
 	/**
@@ -112,8 +182,7 @@ public class PatternUtil {
 	 */
 	public static Set<String> exactQueryIndex(String indexDir, Pattern pattern, int maxHits){
 
-		if ( PatternUtil.patternSearcher == null ) PatternUtil.patternSearcher = new DefaultPatternSearcher(indexDir); 
-		return PatternUtil.patternSearcher.getExactMatchSentences(pattern.getNaturalLanguageRepresentationWithoutVariables(), maxHits);
+		return getPatternSearcher(indexDir).getExactMatchSentences(pattern.getNaturalLanguageRepresentationWithoutVariables(), maxHits);
 	}
 	
 	/**
@@ -124,7 +193,58 @@ public class PatternUtil {
 	 */
 	public static List<String> getLuceneDocuments(String indexDir, List<Integer> luceneDocIds) {
 
-		if (PatternUtil.patternSearcher == null) PatternUtil.patternSearcher = new DefaultPatternSearcher(indexDir);
-		return PatternUtil.patternSearcher.getSentencesByIds(luceneDocIds);
+		return getPatternSearcher(indexDir).getSentencesByIds(luceneDocIds);
+	}
+
+	/**
+	 * Creates a pager for the sentences the pattern was found in. Only 
+	 * the sentences of a requested page are loaded from the index.
+	 * 
+	 * @param indexDir - the corpus index
+	 * @param pattern - the pattern to show the sentences for
+	 * @return the evidence of the pattern
+	 */
+	public static PatternEvidence getPatternEvidence(String indexDir, Pattern pattern) {
+
+		return new PatternEvidence(getPatternSearcher(indexDir), pattern);
+	}
+	
+	/**
+	 * Returns the searcher for the given index directory. The searcher is 
+	 * opened by the first call for a directory, all further calls (from 
+	 * any thread) return the same searcher without locking.
+	 * 
+	 * @param indexDir - the corpus index
+	 * @return the shared searcher of the index
+	 */
+	public static PatternSearcher getPatternSearcher(String indexDir) {
+		
+		PatternSearcher patternSearcher = PATTERN_SEARCHERS.get(indexDir);
+		if ( patternSearcher == null ) {
+			
+			// opening an index is expensive, so only one thread opens it
+			synchronized (PATTERN_SEARCHERS) {
+				
+				patternSearcher = PATTERN_SEARCHERS.get(indexDir);
+				if ( patternSearcher == null ) {
+					
+					patternSearcher = new DefaultPatternSearcher(indexDir);
+					PATTERN_SEARCHERS.put(indexDir, patternSearcher);
+				}
+			}
+		}
+		return patternSearcher;
+	}
+	
+	/**
+	 * Closes the searchers of all index directories.
+	 */
+	public static void closePatternSearchers() {
+		
+		synchronized (PATTERN_SEARCHERS) {
+			
+			for ( PatternSearcher patternSearcher : PATTERN_SEARCHERS.values() ) patternSearcher.close();
+			PATTERN_SEARCHERS.clear();
+		}
 	}
 }
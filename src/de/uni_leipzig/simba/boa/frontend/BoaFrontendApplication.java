@@ -110,7 +110,7 @@ public class BoaFrontendApplication extends Application implements ItemClickList
         
         this.mappingsInDatabases = PatternMappingManager.getInstance().getPatternMappingsInDatabases();
         this.tree = new DatabaseNavigationTree(this, mappingsInDatabases);
-        nlrPatternContainer = AutosuggestionsManager.getInstance().getNaturalLanguagePatternContainer(mappingsInDatabases);
+        nlrPatternContainer = AutosuggestionsManager.getInstance().getNaturalLanguagePatternContainer(mappingsInDatabases.keySet());
         this.inputToOutputButton.addListener((ClickListener) this);
         this.databaseSelect.setNullSelectionAllowed(false);
         this.databaseSelect.setImmediate(true);
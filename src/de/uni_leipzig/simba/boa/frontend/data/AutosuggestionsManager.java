@@ -3,16 +3,18 @@
  */
 package de.uni_leipzig.simba.boa.frontend.data;
 
-import java.util.Date;
-import java.util.Map;
 import java.util.Set;
 
 import com.github.gerbsen.format.OutputFormatter;
 import com.vaadin.data.Item;
 import com.vaadin.data.util.IndexedContainer;
 
-import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
-import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
+import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.lucene.LuceneIndexHelper;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.Property;
+import de.uni_leipzig.simba.boa.backend.search.patternindex.PatternIndexSearcher;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternIndexResult;
 
 
 /**
@@ -21,6 +23,7 @@ import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
  */
 public class AutosuggestionsManager {
 
+    private final NLPediaLogger logger = new NLPediaLogger(AutosuggestionsManager.class);
     private static AutosuggestionsManager INSTANCE = null;
     private static IndexedContainer naturalLanguagePatternContainer = null;
     
@@ -35,7 +38,15 @@ public class AutosuggestionsManager {
         return AutosuggestionsManager.INSTANCE;
     }
     
-    public IndexedContainer getNaturalLanguagePatternContainer(Map<String, Set<PatternMapping>> mappingsInDatabases) {
+    /**
+     * Creates the container for the pattern search box of the frontend. The
+     * patterns are read from the pattern index of every database, so the
+     * pattern mappings don't need to be deserialized for the autosuggestions.
+     * 
+     * @param databases - the boa data directories of the databases
+     * @return a container with one item per pattern
+     */
+    public IndexedContainer getNaturalLanguagePatternContainer(Set<String> databases) {
         
         if ( naturalLanguagePatternContainer == null ) {
             
@@ -45,26 +56,33 @@ public class AutosuggestionsManager {
             naturalLanguagePatternContainer.addContainerProperty("DATABASE", String.class, "");
             naturalLanguagePatternContainer.addContainerProperty("MAPPING", String.class, "");
 
-            for (Map.Entry<String, Set<PatternMapping>> database : mappingsInDatabases.entrySet() ) {
-                for (PatternMapping mapping : database.getValue() ) {
-                    for ( Pattern pattern : mapping.getPatterns() ) {
-                        
-//                        Item item = naturalLanguagePatternContainer.addItem(database + " " + mapping.getProperty().getUri() + " " + pattern.getNaturalLanguageRepresentation());
-                        Item item = naturalLanguagePatternContainer.getItem(naturalLanguagePatternContainer.addItem());
+            for (String database : databases ) {
+                
+                String patternIndexDirectory = database + "/" + Constants.INDEX_DEFAULT_PATTERN_PATH;
+                if ( !LuceneIndexHelper.isIndexExisting(patternIndexDirectory) ) {
+                    
+                    this.logger.warn("No pattern index found in database: " + database + ". Run the DefaultPatternIndexCreationModule to get autosuggestions.");
+                    continue;
+                }
+                
+                PatternIndexSearcher searcher = new PatternIndexSearcher(patternIndexDirectory);
+                for ( PatternIndexResult pattern : searcher.getPatterns(null, null, searcher.getNumberOfPatterns()) ) {
+                    
+                    Item item = naturalLanguagePatternContainer.getItem(naturalLanguagePatternContainer.addItem());
+                    
+                    if ( item != null ) {
                         
-                        if ( item != null ) {
-                            
-                            item.getItemProperty("NLR").setValue(pattern.getNaturalLanguageRepresentation() + " (" 
-                                    + database.getKey().substring(database.getKey().lastIndexOf("/") + 1) + ", " 
-                                    + mapping.getProperty().getPropertyLocalname() + ", "
-                                    + OutputFormatter.format(pattern.getScore(), "0.000") + ")");
-                            item.getItemProperty("PATTERN").setValue(pattern.getNaturalLanguageRepresentation());
-                            item.getItemProperty("DATABASE").setValue(database.getKey());
-                            item.getItemProperty("MAPPING").setValue(mapping.getProperty().getUri());
-                        }
-                        else System.out.println("ITEM NULL");
+                        item.getItemProperty("NLR").setValue(pattern.getNaturalLanguageRepresentation() + " (" 
+                                + database.substring(database.lastIndexOf("/") + 1) + ", " 
+                                + new Property(pattern.getPropertyUri()).getPropertyLocalname() + ", "
+                                + OutputFormatter.format(pattern.getScore(), "0.000") + ")");
+                        item.getItemProperty("PATTERN").setValue(pattern.getNaturalLanguageRepresentation());
+                        item.getItemProperty("DATABASE").setValue(database);
+                        item.getItemProperty("MAPPING").setValue(pattern.getPropertyUri());
                     }
+                    else System.out.println("ITEM NULL");
                 }
+                searcher.close();
             }
         }
         
@@ -11,6 +11,8 @@ import org.apache.commons.lang3.text.WordUtils;
 
 import com.github.gerbsen.format.OutputFormatter;
 import com.vaadin.ui.Alignment;
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Button.ClickEvent;
 import com.vaadin.ui.CheckBox;
 import com.vaadin.ui.HorizontalLayout;
 import com.vaadin.ui.Label;
@@ -26,6 +28,8 @@ import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.feature.comparator.FeatureNameComparator;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.feature.impl.Feature;
 import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
+import de.uni_leipzig.simba.boa.backend.search.result.EvidenceSentence;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternEvidence;
 import de.uni_leipzig.simba.boa.backend.util.PatternUtil;
 import de.uni_leipzig.simba.boa.frontend.BoaFrontendApplication;
 
@@ -37,8 +41,12 @@ public class PatternWindow extends Window {
 	 */
 	private static final long serialVersionUID = -7585663579160693199L;
 	
+	private static final int SENTENCES_PER_PAGE = 10;
+	
 	private Pattern pattern;
 	private PatternMapping patternMapping;
+	private transient PatternEvidence patternEvidence;
+	private int sentencesOffset = 0;
 	
 	public PatternWindow(BoaFrontendApplication boa, Pattern pattern, PatternMapping pm) {
 		super("Details for pattern: \""+pattern.getNaturalLanguageRepresentation()+"\"");
@@ -56,7 +64,7 @@ public class PatternWindow extends Window {
         
         VerticalLayout l3 = new VerticalLayout();
         l3.setMargin(true);
-        l3.addComponent(new Label(this.buildTab3Content(), Label.CONTENT_XHTML));
+        l3.addComponent(this.buildTab3Content());
         
         VerticalLayout l4 = new VerticalLayout();
         l4.setMargin(true);
@@ -259,62 +267,110 @@ public class PatternWindow extends Window {
 	 * 
 	 * @return
 	 */
-	private String buildTab3Content(){
+	private Layout buildTab3Content(){
+	    
+	    final Label sentences = new Label(this.buildSentencesPage(), Label.CONTENT_XHTML);
+	    final Button previous = new Button("Previous");
+	    final Button next = new Button("Next");
+	    previous.setEnabled(false);
+	    next.setEnabled(this.getPatternEvidence().size() > SENTENCES_PER_PAGE);
 	    
-	    List<String> sentences = PatternUtil.getLuceneDocuments(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.INDEX_CORPUS_PATH, new ArrayList<Integer>(this.pattern.getFoundInSentences()));
+	    Button.ClickListener listener = new Button.ClickListener() {
+            
+            private static final long serialVersionUID = 2943618407744826473L;
+
+            @Override
+            public void buttonClick(ClickEvent event) {
+                
+                if ( event.getButton() == previous ) sentencesOffset = Math.max(0, sentencesOffset - SENTENCES_PER_PAGE);
+                else sentencesOffset += SENTENCES_PER_PAGE;
+                
+                sentences.setValue(buildSentencesPage());
+                previous.setEnabled(sentencesOffset > 0);
+                next.setEnabled(sentencesOffset + SENTENCES_PER_PAGE < getPatternEvidence().size());
+            }
+        };
+        previous.addListener(listener);
+        next.addListener(listener);
+        
+        HorizontalLayout buttons = new HorizontalLayout();
+        buttons.setSpacing(true);
+        buttons.addComponent(previous);
+        buttons.addComponent(next);
         
+        VerticalLayout layout = new VerticalLayout();
+        layout.setSpacing(true);
+        layout.addComponent(sentences);
+        layout.addComponent(buttons);
+        return layout;
+	}
+	
+	/**
+	 * Renders the current page of sentences, only the sentences of 
+	 * this page are loaded from the index.
+	 * 
+	 * @return the html for the sentences
+	 */
+	private String buildSentencesPage(){
+	    
+	    List<EvidenceSentence> sentences = this.getPatternEvidence().getSentences(this.sentencesOffset, SENTENCES_PER_PAGE);
+	    
         StringBuilder builder = new StringBuilder();
-        builder.append("<h2>Sentences which lead to pattern: \""+ this.pattern.getNaturalLanguageRepresentation()+"\":</h2>");
+        builder.append("<h2>Sentences which lead to pattern: \""+ this.pattern.getNaturalLanguageRepresentation()+"\" ("
+                + (this.sentencesOffset + 1) + "-" + (this.sentencesOffset + sentences.size()) + " of " + this.getPatternEvidence().size() + "):</h2>");
         
-        Iterator<String> iter = sentences.iterator(); 
-        int i = 0;
-        while ( iter.hasNext() && i++ < 10 ) {
+        Iterator<EvidenceSentence> iter = sentences.iterator(); 
+        int i = this.sentencesOffset;
+        while ( iter.hasNext() ) {
 
-            String sentence = iter.next();
-            String sentenceLowerCase = sentence.toLowerCase();
-            
-            String longestSubject = "";
-            String longestObject  = "";
-            
-            for (String pair : this.pattern.getLearnedFrom().keySet()) {
-                
-                String[] pairParts = pair.split(java.util.regex.Pattern.quote("-;-"));
-                if ( pairParts[0].length() > longestSubject.length() && sentenceLowerCase.contains(pairParts[0])) longestSubject = pairParts[0];
-                if ( pairParts[1].length() > longestSubject.length() && sentenceLowerCase.contains(pairParts[1])) longestObject  = pairParts[1];
-            }
-            
-            System.out.println(i + "-normal: " + sentence);
-            
-            // we need to find the correct string normal case sentence, otherwise we would 
-            // replace the normal case entities with lowercase entities
-            int subjectStart = sentence.toLowerCase().indexOf(longestSubject);
-//            sentence = sentence.replace(
-//                    sentence.substring(subjectStart, subjectStart + longestSubject.length()),
-//                    "<span style=\"color: #EB1A1A;\">" + sentence.substring(subjectStart, subjectStart + longestSubject.length()) +"</span>");
-            
-            System.out.println(i + "-subject: " + sentence);
-            
-            int objectStart  = sentence.toLowerCase().indexOf(longestObject);
-//            sentence = sentence.replace(
-//                    sentence.substring(objectStart, objectStart + longestObject.length()), 
-//                    "<span style=\"color: #EB1A1A;\">" + sentence.substring(objectStart, objectStart + longestObject.length()) +"</span>");
-            
-            System.out.println(i + "-object: " + sentence);   
-            
-//            sentence = sentence.replaceAll("(?i)" + this.pattern.getNaturalLanguageRepresentationWithoutVariables(), 
-//                    "<span style=\"color: #61A30B;\">"+this.pattern.getNaturalLanguageRepresentationWithoutVariables()+"</span>");
-            
-            sentence = sentence.replace(this.pattern.getNaturalLanguageRepresentationWithoutVariables(), 
-                  "<span style=\"color: #61A30B;\">"+this.pattern.getNaturalLanguageRepresentationWithoutVariables()+"</span>");
-            
-            System.out.println(i + "-pattern: " + sentence);
-            
-            builder.append("<b>("+i + ")</b> " + sentence + "<br/>");
+            builder.append("<b>("+ ++i + ")</b> " + highlight(iter.next()) + "<br/>");
             if (iter.hasNext()) builder.append("<hr/>");
         }
         return builder.toString();
 	}
 	
+	/**
+	 * Wraps the subject, the object (red) and the pattern (green) of 
+	 * the sentence in spans. Parts overlapping a previous part are not 
+	 * highlighted.
+	 */
+	private static String highlight(EvidenceSentence sentence) {
+	    
+	    int[][] parts = new int[][]{
+	            { sentence.getSubjectStart(), sentence.getSubjectEnd() },
+	            { sentence.getObjectStart(), sentence.getObjectEnd() },
+	            { sentence.getPatternStart(), sentence.getPatternEnd() }};
+	    String[] colors = new String[]{ "#EB1A1A", "#EB1A1A", "#61A30B" };
+	    
+	    StringBuilder builder = new StringBuilder();
+	    int position = 0;
+	    while ( true ) {
+	        
+	        // the next part which starts after the current position
+	        int next = -1;
+	        for ( int part = 0 ; part < parts.length ; part++ )
+	            if ( parts[part][0] >= position && (next == -1 || parts[part][0] < parts[next][0]) ) next = part;
+	        
+	        if ( next == -1 ) break;
+	        
+	        builder.append(sentence.getSentence(), position, parts[next][0]);
+	        builder.append("<span style=\"color: " + colors[next] + ";\">").append(sentence.getSentence(), parts[next][0], parts[next][1]).append("</span>");
+	        position = parts[next][1];
+	    }
+	    return builder.append(sentence.getSentence().substring(position)).toString();
+	}
+	
+	/**
+	 * @return the pager for the sentences of the pattern, created on first use
+	 */
+	private PatternEvidence getPatternEvidence(){
+	    
+	    if ( this.patternEvidence == null )
+	        this.patternEvidence = PatternUtil.getPatternEvidence(NLPediaSettings.BOA_DATA_DIRECTORY + Constants.INDEX_CORPUS_PATH, this.pattern);
+	    
+	    return this.patternEvidence;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -0,0 +1,31 @@
+package de.uni_leipzig.simba.boa.webservice;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.util.PatternUtil;
+
+/**
+ * Releases the resources shared by the frontend and the webservices
+ * when the web application is stopped or redeployed.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+public class BoaServletContextListener implements ServletContextListener {
+
+    private final NLPediaLogger logger = new NLPediaLogger(BoaServletContextListener.class);
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+
+        // the searchers are opened lazily by the first request
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+
+        this.logger.info("Closing the corpus index searchers.");
+        PatternUtil.closePatternSearchers();
+    }
+}
@@ -0,0 +1,70 @@
+package de.uni_leipzig.simba.boa.webservice.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.search.patternindex.PatternIndexSearcher;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternIndexResult;
+import edu.stanford.nlp.util.StringUtils;
+
+/**
+ * Serves the patterns of the pattern index to read-only consumers like
+ * question answering systems, so they don't need to deserialize the
+ * pattern mappings. Every line of the response is a tab separated
+ * property uri, natural language representation and boa-score.
+ *
+ * @author Daniel Gerber <dgerber@informatik.uni-leipzig.de>
+ */
+@Path("patterns")
+public class PatternSearchWebService {
+
+    private static final NLPediaSetup setup = new NLPediaSetup(false);
+    private static final NLPediaLogger logger = new NLPediaLogger(PatternSearchWebService.class);
+    private static final PatternIndexSearcher searcher = new PatternIndexSearcher();
+
+    @GET
+    @Produces("text/plain")
+    public String getPatterns(
+            @QueryParam("propertyUri") String propertyUri,
+            @QueryParam("prefix") String prefix,
+            @QueryParam("nlr") String naturalLanguageRepresentation,
+            @DefaultValue("0.5") @QueryParam("minSimilarity") float minSimilarity,
+            @QueryParam("minScore") Double minScore,
+            @QueryParam("maxScore") Double maxScore,
+            @DefaultValue("10") @QueryParam("topK") int topK) {
+
+        try {
+
+            List<PatternIndexResult> patterns;
+            if ( propertyUri != null && !propertyUri.isEmpty() )
+                patterns = searcher.getPatternsForProperty(propertyUri, minScore, maxScore, topK);
+            else if ( prefix != null && !prefix.isEmpty() )
+                patterns = searcher.getPatternsByPrefix(prefix, minScore, maxScore, topK);
+            else if ( naturalLanguageRepresentation != null && !naturalLanguageRepresentation.isEmpty() )
+                patterns = searcher.getPatternsByFuzzyNaturalLanguageRepresentation(naturalLanguageRepresentation, minSimilarity, minScore, maxScore, topK);
+            else
+                patterns = searcher.getPatterns(minScore, maxScore, topK);
+
+            List<String> results = new ArrayList<String>();
+            for ( PatternIndexResult pattern : patterns )
+                results.add(pattern.getPropertyUri() + "\t" + pattern.getNaturalLanguageRepresentation() + "\t" + pattern.getScore());
+
+            return StringUtils.join(results, Constants.NEW_LINE_SEPARATOR);
+        }
+        catch  (Exception e ) {
+
+            logger.error("Could not search the pattern index!", e);
+        }
+
+        return "";
+    }
+}
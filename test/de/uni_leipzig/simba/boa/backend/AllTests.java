@@ -2,6 +2,8 @@ package de.uni_leipzig.simba.boa.backend;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import de.uni_leipzig.simba.boa.backend.crawler.CrawlerDirectorTest;
+import de.uni_leipzig.simba.boa.backend.dbpedia.DumpFileFilterTest;
 import de.uni_leipzig.simba.boa.backend.entity.BackgroundKnowledgeTest;
 import de.uni_leipzig.simba.boa.backend.entity.ContextTest;
 import de.uni_leipzig.simba.boa.backend.entity.PatternFilterTest;
@@ -10,9 +12,15 @@ import de.uni_leipzig.simba.boa.backend.entity.TripleTest;
 import de.uni_leipzig.simba.boa.backend.evaluation.EvaluationTest;
 import de.uni_leipzig.simba.boa.backend.feature.FeatureTest;
 import de.uni_leipzig.simba.boa.backend.lucene.LuceneTest;
+import de.uni_leipzig.simba.boa.backend.lucene.PatternEvidenceTest;
+import de.uni_leipzig.simba.boa.backend.lucene.PatternIndexSearcherTest;
+import de.uni_leipzig.simba.boa.backend.lucene.PubMedIndexGeneratorTest;
 import de.uni_leipzig.simba.boa.backend.nlp.StanfordNLPNamedEntityRecognitionTest;
 import de.uni_leipzig.simba.boa.backend.nlp.StanfordNLPPartOfSpeechTaggerTest;
+import de.uni_leipzig.simba.boa.backend.rdf.ClassIndexerTest;
 import de.uni_leipzig.simba.boa.backend.rdf.UriRetrievalTest;
+import de.uni_leipzig.simba.boa.backend.surfaceforms.SurfaceFormDictionaryTest;
+import de.uni_leipzig.simba.boa.backend.util.ParallelBZip2InputStreamTest;
 
 
 public class AllTests {
@@ -32,6 +40,14 @@ public class AllTests {
 		suite.addTest(StanfordNLPNamedEntityRecognitionTest.suite());
 		suite.addTest(StanfordNLPPartOfSpeechTaggerTest.suite());
 		suite.addTest(BackgroundKnowledgeTest.suite());
+		suite.addTest(CrawlerDirectorTest.suite());
+		suite.addTest(SurfaceFormDictionaryTest.suite());
+		suite.addTest(DumpFileFilterTest.suite());
+		suite.addTest(PubMedIndexGeneratorTest.suite());
+		suite.addTest(ClassIndexerTest.suite());
+		suite.addTest(PatternIndexSearcherTest.suite());
+		suite.addTest(ParallelBZip2InputStreamTest.suite());
+		suite.addTest(PatternEvidenceTest.suite());
 		//$JUnit-END$
 		return suite;
 	}
@@ -0,0 +1,186 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.crawler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.fileUtils.URLStore;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParserThreads.CrawlFrontier;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParserThreads.CrawlerDirector;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.preprocessing.impl.googleNewsCrawler.pageParserThreads.SeenUrlSet;
+
+
+/**
+ * Crawls fixture pages from an embedded http server.
+ *
+ * @author gerb
+ */
+public class CrawlerDirectorTest {
+
+    private static final int NUMBER_OF_PAGES = 50;
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+    NLPediaLogger logger = null;
+
+    private HttpServer server;
+    
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(CrawlerDirectorTest.class);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+
+        this.setup = new NLPediaSetup(true);
+        this.logger = new NLPediaLogger(CrawlerDirectorTest.class);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/news/", new HttpHandler() {
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+
+                String path = exchange.getRequestURI().getPath();
+                byte[] page = ("<html><head><title>" + path + "</title></head><body>" +
+                        "<div><p>First paragraph of " + path + ".</p><p>Second paragraph of " + path + ".</p></div>" +
+                        "</body></html>").getBytes("UTF-8");
+
+                exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+                exchange.sendResponseHeaders(200, page.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(page);
+                out.close();
+            }
+        });
+        // not an html page, so the extractor fails with an exception
+        this.server.createContext("/plain/", new HttpHandler() {
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+
+                byte[] page = "plain text".getBytes("UTF-8");
+                exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+                exchange.sendResponseHeaders(200, page.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(page);
+                out.close();
+            }
+        });
+        this.server.start();
+    }
+
+    @After
+    public void cleanUpStreams() throws IOException {
+
+        this.server.stop(0);
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testCrawler() throws IOException {
+
+        // two hosts with their own politeness queues
+        int port = this.server.getAddress().getPort();
+        List<String> urls = new ArrayList<String>();
+        for ( int i = 0; i < NUMBER_OF_PAGES; i++ )
+            urls.add("http://" + (i % 2 == 0 ? "localhost" : "127.0.0.1") + ":" + port + "/news/article" + i + ".html");
+        // duplicates are only crawled once
+        urls.add(urls.get(0));
+        // one page which fails
+        urls.add("http://localhost:" + port + "/plain/article.txt");
+
+        File output = new File(this.directory.getRoot(), "output.txt");
+        File urlStore = new File(this.directory.getRoot(), "urlstore.txt");
+
+        CrawlerDirector director = new CrawlerDirector("en", output.getAbsolutePath(), urlStore.getAbsolutePath(), false, 4, 10);
+        director.crawlUrls(urls.toArray(new String[urls.size()]));
+        this.logger.info("Crawled " + director.getCrawledPages() + " pages with " + String.format("%.2f", director.getPagesPerSecond()) + " pages per second");
+
+        assertEquals(NUMBER_OF_PAGES, director.getCrawledPages());
+        assertEquals(1, director.getFailedPages());
+        assertTrue(director.getPagesPerSecond() > 0);
+
+        String text = FileUtils.readFileToString(output, "UTF-8");
+        assertEquals(NUMBER_OF_PAGES, text.split("<doc url=").length - 1);
+        assertTrue(text.contains("Second paragraph of /news/article7.html."));
+        // the failed page is journaled as well
+        assertEquals(NUMBER_OF_PAGES + 1, FileUtils.readLines(urlStore, "UTF-8").size());
+
+        // a second run skips all crawled urls
+        CrawlerDirector secondDirector = new CrawlerDirector("en", output.getAbsolutePath(), urlStore.getAbsolutePath(), true, 4, 10);
+        secondDirector.crawlUrls(urls.toArray(new String[urls.size()]));
+        assertEquals(0, secondDirector.getCrawledPages());
+    }
+
+    @Test
+    public void testUrlStoreRemovesPartialLine() throws IOException {
+
+        File file = new File(this.directory.getRoot(), "urlstore.txt");
+        FileUtils.writeStringToFile(file, "http://a.org/1\nhttp://a.org/2\nhttp://a.o", "UTF-8");
+
+        List<String> urls = new ArrayList<String>();
+        URLStore store = URLStore.createOpenExistingURLStore(file.getAbsolutePath(), urls);
+        store.addUrl("http://a.org/3");
+        store.close();
+
+        assertEquals(2, urls.size());
+        assertEquals("http://a.org/1\nhttp://a.org/2\nhttp://a.org/3\n", FileUtils.readFileToString(file, "UTF-8"));
+    }
+
+    @Test
+    public void testFrontier() throws InterruptedException {
+
+        CrawlFrontier frontier = new CrawlFrontier(200);
+        assertEquals(3, frontier.addAll(new String[]{ "http://a.org/1", "http://a.org/2", "http://b.org/1", "http://a.org/1" }));
+        frontier.close();
+
+        // both hosts are served first, the second url of a.org only after the delay
+        long start = System.currentTimeMillis();
+        List<String> hosts = new ArrayList<String>();
+        hosts.add(frontier.take());
+        hosts.add(frontier.take());
+        assertTrue(hosts.contains("http://a.org/1"));
+        assertTrue(hosts.contains("http://b.org/1"));
+        assertEquals("http://a.org/2", frontier.take());
+        assertTrue(System.currentTimeMillis() - start >= 190);
+        assertNull(frontier.take());
+
+        SeenUrlSet seen = new SeenUrlSet(2);
+        for ( int i = 0; i < 1000; i++ ) assertTrue(seen.add("http://a.org/" + i));
+        assertFalse(seen.add("http://a.org/999"));
+        assertTrue(seen.contains("http://a.org/0"));
+        assertFalse(seen.contains("http://a.org/1000"));
+        assertEquals(1000, seen.size());
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.dbpedia;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.yars.nx.Node;
+import org.semanticweb.yars.nx.parser.NxParser;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
+import de.uni_leipzig.simba.boa.backend.util.DumpFileFilter;
+
+
+/**
+ * Filters small fixture dumps and compares the output with parsing and
+ * writing every kept triple with NxParser.
+ *
+ * @author gerb
+ */
+public class DumpFileFilterTest {
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(DumpFileFilterTest.class);
+    }
+
+    @Before
+    public void setUp() {
+
+        this.setup = new NLPediaSetup(true);
+    }
+
+    @After
+    public void cleanUpStreams() {
+
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+
+        File dictionaryFile = new File(this.directory.getRoot(), "en_surface_forms.dict");
+        new SurfaceFormDictionary.Builder()
+            .add("http://dbpedia.org/resource/Berlin", "Berlin")
+            .add("http://dbpedia.org/resource/M\u00FCnchen", "Munich")
+            .addUri("http://dbpedia.org/resource/Leipzig")
+            .write(dictionaryFile.getAbsolutePath());
+        SurfaceFormDictionary resources = SurfaceFormDictionary.open(dictionaryFile.getAbsolutePath());
+
+        File labels = new File(this.directory.getRoot(), "labels_en.nt");
+        FileUtils.writeStringToFile(labels,
+                "# started 2012-06-01T00:00:00Z\n" +
+                "<http://dbpedia.org/resource/Berlin> <http://www.w3.org/2000/01/rdf-schema#label> \"Berlin\"@en .\n" +
+                "<http://dbpedia.org/resource/Berlin_(disambiguation)> <http://www.w3.org/2000/01/rdf-schema#label> \"Berlin\"@en .\n" +
+                "<http://dbpedia.org/resource/M\\u00FCnchen> <http://www.w3.org/2000/01/rdf-schema#label> \"M\\u00FCnchen\"@en .\n" +
+                "\n" +
+                "<http://dbpedia.org/resource/Leipzig> <http://www.w3.org/2000/01/rdf-schema#label> \"Leipzig \\\"city\\\"\"@en .\n" +
+                "# completed 2012-06-01T00:00:00Z\n", "UTF-8");
+
+        File types = new File(this.directory.getRoot(), "instance_types_en.nt");
+        FileUtils.writeStringToFile(types,
+                "<http://dbpedia.org/resource/Berlin> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://dbpedia.org/ontology/City> .\r\n" +
+                "<http://dbpedia.org/resource/Dresden> <http://www.w3.org/1999/02/22-rdf-syntax-ns#type> <http://dbpedia.org/ontology/City> .\r\n" +
+                "<http://dbpedia.org/resource/Leipzig> <http://dbpedia.org/ontology/populationTotal> \"531562\"^^<http://www.w3.org/2001/XMLSchema#integer> .", "UTF-8");
+
+        Map<String,String> files = new LinkedHashMap<String,String>();
+        files.put(labels.getAbsolutePath(), labels.getAbsolutePath().replace(".nt", "_filtered.nt"));
+        files.put(types.getAbsolutePath(), types.getAbsolutePath().replace(".nt", "_filtered.nt"));
+        new DumpFileFilter(resources).filter(files);
+
+        for ( Map.Entry<String,String> file : files.entrySet() )
+            assertEquals(filterWithNxParser(file.getKey(), resources), FileUtils.readFileToString(new File(file.getValue()), "UTF-8"));
+
+        assertEquals(3, FileUtils.readLines(new File(files.get(labels.getAbsolutePath())), "UTF-8").size());
+        assertEquals(2, FileUtils.readLines(new File(files.get(types.getAbsolutePath())), "UTF-8").size());
+    }
+
+    /**
+     * The filter as it was implemented in the DBpediaImportModule before.
+     */
+    private String filterWithNxParser(String file, SurfaceFormDictionary resources) throws Exception {
+
+        StringBuilder builder = new StringBuilder();
+        FileInputStream in = new FileInputStream(file);
+        try {
+
+            NxParser nxp = new NxParser(in);
+            while (nxp.hasNext()) {
+
+                Node[] ns = nxp.next();
+                if ( resources.contains(ns[0].toString()) ) builder.append(String.format("%s %s %s .", ns[0].toN3(), ns[1].toN3(), ns[2].toN3())).append("\n");
+            }
+        }
+        finally {
+
+            IOUtils.closeQuietly(in);
+        }
+        return builder.toString();
+    }
+}
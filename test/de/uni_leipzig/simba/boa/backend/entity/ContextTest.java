@@ -1,17 +1,33 @@
 package de.uni_leipzig.simba.boa.backend.entity;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
 import junit.framework.JUnit4TestAdapter;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import de.uni_leipzig.simba.boa.backend.Constants;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
 import de.uni_leipzig.simba.boa.backend.entity.context.Context;
 import de.uni_leipzig.simba.boa.backend.entity.context.LeftContext;
 import de.uni_leipzig.simba.boa.backend.entity.context.RightContext;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentence;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.TaggedSentenceCache;
 
 
 public class ContextTest {
@@ -370,4 +386,219 @@ public class ContextTest {
         assertEquals("Neil Gaiman", leftContext9.getSuitableEntity("http://dbpedia.org/ontology/Person"));
         assertEquals("Sandman", rightContext9.getSuitableEntity("http://dbpedia.org/ontology/Work"));
     }
+    
+    @Test
+    public void testTaggedSentenceContext() {
+        
+        String sentence     = "Uprock was created in Brooklyn , N.Y. and breaking was created in the Bronx .";
+        String nerTagged    = "Uprock_OTHER was_OTHER created_OTHER in_OTHER Brooklyn_PLACE ,_OTHER N.Y._PLACE and_OTHER breaking_OTHER was_OTHER created_OTHER in_OTHER the_PLACE Bronx_PLACE ._OTHER";
+        String pattern      = "created in the";
+        
+        // the same tagged sentence is used for both contexts
+        TaggedSentence taggedSentence = Context.parseTaggedString(nerTagged);
+        Context leftContext = new LeftContext(taggedSentence, sentence, pattern);
+        Context rightContext = new RightContext(taggedSentence, sentence, pattern);
+        
+        assertEquals(new LeftContext(nerTagged, sentence, pattern).getTaggedWords(), leftContext.getTaggedWords());
+        assertEquals(new RightContext(nerTagged, sentence, pattern).getTaggedWords(), rightContext.getTaggedWords());
+        assertEquals("N.Y.", leftContext.getSuitableEntity("http://dbpedia.org/ontology/Place"));
+        assertEquals("the Bronx", rightContext.getSuitableEntity("http://dbpedia.org/ontology/Place"));
+        
+        // consecutive tokens with the same tag are one entity
+        assertEquals(Arrays.asList("Brooklyn", "N.Y.", "the Bronx"), taggedSentence.getEntities(Context.namedEntityRecognitionTags));
+        assertEquals(Arrays.asList("Neil Gaiman", "Sandman"), Context.parseTaggedString("in_OTHER Neil_PERSON Gaiman_PERSON 's_OTHER Sandman_MISC ._OTHER").getEntities(Context.namedEntityRecognitionTags));
+        
+        // the least recently used sentence is evicted
+        TaggedSentenceCache cache = new TaggedSentenceCache(2);
+        cache.put(1, taggedSentence);
+        cache.put(2, taggedSentence);
+        cache.get(1);
+        cache.put(3, taggedSentence);
+        assertEquals(2, cache.size());
+        assertSame(taggedSentence, cache.get(1));
+        assertNull(cache.get(2));
+    }
+    
+    @Test
+    public void testContextAfterSentence() {
+        
+        // the tagger merged "New York City" into one token, so the right context starts after the tagged sentence
+        String sentence     = "He was born in New York City";
+        String nerTagged    = "He_OTHER was_OTHER born_OTHER in_OTHER New_York_City_PLACE";
+        
+        RightContext rightContext = new RightContext(nerTagged, sentence, "City");
+        assertEquals(0, rightContext.getCleanWords().size());
+        assertEquals("", rightContext.getSuitableEntity("http://dbpedia.org/ontology/Place"));
+    }
+    
+    @Test
+    public void testRandomizedContexts() {
+        
+        // lower case words only, so the tags can't be found in the words by the string based contexts
+        String[] words = new String[]{ "the", "city", "of", "was", "born", "in", "a", "river", "main", "new_york", "``", "'s", ",", "." };
+        List<String> tags = new ArrayList<String>(new LinkedHashSet<String>(Context.namedEntityRecognitionMappings.values()));
+        tags.add(Constants.NAMED_ENTITY_TAG_OTHER);
+        
+        // one entity type per tag and one without mapping
+        Map<String,String> entityTypes = new HashMap<String,String>();
+        for ( Map.Entry<String,String> mapping : Context.namedEntityRecognitionMappings.entrySet() ) entityTypes.put(mapping.getValue(), mapping.getKey());
+        entityTypes.put("", "http://dbpedia.org/ontology/NotMapped");
+        
+        Random random = new Random(42);
+        for ( int n = 0; n < 2000; n++ ) {
+            
+            int size = 1 + random.nextInt(12);
+            List<String> cleanWords = new ArrayList<String>();
+            List<String> taggedWords = new ArrayList<String>();
+            for ( int i = 0; i < size; i++ ) {
+                
+                String word = words[random.nextInt(words.length)];
+                cleanWords.add(word);
+                // a few words without tag, which can't be used for a context
+                taggedWords.add(random.nextInt(100) == 0 ? word : word + "_" + tags.get(random.nextInt(tags.size())));
+            }
+            int start = random.nextInt(size);
+            String pattern = StringUtils.join(cleanWords.subList(start, start + 1 + random.nextInt(Math.min(3, size - start))), " ");
+            String sentence = StringUtils.join(cleanWords, " ");
+            String nerTagged = StringUtils.join(taggedWords, " ");
+            
+            for ( boolean left : new boolean[]{ true, false } ) {
+                
+                List<List<String>> expected = null;
+                Context context = null;
+                Class<?> expectedException = null, exception = null;
+                try {
+                    
+                    expected = left ? createStringLeftContext(nerTagged, sentence, pattern) : createStringRightContext(nerTagged, sentence, pattern);
+                }
+                catch (RuntimeException e) {
+                    
+                    expectedException = e.getClass();
+                }
+                try {
+                    
+                    context = left ? new LeftContext(nerTagged, sentence, pattern) : new RightContext(nerTagged, sentence, pattern);
+                }
+                catch (RuntimeException e) {
+                    
+                    exception = e.getClass();
+                }
+                String message = (left ? "left: " : "right: ") + nerTagged + " / " + pattern;
+                assertEquals(message, expectedException, exception);
+                if ( expected == null ) continue;
+                
+                assertEquals(message, expected.get(0), context.getCleanWords());
+                assertEquals(message, expected.get(1), context.getTaggedWords());
+                for ( String entityType : entityTypes.values() ) {
+                    
+                    assertEquals(message, containsStringEntity(expected.get(1), entityType), context.containsSuitableEntity(entityType));
+                    assertEquals(message, getStringEntityDistance(expected.get(1), pattern, entityType, left), context.getSuitableEntityDistance(entityType));
+                    assertEquals(message, getStringEntity(expected, entityType, left), context.getSuitableEntity(entityType));
+                }
+            }
+        }
+    }
+    
+    /*
+     * The string based contexts as they were before the contexts were kept as
+     * arrays of tag ids, to check that the words, entities and distances are the same.
+     */
+    
+    private static List<List<String>> createStringLeftContext(String nerTaggedString, String sentence, String pattern) {
+        
+        String leftContextString = sentence.substring(0, sentence.toLowerCase().lastIndexOf(pattern.toLowerCase()) - 1).trim();
+        List<List<String>> context = createStringContext(nerTaggedString);
+        return subContext(context, 0, leftContextString.split(" ").length + 1);
+    }
+    
+    private static List<List<String>> createStringRightContext(String nerTaggedString, String sentence, String pattern) {
+        
+        String leftContextString = sentence.substring(0, sentence.toLowerCase().indexOf(pattern.toLowerCase()) - 1).trim();
+        List<List<String>> context = createStringContext(nerTaggedString);
+        return subContext(context, leftContextString.split(" ").length + pattern.split(" ").length - 1, context.get(0).size());
+    }
+    
+    private static List<List<String>> createStringContext(String nerTaggedString) {
+        
+        List<String> cleanWords = new ArrayList<String>();
+        List<String> taggedWords = new ArrayList<String>();
+        for ( String taggedWord : nerTaggedString.split(" ") ) {
+            
+            cleanWords.add(taggedWord.substring(0, taggedWord.lastIndexOf('_')));
+            taggedWords.add(taggedWord);
+        }
+        return Arrays.asList(cleanWords, taggedWords);
+    }
+    
+    private static List<List<String>> subContext(List<List<String>> context, int from, int to) {
+        
+        List<String> cleanWords = new ArrayList<String>();
+        List<String> taggedWords = new ArrayList<String>();
+        for ( int i = from; i < to; i++ ) {
+            
+            // like the arrays, which throw for words after the sentence
+            if ( i >= context.get(0).size() ) throw new ArrayIndexOutOfBoundsException(i);
+            cleanWords.add(context.get(0).get(i));
+            taggedWords.add(context.get(1).get(i));
+        }
+        return Arrays.asList(cleanWords, taggedWords);
+    }
+    
+    private static boolean containsStringEntity(List<String> taggedWords, String entityType) {
+        
+        String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
+        for ( String word : taggedWords ) {
+            
+            if ( entityMapping == null ) {
+                
+                for ( String tag : Context.namedEntityRecognitionTags )
+                    if ( word.contains(Constants.NAMED_ENTITY_TAG_DELIMITER + tag) ) return true;
+            }
+            else if ( word.contains(Constants.NAMED_ENTITY_TAG_DELIMITER + entityMapping) ) return true;
+        }
+        return false;
+    }
+    
+    private static int getStringEntityDistance(List<String> taggedWords, String pattern, String entityType, boolean left) {
+        
+        String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
+        int patternLength = pattern.split(" ").length;
+        int i = left ? taggedWords.size() - patternLength : patternLength - 1;
+        for ( int j = 0; left ? i >= 0 : i < taggedWords.size(); i += left ? -1 : 1, j++ ) {
+            
+            if ( entityMapping == null ) {
+                
+                for ( String tag : Context.namedEntityRecognitionTags )
+                    if ( taggedWords.get(i).contains(tag) ) return j;
+            }
+            else if ( taggedWords.get(i).contains(entityMapping) ) return j;
+        }
+        return -1;
+    }
+    
+    private static String getStringEntity(List<List<String>> context, String entityType, boolean left) {
+        
+        String entityMapping = Context.namedEntityRecognitionMappings.get(entityType);
+        List<String> taggedWords = context.get(1);
+        List<String> entity = new ArrayList<String>();
+        
+        // the left context is read from the pattern backwards
+        for ( int n = 0; n < taggedWords.size(); n++ ) {
+            
+            String word = taggedWords.get(left ? taggedWords.size() - 1 - n : n);
+            if ( entityMapping == null )
+                for ( String tag : Context.namedEntityRecognitionTags )
+                    if ( word.contains(tag) ) {
+                        
+                        entityMapping = tag;
+                        break;
+                    }
+            
+            if ( entityMapping != null && word.contains(entityMapping) ) entity.add(context.get(0).get(taggedWords.indexOf(word)));
+            else if ( !entity.isEmpty() ) break;
+        }
+        if ( left ) Collections.reverse(entity);
+        
+        return StringUtils.join(entity, " ");
+    }
 }
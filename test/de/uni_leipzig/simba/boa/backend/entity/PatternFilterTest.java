@@ -1,6 +1,12 @@
 package de.uni_leipzig.simba.boa.backend.entity;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import junit.framework.JUnit4TestAdapter;
 
 import org.junit.After;
@@ -11,7 +17,9 @@ import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSettings;
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilter;
+import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilterChain;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.PatternFilterFactory;
+import de.uni_leipzig.simba.boa.backend.entity.pattern.filter.impl.OccurrenceFilter;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.impl.SubjectPredicateObjectPattern;
 import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
@@ -102,4 +110,57 @@ public class PatternFilterTest {
 		}
 		assertTrue(pm.getPatterns().size() == 1);
 	}
+	
+	@Test
+	public void testPatternFilterChain() {
+		
+		NLPediaSettings.setSetting("number.of.occurrence.threshold", "2");
+		NLPediaSettings.setSetting("number.of.unique.occurrence.threshold", "2");
+		NLPediaSettings.setSetting("number.of.learned.pairs", "2");
+		NLPediaSettings.setSetting("patternFilterThreadPoolSize", "2");
+		
+		List<PatternMapping> mappings = new ArrayList<PatternMapping>();
+		for ( int i = 0 ; i < 10 ; i++ ) {
+			
+			PatternMapping pm = new PatternMapping();
+			pm.setProperty(new Property());
+			pm.getProperty().setUri("http://dbpedia.org/ontology/property" + i);
+			
+			// removed: occurs too rarely
+			Pattern p1 = new SubjectPredicateObjectPattern("?D? impoundment of the ?R?");
+			p1.setUseForPatternEvaluation(true);
+			p1.setNumberOfOccurrences(1);
+			p1.addLearnedFrom("ASD1" + "-;-" + "ASD");
+			p1.addLearnedFrom("ASD1" + "-;-" + "ASD");
+			p1.addLearnedFrom("ASD2" + "-;-" + "ASD");
+			
+			// removed: no pair occurs twice
+			Pattern p2 = new SubjectPredicateObjectPattern("?R? , which flows into ?D?");
+			p2.setUseForPatternEvaluation(true);
+			p2.setNumberOfOccurrences(3);
+			p2.addLearnedFrom("ASD1" + "-;-" + "ASD");
+			p2.addLearnedFrom("ASD2" + "-;-" + "ASD");
+			
+			// survives
+			Pattern p3 = new SubjectPredicateObjectPattern("?R? , which flows somewhere into ?D?");
+			p3.setUseForPatternEvaluation(true);
+			p3.setNumberOfOccurrences(3);
+			p3.addLearnedFrom("ASD1" + "-;-" + "ASD");
+			p3.addLearnedFrom("ASD1" + "-;-" + "ASD");
+			p3.addLearnedFrom("ASD2" + "-;-" + "ASD");
+			
+			pm.addPattern(p1).addPattern(p2).addPattern(p3);
+			mappings.add(pm);
+		}
+		
+		PatternFilterChain chain = new PatternFilterChain(Arrays.<PatternFilter>asList(new OccurrenceFilter()));
+		chain.filterPatterns(mappings);
+		
+		for ( PatternMapping pm : mappings ) {
+			
+			assertEquals(1, pm.getPatterns().size());
+			assertEquals("?R? , which flows somewhere into ?D?", pm.getPatterns().iterator().next().getNaturalLanguageRepresentation());
+		}
+		assertEquals(Long.valueOf(20), chain.getReport().get(OccurrenceFilter.class.getSimpleName()));
+	}
 }
@@ -2,30 +2,53 @@ package de.uni_leipzig.simba.boa.backend.entity;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.JUnit4TestAdapter;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Version;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
 import de.uni_leipzig.simba.boa.backend.entity.pattern.impl.SubjectPredicateObjectPattern;
+import de.uni_leipzig.simba.boa.backend.entity.patternmapping.PatternMapping;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.lucene.LowerCaseWhitespaceAnalyzer;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.Property;
+import de.uni_leipzig.simba.boa.backend.search.PatternSearcher;
 import de.uni_leipzig.simba.boa.backend.search.impl.DefaultPatternSearcher;
+import de.uni_leipzig.simba.boa.backend.util.PatternUtil;
+import de.uni_leipzig.simba.boa.backend.util.PatternUtil.PatternSelectionStrategy;
 
 
 public class PatternTest {
@@ -34,6 +57,8 @@ public class PatternTest {
 	NLPediaSetup setup = null;
 	NLPediaLogger logger = null;
 	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 	
 	public static junit.framework.Test suite() {
 		
@@ -131,4 +156,137 @@ public class PatternTest {
         
         
 	}
+	
+	@Test
+	public void testTopNPattern() {
+		
+		Random random = new Random(42);
+		for ( int numberOfPatterns : new int[]{ 0, 1, 2, 3, 4, 7, 12, 25, 100 } ) {
+			
+			PatternMapping mapping = new PatternMapping(new Property("http://dbpedia.org/ontology/author"));
+			for ( int i = 0; i < numberOfPatterns; i++ ) {
+				
+				Pattern pattern = new SubjectPredicateObjectPattern("?D? pattern " + i + " ?R?");
+				// a few equal scores
+				pattern.setScore(random.nextInt(20) / 20D);
+				mapping.addPattern(pattern);
+			}
+			
+			for ( Double threshold : new Double[]{ null, 0D, 0.5, 0.95, 1D } ) {
+				
+				List<Pattern> expectedAll = this.sortByScore(mapping.getPatterns(), threshold);
+				assertScores(expectedAll, PatternUtil.getTopNPattern(mapping.getPatterns(), PatternSelectionStrategy.ALL, null, threshold));
+				assertScores(expectedAll, PatternUtil.getTopNPattern(mapping, PatternSelectionStrategy.ALL, null, threshold));
+				
+				for ( int topN : new int[]{ 0, 1, 3, 10 } ) {
+					
+					List<Pattern> expected = expectedAll.subList(0, Math.min(topN, expectedAll.size()));
+					assertScores(expected, PatternUtil.getTopNPattern(mapping.getPatterns(), PatternSelectionStrategy.ALL, topN, threshold));
+					assertScores(expected, PatternUtil.getTopNPattern(mapping, PatternSelectionStrategy.ALL, topN, threshold));
+				}
+				
+				int safeTopN = expectedAll.size() < 3 ? 0 : expectedAll.size() < 5 ? 1 : expectedAll.size() < 10 ? 2 : expectedAll.size() < 20 ? 3 : 5;
+				assertScores(expectedAll.subList(0, safeTopN), PatternUtil.getTopNPattern(mapping.getPatterns(), PatternSelectionStrategy.SAFE, 100, threshold));
+				assertScores(expectedAll.subList(0, safeTopN), PatternUtil.getTopNPattern(mapping, PatternSelectionStrategy.SAFE, 100, threshold));
+			}
+		}
+	}
+	
+	@Test
+	public void testPatternsSortedByScore() {
+		
+		PatternMapping mapping = new PatternMapping(new Property("http://dbpedia.org/ontology/author"));
+		Pattern p0 = new SubjectPredicateObjectPattern("?D? wrote ?R?");
+		p0.setScore(0.3);
+		Pattern p1 = new SubjectPredicateObjectPattern("?D? , author of ?R?");
+		p1.setScore(0.7);
+		mapping.addPattern(p0).addPattern(p1);
+		
+		assertEquals(Arrays.asList(p1, p0), mapping.retrievePatternsSortedByScore(null));
+		assertEquals(Arrays.asList(p1), mapping.retrievePatternsSortedByScore(0.5));
+		
+		// changed scores and new patterns are noticed
+		p0.setScore(0.9);
+		assertEquals(Arrays.asList(p0, p1), mapping.retrievePatternsSortedByScore(null));
+		Pattern p2 = new SubjectPredicateObjectPattern("?R? by ?D?");
+		p2.setScore(0.8);
+		mapping.addPattern(p2);
+		assertEquals(Arrays.asList(p0, p2), mapping.retrievePatternsSortedByScore(0.75));
+		
+		// so is a pattern replaced by another one with the same score
+		Pattern p3 = new SubjectPredicateObjectPattern("?R? written by ?D?");
+		p3.setScore(0.8);
+		mapping.removePattern(p2);
+		mapping.addPattern(p3);
+		assertEquals(Arrays.asList(p0, p3, p1), mapping.retrievePatternsSortedByScore(null));
+	}
+	
+	@Test
+	public void testPatternSearcher() throws Exception {
+		
+		File directory = this.folder.newFolder("index");
+		IndexWriter writer = new IndexWriter(FSDirectory.open(directory), new IndexWriterConfig(Version.LUCENE_34, new LowerCaseWhitespaceAnalyzer()));
+		for ( int i = 0; i < 5; i++ ) {
+			
+			Document document = new Document();
+			document.add(new Field("sentence", "sentence number " + i, Field.Store.YES, Field.Index.ANALYZED));
+			writer.addDocument(document);
+		}
+		writer.close();
+		
+		try {
+			
+			// the sentences are returned in the order of the ids
+			assertEquals(Arrays.asList("sentence number 3", "sentence number 0", "sentence number 3", "sentence number 1"), 
+					PatternUtil.getLuceneDocuments(directory.getAbsolutePath(), Arrays.asList(3, 0, 3, 1)));
+			
+			// all threads get the same searcher for the same index
+			final String indexDir = directory.getAbsolutePath();
+			ExecutorService executorService = Executors.newFixedThreadPool(4);
+			List<Future<PatternSearcher>> searchers = new ArrayList<Future<PatternSearcher>>();
+			for ( int i = 0; i < 8; i++ ) {
+				
+				searchers.add(executorService.submit(new Callable<PatternSearcher>() {
+					
+					@Override
+					public PatternSearcher call() {
+						
+						return PatternUtil.getPatternSearcher(indexDir);
+					}
+				}));
+			}
+			for ( Future<PatternSearcher> searcher : searchers ) assertSame(PatternUtil.getPatternSearcher(indexDir), searcher.get());
+			executorService.shutdown();
+		}
+		finally {
+			
+			PatternUtil.closePatternSearchers();
+		}
+	}
+	
+	private List<Pattern> sortByScore(Set<Pattern> patterns, Double threshold) {
+		
+		List<Pattern> sortedPatterns = new ArrayList<Pattern>();
+		for ( Pattern pattern : patterns )
+			if ( threshold == null || pattern.getScore() >= threshold ) sortedPatterns.add(pattern);
+		
+		Collections.sort(sortedPatterns, new Comparator<Pattern>() {
+
+			@Override
+			public int compare(Pattern pattern1, Pattern pattern2) {
+
+				return pattern2.getScore().compareTo(pattern1.getScore());
+			}
+		});
+		return sortedPatterns;
+	}
+	
+	/**
+	 * patterns with equal scores might be selected in any order
+	 */
+	private static void assertScores(List<Pattern> expected, List<Pattern> actual) {
+		
+		assertEquals(expected.size(), actual.size());
+		for ( int i = 0; i < expected.size(); i++ ) assertEquals(expected.get(i).getScore(), actual.get(i).getScore());
+	}
 }
@@ -3,10 +3,13 @@
  */
 package de.uni_leipzig.simba.boa.backend.entity;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import junit.framework.JUnit4TestAdapter;
@@ -19,6 +22,7 @@ import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Property;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Resource;
+import de.uni_leipzig.simba.boa.backend.rdf.entity.ResourceManager;
 import de.uni_leipzig.simba.boa.backend.rdf.entity.Triple;
 
 
@@ -72,4 +76,78 @@ public class TripleTest {
         
         assertTrue(triples.contains(t2));
     }
+    
+    @Test
+    public void testResourceLabels() {
+        
+        Resource resource = new Resource("http://dbpedia.org/resource/The_Beatles", "The Beatles", "http://dbpedia.org/ontology/Band");
+        resource.setSurfaceForms("The Beatles_&_Beatles_&_B_&_the fab four");
+        
+        assertEquals(Arrays.asList(" the beatles ", " beatles ", " the fab four "), new ArrayList<String>(resource.retrieveLabels()));
+        assertSame(resource.retrieveLabels(), resource.retrieveLabels());
+        
+        Resource other = new Resource("http://dbpedia.org/resource/Beatles", "Beatles");
+        other.setSurfaceForms("Beatles");
+        assertSame(new ArrayList<String>(resource.retrieveLabels()).get(1), other.retrieveLabels().iterator().next());
+        
+        // changing the surface forms parses them again
+        resource.setSurfaceForms("Fab Four");
+        assertEquals(Arrays.asList(" fab four ", " the beatles "), new ArrayList<String>(resource.retrieveLabels()));
+    }
+    
+    @Test
+    public void testResourceManager() {
+        
+        ResourceManager manager = new ResourceManager();
+        
+        Resource subject1 = manager.getResource("s1", "sLabel1", "type");
+        Resource subject2 = manager.getResource("s1", "sLabel2", "type");
+        Resource object1 = manager.getResource("o1", "oLabel1", "type");
+        
+        assertSame(subject1, subject2);
+        assertEquals("sLabel1", subject2.getLabel());
+        assertEquals(2, manager.size());
+        
+        Triple t1 = new Triple(subject1, new Property("p1", "range", "domain"), object1);
+        Triple t2 = new Triple(subject2, new Property("p1", "range", "domain"), manager.getResource("o1", "oLabel2", "type"));
+        assertEquals(t1, t2);
+        assertSame(t1.getObject(), t2.getObject());
+        
+        // every run has its own resources
+        assertEquals(0, new ResourceManager().size());
+        assertEquals("sLabel2", new ResourceManager().getResource("s1", "sLabel2", "type").getLabel());
+    }
+    
+    @Test
+    public void testLearnedFromSentences() {
+        
+        Triple triple = new Triple(new Resource("s1", "sLabel1"), new Property("p1", "range", "domain"), new Resource("o1", "oLabel1"));
+        assertEquals(0, triple.getLearnedFromSentenceIds().length);
+        
+        // single ids are inserted at their position, duplicates are ignored
+        triple.addLearnedFromSentence(5);
+        triple.addLearnedFromSentence(1);
+        triple.addLearnedFromSentence(9);
+        triple.addLearnedFromSentence(5);
+        triple.addLearnedFromSentence(3);
+        assertArrayEquals(new int[]{1, 3, 5, 9}, triple.getLearnedFromSentenceIds());
+        
+        // overlapping ids, duplicates in both arrays are kept once
+        triple.addLearnedFromSentences(new int[]{0, 3, 4, 9, 12});
+        assertArrayEquals(new int[]{0, 1, 3, 4, 5, 9, 12}, triple.getLearnedFromSentenceIds());
+        
+        // disjoint ids before and after the known ones
+        triple.addLearnedFromSentences(new int[]{-2, 20, 21});
+        assertArrayEquals(new int[]{-2, 0, 1, 3, 4, 5, 9, 12, 20, 21}, triple.getLearnedFromSentenceIds());
+        
+        // only known ids and no ids don't change anything
+        triple.addLearnedFromSentences(new int[]{1, 12});
+        triple.addLearnedFromSentences(new int[0]);
+        assertArrayEquals(new int[]{-2, 0, 1, 3, 4, 5, 9, 12, 20, 21}, triple.getLearnedFromSentenceIds());
+        
+        // merging into a triple without ids copies the ids
+        Triple other = new Triple(new Resource("s2", "sLabel2"), new Property("p1", "range", "domain"), new Resource("o2", "oLabel2"));
+        other.addLearnedFromSentences(triple.getLearnedFromSentenceIds());
+        assertArrayEquals(triple.getLearnedFromSentenceIds(), other.getLearnedFromSentenceIds());
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.experimental;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import kr.ac.kaist.swrc.jhannanum.hannanum.Workflow;
+
+import com.github.gerbsen.file.BufferedFileReader;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.josatagger.impl.KoreanJosaTagger;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanMorphologicalAnalysis;
+import de.uni_leipzig.simba.boa.backend.naturallanguageprocessing.partofspeechtagger.impl.KoreanWorkflowPool;
+
+/**
+ * Compares the string concatenating result assembly of the korean tagger and
+ * josa tagger with the array based one. The workflow runs once per sentence
+ * before the measurement, so only the assembly of the results is timed.
+ *
+ * Usage: KoreanTaggingBenchmark /path/to/kowiki_sentences.txt [maxSentences] [rounds]
+ *
+ * @author cdh4696
+ */
+public class KoreanTaggingBenchmark {
+
+    static NLPediaSetup setup = new NLPediaSetup(true);
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args) {
+
+        int maxSentences = args.length > 1 ? Integer.valueOf(args[1]) : 10000;
+        int rounds = args.length > 2 ? Integer.valueOf(args[2]) : 10;
+
+        List<String> sentences = new ArrayList<String>();
+        List<String> results = new ArrayList<String>();
+
+        BufferedFileReader reader = new BufferedFileReader(args[0], "UTF-8");
+        Workflow workflow = KoreanWorkflowPool.getInstance().borrowWorkflow();
+        String line = "";
+        while ((line = reader.readLine()) != null && sentences.size() < maxSentences) {
+
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            try {
+
+                workflow.analyze(line);
+                results.add(workflow.getResultOfDocument());
+                sentences.add(line);
+            }
+            catch (Exception e) {
+                // the tagger fails for some sentences, they are not part of the benchmark
+            }
+        }
+        reader.close();
+        KoreanWorkflowPool.getInstance().returnWorkflow(workflow);
+        System.out.println("Analyzed " + sentences.size() + " sentences");
+
+        KoreanJosaTagger josaTagger = new KoreanJosaTagger();
+
+        // warm up and check that both produce the same sentences
+        int differences = 0;
+        for (int i = 0; i < sentences.size(); i++) {
+
+            String legacy = legacyJosaSeparatedSentence(sentences.get(i), legacyTagSentencePerWord(results.get(i)));
+            String current = josaTagger.separate(sentences.get(i), KoreanMorphologicalAnalysis.fromWorkflowResult(sentences.get(i), results.get(i))).toString();
+            if (!legacy.equals(current)) differences++;
+        }
+        System.out.println("Different josa separated sentences: " + differences);
+
+        for (int round = 0; round < rounds; round++) {
+
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < sentences.size(); i++)
+                checksum += legacyJosaSeparatedSentence(sentences.get(i), legacyTagSentencePerWord(results.get(i))).length();
+            long legacyTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < sentences.size(); i++)
+                checksum += josaTagger.separate(sentences.get(i), KoreanMorphologicalAnalysis.fromWorkflowResult(sentences.get(i), results.get(i))).toString().length();
+            long currentTime = System.nanoTime() - start;
+
+            System.out.println(String.format("Round %d: legacy %d ms, arrays %d ms (%d)",
+                    round, legacyTime / 1000000, currentTime / 1000000, checksum));
+        }
+    }
+
+    /**
+     * The former KoreanPartOfSpeechTagger.tagSentencePerWord after the workflow ran.
+     */
+    private static ArrayList<String> legacyTagSentencePerWord(String result) {
+
+        ArrayList<String> ret = new ArrayList<String>();
+        StringTokenizer tok = new StringTokenizer(result, "\n");
+        while (tok.hasMoreElements()) {
+
+            ret.add(tok.nextToken());
+            String analyzed = tok.nextToken().trim();
+            String lineAnal = "";
+            StringTokenizer tok2 = new StringTokenizer(analyzed, "+");
+            while (tok2.hasMoreElements()) {
+
+                String token = tok2.nextToken();
+                int idxSlash = token.lastIndexOf('/');
+                while (idxSlash < 0) {
+
+                    token += tok2.nextToken();
+                    idxSlash = token.lastIndexOf('/');
+                }
+                lineAnal = lineAnal + token.substring(0, idxSlash) + "_" + token.substring(idxSlash + 1) + " ";
+            }
+            ret.add(lineAnal.trim());
+        }
+        return ret;
+    }
+
+    /**
+     * The former KoreanJosaTagger.getJosaSeparatedSentence.
+     */
+    private static String legacyJosaSeparatedSentence(String origSen, ArrayList<String> perLineResult) {
+
+        Iterator<String> rIter = perLineResult.iterator();
+        String ret = "";
+        try {
+
+            while (rIter.hasNext()) {
+
+                String origTxt = rIter.next();
+                String analyzed = rIter.next();
+                int firstJosa = findFirstJOSAIndex(analyzed);
+                int startIdx = origSen.indexOf(origTxt);
+                if (firstJosa < 0) {
+
+                    ret += origSen.substring(0, startIdx + origTxt.length());
+                }
+                else {
+
+                    int index = findJOSACuttingLocation(origTxt, analyzed, firstJosa);
+                    ret += origSen.substring(0, startIdx + index) + " " + origSen.substring(startIdx + index, startIdx + origTxt.length());
+                }
+                origSen = origSen.substring(startIdx + origTxt.length());
+            }
+        }
+        catch (Exception e) {
+            // same as before, the partial result is returned
+        }
+        return ret;
+    }
+
+    private static int findJOSACuttingLocation(String origTxt, String analyzed, int firstJosa) {
+
+        StringTokenizer nounTokens = new StringTokenizer(analyzed.substring(0, firstJosa), " ");
+        int index = 0;
+        while (nounTokens.hasMoreElements()) index += nounTokens.nextToken().lastIndexOf('_');
+
+        if (index >= origTxt.length()) {
+
+            StringTokenizer josaTokens = new StringTokenizer(analyzed.substring(firstJosa + 1), " ");
+            josaTokens.nextToken();
+            index = origTxt.length();
+            while (josaTokens.hasMoreElements()) index -= josaTokens.nextToken().lastIndexOf('_');
+        }
+        return index;
+    }
+
+    private static int findFirstJOSAIndex(String analyzed) {
+
+        String[] analArr = analyzed.split(" ");
+        for (int i = analArr.length - 1; i >= 0; i--) {
+
+            String pos = analArr[i].substring(analArr[i].lastIndexOf('_') + 1);
+            if (!pos.isEmpty() && pos.charAt(0) == 'j') return analyzed.lastIndexOf(analArr[i]);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,143 @@
+package de.uni_leipzig.simba.boa.backend.lucene;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.entity.pattern.Pattern;
+import de.uni_leipzig.simba.boa.backend.entity.pattern.impl.SubjectPredicateObjectPattern;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.search.PatternSearcher;
+import de.uni_leipzig.simba.boa.backend.search.impl.DefaultPatternSearcher;
+import de.uni_leipzig.simba.boa.backend.search.result.EvidenceSentence;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternEvidence;
+
+
+public class PatternEvidenceTest {
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+    NLPediaLogger logger = null;
+    PatternSearcher searcher = null;
+    PatternEvidence evidence = null;
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(PatternEvidenceTest.class);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+
+        this.setup = new NLPediaSetup(true);
+        this.logger = new NLPediaLogger(PatternEvidenceTest.class);
+
+        // the document ids are the sentence ids of the corpus index
+        Directory index = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(Version.LUCENE_34, new LowerCaseWhitespaceAnalyzer()));
+        writer.addDocument(this.createDocument("Albert Einstein was born in Ulm ."));
+        writer.addDocument(this.createDocument("Ulm is a city in Germany ."));
+        writer.addDocument(this.createDocument("EINSTEIN Was Born In ULM ."));
+        writer.addDocument(this.createDocument("Einstein lived in Bern ."));
+        writer.addDocument(this.createDocument("In 1879 Einstein was born in the city of Ulm ."));
+        writer.close();
+
+        Pattern pattern = new SubjectPredicateObjectPattern("?D? was born in ?R?");
+        pattern.setFoundInSentences(new HashSet<Integer>(Arrays.asList(4, 0, 2)));
+        Map<String,Integer> learnedFrom = new HashMap<String,Integer>();
+        learnedFrom.put("Albert Einstein-;-Ulm", 2);
+        learnedFrom.put("Einstein-;-Ulm", 1);
+        pattern.setLearnedFrom(learnedFrom);
+
+        this.searcher = new DefaultPatternSearcher(index);
+        this.evidence = new PatternEvidence(this.searcher, pattern);
+    }
+
+    @After
+    public void cleanUpStreams() {
+
+        this.searcher.close();
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testPaging() {
+
+        assertEquals(3, this.evidence.size());
+
+        List<EvidenceSentence> sentences = this.evidence.getSentences(0, 2);
+        assertEquals(2, sentences.size());
+        assertEquals(0, sentences.get(0).getSentenceId());
+        assertEquals("Albert Einstein was born in Ulm .", sentences.get(0).getSentence());
+        assertEquals(2, sentences.get(1).getSentenceId());
+        assertEquals("EINSTEIN Was Born In ULM .", sentences.get(1).getSentence());
+
+        sentences = this.evidence.getSentences(2, 10);
+        assertEquals(1, sentences.size());
+        assertEquals(4, sentences.get(0).getSentenceId());
+        assertEquals("In 1879 Einstein was born in the city of Ulm .", sentences.get(0).getSentence());
+
+        assertEquals(3, this.evidence.getSentences(-1, Integer.MAX_VALUE).size());
+        assertEquals(0, this.evidence.getSentences(3, 10).size());
+        assertEquals(0, this.evidence.getSentences(0, 0).size());
+    }
+
+    @Test
+    public void testOffsets() {
+
+        List<EvidenceSentence> sentences = this.evidence.getSentences(0, 3);
+
+        // the longest label is found first
+        EvidenceSentence sentence = sentences.get(0);
+        assertEquals(0, sentence.getSubjectStart());
+        assertEquals(15, sentence.getSubjectEnd());
+        assertEquals(28, sentence.getObjectStart());
+        assertEquals(31, sentence.getObjectEnd());
+        assertEquals(16, sentence.getPatternStart());
+        assertEquals(27, sentence.getPatternEnd());
+
+        // labels and the pattern are matched case insensitive
+        sentence = sentences.get(1);
+        assertEquals(0, sentence.getSubjectStart());
+        assertEquals(8, sentence.getSubjectEnd());
+        assertEquals(21, sentence.getObjectStart());
+        assertEquals(24, sentence.getObjectEnd());
+        assertEquals(9, sentence.getPatternStart());
+        assertEquals(20, sentence.getPatternEnd());
+
+        sentence = this.evidence.getEvidenceSentence(1, "Ulm is a city in Germany .");
+        assertEquals(-1, sentence.getSubjectStart());
+        assertEquals(-1, sentence.getSubjectEnd());
+        assertEquals(0, sentence.getObjectStart());
+        assertEquals(-1, sentence.getPatternStart());
+        assertEquals(-1, sentence.getPatternEnd());
+    }
+
+    private Document createDocument(String sentence) {
+
+        // same field as the corpus index
+        Document doc = new Document();
+        doc.add(new Field("sentence", sentence, Field.Store.YES, Field.Index.ANALYZED));
+
+        return doc;
+    }
+}
@@ -0,0 +1,167 @@
+package de.uni_leipzig.simba.boa.backend.lucene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.search.patternindex.PatternIndexSearcher;
+import de.uni_leipzig.simba.boa.backend.search.result.PatternIndexResult;
+
+
+public class PatternIndexSearcherTest {
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+    NLPediaLogger logger = null;
+    PatternIndexSearcher searcher = null;
+
+    private static final String BIRTH_PLACE = "http://dbpedia.org/ontology/birthPlace";
+    private static final String DEATH_PLACE = "http://dbpedia.org/ontology/deathPlace";
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(PatternIndexSearcherTest.class);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+
+        this.setup = new NLPediaSetup(true);
+        this.logger = new NLPediaLogger(PatternIndexSearcherTest.class);
+
+        // same fields as the DefaultPatternIndexCreationModule writes
+        Directory index = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(Version.LUCENE_34, new LowerCaseWhitespaceAnalyzer()));
+        writer.addDocument(this.createDocument(BIRTH_PLACE, "?D? was born in ?R?", 0.9));
+        writer.addDocument(this.createDocument(BIRTH_PLACE, "?D? , born in ?R?", 0.7));
+        writer.addDocument(this.createDocument(BIRTH_PLACE, "?D? was raised in ?R?", 0.3));
+        writer.addDocument(this.createDocument(BIRTH_PLACE, "?D? is a native of ?R?", 0.5));
+        writer.addDocument(this.createDocument(DEATH_PLACE, "?D? died in ?R?", 0.8));
+        writer.addDocument(this.createDocument(DEATH_PLACE, "?D? was buried in ?R?", 0.4));
+        writer.close();
+
+        this.searcher = new PatternIndexSearcher(index);
+    }
+
+    @After
+    public void cleanUpStreams() {
+
+        this.searcher.close();
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testPatternsForProperty() {
+
+        assertEquals(6, this.searcher.getNumberOfPatterns());
+
+        List<PatternIndexResult> patterns = this.searcher.getPatternsForProperty(BIRTH_PLACE, null, null, 10);
+        assertEquals(4, patterns.size());
+        assertEquals("?D? was born in ?R?", patterns.get(0).getNaturalLanguageRepresentation());
+        assertEquals("was born in", patterns.get(0).getNaturalLanguageRepresentationWithoutVariables());
+        assertEquals(BIRTH_PLACE, patterns.get(0).getPropertyUri());
+        assertEquals(0.9, patterns.get(0).getScore(), 0.0001);
+        this.assertSortedByScore(patterns);
+
+        assertEquals(0, this.searcher.getPatternsForProperty("http://dbpedia.org/ontology/spouse", null, null, 10).size());
+    }
+
+    @Test
+    public void testTopK() {
+
+        List<PatternIndexResult> patterns = this.searcher.getPatterns(null, null, 3);
+        assertEquals(3, patterns.size());
+        assertEquals(0.9, patterns.get(0).getScore(), 0.0001);
+        assertEquals(0.8, patterns.get(1).getScore(), 0.0001);
+        assertEquals(0.7, patterns.get(2).getScore(), 0.0001);
+
+        assertEquals(6, this.searcher.getPatterns(null, null, 100).size());
+        assertEquals(0, this.searcher.getPatterns(null, null, 0).size());
+    }
+
+    @Test
+    public void testScoreRange() {
+
+        // both bounds are inclusive
+        List<PatternIndexResult> patterns = this.searcher.getPatternsForProperty(BIRTH_PLACE, 0.5, 0.9, 10);
+        assertEquals(3, patterns.size());
+        this.assertSortedByScore(patterns);
+        for ( PatternIndexResult pattern : patterns ) assertTrue(pattern.getScore() >= 0.5);
+
+        assertEquals(1, this.searcher.getPatternsForProperty(BIRTH_PLACE, null, 0.3, 10).size());
+        assertEquals(2, this.searcher.getPatterns(0.75, null, 10).size());
+    }
+
+    @Test
+    public void testPrefix() {
+
+        List<PatternIndexResult> patterns = this.searcher.getPatternsByPrefix("Was ", null, null, 10);
+        assertEquals(3, patterns.size());
+        assertEquals("?D? was born in ?R?", patterns.get(0).getNaturalLanguageRepresentation());
+        assertEquals("?D? was buried in ?R?", patterns.get(1).getNaturalLanguageRepresentation());
+        assertEquals("?D? was raised in ?R?", patterns.get(2).getNaturalLanguageRepresentation());
+
+        assertEquals(1, this.searcher.getPatternsByPrefix("was b", 0.5, null, 10).size());
+    }
+
+    @Test
+    public void testFuzzy() {
+
+        List<PatternIndexResult> patterns = this.searcher.getPatternsByFuzzyNaturalLanguageRepresentation("?D? was bron in ?R?", 0.4f, null, null, 10);
+        assertEquals(1, patterns.size());
+        assertEquals("?D? was born in ?R?", patterns.get(0).getNaturalLanguageRepresentation());
+
+        patterns = this.searcher.getPatternsByFuzzyNaturalLanguageRepresentation("bron", 0.4f, null, null, 10);
+        assertEquals(2, patterns.size());
+        this.assertSortedByScore(patterns);
+    }
+
+    @Test
+    public void testCache() {
+
+        List<PatternIndexResult> first = this.searcher.getPatternsForProperty(DEATH_PLACE, null, null, 10);
+        assertSame(first, this.searcher.getPatternsForProperty(DEATH_PLACE, null, null, 10));
+        assertEquals(1, this.searcher.getPatternsForProperty(DEATH_PLACE, null, null, 1).size());
+    }
+
+    private void assertSortedByScore(List<PatternIndexResult> patterns) {
+
+        List<Double> scores = new ArrayList<Double>();
+        for ( PatternIndexResult pattern : patterns ) scores.add(pattern.getScore());
+        for ( int i = 1; i < scores.size(); i++ ) assertTrue(scores.get(i - 1) >= scores.get(i));
+    }
+
+    private Document createDocument(String uri, String naturalLanguageRepresentation, double score) {
+
+        String naturalLanguageRepresentationWithoutVariables = naturalLanguageRepresentation.replace("?D?", "").replace("?R?", "").trim();
+
+        Document doc = new Document();
+        doc.add(new Field("uri",            uri, Field.Store.YES, Field.Index.NOT_ANALYZED));
+        doc.add(new Field("nlr-var",        naturalLanguageRepresentation, Field.Store.YES, Field.Index.ANALYZED));
+        doc.add(new Field("nlr-no-var",     naturalLanguageRepresentationWithoutVariables, Field.Store.YES, Field.Index.ANALYZED));
+        doc.add(new Field("nlr-prefix",     naturalLanguageRepresentationWithoutVariables.toLowerCase(), Field.Store.NO, Field.Index.NOT_ANALYZED));
+        doc.add(new NumericField("boa-score",   Field.Store.YES, true).setDoubleValue(score));
+
+        return doc;
+    }
+}
@@ -0,0 +1,137 @@
+package de.uni_leipzig.simba.boa.backend.lucene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.indexing.impl.PubMedArticleContentHandler;
+import de.uni_leipzig.simba.boa.backend.pipeline.module.indexing.impl.PubMedIndexGenerator;
+
+/**
+ * Parses and indexes a few NXML articles written to a temporary directory.
+ *
+ * @author gerb
+ */
+public class PubMedIndexGeneratorTest {
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+    private File article;
+    private File articleWithoutPmid;
+    private File brokenArticle;
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(PubMedIndexGeneratorTest.class);
+    }
+
+    @Before
+    public void setUp() throws IOException {
+
+        this.setup = new NLPediaSetup(true);
+
+        this.article = new File(this.directory.getRoot(), "Leipzig_Med_J_2012.nxml");
+        FileUtils.writeStringToFile(this.article,
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<!DOCTYPE article PUBLIC \"-//NLM//DTD Journal Archiving and Interchange DTD v2.3 20070202//EN\" \"archivearticle.dtd\">\n" +
+                "<article><front><journal-meta><journal-title>Leipzig Medical Journal</journal-title></journal-meta>\n" +
+                "<article-meta><article-id pub-id-type=\"pmc\">1234</article-id><article-id pub-id-type=\"pmid\">98765</article-id></article-meta></front>\n" +
+                "<body><sec><title>Introduction</title>\n" +
+                "<p>Aspirin is a drug which is used to treat pain and fever in adults.</p>" +
+                "<p>The drug was first isolated by Felix Hoffmann at <italic>Bayer</italic> in Germany.</p>\n" +
+                "<table-wrap><caption><p>Table caption which should not be indexed at all.</p></caption></table-wrap>\n" +
+                "</sec></body><back><ref-list><ref>A reference which is not part of the body.</ref></ref-list></back></article>", "UTF-8");
+
+        this.articleWithoutPmid = new File(this.directory.getRoot(), "Leipzig_Med_J_2013.nxml");
+        FileUtils.writeStringToFile(this.articleWithoutPmid,
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<article><front><article-meta><article-id pub-id-type=\"pmc\">4321</article-id></article-meta></front>\n" +
+                "<body><p>Ibuprofen is a drug which is used to treat pain and inflammation.</p></body></article>", "UTF-8");
+
+        this.brokenArticle = new File(this.directory.getRoot(), "Leipzig_Med_J_2014.nxml");
+        FileUtils.writeStringToFile(this.brokenArticle, "<article><body><p>This article is not well formed", "UTF-8");
+    }
+
+    @After
+    public void cleanUpStreams() {
+
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testContentHandler() throws Exception {
+
+        PubMedArticleContentHandler handler = new PubMedArticleContentHandler();
+        XMLReader xmlReader = XMLReaderFactory.createXMLReader();
+        xmlReader.setContentHandler(handler);
+        xmlReader.setEntityResolver(handler);
+
+        xmlReader.parse(new InputSource(this.article.toURI().toString()));
+        assertEquals("http://www.ncbi.nlm.nih.gov/pubmed/98765", handler.getUri());
+        assertEquals("Introduction\n\n" +
+                "Aspirin is a drug which is used to treat pain and fever in adults.\n" +
+                "The drug was first isolated by Felix Hoffmann at Bayer in Germany.\n\n\n", handler.getText().toString());
+
+        // the buffers are reused for the next article
+        xmlReader.parse(new InputSource(this.articleWithoutPmid.toURI().toString()));
+        assertEquals(null, handler.getUri());
+        assertEquals("Ibuprofen is a drug which is used to treat pain and inflammation.\n", handler.getText().toString());
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+
+        RAMDirectory index = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(Version.LUCENE_34, new LowerCaseWhitespaceAnalyzer()));
+        int articles = new PubMedIndexGenerator().index(Arrays.asList(this.article, this.articleWithoutPmid, this.brokenArticle), writer);
+        writer.close();
+
+        // the broken article is skipped
+        assertEquals(2, articles);
+
+        IndexReader reader = IndexReader.open(index);
+        assertTrue(reader.numDocs() > 0);
+        Set<String> uris = new HashSet<String>();
+        for ( int i = 0; i < reader.maxDoc(); i++ ) {
+
+            Document document = reader.document(i);
+            uris.add(document.get("uri"));
+            assertNotNull(document.get("sentence"));
+            assertNotNull(document.get("ner"));
+            assertNotNull(document.get("pos"));
+            assertFalse(document.get("sentence").contains("Table caption"));
+        }
+        reader.close();
+        assertTrue(uris.contains("http://www.ncbi.nlm.nih.gov/pubmed/98765"));
+        assertTrue(uris.contains("Leipzig_Med_J_2013.nxml"));
+    }
+}
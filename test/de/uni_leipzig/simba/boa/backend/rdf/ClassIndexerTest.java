@@ -0,0 +1,157 @@
+package de.uni_leipzig.simba.boa.backend.rdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.hp.hpl.jena.ontology.OntClass;
+import com.hp.hpl.jena.ontology.OntModel;
+import com.hp.hpl.jena.ontology.OntModelSpec;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+
+import de.uni_leipzig.simba.boa.backend.Constants;
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
+import de.uni_leipzig.simba.boa.backend.rdf.ontology.ClassIndexer;
+
+public class ClassIndexerTest {
+
+	// initialize logging and settings
+	NLPediaSetup setup = null;
+	NLPediaLogger logger = null;
+
+	public static junit.framework.Test suite() {
+
+		return new JUnit4TestAdapter(ClassIndexerTest.class);
+	}
+
+	@Before
+	public void setUp() {
+
+		this.setup = new NLPediaSetup(true);
+		this.logger = new NLPediaLogger(ClassIndexerTest.class);
+	}
+
+	@After
+	public void cleanUpStreams() {
+
+		this.setup.destroy();
+	}
+
+	@Test
+	public void testCycle() {
+
+		// Agent ⊑ Person ⊑ Being ⊑ Agent, Agent ⊑ Thing and Athlete ⊑ Person,
+		// jena hides cycles of two classes from the direct superclasses
+		OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+		OntClass thing = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Thing");
+		OntClass agent = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Agent");
+		OntClass person = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Person");
+		OntClass being = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Being");
+		OntClass athlete = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Athlete");
+		agent.addSuperClass(person);
+		agent.addSuperClass(thing);
+		person.addSuperClass(being);
+		being.addSuperClass(agent);
+		athlete.addSuperClass(person);
+
+		ClassIndexer indexer = new ClassIndexer();
+		indexer.index(model);
+
+		// every class of the cycle has the full closure, no matter which one was visited first
+		for ( OntClass cl : Arrays.asList(agent, person, being) ) {
+
+			assertEquals(new HashSet<String>(Arrays.asList("Thing", "Agent", "Person", "Being")), indexer.getSuperClassUrisForClassUri(cl.getURI(), null));
+			assertTrue(indexer.isSubclassOf(cl.getURI(), thing.getURI()));
+		}
+		assertTrue(indexer.isSubclassOf(being.getURI(), person.getURI()));
+		assertTrue(indexer.isSubclassOf(person.getURI(), agent.getURI()));
+		assertTrue(indexer.isSubclassOf(athlete.getURI(), thing.getURI()));
+		assertTrue(indexer.isSubclassOf(athlete.getURI(), being.getURI()));
+		assertFalse(indexer.isSubclassOf(person.getURI(), athlete.getURI()));
+
+		// a class is not its own superclass, even in a cycle
+		int personId = indexer.getClassId(person.getURI());
+		for ( int s = indexer.nextSuperClassId(personId, 0); s >= 0; s = indexer.nextSuperClassId(personId, s + 1) )
+			assertFalse(s == personId);
+	}
+
+	@Test
+	public void testInheritedMappings() {
+
+		// Thing ⊒ Agent ⊒ Person ⊒ Athlete ⊒ SoccerPlayer and Thing ⊒ Place ⊒ City
+		OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+		OntClass thing = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Thing");
+		OntClass agent = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Agent");
+		OntClass person = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Person");
+		OntClass athlete = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Athlete");
+		OntClass soccerPlayer = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "SoccerPlayer");
+		OntClass place = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Place");
+		OntClass city = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "City");
+		agent.addSuperClass(thing);
+		person.addSuperClass(agent);
+		athlete.addSuperClass(person);
+		soccerPlayer.addSuperClass(athlete);
+		place.addSuperClass(thing);
+		city.addSuperClass(place);
+
+		ClassIndexer indexer = new ClassIndexer();
+		indexer.index(model);
+
+		Map<String,String> mappings = new HashMap<String,String>();
+		mappings.put(agent.getURI(), "ORGANIZATION");
+		mappings.put(person.getURI(), "PERSON");
+		mappings.put(city.getURI(), "PLACE");
+		Map<String,String> inheritedMappings = indexer.getInheritedMappings(mappings);
+
+		// the nearest mapped superclass wins, mapped classes and classes without a mapped superclass are left out
+		assertEquals(2, inheritedMappings.size());
+		assertEquals("PERSON", inheritedMappings.get(athlete.getURI()));
+		assertEquals("PERSON", inheritedMappings.get(soccerPlayer.getURI()));
+		assertEquals(3, mappings.size());
+	}
+
+	@Test
+	public void testLabelFallback() {
+
+		OntModel model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+		OntClass city = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "City");
+		city.addLabel("city", "en");
+		city.addLabel("Stadt", "de");
+		OntClass town = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Town");
+		town.addLabel("town", null);
+		OntClass village = model.createClass(Constants.DBPEDIA_ONTOLOGY_PREFIX + "Village");
+		village.addLabel("Dorf", "de");
+
+		ClassIndexer indexer = new ClassIndexer();
+		indexer.index(model);
+		int cityId = indexer.getClassId(city.getURI());
+		int townId = indexer.getClassId(town.getURI());
+		int villageId = indexer.getClassId(village.getURI());
+
+		// exact tag, primary subtag and case insensitive tags
+		assertEquals("city", indexer.getLabel(cityId, "en"));
+		assertEquals("city", indexer.getLabel(cityId, "en-US"));
+		assertEquals("Stadt", indexer.getLabel(cityId, "DE-at"));
+
+		// labels without a tag are used for every language
+		assertEquals("town", indexer.getLabel(townId, "en"));
+		assertEquals("town", indexer.getLabel(townId, "en-GB"));
+		assertEquals("town", indexer.getLabel(townId, null));
+
+		assertNull(indexer.getLabel(villageId, "en"));
+		assertNull(indexer.getLabel(cityId, null));
+	}
+}
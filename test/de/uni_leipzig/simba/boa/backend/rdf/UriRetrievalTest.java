@@ -1,16 +1,26 @@
 package de.uni_leipzig.simba.boa.backend.rdf;
 
 import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
 import junit.framework.JUnit4TestAdapter;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
 import de.uni_leipzig.simba.boa.backend.logging.NLPediaLogger;
 import de.uni_leipzig.simba.boa.backend.rdf.uri.UriRetrieval;
 import de.uni_leipzig.simba.boa.backend.rdf.uri.impl.MeshupUriRetrieval;
+import de.uni_leipzig.simba.boa.backend.rdf.uri.impl.SurfaceFormUriRetrieval;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
 
 public class UriRetrievalTest {
 
@@ -19,6 +29,9 @@ public class UriRetrievalTest {
 	NLPediaSetup setup = null;
 	NLPediaLogger logger = null;
 	
+	@Rule
+	public TemporaryFolder directory = new TemporaryFolder();
+	
 	public static junit.framework.Test suite() {
 		
 		return new JUnit4TestAdapter(UriRetrievalTest.class);
@@ -47,4 +60,33 @@ public class UriRetrievalTest {
 		assertEquals("http://dbpedia.org/resource/Islamic_Republic_of_Afghanistan", uriRetrieval.getUri("Islamic Republic of Afghanistan"));
 		assertEquals("http://boa.aksw.org/resource/This_will_not_be_in_wikipedia", uriRetrieval.getUri("This will not be in wikipedia"));
 	}
+	
+	@Test
+	public void testSurfaceFormUriRetrieval() throws IOException {
+		
+		File dictionaryFile = new File(this.directory.getRoot(), "en_surface_forms.dict");
+		new SurfaceFormDictionary.Builder()
+			.add("http://dbpedia.org/resource/Leipzig", "Leipzig")
+			.add("http://dbpedia.org/resource/Leipzig_(district)", "Leipzig")
+			.add("http://dbpedia.org/resource/The_Beatles", "The Beatles")
+			.add("http://dbpedia.org/resource/The_Beatles", "Beatles")
+			.add("http://dbpedia.org/resource/United_States", "U.S.")
+			.write(dictionaryFile.getAbsolutePath());
+		
+		SurfaceFormUriRetrieval uriRetrieval = new SurfaceFormUriRetrieval(SurfaceFormDictionary.open(dictionaryFile.getAbsolutePath()));
+		
+		// exact, normalized and unknown labels
+		assertEquals("http://dbpedia.org/resource/Leipzig", uriRetrieval.getUri("Leipzig"));
+		assertEquals("http://dbpedia.org/resource/The_Beatles", uriRetrieval.getUri("the ``Beatles''"));
+		assertEquals("http://dbpedia.org/resource/United_States", uriRetrieval.getUri("u. s."));
+		assertEquals("http://boa.aksw.org/resource/This_will_not_be_in_wikipedia", uriRetrieval.getUri("This will not be in wikipedia"));
+		assertEquals(Arrays.asList("http://dbpedia.org/resource/Leipzig", "http://dbpedia.org/resource/Leipzig_(district)"), uriRetrieval.getUriCandidates("LEIPZIG"));
+		
+		// the batch resolves the labels like single lookups
+		Map<String,String> uris = uriRetrieval.getUris(Arrays.asList("Beatles", "Leipzig", "Beatles", "Dresden", "the beatles"));
+		assertEquals(Arrays.asList("Beatles", "Leipzig", "Dresden", "the beatles"), Arrays.asList(uris.keySet().toArray()));
+		for ( Map.Entry<String,String> uri : uris.entrySet() ) assertEquals(uriRetrieval.getUri(uri.getKey()), uri.getValue());
+		assertEquals("http://dbpedia.org/resource/The_Beatles", uris.get("Beatles"));
+		assertEquals("http://boa.aksw.org/resource/Dresden", uris.get("Dresden"));
+	}
 }
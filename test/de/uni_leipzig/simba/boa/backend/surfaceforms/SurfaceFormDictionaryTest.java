@@ -0,0 +1,140 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.surfaceforms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+import de.uni_leipzig.simba.boa.backend.search.surfaceforms.SurfaceFormDictionary;
+
+
+/**
+ * Creates surface form dictionaries in a temporary directory.
+ *
+ * @author gerb
+ */
+public class SurfaceFormDictionaryTest {
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(SurfaceFormDictionaryTest.class);
+    }
+
+    @Before
+    public void setUp() {
+
+        this.setup = new NLPediaSetup(true);
+    }
+
+    @After
+    public void cleanUpStreams() {
+
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testDictionaryFromFile() throws IOException {
+
+        File surfaceForms = new File(this.directory.getRoot(), "en_surface_forms.tsv");
+        FileUtils.writeStringToFile(surfaceForms,
+                "# comment\n" +
+                "http://dbpedia.org/resource/Berlin\tBerlin\tBerlin, Germany\n" +
+                "http://dbpedia.org/resource/Leipzig\tLeipzig\tLipsk\tLeipzig\n" +
+                "http://dbpedia.org/resource/Empty\n" +
+                "\n" +
+                "http://dbpedia.org/resource/München\tMünchen\tMunich\n", "UTF-8");
+
+        SurfaceFormDictionary dictionary = SurfaceFormDictionary.openOrCreate(surfaceForms.getAbsolutePath());
+        assertTrue(new File(this.directory.getRoot(), "en_surface_forms.dict").exists());
+
+        assertEquals(4, dictionary.size());
+        assertEquals(6, dictionary.getNumberOfSurfaceForms());
+        assertEquals(new HashSet<String>(Arrays.asList("Berlin", "Berlin, Germany")), dictionary.getSurfaceForms("http://dbpedia.org/resource/Berlin"));
+        assertEquals(new HashSet<String>(Arrays.asList("Leipzig", "Lipsk")), dictionary.getSurfaceForms("http://dbpedia.org/resource/Leipzig"));
+        assertEquals(new HashSet<String>(Arrays.asList("München", "Munich")), dictionary.getSurfaceForms("http://dbpedia.org/resource/München"));
+
+        // uris without surface forms are known, unknown uris have no set
+        assertTrue(dictionary.contains("http://dbpedia.org/resource/Empty"));
+        assertTrue(dictionary.getSurfaceForms("http://dbpedia.org/resource/Empty").isEmpty());
+        assertFalse(dictionary.contains("http://dbpedia.org/resource/Dresden"));
+        assertNull(dictionary.getSurfaceForms("http://dbpedia.org/resource/Dresden"));
+        assertNull(dictionary.getSurfaceForms(""));
+
+        // ids are sorted like the uris
+        assertEquals("http://dbpedia.org/resource/Berlin", dictionary.getUri(0));
+        assertEquals("http://dbpedia.org/resource/München", dictionary.getUri(3));
+    }
+
+    @Test
+    public void testBrokenDictionaryIsRebuilt() throws IOException {
+
+        File surfaceForms = new File(this.directory.getRoot(), "en_surface_forms.tsv");
+        FileUtils.writeStringToFile(surfaceForms, "http://dbpedia.org/resource/Berlin\tBerlin\n", "UTF-8");
+
+        // e.g. left behind by a crash, newer than the surface forms but without header
+        File dictionaryFile = new File(this.directory.getRoot(), "en_surface_forms.dict");
+        FileUtils.writeByteArrayToFile(dictionaryFile, new byte[100]);
+        dictionaryFile.setLastModified(surfaceForms.lastModified() + 10000);
+
+        SurfaceFormDictionary dictionary = SurfaceFormDictionary.openOrCreate(surfaceForms.getAbsolutePath());
+        assertEquals(1, dictionary.size());
+        assertEquals(new HashSet<String>(Arrays.asList("Berlin")), dictionary.getSurfaceForms("http://dbpedia.org/resource/Berlin"));
+        assertFalse(new File(this.directory.getRoot(), "en_surface_forms.dict.tmp").exists());
+    }
+
+    @Test
+    public void testBuilder() throws IOException {
+
+        // enough uris for several blocks with long common prefixes
+        Random random = new Random(42);
+        Map<String,Set<String>> expected = new HashMap<String,Set<String>>();
+        SurfaceFormDictionary.Builder builder = new SurfaceFormDictionary.Builder();
+        for ( int i = 0; i < 5000; i++ ) {
+
+            String uri = "http://dbpedia.org/resource/" + Integer.toString(random.nextInt(3000), 36);
+            String surfaceForm = "Label " + random.nextInt(500);
+            if ( !expected.containsKey(uri) ) expected.put(uri, new HashSet<String>());
+            expected.get(uri).add(surfaceForm);
+            builder.add(uri, surfaceForm);
+        }
+        File dictionaryFile = new File(this.directory.getRoot(), "test.dict");
+        builder.write(dictionaryFile.getAbsolutePath());
+
+        SurfaceFormDictionary dictionary = SurfaceFormDictionary.open(dictionaryFile.getAbsolutePath());
+        assertEquals(expected.size(), dictionary.size());
+        for ( Map.Entry<String,Set<String>> entry : expected.entrySet() )
+            assertEquals(entry.getValue(), dictionary.getSurfaceForms(entry.getKey()));
+        for ( int id = 0; id < dictionary.size(); id++ )
+            assertEquals(expected.get(dictionary.getUri(id)), dictionary.getSurfaceForms(id));
+        assertFalse(dictionary.contains("http://dbpedia.org/resource/"));
+        assertFalse(dictionary.contains("http://dbpedia.org/resource/zzzz"));
+    }
+}
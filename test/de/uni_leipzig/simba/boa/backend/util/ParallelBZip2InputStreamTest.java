@@ -0,0 +1,173 @@
+/**
+ *
+ */
+package de.uni_leipzig.simba.boa.backend.util;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import junit.framework.JUnit4TestAdapter;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.tools.bzip2.CBZip2OutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.uni_leipzig.simba.boa.backend.configuration.NLPediaSetup;
+
+
+/**
+ * Compresses random text with CBZip2OutputStream and checks that the
+ * parallel decompression returns the original bytes.
+ *
+ * @author gerb
+ */
+public class ParallelBZip2InputStreamTest {
+
+    // initialize logging and settings
+    NLPediaSetup setup = null;
+
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    public static junit.framework.Test suite() {
+
+        return new JUnit4TestAdapter(ParallelBZip2InputStreamTest.class);
+    }
+
+    @Before
+    public void setUp() {
+
+        this.setup = new NLPediaSetup(true);
+    }
+
+    @After
+    public void cleanUpStreams() {
+
+        this.setup.destroy();
+    }
+
+    @Test
+    public void testSingleBlock() throws IOException {
+
+        byte[] text = createText(1000, 1);
+        File file = this.compress("single.bz2", 9, text);
+
+        assertArrayEquals(text, decompress(file, 4));
+    }
+
+    @Test
+    public void testMultipleBlocks() throws IOException {
+
+        // a block size of 100k splits the text into at least 8 blocks
+        byte[] text = createText(800 * 1024, 2);
+        File file = this.compress("multiple.bz2", 1, text);
+
+        assertArrayEquals(text, decompress(file, 1));
+        assertArrayEquals(text, decompress(file, 3));
+    }
+
+    @Test
+    public void testConcatenatedStreams() throws IOException {
+
+        // like pbzip2, every stream has its own header and crc
+        byte[] first = createText(250 * 1024, 3);
+        byte[] second = createText(10, 4);
+        byte[] third = createText(150 * 1024, 5);
+        File file = this.compress("concatenated.bz2", 1, first, second, third);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(first);
+        expected.write(second);
+        expected.write(third);
+        assertArrayEquals(expected.toByteArray(), decompress(file, 2));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNoBZip2File() throws IOException {
+
+        File file = this.directory.newFile("plain.txt");
+        FileUtils.writeByteArrayToFile(file, createText(100, 6));
+
+        new ParallelBZip2InputStream(file.getAbsolutePath(), 2);
+    }
+
+    /**
+     * Writes every part as a bzip2 stream of its own into the same file.
+     */
+    private File compress(String filename, int blockSize, byte[]... parts) throws IOException {
+
+        File file = this.directory.newFile(filename);
+        OutputStream out = new FileOutputStream(file);
+        for ( byte[] part : parts ) {
+
+            // CBZip2OutputStream doesn't write the "BZ" magic
+            out.write('B');
+            out.write('Z');
+            CBZip2OutputStream bzip2 = new CBZip2OutputStream(new NonClosingOutputStream(out), blockSize);
+            bzip2.write(part);
+            bzip2.close();
+        }
+        out.close();
+
+        return file;
+    }
+
+    private static byte[] decompress(File file, int numberOfThreads) throws IOException {
+
+        InputStream in = new ParallelBZip2InputStream(file.getAbsolutePath(), numberOfThreads);
+        byte[] bytes = IOUtils.toByteArray(in);
+        in.close();
+
+        return bytes;
+    }
+
+    /**
+     * @return words of random letters, which compress like natural text
+     */
+    private static byte[] createText(int length, long seed) {
+
+        Random random = new Random(seed);
+        byte[] text = new byte[length];
+        for ( int i = 0; i < length; i++ )
+            text[i] = (byte) (random.nextInt(6) == 0 ? ' ' : 'a' + random.nextInt(26));
+
+        return text;
+    }
+
+    /**
+     * Keeps the file open when a bzip2 stream is finished.
+     */
+    private static class NonClosingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            this.out.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+
+            this.out.write(bytes, offset, length);
+        }
+    }
+}